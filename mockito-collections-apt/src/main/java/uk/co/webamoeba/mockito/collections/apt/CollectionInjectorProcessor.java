@@ -0,0 +1,101 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjector;
+
+/**
+ * Annotation processor that generates a {@link GeneratedCollectionInjector} for each test class that has
+ * {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks}, {@link org.mockito.Mock} or
+ * {@link org.mockito.InjectMocks} fields, either declared or inherited. The generated class is named after the test
+ * class, for example <code>MyTest$$CollectionInjector</code>, and is used by
+ * {@link uk.co.webamoeba.mockito.collections.MockitoCollections#initialise(Object)} in place of reflection. Invalid
+ * fields, such as a {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} field with no generics,
+ * are reported as compilation errors.
+ * <p>
+ * To use the processor add mockito-collections-apt to the test classpath, javac will discover it automatically.
+ * 
+ * @author James Kennard
+ */
+@SupportedAnnotationTypes("*")
+public class CollectionInjectorProcessor extends AbstractProcessor {
+
+	private final Set<String> processed = new HashSet<String>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		FixtureAnalyser analyser = new FixtureAnalyser(processingEnv.getTypeUtils(),
+				processingEnv.getElementUtils(), processingEnv.getMessager());
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+			process(type, analyser);
+		}
+		// Never claim the annotations, other processors may be interested in them
+		return false;
+	}
+
+	private void process(TypeElement type, FixtureAnalyser analyser) {
+		for (TypeElement memberType : ElementFilter.typesIn(type.getEnclosedElements())) {
+			process(memberType, analyser);
+		}
+		if (type.getKind() != ElementKind.CLASS || !processed.add(type.getQualifiedName().toString())
+				|| !analyser.isFixture(type)) {
+			return;
+		}
+		Fixture fixture = analyser.analyse(type);
+		if (fixture == null || !isInstantiable(type)) {
+			return;
+		}
+		CollectionInjectorWriter collectionInjectorWriter = new CollectionInjectorWriter(processingEnv.getTypeUtils(),
+				processingEnv.getElementUtils(), fixture);
+		if (!collectionInjectorWriter.canWrite()) {
+			processingEnv.getMessager().printMessage(Kind.NOTE,
+					"Not generating a collection injector, " + type + " refers to types that are not accessible", type);
+			return;
+		}
+		try {
+			JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(
+					collectionInjectorWriter.getQualifiedName(), type);
+			Writer writer = sourceFile.openWriter();
+			try {
+				collectionInjectorWriter.write(writer);
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"Could not generate collection injector for " + type + ": " + e.getMessage(), type);
+		}
+	}
+
+	/**
+	 * Only concrete top level and member classes can be the runtime {@link Class} of a test that the generated code
+	 * can refer to.
+	 * 
+	 * @param type
+	 * @return <code>true</code> if the type could be the runtime {@link Class} of a test
+	 */
+	private boolean isInstantiable(TypeElement type) {
+		return !type.getModifiers().contains(Modifier.ABSTRACT)
+				&& (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getNestingKind() == NestingKind.MEMBER);
+	}
+}
@@ -0,0 +1,300 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.inject.CollectionOfMocksSettings;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjector;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjectorSupport;
+import uk.co.webamoeba.mockito.collections.util.FieldAccessor;
+
+/**
+ * Writes the source of the {@link GeneratedCollectionInjector} for a {@link Fixture}. Fields are accessed directly
+ * where the Java language allows it, otherwise they are accessed using a {@link FieldAccessor} that is created once,
+ * when the generated class is initialised. The {@link CollectionOfMocksSettings} of each field are also created once.
+ * 
+ * @author James Kennard
+ */
+public class CollectionInjectorWriter {
+
+	private static final String INDENT = "\t";
+
+	private final Types types;
+
+	private final Elements elements;
+
+	private final Fixture fixture;
+
+	private final PackageElement packageElement;
+
+	private final Map<VariableElement, String> fieldAccessors = new IdentityHashMap<VariableElement, String>();
+
+	private final List<String> settingsDeclarations = new ArrayList<String>();
+
+	private final List<String> fieldAccessorDeclarations = new ArrayList<String>();
+
+	public CollectionInjectorWriter(Types types, Elements elements, Fixture fixture) {
+		this.types = types;
+		this.elements = elements;
+		this.fixture = fixture;
+		this.packageElement = elements.getPackageOf(fixture.getTestType());
+	}
+
+	/**
+	 * @return The simple name of the generated class, this is the binary name of the test class without the package
+	 *         and with the {@link GeneratedCollectionInjector#SUFFIX}
+	 */
+	public String getSimpleName() {
+		String binaryName = elements.getBinaryName(fixture.getTestType()).toString();
+		String packageName = packageElement.getQualifiedName().toString();
+		String simpleName = packageName.length() == 0 ? binaryName : binaryName.substring(packageName.length() + 1);
+		return simpleName + GeneratedCollectionInjector.SUFFIX;
+	}
+
+	/**
+	 * @return The qualified name of the generated class
+	 */
+	public String getQualifiedName() {
+		String packageName = packageElement.getQualifiedName().toString();
+		return packageName.length() == 0 ? getSimpleName() : packageName + "." + getSimpleName();
+	}
+
+	/**
+	 * @return <code>true</code> if all of the types the generated code refers to are accessible from the package of
+	 *         the test class
+	 */
+	public boolean canWrite() {
+		if (!isAccessible(fixture.getTestType().asType())) {
+			return false;
+		}
+		for (FixtureCollectionOfMocks collectionOfMocks : fixture.getCollectionsOfMocks()) {
+			if (!isAccessible(collectionOfMocks.getTypeOfCollection())
+					|| !isAccessible(collectionOfMocks.getTypeOfElements())) {
+				return false;
+			}
+		}
+		for (FixtureInjectMocks injectMocks : fixture.getInjectMocks()) {
+			if (!isAccessible(injectMocks.getType())) {
+				return false;
+			}
+			for (FixtureInjectionPoint injectionPoint : injectMocks.getInjectionPoints()) {
+				if ((!injectionPoint.isArray() && !isAccessible(injectionPoint.getTypeOfCollection()))
+						|| !isAccessible(injectionPoint.getTypeOfElements())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	public void write(Writer writer) throws IOException {
+		String testType = getTypeName(fixture.getTestType().asType());
+		List<String> canInitialise = new ArrayList<String>();
+		List<String> initialise = new ArrayList<String>();
+
+		canInitialise.add(testType + " test = (" + testType + ") object;");
+		for (int i = 0; i < fixture.getInjectMocks().size(); i++) {
+			FixtureInjectMocks injectMocks = fixture.getInjectMocks().get(i);
+			canInitialise.add("Object target" + i + " = " + read(injectMocks.getField(), "test", testType) + ";");
+			canInitialise.add("if (target" + i + " != null && target" + i + ".getClass() != "
+					+ getClassLiteral(injectMocks.getType()) + ") {");
+			canInitialise.add(INDENT + "return false;");
+			canInitialise.add("}");
+		}
+		canInitialise.add("return true;");
+
+		initialise.add(testType + " test = (" + testType + ") object;");
+		for (int i = 0; i < fixture.getCollectionsOfMocks().size(); i++) {
+			FixtureCollectionOfMocks collectionOfMocks = fixture.getCollectionsOfMocks().get(i);
+			settingsDeclarations.add("private static final " + CollectionOfMocksSettings.class.getSimpleName()
+					+ " SETTINGS_" + i + " = new " + CollectionOfMocksSettings.class.getSimpleName() + "("
+					+ collectionOfMocks.getNumberOfMocks() + ", " + MockType.class.getName() + "."
+					+ collectionOfMocks.getMockType().name() + ", " + collectionOfMocks.getRetainedInvocations() + ", "
+					+ collectionOfMocks.isLazy() + ");");
+			initialise.add("Collection<Object> collectionOfMocks" + i + " = support.createCollectionOfMocks("
+					+ getClassLiteral(collectionOfMocks.getTypeOfCollection()) + ", "
+					+ getClassLiteral(collectionOfMocks.getTypeOfElements()) + ", SETTINGS_" + i + ");");
+			initialise.add(write(collectionOfMocks.getField(), "test", testType, "collectionOfMocks" + i) + ";");
+		}
+		for (int i = 0; i < fixture.getInjectMocks().size(); i++) {
+			FixtureInjectMocks injectMocks = fixture.getInjectMocks().get(i);
+			initialise.add("Object target" + i + " = support.getRequiredValue("
+					+ read(injectMocks.getField(), "test", testType) + ", \"" + injectMocks.getField().getSimpleName()
+					+ "\");");
+		}
+		for (int i = 0; i < fixture.getMocks().size(); i++) {
+			FixtureMock mock = fixture.getMocks().get(i);
+			initialise.add("Object mock" + i + " = support.getRequiredValue(" + read(mock.getField(), "test", testType)
+					+ ", \"" + mock.getField().getSimpleName() + "\");");
+		}
+		for (int i = 0; i < fixture.getInjectMocks().size(); i++) {
+			FixtureInjectMocks injectMocks = fixture.getInjectMocks().get(i);
+			String targetType = getTypeName(injectMocks.getType());
+			for (int j = 0; j < injectMocks.getInjectionPoints().size(); j++) {
+				FixtureInjectionPoint injectionPoint = injectMocks.getInjectionPoints().get(j);
+				String value = "value" + i + "_" + j;
+				initialise.add("Object " + value + " = " + create(injectionPoint) + ";");
+				initialise.add("if (" + value + " != null) {");
+				initialise.add(INDENT + write(injectionPoint.getField(), "target" + i, targetType, value) + ";");
+				initialise.add("}");
+			}
+		}
+
+		String packageName = packageElement.getQualifiedName().toString();
+		if (packageName.length() > 0) {
+			writer.write("package " + packageName + ";\n\n");
+		}
+		writer.write("import java.util.Collection;\n\n");
+		writer.write("import " + CollectionOfMocksSettings.class.getName() + ";\n");
+		writer.write("import " + GeneratedCollectionInjector.class.getName() + ";\n");
+		writer.write("import " + GeneratedCollectionInjectorSupport.class.getName() + ";\n");
+		writer.write("import " + FieldAccessor.class.getName() + ";\n\n");
+		writer.write("/**\n");
+		writer.write(" * Generated by mockito-collections-apt from {@link " + testType + "}, do not edit.\n");
+		writer.write(" */\n");
+		writer.write("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })\n");
+		writer.write("public final class " + getSimpleName() + " implements "
+				+ GeneratedCollectionInjector.class.getSimpleName() + " {\n\n");
+		for (String settingsDeclaration : settingsDeclarations) {
+			writer.write(INDENT + settingsDeclaration + "\n\n");
+		}
+		for (String fieldAccessorDeclaration : fieldAccessorDeclarations) {
+			writer.write(INDENT + fieldAccessorDeclaration + "\n\n");
+		}
+		writer.write(INDENT + "public boolean canInitialise(Object object) {\n");
+		writeStatements(writer, canInitialise);
+		writer.write(INDENT + "}\n\n");
+		writer.write(INDENT + "public void initialise(Object object, "
+				+ GeneratedCollectionInjectorSupport.class.getSimpleName() + " support) {\n");
+		writeStatements(writer, initialise);
+		writer.write(INDENT + "}\n");
+		writer.write("}\n");
+	}
+
+	private void writeStatements(Writer writer, List<String> statements) throws IOException {
+		for (String statement : statements) {
+			writer.write(INDENT + INDENT + statement + "\n");
+		}
+	}
+
+	private String create(FixtureInjectionPoint injectionPoint) {
+		if (injectionPoint.isArray()) {
+			return "support.createArray(" + getClassLiteral(injectionPoint.getTypeOfElements()) + ", "
+					+ getMocks(injectionPoint) + ")";
+		}
+		String typeOfCollection = getClassLiteral(injectionPoint.getTypeOfCollection());
+		FixtureCollectionOfMocks collectionOfMocks = injectionPoint.getCollectionOfMocks();
+		if (collectionOfMocks != null) {
+			return "support.copyCollectionOfMocks(" + typeOfCollection + ", collectionOfMocks"
+					+ fixture.getCollectionsOfMocks().indexOf(collectionOfMocks) + ")";
+		}
+		return "support.createCollection(" + typeOfCollection + ", " + getMocks(injectionPoint) + ")";
+	}
+
+	private String getMocks(FixtureInjectionPoint injectionPoint) {
+		StringBuilder mocks = new StringBuilder("new Object[] {");
+		for (int i = 0; i < injectionPoint.getMocks().size(); i++) {
+			mocks.append(i == 0 ? " " : ", ");
+			mocks.append("mock").append(fixture.getMocks().indexOf(injectionPoint.getMocks().get(i)));
+		}
+		return mocks.append(" }").toString();
+	}
+
+	private String read(VariableElement field, String owner, String ownerType) {
+		if (isDirectlyAccessible(field, false)) {
+			return "((" + getTypeName(field.getEnclosingElement().asType()) + ") " + owner + ")." + field.getSimpleName();
+		}
+		return getFieldAccessor(field, ownerType) + ".read(" + owner + ")";
+	}
+
+	private String write(VariableElement field, String owner, String ownerType, String value) {
+		if (isDirectlyAccessible(field, true)) {
+			return "((" + getTypeName(field.getEnclosingElement().asType()) + ") " + owner + ")." + field.getSimpleName()
+					+ " = (" + getTypeName(field.asType()) + ") " + value;
+		}
+		return getFieldAccessor(field, ownerType) + ".write(" + owner + ", " + value + ")";
+	}
+
+	private String getFieldAccessor(VariableElement field, String ownerType) {
+		String name = fieldAccessors.get(field);
+		if (name == null) {
+			name = "FIELD_" + fieldAccessors.size();
+			fieldAccessors.put(field, name);
+			TypeMirror declaringType = field.getEnclosingElement().asType();
+			String arguments;
+			if (isAccessible(declaringType)) {
+				arguments = getClassLiteral(declaringType) + ", \"" + field.getSimpleName() + "\"";
+			} else {
+				arguments = ownerType + ".class, \""
+						+ elements.getBinaryName((TypeElement) field.getEnclosingElement()) + "\", \""
+						+ field.getSimpleName() + "\"";
+			}
+			fieldAccessorDeclarations.add("private static final " + FieldAccessor.class.getSimpleName() + " " + name
+					+ " = " + GeneratedCollectionInjectorSupport.class.getSimpleName() + ".getFieldAccessor("
+					+ arguments + ");");
+		}
+		return name;
+	}
+
+	private boolean isDirectlyAccessible(VariableElement field, boolean write) {
+		if (field.getModifiers().contains(Modifier.PRIVATE) || (write && field.getModifiers().contains(Modifier.FINAL))
+				|| field.getModifiers().contains(Modifier.STATIC)) {
+			return false;
+		}
+		if (!isAccessible(field.getEnclosingElement().asType()) || !isAccessible(field.asType())) {
+			return false;
+		}
+		return field.getModifiers().contains(Modifier.PUBLIC)
+				|| elements.getPackageOf(field).equals(packageElement);
+	}
+
+	private boolean isAccessible(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return true;
+		} else if (type.getKind() == TypeKind.ARRAY) {
+			return isAccessible(((ArrayType) type).getComponentType());
+		} else if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		Element element = types.asElement(type);
+		while (element instanceof TypeElement) {
+			TypeElement typeElement = (TypeElement) element;
+			if (typeElement.getNestingKind() == NestingKind.LOCAL
+					|| typeElement.getNestingKind() == NestingKind.ANONYMOUS
+					|| typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (!typeElement.getModifiers().contains(Modifier.PUBLIC)
+					&& !elements.getPackageOf(typeElement).equals(packageElement)) {
+				return false;
+			}
+			element = typeElement.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private String getClassLiteral(TypeMirror type) {
+		return getTypeName(type) + ".class";
+	}
+
+	private String getTypeName(TypeMirror type) {
+		return types.erasure(type).toString();
+	}
+}
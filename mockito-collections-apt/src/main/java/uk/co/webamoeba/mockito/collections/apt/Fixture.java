@@ -0,0 +1,50 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Compile time description of a test class, this is the compile time equivalent of an
+ * {@link uk.co.webamoeba.mockito.collections.inject.InjectionPlan} with the mocks already matched to the
+ * {@link java.util.Collection Collections} they will be injected into.
+ * 
+ * @author James Kennard
+ */
+public class Fixture {
+
+	private final TypeElement testType;
+
+	private final List<FixtureCollectionOfMocks> collectionsOfMocks;
+
+	private final List<FixtureMock> mocks;
+
+	private final List<FixtureInjectMocks> injectMocks;
+
+	public Fixture(TypeElement testType, List<FixtureCollectionOfMocks> collectionsOfMocks, List<FixtureMock> mocks,
+			List<FixtureInjectMocks> injectMocks) {
+		this.testType = testType;
+		this.collectionsOfMocks = Collections.unmodifiableList(new ArrayList<FixtureCollectionOfMocks>(
+				collectionsOfMocks));
+		this.mocks = Collections.unmodifiableList(new ArrayList<FixtureMock>(mocks));
+		this.injectMocks = Collections.unmodifiableList(new ArrayList<FixtureInjectMocks>(injectMocks));
+	}
+
+	public TypeElement getTestType() {
+		return testType;
+	}
+
+	public List<FixtureCollectionOfMocks> getCollectionsOfMocks() {
+		return collectionsOfMocks;
+	}
+
+	public List<FixtureMock> getMocks() {
+		return mocks;
+	}
+
+	public List<FixtureInjectMocks> getInjectMocks() {
+		return injectMocks;
+	}
+}
@@ -0,0 +1,370 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.IgnoreForCollections;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+
+/**
+ * Creates {@link Fixture Fixtures}, this is the compile time equivalent of the
+ * {@link uk.co.webamoeba.mockito.collections.inject.InjectionPlanFactory}, the
+ * {@link uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver} and the
+ * {@link uk.co.webamoeba.mockito.collections.inject.DefaultMockSelectionStrategy}. Fields that would cause
+ * initialisation to fail at runtime are reported as errors.
+ * 
+ * @author James Kennard
+ */
+public class FixtureAnalyser {
+
+	/**
+	 * Returned in place of a {@link FixtureInjectionPoint} when an error has been reported.
+	 */
+	private static final FixtureInjectionPoint INVALID = new FixtureInjectionPoint(null, null, null, null,
+			Collections.<FixtureMock> emptyList());
+
+	private final Types types;
+
+	private final Messager messager;
+
+	private final TypeMirror collectionType;
+
+	private final TypeMirror objectType;
+
+	public FixtureAnalyser(Types types, Elements elements, Messager messager) {
+		this.types = types;
+		this.messager = messager;
+		this.collectionType = types.erasure(elements.getTypeElement(Collection.class.getName()).asType());
+		this.objectType = elements.getTypeElement(Object.class.getName()).asType();
+	}
+
+	/**
+	 * @param type
+	 * @return <code>true</code> if the type, or any of its superclasses, has any {@link CollectionOfMocks},
+	 *         {@link Mock} or {@link InjectMocks} fields
+	 */
+	public boolean isFixture(TypeElement type) {
+		for (VariableElement field : getFields(type)) {
+			if (field.getAnnotation(CollectionOfMocks.class) != null || field.getAnnotation(Mock.class) != null
+					|| field.getAnnotation(InjectMocks.class) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Creates a {@link Fixture} for the test type. Problems with fields declared by the test type are reported as
+	 * errors, problems with inherited fields are assumed to have been reported when the superclass was compiled.
+	 * 
+	 * @param testType
+	 * @return A new {@link Fixture}, or <code>null</code> if the test type cannot be initialised
+	 */
+	public Fixture analyse(TypeElement testType) {
+		boolean valid = true;
+		List<FixtureCollectionOfMocks> collectionsOfMocks = new ArrayList<FixtureCollectionOfMocks>();
+		List<FixtureMock> mocks = new ArrayList<FixtureMock>();
+		List<VariableElement> injectMocksFields = new ArrayList<VariableElement>();
+		for (VariableElement field : getSortedFields(testType)) {
+			if (field.getAnnotation(CollectionOfMocks.class) != null) {
+				FixtureCollectionOfMocks collectionOfMocks = createCollectionOfMocks(field,
+						field.getEnclosingElement().equals(testType));
+				if (collectionOfMocks == null) {
+					valid = false;
+				} else {
+					collectionsOfMocks.add(collectionOfMocks);
+				}
+			}
+			if (field.getAnnotation(Mock.class) != null && field.getAnnotation(IgnoreForCollections.class) == null) {
+				mocks.add(new FixtureMock(field, getMockTypes(field)));
+			}
+			if (field.getAnnotation(InjectMocks.class) != null) {
+				injectMocksFields.add(field);
+			}
+		}
+		if (!valid) {
+			return null;
+		}
+
+		List<FixtureInjectMocks> injectMocks = new ArrayList<FixtureInjectMocks>();
+		for (VariableElement field : injectMocksFields) {
+			TypeMirror type = types.erasure(field.asType());
+			if (type.getKind() != TypeKind.DECLARED) {
+				continue;
+			}
+			List<FixtureInjectionPoint> injectionPoints = new ArrayList<FixtureInjectionPoint>();
+			for (VariableElement targetField : getFields((TypeElement) types.asElement(type))) {
+				FixtureInjectionPoint injectionPoint = createInjectionPoint(testType, targetField, collectionsOfMocks,
+						mocks);
+				if (injectionPoint == INVALID) {
+					valid = false;
+				} else if (injectionPoint != null) {
+					injectionPoints.add(injectionPoint);
+				}
+			}
+			injectMocks.add(new FixtureInjectMocks(field, type, injectionPoints));
+		}
+		return valid ? new Fixture(testType, collectionsOfMocks, mocks, injectMocks) : null;
+	}
+
+	private FixtureInjectionPoint createInjectionPoint(TypeElement testType, VariableElement field,
+			List<FixtureCollectionOfMocks> collectionsOfMocks, List<FixtureMock> mocks) {
+		TypeMirror type = field.asType();
+		if (type.getKind() == TypeKind.ARRAY) {
+			TypeMirror componentType = ((ArrayType) type).getComponentType();
+			// A primitive component type can never be satisfied by a mock
+			if (componentType.getKind().isPrimitive()) {
+				return null;
+			}
+			TypeMirror typeOfElements = types.erasure(componentType);
+			return new FixtureInjectionPoint(field, null, typeOfElements, null, selectMocks(mocks, typeOfElements));
+		}
+		if (!isCollection(type) || ((DeclaredType) type).getTypeArguments().isEmpty()) {
+			return null;
+		}
+		TypeMirror typeOfElements = getCollectionFieldType(type);
+		if (typeOfElements == null) {
+			return null;
+		}
+		TypeMirror typeOfCollection = types.erasure(type);
+		FixtureCollectionOfMocks collectionOfMocks = null;
+		for (FixtureCollectionOfMocks candidate : collectionsOfMocks) {
+			if (types.isSameType(candidate.getTypeOfCollection(), typeOfCollection)
+					&& types.isSameType(candidate.getTypeOfElements(), typeOfElements)) {
+				if (collectionOfMocks != null) {
+					messager.printMessage(Kind.ERROR, "There is more than one CollectionOfMocksField of type of collection "
+							+ typeOfCollection + " and type of element " + typeOfElements
+							+ ". There may be other offending duplicates.", testType);
+					return INVALID;
+				}
+				collectionOfMocks = candidate;
+			}
+		}
+		List<FixtureMock> selectedMocks = collectionOfMocks == null ? selectMocks(mocks, typeOfElements) : Collections
+				.<FixtureMock> emptyList();
+		return new FixtureInjectionPoint(field, typeOfCollection, typeOfElements, collectionOfMocks, selectedMocks);
+	}
+
+	private List<FixtureMock> selectMocks(List<FixtureMock> mocks, TypeMirror typeOfElements) {
+		List<FixtureMock> selectedMocks = new ArrayList<FixtureMock>();
+		for (FixtureMock mock : mocks) {
+			for (TypeMirror mockType : mock.getTypes()) {
+				if (types.isAssignable(mockType, typeOfElements)) {
+					selectedMocks.add(mock);
+					break;
+				}
+			}
+		}
+		return selectedMocks;
+	}
+
+	private FixtureCollectionOfMocks createCollectionOfMocks(VariableElement field, boolean report) {
+		TypeMirror type = field.asType();
+		String annotationName = CollectionOfMocks.class.getSimpleName();
+		if (!isCollection(type)) {
+			return error("A field annotated with " + annotationName + " must be a Collection, but found " + type,
+					field, report);
+		}
+		TypeMirror typeOfElements = ((DeclaredType) type).getTypeArguments().isEmpty() ? null
+				: getCollectionFieldType(type);
+		if (typeOfElements == null) {
+			return error("A field annotated with " + annotationName
+					+ " must be a Collection with Generics, but found no generics for Collection field "
+					+ field.getSimpleName(), field, report);
+		}
+		CollectionOfMocks annotation = field.getAnnotation(CollectionOfMocks.class);
+		int numberOfMocks = annotation.numberOfMocks();
+		if (numberOfMocks < 0) {
+			return error("Unexpected numberOfMocks, the minimum number of mocks you can specify using "
+					+ annotationName + " is zero.", field, report);
+		}
+		Element collectionElement = types.asElement(type);
+		if (collectionElement.getKind() != ElementKind.INTERFACE) {
+			String reason = collectionElement.getModifiers().contains(Modifier.ABSTRACT) ? "the type is abstract"
+					: "do not know how to instantiate";
+			return error("Could not create collection of type " + types.erasure(type) + ", " + reason, field, report);
+		}
+		String collectionName = ((TypeElement) collectionElement).getQualifiedName().toString();
+		if (annotation.lazy() && !collectionName.equals(List.class.getName())
+				&& !collectionName.equals(Collection.class.getName())) {
+			return error("Could not create lazy collection of type " + types.erasure(type)
+					+ ", only List and Collection can be lazy", field, report);
+		}
+		MockType mockType = annotation.mockType();
+		if (annotation.retainedInvocations() >= 0
+				&& (mockType == MockType.CONCURRENT || mockType == MockType.METHOD_INDEXED)) {
+			return error("Could not create the collection of mocks for field " + field.getSimpleName()
+					+ ", retainedInvocations cannot be used with " + MockType.class.getSimpleName() + "." + mockType
+					+ ", these mocks record their invocations in their own store", field, report);
+		}
+		return new FixtureCollectionOfMocks(field, types.erasure(type), typeOfElements, numberOfMocks,
+				annotation.mockType(), annotation.retainedInvocations(), annotation.lazy());
+	}
+
+	private FixtureCollectionOfMocks error(String message, VariableElement field, boolean report) {
+		if (report) {
+			messager.printMessage(Kind.ERROR, message, field);
+		}
+		return null;
+	}
+
+	private List<TypeMirror> getMockTypes(VariableElement field) {
+		List<TypeMirror> mockTypes = new ArrayList<TypeMirror>();
+		mockTypes.add(types.erasure(field.asType()));
+		for (AnnotationMirror annotationMirror : field.getAnnotationMirrors()) {
+			if (!((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(
+					Mock.class.getName())) {
+				continue;
+			}
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotationMirror
+					.getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals("extraInterfaces")) {
+					for (Object value : (List<?>) entry.getValue().getValue()) {
+						mockTypes.add(types.erasure((TypeMirror) ((AnnotationValue) value).getValue()));
+					}
+				}
+			}
+		}
+		return mockTypes;
+	}
+
+	private boolean isCollection(TypeMirror type) {
+		return type.getKind() == TypeKind.DECLARED && types.isAssignable(types.erasure(type), collectionType);
+	}
+
+	/**
+	 * Equivalent of {@link uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver}, resolves the type
+	 * of the elements of the {@link Collection} using the type arguments of the {@link Collection} supertype.
+	 * 
+	 * @param type
+	 *            A {@link Collection} type
+	 * @return The erasure of the type of the elements, or <code>null</code> if it cannot be resolved to a class or an
+	 *         array
+	 */
+	private TypeMirror getCollectionFieldType(TypeMirror type) {
+		DeclaredType collectionSupertype = findCollectionSupertype(type);
+		if (collectionSupertype == null || collectionSupertype.getTypeArguments().isEmpty()) {
+			return null;
+		}
+		TypeMirror typeArgument = collectionSupertype.getTypeArguments().get(0);
+		if (typeArgument.getKind() == TypeKind.WILDCARD) {
+			WildcardType wildcardType = (WildcardType) typeArgument;
+			if (wildcardType.getExtendsBound() != null
+					&& !types.isSameType(wildcardType.getExtendsBound(), objectType)) {
+				typeArgument = wildcardType.getExtendsBound();
+			} else if (wildcardType.getSuperBound() != null
+					&& !types.isSameType(wildcardType.getSuperBound(), objectType)) {
+				typeArgument = wildcardType.getSuperBound();
+			}
+		}
+		if (typeArgument.getKind() == TypeKind.DECLARED && ((DeclaredType) typeArgument).getTypeArguments().isEmpty()) {
+			return types.erasure(typeArgument);
+		} else if (typeArgument.getKind() == TypeKind.ARRAY) {
+			TypeMirror componentType = ((ArrayType) typeArgument).getComponentType();
+			if (componentType.getKind().isPrimitive()
+					|| (componentType.getKind() == TypeKind.DECLARED && ((DeclaredType) componentType)
+							.getTypeArguments().isEmpty())) {
+				return types.erasure(typeArgument);
+			}
+		}
+		return null;
+	}
+
+	private DeclaredType findCollectionSupertype(TypeMirror type) {
+		if (types.isSameType(types.erasure(type), collectionType)) {
+			return (DeclaredType) type;
+		}
+		for (TypeMirror supertype : types.directSupertypes(type)) {
+			if (isCollection(supertype)) {
+				DeclaredType collectionSupertype = findCollectionSupertype(supertype);
+				if (collectionSupertype != null) {
+					return collectionSupertype;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param type
+	 * @return The fields of the type and its superclasses, the fields declared by the type first, see
+	 *         {@link uk.co.webamoeba.mockito.collections.util.ClassFieldIndex#getFields()}
+	 */
+	private List<VariableElement> getFields(TypeElement type) {
+		List<VariableElement> fields = new ArrayList<VariableElement>();
+		for (TypeElement clazz : getHierarchy(type)) {
+			fields.addAll(0, ElementFilter.fieldsIn(clazz.getEnclosedElements()));
+		}
+		return fields;
+	}
+
+	/**
+	 * @param type
+	 * @return The fields of the type and its superclasses, ordered by declaring class and then name the same as the
+	 *         {@link uk.co.webamoeba.mockito.collections.inject.InjectionPlanFactory}
+	 */
+	private List<VariableElement> getSortedFields(TypeElement type) {
+		List<VariableElement> fields = new ArrayList<VariableElement>();
+		for (TypeElement clazz : getHierarchy(type)) {
+			List<VariableElement> declaredFields = ElementFilter.fieldsIn(clazz.getEnclosedElements());
+			Collections.sort(declaredFields, new FieldNameComparator());
+			fields.addAll(declaredFields);
+		}
+		return fields;
+	}
+
+	/**
+	 * @param type
+	 * @return The type and its superclasses, excluding {@link Object}, the topmost superclass first
+	 */
+	private List<TypeElement> getHierarchy(TypeElement type) {
+		LinkedList<TypeElement> hierarchy = new LinkedList<TypeElement>();
+		TypeElement clazz = type;
+		while (clazz != null && !clazz.getQualifiedName().contentEquals(Object.class.getName())) {
+			hierarchy.addFirst(clazz);
+			TypeMirror superclass = clazz.getSuperclass();
+			clazz = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+		}
+		return hierarchy;
+	}
+
+	/**
+	 * A {@link Comparator} that compares fields declared by the same class by their name.
+	 * 
+	 * @author James Kennard
+	 */
+	private class FieldNameComparator implements Comparator<VariableElement> {
+
+		public int compare(VariableElement o1, VariableElement o2) {
+			return o1.getSimpleName().toString().compareToIgnoreCase(o2.getSimpleName().toString());
+		}
+	}
+}
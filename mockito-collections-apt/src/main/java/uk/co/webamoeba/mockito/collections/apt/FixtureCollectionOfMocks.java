@@ -0,0 +1,96 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+
+/**
+ * Describes a {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} field of a {@link Fixture}.
+ * 
+ * @author James Kennard
+ */
+public class FixtureCollectionOfMocks {
+
+	private final VariableElement field;
+
+	private final TypeMirror typeOfCollection;
+
+	private final TypeMirror typeOfElements;
+
+	private final int numberOfMocks;
+
+	private final MockType mockType;
+
+	private final int retainedInvocations;
+
+	private final boolean lazy;
+
+	/**
+	 * @param field
+	 * @param typeOfCollection
+	 *            The erasure of the type of the field
+	 * @param typeOfElements
+	 *            The erasure of the type of the elements in the {@link java.util.Collection}
+	 * @param numberOfMocks
+	 * @param mockType
+	 * @param retainedInvocations
+	 *            The number of invocations retained by each mock, negative retains every invocation
+	 */
+	public FixtureCollectionOfMocks(VariableElement field, TypeMirror typeOfCollection, TypeMirror typeOfElements,
+			int numberOfMocks, MockType mockType, int retainedInvocations) {
+		this(field, typeOfCollection, typeOfElements, numberOfMocks, mockType, retainedInvocations, false);
+	}
+
+	/**
+	 * @param field
+	 * @param typeOfCollection
+	 *            The erasure of the type of the field
+	 * @param typeOfElements
+	 *            The erasure of the type of the elements in the {@link java.util.Collection}
+	 * @param numberOfMocks
+	 * @param mockType
+	 * @param retainedInvocations
+	 *            The number of invocations retained by each mock, negative retains every invocation
+	 * @param lazy
+	 *            <code>true</code> if each mock is created only when it is first accessed
+	 */
+	public FixtureCollectionOfMocks(VariableElement field, TypeMirror typeOfCollection, TypeMirror typeOfElements,
+			int numberOfMocks, MockType mockType, int retainedInvocations, boolean lazy) {
+		this.field = field;
+		this.typeOfCollection = typeOfCollection;
+		this.typeOfElements = typeOfElements;
+		this.numberOfMocks = numberOfMocks;
+		this.mockType = mockType;
+		this.retainedInvocations = retainedInvocations;
+		this.lazy = lazy;
+	}
+
+	public VariableElement getField() {
+		return field;
+	}
+
+	public TypeMirror getTypeOfCollection() {
+		return typeOfCollection;
+	}
+
+	public TypeMirror getTypeOfElements() {
+		return typeOfElements;
+	}
+
+	public int getNumberOfMocks() {
+		return numberOfMocks;
+	}
+
+	public MockType getMockType() {
+		return mockType;
+	}
+
+	public int getRetainedInvocations() {
+		return retainedInvocations;
+	}
+
+	public boolean isLazy() {
+		return lazy;
+	}
+}
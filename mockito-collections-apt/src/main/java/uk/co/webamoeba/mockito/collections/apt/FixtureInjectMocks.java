@@ -0,0 +1,47 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Describes an {@link org.mockito.InjectMocks} field of a {@link Fixture}, and the {@link FixtureInjectionPoint
+ * FixtureInjectionPoints} of its declared type.
+ * 
+ * @author James Kennard
+ */
+public class FixtureInjectMocks {
+
+	private final VariableElement field;
+
+	private final TypeMirror type;
+
+	private final List<FixtureInjectionPoint> injectionPoints;
+
+	/**
+	 * @param field
+	 * @param type
+	 *            The erasure of the type of the field
+	 * @param injectionPoints
+	 */
+	public FixtureInjectMocks(VariableElement field, TypeMirror type, List<FixtureInjectionPoint> injectionPoints) {
+		this.field = field;
+		this.type = type;
+		this.injectionPoints = Collections.unmodifiableList(new ArrayList<FixtureInjectionPoint>(injectionPoints));
+	}
+
+	public VariableElement getField() {
+		return field;
+	}
+
+	public TypeMirror getType() {
+		return type;
+	}
+
+	public List<FixtureInjectionPoint> getInjectionPoints() {
+		return injectionPoints;
+	}
+}
@@ -0,0 +1,72 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Describes a {@link java.util.Collection} or array field, into which mocks will be injected, and the mocks that
+ * will be injected into it. The mocks are either the contents of a {@link FixtureCollectionOfMocks} or the
+ * {@link FixtureMock FixtureMocks} which match the type of elements.
+ * 
+ * @author James Kennard
+ */
+public class FixtureInjectionPoint {
+
+	private final VariableElement field;
+
+	private final TypeMirror typeOfCollection;
+
+	private final TypeMirror typeOfElements;
+
+	private final FixtureCollectionOfMocks collectionOfMocks;
+
+	private final List<FixtureMock> mocks;
+
+	/**
+	 * @param field
+	 * @param typeOfCollection
+	 *            The erasure of the type of the field, <code>null</code> if the field is an array
+	 * @param typeOfElements
+	 *            The erasure of the type of the elements
+	 * @param collectionOfMocks
+	 *            The {@link FixtureCollectionOfMocks} to inject verbatim, may be <code>null</code>
+	 * @param mocks
+	 *            The {@link FixtureMock FixtureMocks} to inject when there is no collectionOfMocks
+	 */
+	public FixtureInjectionPoint(VariableElement field, TypeMirror typeOfCollection, TypeMirror typeOfElements,
+			FixtureCollectionOfMocks collectionOfMocks, List<FixtureMock> mocks) {
+		this.field = field;
+		this.typeOfCollection = typeOfCollection;
+		this.typeOfElements = typeOfElements;
+		this.collectionOfMocks = collectionOfMocks;
+		this.mocks = Collections.unmodifiableList(new ArrayList<FixtureMock>(mocks));
+	}
+
+	public VariableElement getField() {
+		return field;
+	}
+
+	public TypeMirror getTypeOfCollection() {
+		return typeOfCollection;
+	}
+
+	public TypeMirror getTypeOfElements() {
+		return typeOfElements;
+	}
+
+	public FixtureCollectionOfMocks getCollectionOfMocks() {
+		return collectionOfMocks;
+	}
+
+	public List<FixtureMock> getMocks() {
+		return mocks;
+	}
+
+	public boolean isArray() {
+		return typeOfCollection == null;
+	}
+}
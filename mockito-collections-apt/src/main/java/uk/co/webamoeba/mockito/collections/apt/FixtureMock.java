@@ -0,0 +1,41 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Describes a {@link org.mockito.Mock} field of a {@link Fixture}.
+ * 
+ * @author James Kennard
+ */
+public class FixtureMock {
+
+	private final VariableElement field;
+
+	private final List<TypeMirror> types;
+
+	/**
+	 * @param field
+	 * @param types
+	 *            The erasure of the type of the field followed by any extra interfaces
+	 */
+	public FixtureMock(VariableElement field, List<TypeMirror> types) {
+		this.field = field;
+		this.types = Collections.unmodifiableList(new ArrayList<TypeMirror>(types));
+	}
+
+	public VariableElement getField() {
+		return field;
+	}
+
+	/**
+	 * @return The types the mock is known to be an instance of. The returned {@link List} is unmodifiable.
+	 */
+	public List<TypeMirror> getTypes() {
+		return types;
+	}
+}
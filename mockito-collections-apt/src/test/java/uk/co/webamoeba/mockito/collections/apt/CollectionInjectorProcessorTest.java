@@ -0,0 +1,262 @@
+package uk.co.webamoeba.mockito.collections.apt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static uk.co.webamoeba.mockito.collections.internal.RegisteredInvocationsAccessor.getRegisteredInvocations;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EventListener;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.MockitoAnnotations;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjector;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjectorLocator;
+import uk.co.webamoeba.mockito.collections.inject.LazyCollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.internal.BoundedRegisteredInvocations;
+
+/**
+ * @author James Kennard
+ */
+public class CollectionInjectorProcessorTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+
+	@Test
+	public void shouldGenerateCollectionInjector() throws Exception {
+		// Given
+		ClassLoader classLoader = compile("ValidFixture");
+		Class<?> fixtureClass = classLoader.loadClass("fixture.ValidFixture");
+
+		// When
+		GeneratedCollectionInjector injector = new GeneratedCollectionInjectorLocator()
+				.getGeneratedCollectionInjector(fixtureClass);
+
+		// Then
+		assertNotNull(injector);
+		assertEquals("fixture.ValidFixture$$CollectionInjector", injector.getClass().getName());
+	}
+
+	@Test
+	public void shouldInitialiseUsingGeneratedCollectionInjector() throws Exception {
+		// Given
+		ClassLoader classLoader = compile("ValidFixture");
+		Object fixture = classLoader.loadClass("fixture.ValidFixture").newInstance();
+		MockitoAnnotations.initMocks(fixture);
+
+		// When
+		MockitoCollections.initialise(fixture);
+
+		// Then
+		Object objectUnderTest = getFieldValue(fixture, "objectUnderTest");
+		Object listener = getFieldValue(fixture, "listener");
+		Object otherListener = getFieldValue(fixture, "otherListener");
+		Collection<?> runnables = (Collection<?>) getFieldValue(fixture, "runnables");
+		assertEquals(2, runnables.size());
+		assertEquals(Arrays.asList(listener, otherListener), getFieldValue(objectUnderTest, "listeners"));
+		Object[] listenerArray = (Object[]) getFieldValue(objectUnderTest, "listenerArray");
+		assertEquals(EventListener[].class, listenerArray.getClass());
+		assertArrayEquals(new Object[] { listener, otherListener }, listenerArray);
+		assertEquals(runnables, getFieldValue(objectUnderTest, "runnables"));
+	}
+
+	@Test
+	public void shouldInitialiseUsingGeneratedCollectionInjectorGivenProxyMockType() throws Exception {
+		// Given
+		ClassLoader classLoader = compile("ValidFixture");
+		Object fixture = classLoader.loadClass("fixture.ValidFixture").newInstance();
+		MockitoAnnotations.initMocks(fixture);
+
+		// When
+		MockitoCollections.initialise(fixture);
+
+		// Then
+		Collection<?> comparators = (Collection<?>) getFieldValue(fixture, "comparators");
+		assertEquals(3, comparators.size());
+		for (Object comparator : comparators) {
+			assertTrue(Proxy.isProxyClass(comparator.getClass()));
+		}
+	}
+
+	@Test
+	public void shouldInitialiseUsingGeneratedCollectionInjectorGivenRetainedInvocations() throws Exception {
+		// Given
+		ClassLoader classLoader = compile("ValidFixture");
+		Object fixture = classLoader.loadClass("fixture.ValidFixture").newInstance();
+		MockitoAnnotations.initMocks(fixture);
+
+		// When
+		MockitoCollections.initialise(fixture);
+
+		// Then
+		Collection<?> callables = (Collection<?>) getFieldValue(fixture, "callables");
+		assertEquals(2, callables.size());
+		for (Object callable : callables) {
+			assertTrue(getRegisteredInvocations(callable) instanceof BoundedRegisteredInvocations);
+		}
+	}
+
+	@Test
+	public void shouldInitialiseUsingGeneratedCollectionInjectorGivenLazy() throws Exception {
+		// Given
+		ClassLoader classLoader = compile("ValidFixture");
+		Object fixture = classLoader.loadClass("fixture.ValidFixture").newInstance();
+		MockitoAnnotations.initMocks(fixture);
+
+		// When
+		MockitoCollections.initialise(fixture);
+
+		// Then
+		LazyCollectionOfMocks<?> appendables = (LazyCollectionOfMocks<?>) getFieldValue(fixture, "appendables");
+		assertEquals(1000, appendables.size());
+		assertFalse(appendables.isCreated(0));
+	}
+
+	@Test
+	public void shouldNotInitialiseGivenInjectMocksOfSubclass() throws Exception {
+		// Given
+		ClassLoader classLoader = compile("ValidFixture");
+		Class<?> fixtureClass = classLoader.loadClass("fixture.ValidFixture");
+		Object fixture = fixtureClass.newInstance();
+		setFieldValue(fixture, "objectUnderTest", classLoader.loadClass("fixture.ValidFixture$ExtendedListenerHolder")
+				.newInstance());
+		GeneratedCollectionInjector injector = new GeneratedCollectionInjectorLocator()
+				.getGeneratedCollectionInjector(fixtureClass);
+
+		// When
+		boolean canInitialise = injector.canInitialise(fixture);
+
+		// Then
+		assertFalse(canInitialise);
+	}
+
+	@Test
+	public void shouldReportCollectionOfMocksWithoutGenerics() throws Exception {
+		// When
+		boolean success = compileTask("CollectionOfMocksWithoutGenericsFixture").call();
+
+		// Then
+		assertFalse(success);
+		assertTrue(getErrors().contains("must be a Collection with Generics"));
+	}
+
+	@Test
+	public void shouldReportDuplicateCollectionOfMocks() throws Exception {
+		// When
+		boolean success = compileTask("DuplicateCollectionOfMocksFixture").call();
+
+		// Then
+		assertFalse(success);
+		assertTrue(getErrors().contains("There is more than one CollectionOfMocksField"));
+	}
+
+	@Test
+	public void shouldReportLazySet() throws Exception {
+		// When
+		boolean success = compileTask("LazySetFixture").call();
+
+		// Then
+		assertFalse(success);
+		assertTrue(getErrors().contains("only List and Collection can be lazy"));
+	}
+
+	@Test
+	public void shouldReportRetainedInvocationsOfConcurrentMocks() throws Exception {
+		// When
+		boolean success = compileTask("RetainedConcurrentFixture").call();
+
+		// Then
+		assertFalse(success);
+		assertTrue(getErrors().contains("retainedInvocations cannot be used with MockType.CONCURRENT"));
+	}
+
+	private ClassLoader compile(String fixtureName) throws IOException {
+		boolean success = compileTask(fixtureName).call();
+		assertTrue(getErrors(), success);
+		return new URLClassLoader(new URL[] { getOutputDirectory().toURI().toURL() }, getClass().getClassLoader());
+	}
+
+	private CompilationTask compileTask(String fixtureName) throws IOException {
+		File source = new File(temporaryFolder.getRoot(), fixtureName + ".java");
+		copy(getClass().getResourceAsStream("/fixture/" + fixtureName + ".java"), source);
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ENGLISH, null);
+		List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d",
+				getOutputDirectory().getPath(), "-s", getOutputDirectory().getPath());
+		CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+				fileManager.getJavaFileObjects(source));
+		task.setProcessors(Arrays.asList(new CollectionInjectorProcessor()));
+		return task;
+	}
+
+	private File getOutputDirectory() {
+		File outputDirectory = new File(temporaryFolder.getRoot(), "classes");
+		outputDirectory.mkdirs();
+		return outputDirectory;
+	}
+
+	private String getErrors() {
+		StringBuilder errors = new StringBuilder();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+				errors.append(diagnostic.getMessage(Locale.ENGLISH)).append('\n');
+			}
+		}
+		return errors.toString();
+	}
+
+	private void copy(InputStream inputStream, File file) throws IOException {
+		OutputStream outputStream = new FileOutputStream(file);
+		try {
+			byte[] buffer = new byte[4096];
+			for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+				outputStream.write(buffer, 0, read);
+			}
+		} finally {
+			outputStream.close();
+			inputStream.close();
+		}
+	}
+
+	private Object getFieldValue(Object object, String fieldName) throws Exception {
+		Field field = object.getClass().getDeclaredField(fieldName);
+		field.setAccessible(true);
+		return field.get(object);
+	}
+
+	private void setFieldValue(Object object, String fieldName, Object value) throws Exception {
+		Field field = object.getClass().getDeclaredField(fieldName);
+		field.setAccessible(true);
+		field.set(object, value);
+	}
+}
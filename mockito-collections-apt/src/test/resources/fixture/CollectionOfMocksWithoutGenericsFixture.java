@@ -0,0 +1,12 @@
+package fixture;
+
+import java.util.Collection;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+
+public class CollectionOfMocksWithoutGenericsFixture {
+
+	@SuppressWarnings("rawtypes")
+	@CollectionOfMocks
+	private Collection runnables;
+}
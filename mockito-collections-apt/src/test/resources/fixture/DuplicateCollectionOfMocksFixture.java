@@ -0,0 +1,24 @@
+package fixture;
+
+import java.util.Set;
+
+import org.mockito.InjectMocks;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+
+public class DuplicateCollectionOfMocksFixture {
+
+	@InjectMocks
+	private RunnableHolder objectUnderTest;
+
+	@CollectionOfMocks
+	private Set<Runnable> runnables;
+
+	@CollectionOfMocks
+	private Set<Runnable> otherRunnables;
+
+	public static class RunnableHolder {
+
+		private Set<Runnable> runnables;
+	}
+}
@@ -0,0 +1,11 @@
+package fixture;
+
+import java.util.Set;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+
+public class LazySetFixture {
+
+	@CollectionOfMocks(numberOfMocks = 2, lazy = true)
+	private Set<Runnable> runnables;
+}
@@ -0,0 +1,12 @@
+package fixture;
+
+import java.util.List;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+
+public class RetainedConcurrentFixture {
+
+	@CollectionOfMocks(numberOfMocks = 2, mockType = MockType.CONCURRENT, retainedInvocations = 10)
+	private List<Runnable> runnables;
+}
@@ -0,0 +1,49 @@
+package fixture;
+
+import java.util.Comparator;
+import java.util.EventListener;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+
+public class ValidFixture {
+
+	@InjectMocks
+	private ListenerHolder objectUnderTest;
+
+	@Mock
+	private EventListener listener;
+
+	@Mock
+	EventListener otherListener;
+
+	@CollectionOfMocks(numberOfMocks = 2)
+	private Set<Runnable> runnables;
+
+	@CollectionOfMocks(numberOfMocks = 3, mockType = MockType.PROXY)
+	private List<Comparator> comparators;
+
+	@CollectionOfMocks(numberOfMocks = 2, retainedInvocations = 1)
+	private List<Callable> callables;
+
+	@CollectionOfMocks(numberOfMocks = 1000, lazy = true)
+	private List<Appendable> appendables;
+
+	public static class ListenerHolder {
+
+		private List<EventListener> listeners;
+
+		EventListener[] listenerArray;
+
+		private Set<Runnable> runnables;
+	}
+
+	public static class ExtendedListenerHolder extends ListenerHolder {
+	}
+}
@@ -33,4 +33,18 @@ public interface InjectCollectionOfMocksAnnotatedFieldsStory {
 	 */
 	public void objectUnderTestHasCollectionOfCollaborators();
 
+	/**
+	 * <b>Scenario:</b> test has a lazy {@link java.util.List} of mocks denoted by the {@link CollectionOfMocks}
+	 * <p>
+	 * <b>Given</b> a test with a {@link java.util.List} field with generics annotated with {@link CollectionOfMocks}
+	 * that is {@link CollectionOfMocks#lazy() lazy} <b>And</a> the {@link Object} under test (denoted by an
+	 * {@link InjectMocks} annotation) has a {@link java.util.List} of collaborators of the same type<br />
+	 * <b>When</b> I setup the test<br />
+	 * <b>Then</b> the same lazy {@link java.util.List} is injected into the {@link Object} under test <b>And</b> none
+	 * of the mocks are created
+	 * 
+	 * @see ClassWithListOfCollaborators
+	 */
+	public void objectUnderTestHasLazyListOfCollaborators();
+
 }
@@ -1,10 +1,13 @@
 package uk.co.webamoeba.mockito.collections.core.integrationtests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 import java.util.EventListener;
+import java.util.List;
 
 import org.junit.Test;
 import org.mockito.InjectMocks;
@@ -13,6 +16,8 @@ import org.mockito.internal.util.MockUtil;
 import uk.co.webamoeba.mockito.collections.MockitoCollections;
 import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
 import uk.co.webamoeba.mockito.collections.core.integrationtests.support.ClassWithCollectionOfCollaborators;
+import uk.co.webamoeba.mockito.collections.core.integrationtests.support.ClassWithListOfCollaborators;
+import uk.co.webamoeba.mockito.collections.inject.LazyCollectionOfMocks;
 
 public class InjectCollectionOfMocksAnnotatedFieldsStoryIntegrationTest implements
 		InjectCollectionOfMocksAnnotatedFieldsStory {
@@ -32,6 +37,24 @@ public class InjectCollectionOfMocksAnnotatedFieldsStoryIntegrationTest implemen
 		assertEquals(test.collaborators, test.objectUnderTest.getCollaborators());
 	}
 
+	@Test
+	public void objectUnderTestHasLazyListOfCollaborators() {
+		// Given
+		LazyExampleTest test = new LazyExampleTest();
+		test.objectUnderTest = new ClassWithListOfCollaborators();
+
+		// When
+		MockitoCollections.initialise(test);
+
+		// Then
+		assertSame(test.collaborators, test.objectUnderTest.getCollaborators());
+		LazyCollectionOfMocks<EventListener> collaborators = (LazyCollectionOfMocks<EventListener>) test.collaborators;
+		assertEquals(2000, collaborators.size());
+		for (int i = 0; i < collaborators.size(); i++) {
+			assertFalse(collaborators.isCreated(i));
+		}
+	}
+
 	private final class ExampleTest {
 
 		@InjectMocks
@@ -40,4 +63,13 @@ public class InjectCollectionOfMocksAnnotatedFieldsStoryIntegrationTest implemen
 		@CollectionOfMocks
 		private Collection<EventListener> collaborators;
 	}
+
+	private final class LazyExampleTest {
+
+		@InjectMocks
+		private ClassWithListOfCollaborators objectUnderTest;
+
+		@CollectionOfMocks(numberOfMocks = 2000, lazy = true)
+		private List<EventListener> collaborators;
+	}
 }
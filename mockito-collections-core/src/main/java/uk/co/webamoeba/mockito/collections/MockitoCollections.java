@@ -1,15 +1,26 @@
 package uk.co.webamoeba.mockito.collections;
 
+import java.io.File;
 import java.util.Collection;
 
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
 import org.mockito.verification.VerificationMode;
 
 import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.await.InvocationLatch;
 import uk.co.webamoeba.mockito.collections.internal.Initialiser;
 import uk.co.webamoeba.mockito.collections.internal.Verifier;
+import uk.co.webamoeba.mockito.collections.journal.InvocationJournal;
+import uk.co.webamoeba.mockito.collections.stubbing.IndexedAnswer;
+import uk.co.webamoeba.mockito.collections.verification.Checkpoint;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveOrder;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveTimeout;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationMode;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes;
+import uk.co.webamoeba.mockito.collections.verification.Sample;
 
 /**
  * Class for Mockito-Collections that is comparable to the {@link Mockito} and {@link MockitoAnnotations} classes.
@@ -84,6 +95,272 @@ public class MockitoCollections {
 		return VERIFIER.collectiveVerify(mockClass, collection, mode);
 	}
 
+	/**
+	 * {@link Verifier#collectiveVerify(Class, Collection, CollectiveVerificationMode)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param mode
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public static <T> T collectiveVerify(Class<T> mockClass, Collection<T> collection,
+			CollectiveVerificationMode mode) {
+		return VERIFIER.collectiveVerify(mockClass, collection, mode);
+	}
+
+	/**
+	 * {@link Verifier#collectiveVerify(Class, Collection, VerificationMode, Sample)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param mode
+	 * @param sample
+	 * @return Object used for verification of the sampled mocks in the supplied collection
+	 */
+	public static <T> T collectiveVerify(Class<T> mockClass, Collection<T> collection, VerificationMode mode,
+			Sample sample) {
+		return VERIFIER.collectiveVerify(mockClass, collection, mode, sample);
+	}
+
+	/**
+	 * {@link Verifier#checkpoint(Collection)}
+	 * 
+	 * @param collection
+	 * @return {@link Checkpoint}
+	 */
+	public static Checkpoint checkpoint(Collection<?> collection) {
+		return VERIFIER.checkpoint(collection);
+	}
+
+	/**
+	 * {@link Verifier#collectiveVerify(Class, Collection, VerificationMode, Checkpoint)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param mode
+	 * @param checkpoint
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public static <T> T collectiveVerify(Class<T> mockClass, Collection<T> collection, VerificationMode mode,
+			Checkpoint checkpoint) {
+		return VERIFIER.collectiveVerify(mockClass, collection, mode, checkpoint);
+	}
+
+	/**
+	 * {@link Verifier#collectiveInOrder(Class, Collection)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public static <T> T collectiveInOrder(Class<T> mockClass, Collection<T> collection) {
+		return VERIFIER.collectiveInOrder(mockClass, collection);
+	}
+
+	/**
+	 * {@link Verifier#collectiveInOrder(Class, Collection, CollectiveOrder)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param order
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public static <T> T collectiveInOrder(Class<T> mockClass, Collection<T> collection, CollectiveOrder order) {
+		return VERIFIER.collectiveInOrder(mockClass, collection, order);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#totalTimes(int)}
+	 * 
+	 * @param wantedTotal
+	 * @return {@link CollectiveVerificationMode}
+	 */
+	public static CollectiveVerificationMode totalTimes(int wantedTotal) {
+		return CollectiveVerificationModes.totalTimes(wantedTotal);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#invokedMocks(int)}
+	 * 
+	 * @param wantedNumberOfMocks
+	 * @return {@link CollectiveVerificationMode}
+	 */
+	public static CollectiveVerificationMode invokedMocks(int wantedNumberOfMocks) {
+		return CollectiveVerificationModes.invokedMocks(wantedNumberOfMocks);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#atLeastInvokedMocks(int)}
+	 * 
+	 * @param minimumNumberOfMocks
+	 * @return {@link CollectiveVerificationMode}
+	 */
+	public static CollectiveVerificationMode atLeastInvokedMocks(int minimumNumberOfMocks) {
+		return CollectiveVerificationModes.atLeastInvokedMocks(minimumNumberOfMocks);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#atMostInvokedMocks(int)}
+	 * 
+	 * @param maximumNumberOfMocks
+	 * @return {@link CollectiveVerificationMode}
+	 */
+	public static CollectiveVerificationMode atMostInvokedMocks(int maximumNumberOfMocks) {
+		return CollectiveVerificationModes.atMostInvokedMocks(maximumNumberOfMocks);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#balanced(double)}
+	 * 
+	 * @param maximumRatioToMean
+	 * @return {@link CollectiveVerificationMode}
+	 */
+	public static CollectiveVerificationMode balanced(double maximumRatioToMean) {
+		return CollectiveVerificationModes.balanced(maximumRatioToMean);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#balanced(double, double)}
+	 * 
+	 * @param minimumRatioToMean
+	 * @param maximumRatioToMean
+	 * @return {@link CollectiveVerificationMode}
+	 */
+	public static CollectiveVerificationMode balanced(double minimumRatioToMean, double maximumRatioToMean) {
+		return CollectiveVerificationModes.balanced(minimumRatioToMean, maximumRatioToMean);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#eachOnceInCollectionOrder()}
+	 * 
+	 * @return {@link CollectiveOrder}
+	 */
+	public static CollectiveOrder eachOnceInCollectionOrder() {
+		return CollectiveVerificationModes.eachOnceInCollectionOrder();
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#inCollectionOrder()}
+	 * 
+	 * @return {@link CollectiveOrder}
+	 */
+	public static CollectiveOrder inCollectionOrder() {
+		return CollectiveVerificationModes.inCollectionOrder();
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#sample(int, long)}
+	 * 
+	 * @param size
+	 * @param seed
+	 * @return {@link Sample}
+	 */
+	public static Sample sample(int size, long seed) {
+		return CollectiveVerificationModes.sample(size, seed);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#sample(int)}
+	 * 
+	 * @param size
+	 * @return {@link Sample}
+	 */
+	public static Sample sample(int size) {
+		return CollectiveVerificationModes.sample(size);
+	}
+
+	/**
+	 * {@link CollectiveVerificationModes#collectiveTimeout(int)}
+	 * 
+	 * @param millis
+	 * @return {@link CollectiveTimeout}
+	 */
+	public static CollectiveTimeout collectiveTimeout(int millis) {
+		return CollectiveVerificationModes.collectiveTimeout(millis);
+	}
+
+	/**
+	 * {@link Verifier#collectiveAwait(Class, Collection, InvocationLatch)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param invocationLatch
+	 * @return Object used to specify the wanted invocation
+	 */
+	public static <T> T collectiveAwait(Class<T> mockClass, Collection<T> collection, InvocationLatch invocationLatch) {
+		return VERIFIER.collectiveAwait(mockClass, collection, invocationLatch);
+	}
+
+	/**
+	 * {@link Verifier#collectiveWhen(Class, Collection, Answer)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param answer
+	 * @return Object used to specify the stubbed invocation
+	 */
+	public static <T> T collectiveWhen(Class<T> mockClass, Collection<T> collection, Answer<?> answer) {
+		return VERIFIER.collectiveWhen(mockClass, collection, answer);
+	}
+
+	/**
+	 * {@link Verifier#collectiveWhen(Class, Collection, IndexedAnswer)}
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param answer
+	 * @return Object used to specify the stubbed invocation
+	 */
+	public static <T> T collectiveWhen(Class<T> mockClass, Collection<T> collection, IndexedAnswer<?> answer) {
+		return VERIFIER.collectiveWhen(mockClass, collection, answer);
+	}
+
+	/**
+	 * {@link InvocationLatch#totalInvocations(int)}
+	 * 
+	 * @param wantedTotal
+	 * @return {@link InvocationLatch}
+	 */
+	public static InvocationLatch totalInvocations(int wantedTotal) {
+		return InvocationLatch.totalInvocations(wantedTotal);
+	}
+
+	/**
+	 * {@link InvocationLatch#eachInvoked()}
+	 * 
+	 * @return {@link InvocationLatch}
+	 */
+	public static InvocationLatch eachInvoked() {
+		return InvocationLatch.eachInvoked();
+	}
+
+	/**
+	 * {@link InvocationLatch#eachInvoked(int)}
+	 * 
+	 * @param wantedPerMock
+	 * @return {@link InvocationLatch}
+	 */
+	public static InvocationLatch eachInvoked(int wantedPerMock) {
+		return InvocationLatch.eachInvoked(wantedPerMock);
+	}
+
+	/**
+	 * Creates an {@link InvocationJournal} and {@link InvocationJournal#attach(Collection) attaches} each of the
+	 * {@link Collection Collections} of mocks to it.
+	 * 
+	 * @param file
+	 *            The {@link File} to which the journal is written
+	 * @param collections
+	 * @return {@link InvocationJournal}, which must be closed once the mocks have been invoked
+	 */
+	public static InvocationJournal journal(File file, Collection<?>... collections) {
+		InvocationJournal journal = new InvocationJournal(file);
+		for (Collection<?> collection : collections) {
+			journal.attach(collection);
+		}
+		return journal;
+	}
+
 	/**
 	 * {@link Verifier#collectiveVerifyZeroInteractions(Collection...)}
 	 * 
@@ -28,6 +28,15 @@ import org.mockito.Mock;
  * 
  * A {@link Field} annotated with {@link CollectionOfMocks} is considered for injection verbatim. That is to say, a
  * {@link CollectionOfMocks} will be injected as a whole not as an element in a {@link Collection}.
+ * <p>
+ * Large {@link Collection Collections} of interfaces can be populated with cheaper {@link MockType#PROXY} mocks, for
+ * example <code>&#064;CollectionOfMocks(numberOfMocks = 5000, mockType = MockType.PROXY)</code>.
+ * <p>
+ * Mocks that are invoked a great many times, for example in a long running test, can be limited to
+ * {@link #retainedInvocations() retaining} only their most recent invocations.
+ * <p>
+ * Very large {@link Collection Collections} of which a test touches only a few mocks can be {@link #lazy() lazy}, for
+ * example <code>&#064;CollectionOfMocks(numberOfMocks = 100000, lazy = true)</code>.
  * 
  * @author James Kennard
  */
@@ -37,4 +46,27 @@ public @interface CollectionOfMocks {
 
 	int numberOfMocks() default 1;
 
+	/**
+	 * @return The {@link MockType} of the mocks in the {@link Collection}
+	 */
+	MockType mockType() default MockType.DEFAULT;
+
+	/**
+	 * @return The number of invocations retained by each mock, older invocations are discarded but are still counted.
+	 *         Once some invocations of a method have been discarded the method can only be collectively verified using
+	 *         <code>times</code>, <code>never</code> or <code>atLeast</code>, and with arguments that match anything.
+	 *         A negative number, the default, retains every invocation. {@link MockType#CONCURRENT} and
+	 *         {@link MockType#METHOD_INDEXED} mocks record their invocations in their own store, so must retain every
+	 *         invocation.
+	 */
+	int retainedInvocations() default -1;
+
+	/**
+	 * @return <code>true</code> if each mock is created only when it is first accessed, by index or by iteration,
+	 *         rather than when the {@link Collection} is created. Only {@link java.util.List} and {@link Collection}
+	 *         fields can be lazy. Collective verifications treat the mocks that have not been created as having no
+	 *         interactions, without creating them.
+	 */
+	boolean lazy() default false;
+
 }
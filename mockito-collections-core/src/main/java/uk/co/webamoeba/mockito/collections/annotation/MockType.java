@@ -0,0 +1,59 @@
+package uk.co.webamoeba.mockito.collections.annotation;
+
+import java.lang.reflect.Proxy;
+
+import org.mockito.Mockito;
+
+/**
+ * The type of mocks that populate a {@link CollectionOfMocks} field.
+ * 
+ * @author James Kennard
+ */
+public enum MockType {
+
+	/**
+	 * The type of mocks set for all {@link CollectionOfMocks} fields, by default this is {@link #MOCKITO}. The
+	 * default can be changed using the <code>mockito.collections.mockType</code> system property.
+	 */
+	DEFAULT,
+
+	/**
+	 * Mocks created by {@link Mockito#mock(Class)}.
+	 */
+	MOCKITO,
+
+	/**
+	 * Mocks created using {@link Proxy} rather than by generating a {@link Class}, these can be stubbed and verified in
+	 * the same way as {@link #MOCKITO} mocks. Only interfaces can be mocked using a {@link Proxy}, {@link #MOCKITO}
+	 * mocks are created for any other type.
+	 */
+	PROXY,
+
+	/**
+	 * {@link #MOCKITO} mocks that record invocations in stripes chosen by the invoking {@link Thread}, rather than in a
+	 * single synchronized list, and merge them only when the mock is verified. Numbering each invocation and finding
+	 * its stub are still serialised by Mockito.
+	 */
+	CONCURRENT,
+
+	/**
+	 * {@link #MOCKITO} mocks that record the invocations of each method separately, so that verifying a method reads
+	 * only the invocations of that method. Suited to mocks of wide interfaces that receive many invocations of other
+	 * methods.
+	 */
+	METHOD_INDEXED,
+
+	/**
+	 * Mocks of an interface that share one stubbing configuration and keep only their index and the number of times
+	 * each method has been invoked, so that very large collections of mocks use little memory. The mocks are stubbed
+	 * together by <code>collectiveWhen</code>, and can be verified by <code>collectiveVerify</code>, including with a
+	 * <code>collectiveTimeout</code>, using {@link Mockito#times(int)}, {@link Mockito#never()} and
+	 * {@link Mockito#atLeast(int)} with argument matchers that match any arguments. They are not Mockito mocks, so they
+	 * cannot be stubbed or verified by {@link Mockito} directly, and they do not retain their invocations. As a result
+	 * they cannot be verified after a checkpoint, verified by <code>collectiveInOrder</code> or by the distribution of
+	 * their invocations, awaited by <code>collectiveAwait</code> or attached to an <code>InvocationJournal</code>, each
+	 * of which throws a <code>MockitoCollectionsException</code>. {@link #MOCKITO} mocks are created for types that are
+	 * not interfaces.
+	 */
+	FLYWEIGHT
+}
@@ -0,0 +1,104 @@
+package uk.co.webamoeba.mockito.collections.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mockito.internal.invocation.ArgumentsComparator;
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.invocation.DescribedInvocation;
+import org.mockito.invocation.Invocation;
+import org.mockito.listeners.InvocationListener;
+import org.mockito.listeners.MethodInvocationReport;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.internal.FlyweightMocks;
+import uk.co.webamoeba.mockito.collections.internal.ObservableInvocationListener;
+
+/**
+ * {@link InvocationListener} of a single mock that counts down the {@link InvocationLatch InvocationLatches}
+ * registered with the mock. The {@link AwaitableInvocationListener} is added to the {@link ObservableInvocationListener}
+ * of the mock when the mock is first awaited, a mock without an {@link ObservableInvocationListener} cannot be awaited.
+ * 
+ * @author James Kennard
+ */
+public class AwaitableInvocationListener implements InvocationListener {
+
+	private static final ArgumentsComparator ARGUMENTS_COMPARATOR = new ArgumentsComparator();
+
+	private final List<Registration> registrations = new CopyOnWriteArrayList<Registration>();
+
+	/**
+	 * Registers the {@link InvocationLatch} with each of the mocks.
+	 * 
+	 * @param mocks
+	 *            Mocks that each have an {@link ObservableInvocationListener}
+	 * @param wanted
+	 *            The wanted invocation, the mock of the wanted invocation is ignored
+	 * @param invocationLatch
+	 * @throws MockitoCollectionsException
+	 *             If any of the mocks does not have an {@link ObservableInvocationListener}
+	 */
+	public static void register(List<?> mocks, InvocationMatcher wanted, InvocationLatch invocationLatch) {
+		List<AwaitableInvocationListener> listeners = new ArrayList<AwaitableInvocationListener>(mocks.size());
+		for (Object mock : mocks) {
+			listeners.add(getListener(mock));
+		}
+		invocationLatch.register(mocks.size());
+		for (AwaitableInvocationListener listener : listeners) {
+			listener.registrations.add(new Registration(wanted, invocationLatch));
+		}
+	}
+
+	private static AwaitableInvocationListener getListener(Object mock) {
+		FlyweightMocks.checkNotFlyweightMock(mock, "await");
+		ObservableInvocationListener observableListener = ObservableInvocationListener.getListener(mock);
+		if (observableListener == null) {
+			throw new MockitoCollectionsException("Cannot await " + mock
+					+ ", only mocks created for CollectionOfMocks fields can be awaited");
+		}
+		return observableListener.addListener(new AwaitableInvocationListener());
+	}
+
+	public void reportInvocation(MethodInvocationReport methodInvocationReport) {
+		if (registrations.isEmpty()) {
+			return;
+		}
+		DescribedInvocation describedInvocation = methodInvocationReport.getInvocation();
+		if (!(describedInvocation instanceof Invocation)) {
+			return;
+		}
+		Invocation invocation = (Invocation) describedInvocation;
+		for (Registration registration : registrations) {
+			if (registration.matches(invocation) && registration.invoked()) {
+				registrations.remove(registration);
+			}
+		}
+	}
+
+	private static class Registration {
+
+		private final InvocationMatcher wanted;
+
+		private final InvocationLatch invocationLatch;
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		public Registration(InvocationMatcher wanted, InvocationLatch invocationLatch) {
+			this.wanted = wanted;
+			this.invocationLatch = invocationLatch;
+		}
+
+		public boolean matches(Invocation invocation) {
+			return wanted.hasSameMethod(invocation) && ARGUMENTS_COMPARATOR.argumentsMatch(wanted, invocation);
+		}
+
+		/**
+		 * @return <code>true</code> if the {@link InvocationLatch} has been released
+		 */
+		public boolean invoked() {
+			return invocationLatch.invoked(invocations.incrementAndGet());
+		}
+	}
+}
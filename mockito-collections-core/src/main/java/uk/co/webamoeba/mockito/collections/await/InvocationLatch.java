@@ -0,0 +1,124 @@
+package uk.co.webamoeba.mockito.collections.await;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allows a test to wait until a collection of mocks has received the wanted invocations, for example until the mocks
+ * have received a total number of invocations of a method, or until every mock has been invoked. An
+ * {@link InvocationLatch} is registered with a collection of mocks using <code>MockitoCollections.collectiveAwait</code>,
+ * after which every matching invocation of one of the mocks counts down the {@link InvocationLatch} directly from
+ * the invoking {@link Thread}. Waiting {@link Thread Threads} are woken as soon as the count reaches zero, there is no
+ * polling.
+ * <p>
+ * Only invocations that occur after the {@link InvocationLatch} is registered are counted. Calls made on the mocks to
+ * stub or verify them are invocations, so an {@link InvocationLatch} should be registered after the mocks are stubbed
+ * and awaited before they are verified. An {@link InvocationLatch} can be registered once.
+ * 
+ * @author James Kennard
+ */
+public final class InvocationLatch {
+
+	private final int wantedTotal;
+
+	private final int wantedPerMock;
+
+	private volatile CountDownLatch countDownLatch;
+
+	private InvocationLatch(int wantedTotal, int wantedPerMock) {
+		this.wantedTotal = wantedTotal;
+		this.wantedPerMock = wantedPerMock;
+	}
+
+	/**
+	 * @param wantedTotal
+	 * @return {@link InvocationLatch} that is released when the mocks have received the wantedTotal number of matching
+	 *         invocations between them
+	 */
+	public static InvocationLatch totalInvocations(int wantedTotal) {
+		if (wantedTotal < 0) {
+			throw new IllegalArgumentException("wantedTotal must not be negative");
+		}
+		return new InvocationLatch(wantedTotal, 0);
+	}
+
+	/**
+	 * @return {@link InvocationLatch} that is released when every mock has received at least one matching invocation
+	 */
+	public static InvocationLatch eachInvoked() {
+		return eachInvoked(1);
+	}
+
+	/**
+	 * @param wantedPerMock
+	 * @return {@link InvocationLatch} that is released when every mock has received at least the wantedPerMock number
+	 *         of matching invocations
+	 */
+	public static InvocationLatch eachInvoked(int wantedPerMock) {
+		if (wantedPerMock <= 0) {
+			throw new IllegalArgumentException("wantedPerMock must be greater than zero");
+		}
+		return new InvocationLatch(0, wantedPerMock);
+	}
+
+	/**
+	 * Waits until the wanted invocations have been received.
+	 * 
+	 * @throws InterruptedException
+	 * @throws IllegalStateException
+	 *             If the {@link InvocationLatch} has not been registered with a collection of mocks
+	 */
+	public void await() throws InterruptedException {
+		getCountDownLatch().await();
+	}
+
+	/**
+	 * Waits until the wanted invocations have been received, or the timeout elapses.
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return <code>true</code> if the wanted invocations were received, <code>false</code> if the timeout elapsed
+	 * @throws InterruptedException
+	 * @throws IllegalStateException
+	 *             If the {@link InvocationLatch} has not been registered with a collection of mocks
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		return getCountDownLatch().await(timeout, unit);
+	}
+
+	/**
+	 * @return The number of invocations, or for {@link #eachInvoked(int)} the number of mocks, still wanted
+	 * @throws IllegalStateException
+	 *             If the {@link InvocationLatch} has not been registered with a collection of mocks
+	 */
+	public long getCount() {
+		return getCountDownLatch().getCount();
+	}
+
+	synchronized void register(int numberOfMocks) {
+		if (countDownLatch != null) {
+			throw new IllegalStateException("The InvocationLatch has already been registered");
+		}
+		countDownLatch = new CountDownLatch(wantedPerMock == 0 ? wantedTotal : numberOfMocks);
+	}
+
+	/**
+	 * @param invocationsOfMock
+	 *            The number of matching invocations of the invoked mock, including this invocation
+	 * @return <code>true</code> if the {@link InvocationLatch} has been released
+	 */
+	boolean invoked(int invocationsOfMock) {
+		if (wantedPerMock == 0 || invocationsOfMock == wantedPerMock) {
+			countDownLatch.countDown();
+		}
+		return countDownLatch.getCount() == 0;
+	}
+
+	private CountDownLatch getCountDownLatch() {
+		CountDownLatch countDownLatch = this.countDownLatch;
+		if (countDownLatch == null) {
+			throw new IllegalStateException("The InvocationLatch has not been registered, use collectiveAwait");
+		}
+		return countDownLatch;
+	}
+}
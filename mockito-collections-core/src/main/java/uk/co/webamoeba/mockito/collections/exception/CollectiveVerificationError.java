@@ -0,0 +1,40 @@
+package uk.co.webamoeba.mockito.collections.exception;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.exceptions.base.MockitoAssertionError;
+
+/**
+ * Reports that the verification of more than one mock in a collective verification failed. The failures are held in
+ * the order of the mocks that failed, the first failure is also the cause.
+ * 
+ * @author James Kennard
+ */
+public class CollectiveVerificationError extends MockitoAssertionError {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<Throwable> failures;
+
+	/**
+	 * @param message
+	 * @param failures
+	 *            The failures, in the order of the mocks that failed
+	 */
+	public CollectiveVerificationError(String message, List<Throwable> failures) {
+		super(message);
+		this.failures = Collections.unmodifiableList(new ArrayList<Throwable>(failures));
+		if (!failures.isEmpty()) {
+			initCause(failures.get(0));
+		}
+	}
+
+	/**
+	 * @return The failures, in the order of the mocks that failed, the returned {@link List} is unmodifiable
+	 */
+	public List<Throwable> getFailures() {
+		return failures;
+	}
+}
@@ -0,0 +1,35 @@
+package uk.co.webamoeba.mockito.collections.exception;
+
+import org.mockito.exceptions.base.MockitoAssertionError;
+
+import uk.co.webamoeba.mockito.collections.verification.InvocationDistribution;
+
+/**
+ * Reports that the {@link InvocationDistribution} of a wanted invocation across a collection of mocks was not as
+ * wanted.
+ * 
+ * @author James Kennard
+ */
+public class InvocationDistributionError extends MockitoAssertionError {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient InvocationDistribution invocationDistribution;
+
+	/**
+	 * @param message
+	 *            Description of the wanted distribution, the {@link InvocationDistribution} is appended
+	 * @param invocationDistribution
+	 */
+	public InvocationDistributionError(String message, InvocationDistribution invocationDistribution) {
+		super("\n" + message + ":\n" + invocationDistribution);
+		this.invocationDistribution = invocationDistribution;
+	}
+
+	/**
+	 * @return The actual {@link InvocationDistribution}, including the number of invocations of each mock
+	 */
+	public InvocationDistribution getInvocationDistribution() {
+		return invocationDistribution;
+	}
+}
@@ -0,0 +1,34 @@
+package uk.co.webamoeba.mockito.collections.exception;
+
+import org.mockito.exceptions.base.MockitoAssertionError;
+
+import uk.co.webamoeba.mockito.collections.verification.InvocationTimeline;
+
+/**
+ * Reports that the mocks in a collection were not invoked in the wanted order.
+ * 
+ * @author James Kennard
+ */
+public class InvocationOrderError extends MockitoAssertionError {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient InvocationTimeline invocationTimeline;
+
+	/**
+	 * @param message
+	 *            Description of the wanted order, the {@link InvocationTimeline} is appended
+	 * @param invocationTimeline
+	 */
+	public InvocationOrderError(String message, InvocationTimeline invocationTimeline) {
+		super("\n" + message + ":\n" + invocationTimeline);
+		this.invocationTimeline = invocationTimeline;
+	}
+
+	/**
+	 * @return The actual {@link InvocationTimeline}, including the index of the mock of each invocation
+	 */
+	public InvocationTimeline getInvocationTimeline() {
+		return invocationTimeline;
+	}
+}
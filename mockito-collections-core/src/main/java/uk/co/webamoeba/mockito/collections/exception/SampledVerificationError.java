@@ -0,0 +1,61 @@
+package uk.co.webamoeba.mockito.collections.exception;
+
+import org.mockito.exceptions.base.MockitoAssertionError;
+
+import uk.co.webamoeba.mockito.collections.verification.Sample;
+
+/**
+ * Reports that the verification of a {@link Sample} of the mocks in a collection failed. The message includes the seed
+ * of the {@link Sample}, so that the failure can be reproduced, and the failure of the sampled mocks is the cause.
+ * 
+ * @author James Kennard
+ */
+public class SampledVerificationError extends MockitoAssertionError {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int MAXIMUM_DESCRIBED_INDEXES = 100;
+
+	private final transient Sample sample;
+
+	/**
+	 * @param sample
+	 * @param numberOfMocks
+	 *            The number of mocks in the collection
+	 * @param indexes
+	 *            The indexes in the collection of the sampled mocks
+	 * @param failure
+	 *            The failure of the sampled mocks, indexes in the failure are indexes in the sample
+	 */
+	public SampledVerificationError(Sample sample, int numberOfMocks, int[] indexes, Throwable failure) {
+		super(describe(sample, numberOfMocks, indexes, failure));
+		this.sample = sample;
+		initCause(failure);
+	}
+
+	/**
+	 * @return The {@link Sample}, including the seed, of the failed verification
+	 */
+	public Sample getSample() {
+		return sample;
+	}
+
+	private static String describe(Sample sample, int numberOfMocks, int[] indexes, Throwable failure) {
+		StringBuilder message = new StringBuilder();
+		message.append("\nVerification of a sample of ").append(indexes.length).append(" of ").append(numberOfMocks);
+		message.append(" mocks failed, the sample was selected with seed ").append(sample.getSeed()).append(".");
+		message.append("\nRepeat with ").append(sample).append(" to reproduce the failure, or without a sample to");
+		message.append(" verify every mock.\nIndexes of the sampled mocks in the collection:\n  [");
+		for (int i = 0; i < indexes.length && i < MAXIMUM_DESCRIBED_INDEXES; i++) {
+			if (i > 0) {
+				message.append(", ");
+			}
+			message.append(indexes[i]);
+		}
+		if (indexes.length > MAXIMUM_DESCRIBED_INDEXES) {
+			message.append(", ... ").append(indexes.length - MAXIMUM_DESCRIBED_INDEXES).append(" more");
+		}
+		message.append("]\n").append(String.valueOf(failure.getMessage()).trim());
+		return message.toString();
+	}
+}
@@ -63,6 +63,27 @@ public class CollectionFactory {
 		return collection;
 	}
 
+	/**
+	 * Creates a new {@link LazyCollectionOfMocks} for a {@link List} or {@link Collection} of the specified type.
+	 * 
+	 * @param collectionClass
+	 *            The type of {@link Collection} to create, either {@link List} or {@link Collection}
+	 * @param typeOfElements
+	 * @param numberOfMocks
+	 * @param mockStrategy
+	 *            {@link MockStrategy} used to create each mock when it is first accessed
+	 * @return A new {@link Collection} of the specified type
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <T extends Collection<Object>> T createLazyCollection(Class<T> collectionClass, Class<?> typeOfElements,
+			int numberOfMocks, MockStrategy mockStrategy) {
+		if (!collectionClass.equals(List.class) && !collectionClass.equals(Collection.class)) {
+			throw new MockitoCollectionsException("Could not create lazy collection of type " + collectionClass
+					+ ", only List and Collection can be lazy");
+		}
+		return (T) new LazyCollectionOfMocks(typeOfElements, numberOfMocks, mockStrategy);
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private <T> T createCollectionFromUnknownInterface(Class<T> collectionClass, Collection<?> contents) {
 		final Collection<Object> spiedCollection;
@@ -1,13 +1,8 @@
 package uk.co.webamoeba.mockito.collections.inject;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Set;
 
-import uk.co.webamoeba.mockito.collections.util.FieldValueMutator;
-import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
 import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 
 /**
@@ -22,13 +17,13 @@ public class CollectionInjector {
 
 	private MockSelectionStrategy strategy;
 
-	private GenericCollectionTypeResolver genericCollectionTypeResolver;
+	private InjectionPlanCache injectionPlanCache;
 
 	public CollectionInjector(CollectionFactory collectionFactory, MockSelectionStrategy strategy,
-			GenericCollectionTypeResolver genericCollectionTypeResolver) {
+			InjectionPlanCache injectionPlanCache) {
 		this.collectionFactory = collectionFactory;
 		this.strategy = strategy;
-		this.genericCollectionTypeResolver = genericCollectionTypeResolver;
+		this.injectionPlanCache = injectionPlanCache;
 	}
 
 	/**
@@ -38,60 +33,49 @@ public class CollectionInjector {
 	 */
 	public void inject(InjectionDetails injectionDetails) {
 		for (Object injectCollections : injectionDetails.getInjectCollections()) {
-			inject(injectCollections, injectionDetails.getMocks(), injectionDetails.getInjectableCollectionSet(),
-					injectCollections.getClass());
+			InjectionTargetPlan injectionTargetPlan = injectionPlanCache.getInjectionTargetPlan(injectCollections
+					.getClass());
+			inject(injectCollections, injectionDetails.getMockRegistry(), injectionDetails.getInjectableCollectionSet(),
+					injectionTargetPlan);
 		}
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void inject(Object injectCollections, OrderedSet<Object> mocks,
-			CollectionOfMocksFieldSet collectionOfMocksFieldSet, Class<? extends Object> fieldClazz) {
-		Field[] fields = fieldClazz.getDeclaredFields();
-		for (Field field : fields) {
-			Type type = field.getGenericType();
-			if (type instanceof ParameterizedType) {
-				ParameterizedType parameterizedType = (ParameterizedType) type;
-				// should be safe, ParamerterizedType should only ever return a Class from this method
-				Class rawType = (Class) parameterizedType.getRawType();
-				if (Collection.class.isAssignableFrom(rawType)) {
-					Type collectionType = genericCollectionTypeResolver.getCollectionFieldType(field);
-					if (collectionType != null) {
-						Collection collection = getCollection(mocks, collectionOfMocksFieldSet, rawType, collectionType);
-						if (collection != null) {
-							new FieldValueMutator(injectCollections, field).mutateTo(collection);
-						}
-					}
+	@SuppressWarnings("rawtypes")
+	private void inject(Object injectCollections, MockRegistry mocks,
+			CollectionOfMocksFieldSet collectionOfMocksFieldSet, InjectionTargetPlan injectionTargetPlan) {
+		for (InjectionPoint injectionPoint : injectionTargetPlan.getInjectionPoints()) {
+			if (injectionPoint.isArray()) {
+				Set strategyInjectables = strategy.selectMocks(mocks, injectionPoint.getTypeOfElements());
+				if (!strategyInjectables.isEmpty()) {
+					injectionPoint.getFieldAccessor().write(injectCollections, strategyInjectables.toArray());
 				}
-			} else if (type instanceof Class) {
-				Class clazz = (Class) type;
-				if (clazz.isArray()) {
-					Set strategyInjectables = strategy.selectMocks(mocks, clazz.getComponentType());
-					if (!strategyInjectables.isEmpty()) {
-						new FieldValueMutator(injectCollections, field).mutateTo(strategyInjectables.toArray());
-					}
+			} else {
+				Collection collection = getCollection(mocks, collectionOfMocksFieldSet, injectionPoint);
+				if (collection != null) {
+					injectionPoint.getFieldAccessor().write(injectCollections, collection);
 				}
 			}
 		}
-		Class<?> superclass = fieldClazz.getSuperclass();
-		if (superclass != Object.class && superclass != null) {
-			inject(injectCollections, mocks, collectionOfMocksFieldSet, superclass);
-		}
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private Collection getCollection(OrderedSet<Object> mocks, CollectionOfMocksFieldSet collectionOfMocksFieldSet,
-			Class rawType, Type collectionType) {
+	private Collection getCollection(MockRegistry mocks, CollectionOfMocksFieldSet collectionOfMocksFieldSet,
+			InjectionPoint injectionPoint) {
 		Collection collection = null;
 		CollectionOfMocksField collectionOfMocksField = strategy.getCollectionOfMocksField(collectionOfMocksFieldSet,
-				rawType, (Class) collectionType);
+				injectionPoint.getTypeOfCollection(), injectionPoint.getTypeOfElements());
 		final OrderedSet strategyInjectables;
-		if (collectionOfMocksField != null) {
+		if (collectionOfMocksField != null && collectionOfMocksField.getValue() instanceof LazyCollectionOfMocks) {
+			// Copying would create every mock, the field and the injection point are of the same type
+			Collection lazyCollection = collectionOfMocksField.getValue();
+			return lazyCollection.isEmpty() ? null : lazyCollection;
+		} else if (collectionOfMocksField != null) {
 			strategyInjectables = new OrderedSet(collectionOfMocksField.getValue());
 		} else {
-			strategyInjectables = strategy.selectMocks(mocks, (Class) collectionType);
+			strategyInjectables = strategy.selectMocks(mocks, injectionPoint.getTypeOfElements());
 		}
 		if (!strategyInjectables.isEmpty()) {
-			collection = collectionFactory.createCollection(rawType, strategyInjectables);
+			collection = collectionFactory.createCollection(injectionPoint.getTypeOfCollection(), strategyInjectables);
 		}
 		return collection;
 	}
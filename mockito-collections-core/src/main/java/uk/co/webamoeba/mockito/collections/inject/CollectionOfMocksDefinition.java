@@ -0,0 +1,83 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.util.FieldAccessor;
+
+/**
+ * Describes a {@link Field} annotated with {@link CollectionOfMocks} once it has been validated. A
+ * {@link CollectionOfMocksDefinition} holds everything needed to initialise the {@link Field} without having to inspect
+ * the {@link Field} again.
+ * 
+ * @author James Kennard
+ */
+public class CollectionOfMocksDefinition {
+
+	private final Field field;
+
+	private final FieldAccessor fieldAccessor;
+
+	private final Class<Collection<Object>> typeOfCollection;
+
+	private final Class<Object> typeOfElements;
+
+	private final CollectionOfMocksSettings settings;
+
+	private final CollectionOfMocksKey key;
+
+	/**
+	 * @param field
+	 *            The {@link Field} annotated with {@link CollectionOfMocks}
+	 * @param typeOfCollection
+	 *            The raw type of the {@link Field}
+	 * @param typeOfElements
+	 *            The generic type of the elements in the {@link Collection}
+	 * @param settings
+	 *            The {@link CollectionOfMocksSettings} of the {@link Field}
+	 */
+	public CollectionOfMocksDefinition(Field field, Class<Collection<Object>> typeOfCollection,
+			Class<Object> typeOfElements, CollectionOfMocksSettings settings) {
+		this.field = field;
+		this.fieldAccessor = new FieldAccessor(field);
+		this.typeOfCollection = typeOfCollection;
+		this.typeOfElements = typeOfElements;
+		this.settings = settings;
+		this.key = new CollectionOfMocksKey(typeOfCollection, typeOfElements);
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @return {@link FieldAccessor} for the {@link #getField() field}
+	 */
+	public FieldAccessor getFieldAccessor() {
+		return fieldAccessor;
+	}
+
+	public Class<Collection<Object>> getTypeOfCollection() {
+		return typeOfCollection;
+	}
+
+	public Class<Object> getTypeOfElements() {
+		return typeOfElements;
+	}
+
+	/**
+	 * @return The {@link CollectionOfMocksSettings} of the {@link #getField() field}
+	 */
+	public CollectionOfMocksSettings getSettings() {
+		return settings;
+	}
+
+	/**
+	 * @return {@link CollectionOfMocksKey} of the {@link #getTypeOfCollection() type of collection} and
+	 *         {@link #getTypeOfElements() type of elements}
+	 */
+	public CollectionOfMocksKey getKey() {
+		return key;
+	}
+}
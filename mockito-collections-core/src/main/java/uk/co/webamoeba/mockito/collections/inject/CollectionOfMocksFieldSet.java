@@ -3,19 +3,26 @@ package uk.co.webamoeba.mockito.collections.inject;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * A Set of {@link CollectionOfMocksField CollectionOfMocksFields}.
+ * A Set of {@link CollectionOfMocksField CollectionOfMocksFields}. The {@link CollectionOfMocksField
+ * CollectionOfMocksFields} are indexed by {@link CollectionOfMocksKey}, so adding a {@link CollectionOfMocksField} and
+ * getting the {@link CollectionOfMocksField} for a type of collection and type of elements do not require a scan of
+ * the {@link CollectionOfMocksFieldSet}.
  * 
  * @author James Kennard
  */
 public class CollectionOfMocksFieldSet implements Iterable<CollectionOfMocksField<Collection<Object>, Object>> {
 
-	private Set<CollectionOfMocksField<Collection<Object>, Object>> collectionOfMocksFields = new HashSet<CollectionOfMocksField<Collection<Object>, Object>>();
+	private Map<CollectionOfMocksKey, CollectionOfMocksField<Collection<Object>, Object>> collectionOfMocksFields;
 
 	@SuppressWarnings("rawtypes")
 	public CollectionOfMocksFieldSet(CollectionOfMocksField... collections) {
+		this.collectionOfMocksFields = new LinkedHashMap<CollectionOfMocksKey, CollectionOfMocksField<Collection<Object>, Object>>(
+				capacityFor(collections.length));
 		for (CollectionOfMocksField collectionOfMocksField : collections) {
 			add(collectionOfMocksField);
 		}
@@ -23,6 +30,8 @@ public class CollectionOfMocksFieldSet implements Iterable<CollectionOfMocksFiel
 
 	@SuppressWarnings("rawtypes")
 	public CollectionOfMocksFieldSet(Collection<CollectionOfMocksField> collections) {
+		this.collectionOfMocksFields = new LinkedHashMap<CollectionOfMocksKey, CollectionOfMocksField<Collection<Object>, Object>>(
+				capacityFor(collections.size()));
 		for (CollectionOfMocksField collectionOfMocksField : collections) {
 			add(collectionOfMocksField);
 		}
@@ -35,14 +44,38 @@ public class CollectionOfMocksFieldSet implements Iterable<CollectionOfMocksFiel
 	 * 
 	 * @param collectionOfMocksField
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings("rawtypes")
 	public void add(CollectionOfMocksField collectionOfMocksField) {
-		if (hasMatchingInjectableCollection(collectionOfMocksField)) {
+		add(new CollectionOfMocksKey(collectionOfMocksField.getTypeOfCollection(),
+				collectionOfMocksField.getTypeOfElements()), collectionOfMocksField);
+	}
+
+	/**
+	 * Adds an {@link CollectionOfMocksField} using a {@link CollectionOfMocksKey} that has already been created, for
+	 * example by a {@link CollectionOfMocksDefinition}.
+	 * 
+	 * @param key
+	 *            {@link CollectionOfMocksKey} of the collectionOfMocksField
+	 * @param collectionOfMocksField
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	void add(CollectionOfMocksKey key, CollectionOfMocksField collectionOfMocksField) {
+		if (collectionOfMocksFields.containsKey(key)) {
 			throw new IllegalArgumentException("There is more than one CollectionOfMocks of type of collection "
 					+ collectionOfMocksField.getTypeOfCollection() + " and type of element "
 					+ collectionOfMocksField.getTypeOfElements());
 		}
-		this.collectionOfMocksFields.add(collectionOfMocksField);
+		this.collectionOfMocksFields.put(key, collectionOfMocksField);
+	}
+
+	/**
+	 * @param typeOfCollection
+	 * @param typeOfElements
+	 * @return The {@link CollectionOfMocksField} with exactly the typeOfCollection and typeOfElements, or
+	 *         <code>null</code> if there is no such {@link CollectionOfMocksField}
+	 */
+	public CollectionOfMocksField<Collection<Object>, Object> get(Class<?> typeOfCollection, Class<?> typeOfElements) {
+		return collectionOfMocksFields.get(new CollectionOfMocksKey(typeOfCollection, typeOfElements));
 	}
 
 	/**
@@ -55,25 +88,19 @@ public class CollectionOfMocksFieldSet implements Iterable<CollectionOfMocksFiel
 
 	/**
 	 * Returns an iterator allowing the caller to iterate over the {@link CollectionOfMocksField InjectableCollections}
-	 * held within this {@link CollectionOfMocksFieldSet}.
+	 * held within this {@link CollectionOfMocksFieldSet}, in the order in which they were added.
 	 * 
 	 * @return An iterator
 	 */
 	public Iterator<CollectionOfMocksField<Collection<Object>, Object>> iterator() {
-		return collectionOfMocksFields.iterator();
+		return collectionOfMocksFields.values().iterator();
 	}
 
 	public Set<CollectionOfMocksField<Collection<Object>, Object>> asSet() {
-		return new HashSet<CollectionOfMocksField<Collection<Object>, Object>>(collectionOfMocksFields);
+		return new HashSet<CollectionOfMocksField<Collection<Object>, Object>>(collectionOfMocksFields.values());
 	}
 
-	@SuppressWarnings("rawtypes")
-	private boolean hasMatchingInjectableCollection(CollectionOfMocksField collectionOfMocksField) {
-		for (CollectionOfMocksField existing : collectionOfMocksFields) {
-			if (collectionOfMocksField.matches(existing)) {
-				return true;
-			}
-		}
-		return false;
+	private static int capacityFor(int size) {
+		return Math.max(16, (int) (size / 0.75f) + 1);
 	}
 }
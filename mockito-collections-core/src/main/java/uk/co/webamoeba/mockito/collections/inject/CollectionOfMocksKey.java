@@ -0,0 +1,70 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.util.Collection;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+
+/**
+ * Key that identifies a {@link CollectionOfMocks} field by its type of collection and type of elements. Two
+ * {@link CollectionOfMocksKey CollectionOfMocksKeys} are equal when they {@link CollectionOfMocksField#matches(
+ * CollectionOfMocksField) match}, which allows {@link CollectionOfMocksField CollectionOfMocksFields} to be held and
+ * found in a hash based index.
+ * 
+ * @author James Kennard
+ */
+public final class CollectionOfMocksKey {
+
+	private final Class<?> typeOfCollection;
+
+	private final Class<?> typeOfElements;
+
+	private final int hashCode;
+
+	/**
+	 * @param typeOfCollection
+	 *            The type of {@link Collection}
+	 * @param typeOfElements
+	 *            The type of elements within the {@link Collection}
+	 */
+	public CollectionOfMocksKey(Class<?> typeOfCollection, Class<?> typeOfElements) {
+		if (typeOfCollection == null) {
+			throw new IllegalArgumentException("typeOfCollection must not be null");
+		}
+		if (typeOfElements == null) {
+			throw new IllegalArgumentException("typeOfElements must not be null");
+		}
+		this.typeOfCollection = typeOfCollection;
+		this.typeOfElements = typeOfElements;
+		this.hashCode = 31 * typeOfCollection.hashCode() + typeOfElements.hashCode();
+	}
+
+	public Class<?> getTypeOfCollection() {
+		return typeOfCollection;
+	}
+
+	public Class<?> getTypeOfElements() {
+		return typeOfElements;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CollectionOfMocksKey)) {
+			return false;
+		}
+		CollectionOfMocksKey other = (CollectionOfMocksKey) obj;
+		return typeOfCollection.equals(other.typeOfCollection) && typeOfElements.equals(other.typeOfElements);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return "type of collection " + typeOfCollection + " and type of element " + typeOfElements;
+	}
+}
@@ -0,0 +1,62 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+
+/**
+ * The attributes of a {@link CollectionOfMocks} annotation that determine how the mocks of the field are created. A
+ * {@link CollectionOfMocksSettings} is immutable, generated code creates one per field when the generated class is
+ * initialised.
+ * 
+ * @author James Kennard
+ */
+public class CollectionOfMocksSettings {
+
+	private final int numberOfMocks;
+
+	private final MockType mockType;
+
+	private final int retainedInvocations;
+
+	private final boolean lazy;
+
+	/**
+	 * @param numberOfMocks
+	 *            The {@link CollectionOfMocks#numberOfMocks() number of mocks} to create
+	 * @param mockType
+	 *            The {@link CollectionOfMocks#mockType() type of mocks} to create
+	 * @param retainedInvocations
+	 *            The {@link CollectionOfMocks#retainedInvocations() number of invocations} retained by each mock,
+	 *            negative retains every invocation
+	 * @param lazy
+	 *            <code>true</code> if the mocks are {@link CollectionOfMocks#lazy() created lazily}
+	 */
+	public CollectionOfMocksSettings(int numberOfMocks, MockType mockType, int retainedInvocations, boolean lazy) {
+		this.numberOfMocks = numberOfMocks;
+		this.mockType = mockType;
+		this.retainedInvocations = retainedInvocations;
+		this.lazy = lazy;
+	}
+
+	public int getNumberOfMocks() {
+		return numberOfMocks;
+	}
+
+	public MockType getMockType() {
+		return mockType;
+	}
+
+	/**
+	 * @return The number of invocations retained by each mock, negative if every invocation is retained
+	 */
+	public int getRetainedInvocations() {
+		return retainedInvocations;
+	}
+
+	/**
+	 * @return <code>true</code> if each mock is created only when it is first accessed
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+}
@@ -0,0 +1,73 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.internal.RegisteredInvocationsAccessor;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * {@link MockStrategy} that creates {@link MockType#CONCURRENT} mocks. The mocks are created by another
+ * {@link MockStrategy}, and the invocations of each are then recorded in stripes chosen by the id of the invoking
+ * {@link Thread} rather than in a single synchronized list, so threads in different stripes do not contend to record
+ * their invocations. Every invocation is still numbered by Mockito's global sequence, and the stubs of the mock are
+ * still searched under the lock of the mock, so invoking a mock is not free of contention. The stripes are merged
+ * only when the invocations are read, so the mocks are stubbed and verified, including by
+ * {@link uk.co.webamoeba.mockito.collections.MockitoCollections#collectiveVerify(Class, java.util.Collection)}, in the
+ * same way as any other Mockito mock.
+ * <p>
+ * A mock that is {@link org.mockito.Mockito#reset(Object...) reset} records its subsequent invocations in the usual
+ * way.
+ * 
+ * @author James Kennard
+ */
+public class ConcurrentMockStrategy implements MockStrategy {
+
+	/**
+	 * The number of stripes in which the invocations of each mock are recorded, unless otherwise specified.
+	 */
+	public static final int DEFAULT_NUMBER_OF_STRIPES = 64;
+
+	private final MockStrategy mockStrategy;
+
+	private final int numberOfStripes;
+
+	/**
+	 * @param mockStrategy
+	 *            {@link MockStrategy} used to create the mocks
+	 */
+	public ConcurrentMockStrategy(MockStrategy mockStrategy) {
+		this(mockStrategy, DEFAULT_NUMBER_OF_STRIPES);
+	}
+
+	/**
+	 * @param mockStrategy
+	 *            {@link MockStrategy} used to create the mocks
+	 * @param numberOfStripes
+	 *            The number of stripes in which the invocations of each mock are recorded, rounded up to a power of
+	 *            two. Threads with consecutive ids, such as those of a thread pool, are assigned different stripes.
+	 */
+	public ConcurrentMockStrategy(MockStrategy mockStrategy, int numberOfStripes) {
+		if (numberOfStripes <= 0) {
+			throw new IllegalArgumentException("numberOfStripes must be greater than zero");
+		}
+		this.mockStrategy = mockStrategy;
+		this.numberOfStripes = numberOfStripes;
+	}
+
+	public <T> T createMock(Class<T> clazz) {
+		T mock = mockStrategy.createMock(clazz);
+		stripeInvocations(mock);
+		return mock;
+	}
+
+	public <T> OrderedSet<T> createMocks(Class<T> clazz, int numberOfMocks) {
+		OrderedSet<T> mocks = mockStrategy.createMocks(clazz, numberOfMocks);
+		for (T mock : mocks) {
+			stripeInvocations(mock);
+		}
+		return mocks;
+	}
+
+	private void stripeInvocations(Object mock) {
+		RegisteredInvocationsAccessor.setRegisteredInvocations(mock, new StripedRegisteredInvocations(numberOfStripes));
+	}
+}
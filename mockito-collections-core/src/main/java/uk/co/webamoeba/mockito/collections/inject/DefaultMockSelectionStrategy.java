@@ -5,24 +5,18 @@ import java.util.Collection;
 import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 
 /**
- * The default implementation of {@link MockSelectionStrategy}.
+ * The default implementation of {@link MockSelectionStrategy}. Mocks are selected using the type index of the
+ * {@link MockRegistry}, so selecting the mocks for a field does not require a scan of every mock.
  * 
  * @author James Kennard
  */
 public class DefaultMockSelectionStrategy implements MockSelectionStrategy {
 
-	@SuppressWarnings("unchecked")
-	public <T> OrderedSet<T> selectMocks(OrderedSet<Object> mocks, Class<T> mockClass) {
-		OrderedSet<T> matchingMocks = new OrderedSet<T>();
-		for (Object object : mocks) {
-			if (mockClass.isAssignableFrom(object.getClass())) {
-				matchingMocks.add((T) object);
-			}
-		}
-		return matchingMocks;
+	public <T> OrderedSet<T> selectMocks(MockRegistry mocks, Class<T> mockClass) {
+		return mocks.getMocks(mockClass);
 	}
 
-	@SuppressWarnings("unchecked")
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public <C extends Collection<E>, E> CollectionOfMocksField<C, E> getCollectionOfMocksField(
 			CollectionOfMocksFieldSet collectionOfMocksFieldSet, Class<C> typeOfCollection, Class<E> typeOfElements) {
 		if (collectionOfMocksFieldSet == null) {
@@ -35,19 +29,6 @@ public class DefaultMockSelectionStrategy implements MockSelectionStrategy {
 			throw new IllegalArgumentException("typeOfElements must not be null");
 		}
 
-		CollectionOfMocksField<C, E> collectionOfMocksField = null;
-		for (CollectionOfMocksField<?, ?> candidate : collectionOfMocksFieldSet) {
-			if (candidate.getTypeOfCollection().equals(typeOfCollection)
-					&& candidate.getTypeOfElements().equals(typeOfElements)) {
-				if (collectionOfMocksField != null) {
-					throw new IllegalArgumentException(
-							"There is more than one CollectionOfMocksField of type of collection " + typeOfCollection
-									+ " and type of element " + typeOfElements
-									+ ". There may be other offending duplicates.");
-				}
-				collectionOfMocksField = (CollectionOfMocksField<C, E>) candidate;
-			}
-		}
-		return collectionOfMocksField;
+		return (CollectionOfMocksField) collectionOfMocksFieldSet.get(typeOfCollection, typeOfElements);
 	}
 }
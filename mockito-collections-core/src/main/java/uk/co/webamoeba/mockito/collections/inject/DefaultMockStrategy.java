@@ -1,16 +1,122 @@
 package uk.co.webamoeba.mockito.collections.inject;
 
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.internal.ObservableInvocationListener;
+import uk.co.webamoeba.mockito.collections.util.DaemonThreadFactory;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 
 /**
- * {@link MockStrategy} that creates Mockito style mocks.
+ * {@link MockStrategy} that creates Mockito style mocks. When more than the parallel threshold number of mocks are
+ * created at once the work is split into contiguous partitions, one per available processor, and the partitions are
+ * created concurrently. The first mock is always created on the calling thread so that the mock {@link Class} is only
+ * generated once, and the partitions are joined in order so the result does not depend on thread scheduling. Each mock
+ * has an {@link ObservableInvocationListener} so that it can be awaited and journaled.
  * 
  * @author James Kennard
  */
 public class DefaultMockStrategy implements MockStrategy {
 
+	/**
+	 * The number of mocks at or above which mocks are created concurrently, unless otherwise specified.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+
+	private final int parallelThreshold;
+
+	private final int parallelism;
+
+	public DefaultMockStrategy() {
+		this(DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * @param parallelThreshold
+	 *            The number of mocks at or above which mocks are created concurrently, zero or less disables concurrent
+	 *            creation
+	 */
+	public DefaultMockStrategy(int parallelThreshold) {
+		this(parallelThreshold, Runtime.getRuntime().availableProcessors());
+	}
+
+	DefaultMockStrategy(int parallelThreshold, int parallelism) {
+		this.parallelThreshold = parallelThreshold;
+		this.parallelism = parallelism;
+	}
+
 	public <T> T createMock(Class<T> clazz) {
-		return mock(clazz);
+		return mock(clazz, withSettings().defaultAnswer(RETURNS_DEFAULTS).invocationListeners(
+				new ObservableInvocationListener()));
 	}
 
+	public <T> OrderedSet<T> createMocks(Class<T> clazz, int numberOfMocks) {
+		OrderedSet<T> mocks = new OrderedSet<T>(numberOfMocks);
+		if (numberOfMocks <= 0) {
+			return mocks;
+		}
+		mocks.add(createMock(clazz));
+		int remaining = numberOfMocks - 1;
+		int partitions = Math.min(parallelism, remaining);
+		if (parallelThreshold <= 0 || numberOfMocks < parallelThreshold || partitions < 2) {
+			for (int i = 0; i < remaining; i++) {
+				mocks.add(createMock(clazz));
+			}
+			return mocks;
+		}
+		for (List<T> partition : createMocksConcurrently(clazz, remaining, partitions)) {
+			mocks.addAll(partition);
+		}
+		return mocks;
+	}
+
+	private <T> List<List<T>> createMocksConcurrently(final Class<T> clazz, int numberOfMocks, int partitions) {
+		ExecutorService executorService = Executors.newFixedThreadPool(partitions, new DaemonThreadFactory(
+				"mockito-collections-mock-creation-"));
+		try {
+			List<Future<List<T>>> futures = new ArrayList<Future<List<T>>>(partitions);
+			for (int i = 0; i < partitions; i++) {
+				final int size = (int) ((long) numberOfMocks * (i + 1) / partitions - (long) numberOfMocks * i
+						/ partitions);
+				futures.add(executorService.submit(new Callable<List<T>>() {
+
+					public List<T> call() {
+						List<T> partition = new ArrayList<T>(size);
+						for (int j = 0; j < size; j++) {
+							partition.add(createMock(clazz));
+						}
+						return partition;
+					}
+				}));
+			}
+			List<List<T>> mocks = new ArrayList<List<T>>(partitions);
+			for (Future<List<T>> future : futures) {
+				mocks.add(future.get());
+			}
+			return mocks;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MockitoCollectionsException("Interrupted whilst creating mocks of " + clazz, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new MockitoCollectionsException("Could not create mocks of " + clazz, e.getCause());
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
 }
@@ -0,0 +1,50 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.internal.FlyweightMocks;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * {@link MockStrategy} that creates {@link MockType#FLYWEIGHT} mocks of interfaces, mocks that share one stubbing
+ * configuration and keep only their index and the number of times each of their methods has been invoked. The mocks
+ * created together form a {@link FlyweightMocks group}, stubbed once by
+ * {@link uk.co.webamoeba.mockito.collections.MockitoCollections#collectiveWhen(Class, java.util.Collection,
+ * org.mockito.stubbing.Answer)} and verified by
+ * {@link uk.co.webamoeba.mockito.collections.MockitoCollections#collectiveVerify(Class, java.util.Collection,
+ * org.mockito.verification.VerificationMode)}.
+ * <p>
+ * Mocks of types that are not interfaces are created by the fallback {@link MockStrategy}.
+ * 
+ * @author James Kennard
+ */
+public class FlyweightMockStrategy implements MockStrategy {
+
+	private final MockStrategy fallbackMockStrategy;
+
+	/**
+	 * @param fallbackMockStrategy
+	 *            {@link MockStrategy} used to create mocks of types that are not interfaces
+	 */
+	public FlyweightMockStrategy(MockStrategy fallbackMockStrategy) {
+		this.fallbackMockStrategy = fallbackMockStrategy;
+	}
+
+	public <T> T createMock(Class<T> clazz) {
+		if (!clazz.isInterface()) {
+			return fallbackMockStrategy.createMock(clazz);
+		}
+		return clazz.cast(new FlyweightMocks(clazz, 1).createMock(0));
+	}
+
+	public <T> OrderedSet<T> createMocks(Class<T> clazz, int numberOfMocks) {
+		if (!clazz.isInterface()) {
+			return fallbackMockStrategy.createMocks(clazz, numberOfMocks);
+		}
+		FlyweightMocks flyweightMocks = new FlyweightMocks(clazz, numberOfMocks);
+		OrderedSet<T> mocks = new OrderedSet<T>(numberOfMocks);
+		for (int i = 0; i < numberOfMocks; i++) {
+			mocks.add(clazz.cast(flyweightMocks.createMock(i)));
+		}
+		return mocks;
+	}
+}
@@ -0,0 +1,48 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+
+/**
+ * A {@link GeneratedCollectionInjector} is generated at compile time for a test class, it does the same job as the
+ * {@link CollectionOfMocksInitialiser} and the {@link CollectionInjector} but with the {@link CollectionOfMocks},
+ * {@link Mock} and {@link InjectMocks} {@link Field Fields} and the matching of mocks to
+ * {@link Collection Collections} resolved when the test class was compiled. Implementations are named after the test
+ * class they were generated for, with the {@link #SUFFIX} appended, and must have a public no-arg constructor, see
+ * {@link GeneratedCollectionInjectorLocator}.
+ * 
+ * @author James Kennard
+ */
+public interface GeneratedCollectionInjector {
+
+	/**
+	 * Suffix appended to the binary name of a test class to give the name of its {@link GeneratedCollectionInjector}.
+	 */
+	public static final String SUFFIX = "$$CollectionInjector";
+
+	/**
+	 * Mocks are matched by the declared types of the {@link Field Fields}. If an {@link InjectMocks} {@link Field}
+	 * holds an instance of a subclass of its declared type the generated code cannot be used, because the subclass may
+	 * declare {@link Collection Collections} of its own.
+	 * 
+	 * @param object
+	 *            The test to initialise
+	 * @return <code>true</code> if this {@link GeneratedCollectionInjector} can initialise the object
+	 */
+	public boolean canInitialise(Object object);
+
+	/**
+	 * Initialises the object, the same as {@link uk.co.webamoeba.mockito.collections.internal.Initialiser#initialise}.
+	 * 
+	 * @param object
+	 *            The test to initialise
+	 * @param support
+	 *            {@link GeneratedCollectionInjectorSupport} used to create mocks and {@link Collection Collections}
+	 */
+	public void initialise(Object object, GeneratedCollectionInjectorSupport support);
+}
@@ -0,0 +1,64 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.util.ClassCache;
+
+/**
+ * Locates the {@link GeneratedCollectionInjector} for a {@link Class}, if one was generated. The outcome of the lookup
+ * is cached, including when there is no {@link GeneratedCollectionInjector}, such that the {@link ClassLoader} is only
+ * consulted once per {@link Class}. The outcomes are held in a {@link ClassCache}, so neither the {@link Class} nor its
+ * {@link GeneratedCollectionInjector} prevent the {@link ClassLoader} from being unloaded.
+ * 
+ * @author James Kennard
+ */
+public class GeneratedCollectionInjectorLocator {
+
+	private static final GeneratedCollectionInjector NONE = new GeneratedCollectionInjector() {
+
+		public boolean canInitialise(Object object) {
+			return false;
+		}
+
+		public void initialise(Object object, GeneratedCollectionInjectorSupport support) {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	private final ClassCache<GeneratedCollectionInjector> injectors = new ClassCache<GeneratedCollectionInjector>();
+
+	/**
+	 * @param clazz
+	 * @return The {@link GeneratedCollectionInjector} for the {@link Class}, or <code>null</code> if there is none.
+	 */
+	public GeneratedCollectionInjector getGeneratedCollectionInjector(Class<?> clazz) {
+		GeneratedCollectionInjector injector = injectors.get(clazz);
+		if (injector == null) {
+			injector = loadGeneratedCollectionInjector(clazz);
+			injectors.putIfAbsent(clazz, injector);
+		}
+		return injector == NONE ? null : injector;
+	}
+
+	private GeneratedCollectionInjector loadGeneratedCollectionInjector(Class<?> clazz) {
+		ClassLoader classLoader = clazz.getClassLoader();
+		if (classLoader == null) {
+			return NONE;
+		}
+		final Class<?> injectorClass;
+		try {
+			injectorClass = Class.forName(clazz.getName() + GeneratedCollectionInjector.SUFFIX, true, classLoader);
+		} catch (ClassNotFoundException e) {
+			return NONE;
+		}
+		if (!GeneratedCollectionInjector.class.isAssignableFrom(injectorClass)) {
+			return NONE;
+		}
+		try {
+			return (GeneratedCollectionInjector) injectorClass.newInstance();
+		} catch (InstantiationException e) {
+			throw new MockitoCollectionsException("Could not instantiate generated injector " + injectorClass, e);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Could not instantiate generated injector " + injectorClass, e);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.util.FieldAccessor;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * Collaborator of {@link GeneratedCollectionInjector GeneratedCollectionInjectors}, this keeps the generated code
+ * small and ensures that mocks and {@link Collection Collections} are created the same way regardless of whether a
+ * test is initialised by generated code or reflectively.
+ * 
+ * @author James Kennard
+ */
+public class GeneratedCollectionInjectorSupport {
+
+	private CollectionFactory collectionFactory;
+
+	private MockStrategySelector mockStrategySelector;
+
+	public GeneratedCollectionInjectorSupport(CollectionFactory collectionFactory,
+			MockStrategySelector mockStrategySelector) {
+		this.collectionFactory = collectionFactory;
+		this.mockStrategySelector = mockStrategySelector;
+	}
+
+	/**
+	 * Used by generated code to access {@link Field Fields} it cannot access directly, for example private
+	 * {@link Field Fields}. Intended to be called once per {@link Field}, when the generated class is initialised.
+	 * 
+	 * @param declaringClass
+	 * @param fieldName
+	 * @return {@link FieldAccessor} for the named {@link Field}
+	 */
+	public static FieldAccessor getFieldAccessor(Class<?> declaringClass, String fieldName) {
+		try {
+			return new FieldAccessor(declaringClass.getDeclaredField(fieldName));
+		} catch (NoSuchFieldException e) {
+			throw new MockitoCollectionsException("Could not find field '" + fieldName + "' on " + declaringClass
+					+ ", the generated injector is out of date", e);
+		}
+	}
+
+	/**
+	 * Used by generated code to access {@link Field Fields} declared by a superclass that the generated code cannot
+	 * refer to, for example a package private superclass in another package.
+	 * 
+	 * @param clazz
+	 *            The {@link Class} that inherits the {@link Field}
+	 * @param declaringClassName
+	 *            The name of the superclass that declares the {@link Field}
+	 * @param fieldName
+	 * @return {@link FieldAccessor} for the named {@link Field}
+	 */
+	public static FieldAccessor getFieldAccessor(Class<?> clazz, String declaringClassName, String fieldName) {
+		for (Class<?> declaringClass = clazz; declaringClass != null; declaringClass = declaringClass.getSuperclass()) {
+			if (declaringClass.getName().equals(declaringClassName)) {
+				return getFieldAccessor(declaringClass, fieldName);
+			}
+		}
+		throw new MockitoCollectionsException("Could not find field '" + fieldName + "', " + clazz
+				+ " does not extend " + declaringClassName + ", the generated injector is out of date");
+	}
+
+	/**
+	 * @param value
+	 *            The value of a {@link Field}
+	 * @param fieldName
+	 *            The name of the {@link Field}
+	 * @return The value
+	 * @throws MockitoCollectionsException
+	 *             If the value is <code>null</code>
+	 */
+	public <T> T getRequiredValue(T value, String fieldName) {
+		if (value == null) {
+			throw new MockitoCollectionsException("The field " + fieldName
+					+ " is null, you must initialse the fields before using Mockito-Collections");
+		}
+		return value;
+	}
+
+	/**
+	 * Creates the value of a {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} field.
+	 * 
+	 * @param typeOfCollection
+	 * @param typeOfElements
+	 * @param settings
+	 *            The {@link CollectionOfMocksSettings} of the field
+	 * @return A new {@link Collection} containing new mocks, or a {@link LazyCollectionOfMocks}
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public Collection<Object> createCollectionOfMocks(Class typeOfCollection, Class typeOfElements,
+			CollectionOfMocksSettings settings) {
+		MockStrategy mockStrategy = mockStrategySelector.getMockStrategy(settings.getMockType(),
+				settings.getRetainedInvocations());
+		if (settings.isLazy()) {
+			return collectionFactory.createLazyCollection(typeOfCollection, typeOfElements,
+					settings.getNumberOfMocks(), mockStrategy);
+		}
+		return collectionFactory.createCollection(typeOfCollection, mockStrategy.createMocks(typeOfElements,
+				settings.getNumberOfMocks()));
+	}
+
+	/**
+	 * @param typeOfCollection
+	 * @param mocks
+	 *            The mocks, duplicates are ignored
+	 * @return A new {@link Collection} of the mocks, or <code>null</code> if there are no mocks
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public Collection<Object> createCollection(Class typeOfCollection, Object... mocks) {
+		OrderedSet<Object> contents = toOrderedSet(mocks);
+		if (contents.isEmpty()) {
+			return null;
+		}
+		return collectionFactory.createCollection(typeOfCollection, contents);
+	}
+
+	/**
+	 * @param typeOfCollection
+	 * @param collectionOfMocks
+	 *            The value of a {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} field
+	 * @return A new {@link Collection} with the contents of the collectionOfMocks, the collectionOfMocks itself if it
+	 *         is a {@link LazyCollectionOfMocks}, or <code>null</code> if the collectionOfMocks is empty
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public Collection<Object> copyCollectionOfMocks(Class typeOfCollection, Collection collectionOfMocks) {
+		if (collectionOfMocks instanceof LazyCollectionOfMocks) {
+			// Copying would create every mock, the field and the injection point are of the same type
+			return collectionOfMocks.isEmpty() ? null : collectionOfMocks;
+		}
+		OrderedSet<Object> contents = new OrderedSet<Object>(collectionOfMocks);
+		if (contents.isEmpty()) {
+			return null;
+		}
+		return collectionFactory.createCollection(typeOfCollection, contents);
+	}
+
+	/**
+	 * @param typeOfElements
+	 * @param mocks
+	 *            The mocks, duplicates are ignored
+	 * @return A new array of the mocks, or <code>null</code> if there are no mocks
+	 */
+	public Object createArray(Class<?> typeOfElements, Object... mocks) {
+		OrderedSet<Object> contents = toOrderedSet(mocks);
+		if (contents.isEmpty()) {
+			return null;
+		}
+		return contents.toArray((Object[]) Array.newInstance(typeOfElements, contents.size()));
+	}
+
+	private OrderedSet<Object> toOrderedSet(Object[] mocks) {
+		OrderedSet<Object> contents = new OrderedSet<Object>(mocks.length);
+		for (Object mock : mocks) {
+			contents.add(mock);
+		}
+		return contents;
+	}
+}
@@ -19,6 +19,8 @@ public class InjectionDetails {
 
 	private OrderedSet<Object> mocks;
 
+	private MockRegistry mockRegistry;
+
 	private CollectionOfMocksFieldSet collectionOfMocksFieldSet;
 
 	/**
@@ -44,6 +46,7 @@ public class InjectionDetails {
 
 		this.injectCollections = Collections.unmodifiableSet(injectCollections);
 		this.mocks = new OrderedSet<Object>(mocks);
+		this.mockRegistry = new MockRegistry(this.mocks);
 		this.collectionOfMocksFieldSet = collectionOfMocksFieldSet;
 	}
 
@@ -65,6 +68,14 @@ public class InjectionDetails {
 		return mocks;
 	}
 
+	/**
+	 * @return {@link MockRegistry} of the {@link #getMocks() mocks}, shared by all of the
+	 *         {@link #getInjectCollections() injectCollections}
+	 */
+	public MockRegistry getMockRegistry() {
+		return mockRegistry;
+	}
+
 	public CollectionOfMocksFieldSet getInjectableCollectionSet() {
 		return collectionOfMocksFieldSet;
 	}
@@ -2,20 +2,16 @@ package uk.co.webamoeba.mockito.collections.inject;
 
 import java.lang.annotation.ElementType;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.internal.util.reflection.FieldReader;
 
 import uk.co.webamoeba.mockito.collections.annotation.IgnoreForCollections;
 import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
-import uk.co.webamoeba.mockito.collections.util.AnnotatedFieldRetriever;
-import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
+import uk.co.webamoeba.mockito.collections.util.FieldAccessor;
 import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 
 /**
@@ -23,7 +19,8 @@ import uk.co.webamoeba.mockito.collections.util.OrderedSet;
  * annotations. {@link Field Fields} with the {@link InjectMocks} annotation are considered for injection of
  * {@link Collection Collections}. {@link Field Fields} with the {@link Mock} annotation are considered {@link Mock
  * Mocks}. It is also possible to ignore fields that would otherwise be considered {@link Mock Mocks} using the
- * {@link IgnoreForCollections} annotation.
+ * {@link IgnoreForCollections} annotation. Which {@link Field Fields} are which is described by an
+ * {@link InjectionPlan}, this factory only reads the values of those {@link Field Fields}.
  * 
  * @see Mock
  * @see InjectMocks
@@ -32,57 +29,33 @@ import uk.co.webamoeba.mockito.collections.util.OrderedSet;
  */
 public class InjectionDetailsFactory {
 
-	private AnnotatedFieldRetriever annotatedFieldRetriever;
-
-	private GenericCollectionTypeResolver genericCollectionTypeResolver;
-
-	public InjectionDetailsFactory(AnnotatedFieldRetriever annotatedFieldRetriever,
-			GenericCollectionTypeResolver genericCollectionTypeResolver) {
-		this.annotatedFieldRetriever = annotatedFieldRetriever;
-		this.genericCollectionTypeResolver = genericCollectionTypeResolver;
-	}
-
 	/**
 	 * @param object
+	 * @param injectionPlan
+	 *            {@link InjectionPlan} for the {@link Class} of the object
 	 * @return {@link InjectionDetails} created based on the Mockito annotations {@link Mock} and {@link InjectMocks}.
 	 */
-	public InjectionDetails createInjectionDetails(Object object) {
-		Set<Object> injectCollections = getInjectCollections(object);
-		OrderedSet<Object> mocks = getMocks(object);
-		CollectionOfMocksFieldSet collectionOfMocksFieldSet = getInjectableCollectionSet(object);
+	public InjectionDetails createInjectionDetails(Object object, InjectionPlan injectionPlan) {
+		Set<Object> injectCollections = getFieldValues(object, injectionPlan.getInjectMocksFieldAccessors());
+		OrderedSet<Object> mocks = getFieldValues(object, injectionPlan.getMockFieldAccessors());
+		CollectionOfMocksFieldSet collectionOfMocksFieldSet = getInjectableCollectionSet(object, injectionPlan);
 		return new InjectionDetails(injectCollections, mocks, collectionOfMocksFieldSet);
 	}
 
-	private Set<Object> getInjectCollections(Object object) {
-		Set<Field> fields = annotatedFieldRetriever.getAnnotatedFields(object.getClass(), InjectMocks.class);
-		return getFieldValues(object, fields);
-	}
-
-	private OrderedSet<Object> getMocks(Object object) {
-		Set<Field> fields = annotatedFieldRetriever.getAnnotatedFields(object.getClass(), Mock.class);
-		fields.removeAll(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), IgnoreForCollections.class));
-		return getFieldValues(object, fields);
-	}
-
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private CollectionOfMocksFieldSet getInjectableCollectionSet(Object object) {
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private CollectionOfMocksFieldSet getInjectableCollectionSet(Object object, InjectionPlan injectionPlan) {
 		CollectionOfMocksFieldSet collectionOfMocksFieldSet = new CollectionOfMocksFieldSet();
-		Set<Field> fields = annotatedFieldRetriever.getAnnotatedFields(object.getClass(),
-				uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks.class);
-		for (Field field : fields) {
-			Object fieldValue = new FieldReader(object, field).read();
+		for (CollectionOfMocksDefinition definition : injectionPlan.getCollectionOfMocksDefinitions()) {
+			Object fieldValue = definition.getFieldAccessor().read(object);
 			if (!(fieldValue instanceof Collection)) {
 				throw new MockitoCollectionsException(
 						"Found field with CollectionOfMocksField annotation, but the field is not a Collection, field is '"
-								+ field.getName() + "'");
+								+ definition.getField().getName() + "'");
 			}
 			Collection<?> value = (Collection<?>) fieldValue;
-			Class<Collection<?>> typeOfCollection = (Class<Collection<?>>) ((ParameterizedType) field.getGenericType())
-					.getRawType();
-			Class typeOfElements = genericCollectionTypeResolver.getCollectionFieldType(field);
-			CollectionOfMocksField collectionOfMocksField = new CollectionOfMocksField(value, typeOfCollection,
-					typeOfElements);
-			collectionOfMocksFieldSet.add(collectionOfMocksField);
+			CollectionOfMocksField collectionOfMocksField = new CollectionOfMocksField(value,
+					definition.getTypeOfCollection(), definition.getTypeOfElements());
+			collectionOfMocksFieldSet.add(definition.getKey(), collectionOfMocksField);
 		}
 		return collectionOfMocksFieldSet;
 	}
@@ -90,41 +63,21 @@ public class InjectionDetailsFactory {
 	/**
 	 * @param object
 	 *            {@link Object} from which to retrieve values
-	 * @param fields
-	 *            The {@link Field Fields} from which to retrieve values
+	 * @param fieldAccessors
+	 *            {@link FieldAccessor FieldAccessors} for the {@link Field Fields} from which to retrieve values, in the
+	 *            order the values should be returned
 	 * @return Values of the {@link Field Fields} retrieved from the object
 	 */
-	private OrderedSet<Object> getFieldValues(Object object, Set<Field> fields) {
-		TreeSet<Field> sortedFields = new TreeSet<Field>(new FieldComparator());
-		sortedFields.addAll(fields);
-		OrderedSet<Object> values = new OrderedSet<Object>();
-		for (Field field : sortedFields) {
-			Object fieldValue = new FieldReader(object, field).read();
+	private OrderedSet<Object> getFieldValues(Object object, List<FieldAccessor> fieldAccessors) {
+		OrderedSet<Object> values = new OrderedSet<Object>(fieldAccessors.size());
+		for (FieldAccessor fieldAccessor : fieldAccessors) {
+			Object fieldValue = fieldAccessor.read(object);
 			if (fieldValue == null) {
-				throw new MockitoCollectionsException("The field " + field.getName()
+				throw new MockitoCollectionsException("The field " + fieldAccessor.getField().getName()
 						+ " is null, you must initialse the fields before using Mockito-Collections");
 			}
 			values.add(fieldValue);
 		}
 		return values;
 	}
-
-	/**
-	 * A {@link Comparator} that compares {@link Field Fields} by their declaring class and then their declared name.
-	 * 
-	 * @author James Kennard
-	 */
-	private class FieldComparator implements Comparator<Field> {
-
-		public int compare(Field o1, Field o2) {
-			if (o1.getDeclaringClass() == o2.getDeclaringClass()) {
-				return o1.getName().compareToIgnoreCase(o2.getName());
-			} else if (o1.getDeclaringClass().isAssignableFrom(o2.getDeclaringClass())) {
-				return -1;
-			} else if (o2.getDeclaringClass().isAssignableFrom(o1.getDeclaringClass())) {
-				return 1;
-			}
-			throw new IllegalArgumentException("The fields in the set are not from the same hierarchical tree");
-		}
-	}
 }
@@ -0,0 +1,129 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.IgnoreForCollections;
+import uk.co.webamoeba.mockito.collections.util.FieldAccessor;
+
+/**
+ * Immutable description of how to initialise an {@link Object}, typically a test, of a given {@link Class}. Creating an
+ * {@link InjectionPlan} involves all of the reflective work of scanning for annotated {@link Field Fields}, resolving
+ * generics and ordering the {@link Field Fields}. Once created an {@link InjectionPlan} can be replayed against any
+ * number of instances of the {@link Class}. {@link CollectionOfMocks} {@link Field Fields} with the same
+ * {@link CollectionOfMocksKey} are rejected when the {@link InjectionPlan} is created, rather than each time it is
+ * replayed.
+ * 
+ * @see InjectionPlanFactory
+ * @see InjectionPlanCache
+ * @author James Kennard
+ */
+public class InjectionPlan {
+
+	private final Class<?> testClass;
+
+	private final List<CollectionOfMocksDefinition> collectionOfMocksDefinitions;
+
+	private final List<Field> injectMocksFields;
+
+	private final List<Field> mockFields;
+
+	private final List<FieldAccessor> injectMocksFieldAccessors;
+
+	private final List<FieldAccessor> mockFieldAccessors;
+
+	/**
+	 * @param testClass
+	 *            The {@link Class} this {@link InjectionPlan} describes
+	 * @param collectionOfMocksDefinitions
+	 *            {@link CollectionOfMocksDefinition CollectionOfMocksDefinitions} for {@link Field Fields} annotated with
+	 *            {@link CollectionOfMocks}
+	 * @param injectMocksFields
+	 *            {@link Field Fields} annotated with {@link InjectMocks}, in order
+	 * @param mockFields
+	 *            {@link Field Fields} annotated with {@link Mock} and not {@link IgnoreForCollections}, in order
+	 * @throws IllegalArgumentException
+	 *             If more than one of the collectionOfMocksDefinitions has the same {@link CollectionOfMocksKey}
+	 */
+	public InjectionPlan(Class<?> testClass, Collection<CollectionOfMocksDefinition> collectionOfMocksDefinitions,
+			Collection<Field> injectMocksFields, Collection<Field> mockFields) {
+		this.testClass = testClass;
+		this.collectionOfMocksDefinitions = Collections.unmodifiableList(new ArrayList<CollectionOfMocksDefinition>(
+				collectionOfMocksDefinitions));
+		checkForDuplicateKeys(this.collectionOfMocksDefinitions);
+		this.injectMocksFields = Collections.unmodifiableList(new ArrayList<Field>(injectMocksFields));
+		this.mockFields = Collections.unmodifiableList(new ArrayList<Field>(mockFields));
+		this.injectMocksFieldAccessors = createFieldAccessors(this.injectMocksFields);
+		this.mockFieldAccessors = createFieldAccessors(this.mockFields);
+	}
+
+	public Class<?> getTestClass() {
+		return testClass;
+	}
+
+	/**
+	 * @return The {@link CollectionOfMocksDefinition CollectionOfMocksDefinitions}, the returned {@link List} is
+	 *         unmodifiable.
+	 */
+	public List<CollectionOfMocksDefinition> getCollectionOfMocksDefinitions() {
+		return collectionOfMocksDefinitions;
+	}
+
+	/**
+	 * @return The {@link Field Fields} annotated with {@link InjectMocks}, the returned {@link List} is unmodifiable.
+	 */
+	public List<Field> getInjectMocksFields() {
+		return injectMocksFields;
+	}
+
+	/**
+	 * @return The {@link Field Fields} that hold {@link Mock Mocks} that are candidates for injection, the returned
+	 *         {@link List} is unmodifiable.
+	 */
+	public List<Field> getMockFields() {
+		return mockFields;
+	}
+
+	/**
+	 * @return {@link FieldAccessor FieldAccessors} for the {@link #getInjectMocksFields() InjectMocks fields}, in the
+	 *         same order. The returned {@link List} is unmodifiable.
+	 */
+	public List<FieldAccessor> getInjectMocksFieldAccessors() {
+		return injectMocksFieldAccessors;
+	}
+
+	/**
+	 * @return {@link FieldAccessor FieldAccessors} for the {@link #getMockFields() mock fields}, in the same order. The
+	 *         returned {@link List} is unmodifiable.
+	 */
+	public List<FieldAccessor> getMockFieldAccessors() {
+		return mockFieldAccessors;
+	}
+
+	private static void checkForDuplicateKeys(List<CollectionOfMocksDefinition> collectionOfMocksDefinitions) {
+		Set<CollectionOfMocksKey> keys = new HashSet<CollectionOfMocksKey>();
+		for (CollectionOfMocksDefinition definition : collectionOfMocksDefinitions) {
+			if (!keys.add(definition.getKey())) {
+				throw new IllegalArgumentException("There is more than one CollectionOfMocks of type of collection "
+						+ definition.getTypeOfCollection() + " and type of element " + definition.getTypeOfElements());
+			}
+		}
+	}
+
+	private static List<FieldAccessor> createFieldAccessors(List<Field> fields) {
+		List<FieldAccessor> fieldAccessors = new ArrayList<FieldAccessor>(fields.size());
+		for (Field field : fields) {
+			fieldAccessors.add(new FieldAccessor(field));
+		}
+		return Collections.unmodifiableList(fieldAccessors);
+	}
+}
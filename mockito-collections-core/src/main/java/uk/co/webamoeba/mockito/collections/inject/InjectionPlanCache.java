@@ -0,0 +1,58 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.util.ClassCache;
+
+/**
+ * Caches the {@link InjectionPlan InjectionPlans} and {@link InjectionTargetPlan InjectionTargetPlans} created by an
+ * {@link InjectionPlanFactory}, such that the reflective work is done once per {@link Class} rather than once per
+ * initialisation. The plans are held in a {@link ClassCache}, so they never prevent a {@link ClassLoader} from being
+ * unloaded. {@link InjectionPlan InjectionPlans} are immutable, so it is safe to share them between threads. In
+ * the unlikely event that two threads ask for the same uncached plan at the same time, both will create it and the
+ * first to finish wins.
+ * 
+ * @author James Kennard
+ */
+public class InjectionPlanCache {
+
+	private InjectionPlanFactory injectionPlanFactory;
+
+	private final ClassCache<InjectionPlan> injectionPlans = new ClassCache<InjectionPlan>();
+
+	private final ClassCache<InjectionTargetPlan> injectionTargetPlans = new ClassCache<InjectionTargetPlan>();
+
+	public InjectionPlanCache(InjectionPlanFactory injectionPlanFactory) {
+		this.injectionPlanFactory = injectionPlanFactory;
+	}
+
+	/**
+	 * @param clazz
+	 * @return The {@link InjectionPlan} for the {@link Class}, created if it has not been previously requested.
+	 */
+	public InjectionPlan getInjectionPlan(Class<?> clazz) {
+		InjectionPlan injectionPlan = injectionPlans.get(clazz);
+		if (injectionPlan == null) {
+			injectionPlan = injectionPlanFactory.createInjectionPlan(clazz);
+			InjectionPlan existing = injectionPlans.putIfAbsent(clazz, injectionPlan);
+			if (existing != null) {
+				injectionPlan = existing;
+			}
+		}
+		return injectionPlan;
+	}
+
+	/**
+	 * @param clazz
+	 * @return The {@link InjectionTargetPlan} for the {@link Class}, created if it has not been previously requested.
+	 */
+	public InjectionTargetPlan getInjectionTargetPlan(Class<?> clazz) {
+		InjectionTargetPlan injectionTargetPlan = injectionTargetPlans.get(clazz);
+		if (injectionTargetPlan == null) {
+			injectionTargetPlan = injectionPlanFactory.createInjectionTargetPlan(clazz);
+			InjectionTargetPlan existing = injectionTargetPlans.putIfAbsent(clazz, injectionTargetPlan);
+			if (existing != null) {
+				injectionTargetPlan = existing;
+			}
+		}
+		return injectionTargetPlan;
+	}
+}
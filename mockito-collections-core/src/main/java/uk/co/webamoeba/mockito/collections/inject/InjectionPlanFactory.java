@@ -0,0 +1,188 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.IgnoreForCollections;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.util.AnnotatedFieldRetriever;
+import uk.co.webamoeba.mockito.collections.util.ClassFieldIndex;
+import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
+
+/**
+ * Factory that creates {@link InjectionPlan InjectionPlans} and {@link InjectionTargetPlan InjectionTargetPlans}. This
+ * is where all of the reflective inspection of {@link Class Classes} takes place, the results are intended to be
+ * cached, see {@link InjectionPlanCache}. {@link Field Fields} are read from the {@link ClassFieldIndex} of each
+ * {@link Class}.
+ * 
+ * @author James Kennard
+ */
+public class InjectionPlanFactory {
+
+	private AnnotatedFieldRetriever annotatedFieldRetriever;
+
+	private GenericCollectionTypeResolver genericCollectionTypeResolver;
+
+	public InjectionPlanFactory(AnnotatedFieldRetriever annotatedFieldRetriever,
+			GenericCollectionTypeResolver genericCollectionTypeResolver) {
+		this.annotatedFieldRetriever = annotatedFieldRetriever;
+		this.genericCollectionTypeResolver = genericCollectionTypeResolver;
+	}
+
+	/**
+	 * Creates an {@link InjectionPlan} for the {@link Class}, generally anticipated to be a test class. {@link Field
+	 * Fields} annotated with {@link CollectionOfMocks} are validated as part of this process.
+	 * 
+	 * @param clazz
+	 * @return A new {@link InjectionPlan}
+	 */
+	public InjectionPlan createInjectionPlan(Class<?> clazz) {
+		ClassFieldIndex classFieldIndex = annotatedFieldRetriever.getClassFieldIndex(clazz);
+		List<CollectionOfMocksDefinition> collectionOfMocksDefinitions = new ArrayList<CollectionOfMocksDefinition>();
+		for (Field field : sort(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class))) {
+			collectionOfMocksDefinitions.add(createCollectionOfMocksDefinition(field));
+		}
+		Set<Field> mockFields = sort(classFieldIndex.getAnnotatedFields(Mock.class));
+		mockFields.removeAll(classFieldIndex.getAnnotatedFields(IgnoreForCollections.class));
+		return new InjectionPlan(clazz, collectionOfMocksDefinitions,
+				sort(classFieldIndex.getAnnotatedFields(InjectMocks.class)), mockFields);
+	}
+
+	/**
+	 * Creates an {@link InjectionTargetPlan} for the {@link Class}, generally anticipated to be the {@link Class} of
+	 * an {@link Object} held in an {@link InjectMocks} annotated {@link Field}. Only {@link Collection} {@link Field
+	 * Fields} with resolvable generics and array {@link Field Fields} will result in an {@link InjectionPoint}.
+	 * 
+	 * @param clazz
+	 * @return A new {@link InjectionTargetPlan}
+	 */
+	public InjectionTargetPlan createInjectionTargetPlan(Class<?> clazz) {
+		List<InjectionPoint> injectionPoints = new ArrayList<InjectionPoint>();
+		for (Field field : annotatedFieldRetriever.getClassFieldIndex(clazz).getFields()) {
+			InjectionPoint injectionPoint = createInjectionPoint(field);
+			if (injectionPoint != null) {
+				injectionPoints.add(injectionPoint);
+			}
+		}
+		return new InjectionTargetPlan(clazz, injectionPoints);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private InjectionPoint createInjectionPoint(Field field) {
+		Type type = field.getGenericType();
+		if (type instanceof ParameterizedType) {
+			// should be safe, ParamerterizedType should only ever return a Class from this method
+			Class rawType = (Class) ((ParameterizedType) type).getRawType();
+			if (Collection.class.isAssignableFrom(rawType)) {
+				Class collectionType = genericCollectionTypeResolver.getCollectionFieldType(field);
+				if (collectionType != null) {
+					return new InjectionPoint(field, rawType, collectionType);
+				}
+			}
+		} else if (type instanceof Class) {
+			Class clazz = (Class) type;
+			// A primitive component type can never be satisfied by a mock
+			if (clazz.isArray() && !clazz.getComponentType().isPrimitive()) {
+				return new InjectionPoint(field, null, clazz.getComponentType());
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private CollectionOfMocksDefinition createCollectionOfMocksDefinition(Field field) {
+		Class mockClass = getMockClass(field);
+		int numberOfMocks = getNumberOfMocks(field);
+		Class collectionClass = getCollectionClass(field.getGenericType());
+		CollectionOfMocks annotation = field.getAnnotation(CollectionOfMocks.class);
+		if (annotation.retainedInvocations() >= 0
+				&& (annotation.mockType() == MockType.CONCURRENT || annotation.mockType() == MockType.METHOD_INDEXED)) {
+			throw new MockitoCollectionsException("Could not create the collection of mocks for field "
+					+ field.getName() + ", "
+					+ MockStrategySelector.getRetainedInvocationsUnsupportedMessage(annotation.mockType()));
+		}
+		return new CollectionOfMocksDefinition(field, collectionClass, mockClass, new CollectionOfMocksSettings(
+				numberOfMocks, annotation.mockType(), annotation.retainedInvocations(), annotation.lazy()));
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Class getMockClass(Field field) {
+		Class mockClass = genericCollectionTypeResolver.getCollectionFieldType(field);
+		if (mockClass == null) {
+			throw new MockitoCollectionsException("A field annotated with " + CollectionOfMocks.class.getSimpleName()
+					+ " must be a Collection with Generics, but found no generics for Collection field "
+					+ field.getName());
+		}
+		return mockClass;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Class getCollectionClass(Type type) {
+		if (!(type instanceof ParameterizedType)) {
+			throw new MockitoCollectionsException("A field annotated with " + CollectionOfMocks.class.getSimpleName()
+					+ " must be a Collection, but found " + type);
+		}
+		ParameterizedType parameterizedType = (ParameterizedType) type;
+
+		// ParamerterizedType only ever returns a Class from this method
+		// http://stackoverflow.com/questions/5767122/parameterizedtype-getrawtype-returns-j-l-r-type-not-class
+		Class collectionClass = (Class) parameterizedType.getRawType();
+		if (!Collection.class.isAssignableFrom(collectionClass)) {
+			throw new MockitoCollectionsException("A field annotated with " + CollectionOfMocks.class.getSimpleName()
+					+ " must be a Collection, but found " + type);
+		}
+		return collectionClass;
+	}
+
+	/**
+	 * @param field
+	 * @return The {@link CollectionOfMocks#numberOfMocks() number of mocks} declared on the annotation.
+	 */
+	private int getNumberOfMocks(Field field) {
+		CollectionOfMocks annotation = field.getAnnotation(CollectionOfMocks.class);
+		int numberOfMocks = annotation.numberOfMocks();
+		if (numberOfMocks < 0) {
+			throw new MockitoCollectionsException(
+					"Unexpected numberOfMocks, the minimum number of mocks you can specify using "
+							+ CollectionOfMocks.class.getSimpleName() + " is zero.");
+		}
+		return numberOfMocks;
+	}
+
+	private Set<Field> sort(Collection<Field> fields) {
+		TreeSet<Field> sortedFields = new TreeSet<Field>(new FieldComparator());
+		sortedFields.addAll(fields);
+		return sortedFields;
+	}
+
+	/**
+	 * A {@link Comparator} that compares {@link Field Fields} by their declaring class and then their declared name.
+	 * 
+	 * @author James Kennard
+	 */
+	private class FieldComparator implements Comparator<Field> {
+
+		public int compare(Field o1, Field o2) {
+			if (o1.getDeclaringClass() == o2.getDeclaringClass()) {
+				return o1.getName().compareToIgnoreCase(o2.getName());
+			} else if (o1.getDeclaringClass().isAssignableFrom(o2.getDeclaringClass())) {
+				return -1;
+			} else if (o2.getDeclaringClass().isAssignableFrom(o1.getDeclaringClass())) {
+				return 1;
+			}
+			throw new IllegalArgumentException("The fields in the set are not from the same hierarchical tree");
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+import uk.co.webamoeba.mockito.collections.util.FieldAccessor;
+
+/**
+ * Describes a {@link Field} into which a {@link Collection} or array of mocks can be injected. The
+ * {@link #getTypeOfCollection() type of collection} is <code>null</code> when the {@link Field} is an array.
+ * 
+ * @author James Kennard
+ */
+public class InjectionPoint {
+
+	private final Field field;
+
+	private final FieldAccessor fieldAccessor;
+
+	private final Class<Collection<Object>> typeOfCollection;
+
+	private final Class<Object> typeOfElements;
+
+	/**
+	 * @param field
+	 *            The {@link Field} to inject into
+	 * @param typeOfCollection
+	 *            The raw type of the {@link Collection} {@link Field}, or <code>null</code> if the {@link Field} is an
+	 *            array
+	 * @param typeOfElements
+	 *            The type of the elements in the {@link Collection}, or the component type of the array
+	 */
+	public InjectionPoint(Field field, Class<Collection<Object>> typeOfCollection, Class<Object> typeOfElements) {
+		this.field = field;
+		this.fieldAccessor = new FieldAccessor(field);
+		this.typeOfCollection = typeOfCollection;
+		this.typeOfElements = typeOfElements;
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @return {@link FieldAccessor} for the {@link #getField() field}
+	 */
+	public FieldAccessor getFieldAccessor() {
+		return fieldAccessor;
+	}
+
+	public Class<Collection<Object>> getTypeOfCollection() {
+		return typeOfCollection;
+	}
+
+	public Class<Object> getTypeOfElements() {
+		return typeOfElements;
+	}
+
+	/**
+	 * @return <code>true</code> if the {@link Field} is an array rather than a {@link Collection}.
+	 */
+	public boolean isArray() {
+		return typeOfCollection == null;
+	}
+}
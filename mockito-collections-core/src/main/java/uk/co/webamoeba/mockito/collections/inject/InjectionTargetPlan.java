@@ -0,0 +1,39 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.InjectMocks;
+
+/**
+ * Immutable description of the {@link InjectionPoint InjectionPoints} of a {@link Class} that is the subject of an
+ * {@link InjectMocks} annotated field. The {@link InjectionPoint InjectionPoints} include those declared by
+ * superclasses.
+ * 
+ * @author James Kennard
+ */
+public class InjectionTargetPlan {
+
+	private final Class<?> targetClass;
+
+	private final List<InjectionPoint> injectionPoints;
+
+	public InjectionTargetPlan(Class<?> targetClass, Collection<InjectionPoint> injectionPoints) {
+		this.targetClass = targetClass;
+		this.injectionPoints = Collections.unmodifiableList(new ArrayList<InjectionPoint>(injectionPoints));
+	}
+
+	public Class<?> getTargetClass() {
+		return targetClass;
+	}
+
+	/**
+	 * @return The {@link InjectionPoint InjectionPoints} in the order in which they should be injected. The returned
+	 *         {@link List} is unmodifiable.
+	 */
+	public List<InjectionPoint> getInjectionPoints() {
+		return injectionPoints;
+	}
+}
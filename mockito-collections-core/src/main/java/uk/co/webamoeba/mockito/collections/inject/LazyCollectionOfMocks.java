@@ -0,0 +1,141 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.mockito.Mockito.withSettings;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.mockito.Mockito;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.internal.FlyweightMocks;
+
+/**
+ * Fixed size {@link List} of mocks for {@link CollectionOfMocks#lazy() lazy} {@link CollectionOfMocks} fields. The
+ * size is known immediately, but each mock is created by the {@link MockStrategy} only when it is first accessed, by
+ * index or by iteration, and is then kept. {@link #contains(Object)} and {@link #indexOf(Object)} consider only the
+ * mocks that have been created, a mock that has not been created cannot be held by anybody.
+ * <p>
+ * {@link MockType#FLYWEIGHT} mocks of an interface are created from a single group, so they share their stubs in the
+ * same way as when they are created eagerly.
+ * 
+ * @author James Kennard
+ * @param <E>
+ */
+public class LazyCollectionOfMocks<E> extends AbstractList<E> implements RandomAccess {
+
+	private final Class<E> typeOfElements;
+
+	private final MockStrategy mockStrategy;
+
+	private final FlyweightMocks flyweightMocks;
+
+	private final AtomicReferenceArray<E> mocks;
+
+	private volatile E standIn;
+
+	/**
+	 * @param typeOfElements
+	 * @param numberOfMocks
+	 * @param mockStrategy
+	 *            {@link MockStrategy} used to create each mock when it is first accessed
+	 */
+	public LazyCollectionOfMocks(Class<E> typeOfElements, int numberOfMocks, MockStrategy mockStrategy) {
+		this.typeOfElements = typeOfElements;
+		this.mockStrategy = mockStrategy;
+		boolean flyweight = mockStrategy instanceof FlyweightMockStrategy && typeOfElements.isInterface();
+		this.flyweightMocks = flyweight ? new FlyweightMocks(typeOfElements, numberOfMocks) : null;
+		this.mocks = new AtomicReferenceArray<E>(numberOfMocks);
+	}
+
+	/**
+	 * @param index
+	 * @return The mock at the index, created if this is the first time it has been accessed
+	 */
+	@Override
+	public E get(int index) {
+		E mock = mocks.get(index);
+		if (mock == null) {
+			mocks.compareAndSet(index, null, createMock(index));
+			mock = mocks.get(index);
+		}
+		return mock;
+	}
+
+	@Override
+	public int size() {
+		return mocks.length();
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for (int i = 0; i < mocks.length(); i++) {
+			E mock = mocks.get(i);
+			if (mock != null && mock.equals(o)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		for (int i = mocks.length() - 1; i >= 0; i--) {
+			E mock = mocks.get(i);
+			if (mock != null && mock.equals(o)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	/**
+	 * @param index
+	 * @return <code>true</code> if the mock at the index has been created
+	 */
+	public boolean isCreated(int index) {
+		return mocks.get(index) != null;
+	}
+
+	/**
+	 * Gets the mocks without creating any that have not been created. A single stand-in mock, that is never invoked,
+	 * takes the place of every mock that has not been created, so verifying the stand-in verifies a mock with no
+	 * interactions.
+	 * 
+	 * @return A new {@link List} of the mocks that have been created, and the stand-in mock at the index of every mock
+	 *         that has not been created
+	 */
+	public List<E> getMocksWithoutCreating() {
+		List<E> list = new ArrayList<E>(mocks.length());
+		for (int i = 0; i < mocks.length(); i++) {
+			E mock = mocks.get(i);
+			list.add(mock == null ? getStandIn() : mock);
+		}
+		return list;
+	}
+
+	private E createMock(int index) {
+		if (flyweightMocks != null) {
+			return typeOfElements.cast(flyweightMocks.createMock(index));
+		}
+		return mockStrategy.createMock(typeOfElements);
+	}
+
+	private E getStandIn() {
+		if (standIn == null) {
+			String simpleName = typeOfElements.getSimpleName();
+			standIn = Mockito.mock(typeOfElements, withSettings().name(
+					Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1) + " (never created)"));
+		}
+		return standIn;
+	}
+}
@@ -0,0 +1,50 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.internal.MethodIndexedRegisteredInvocations;
+import uk.co.webamoeba.mockito.collections.internal.RegisteredInvocationsAccessor;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * {@link MockStrategy} that creates {@link MockType#METHOD_INDEXED} mocks, mocks that record their invocations in a
+ * separate bucket for each method. The mocks are created by another {@link MockStrategy}, and the invocations of each
+ * are then recorded in a {@link MethodIndexedRegisteredInvocations}. The mocks are stubbed and verified in the same way
+ * as any other Mockito mock, but
+ * {@link uk.co.webamoeba.mockito.collections.MockitoCollections#collectiveVerify(Class, java.util.Collection)} reads
+ * only the invocations of the verified method.
+ * <p>
+ * A mock that is {@link org.mockito.Mockito#reset(Object...) reset} records its subsequent invocations in the usual
+ * way.
+ * 
+ * @author James Kennard
+ */
+public class MethodIndexedMockStrategy implements MockStrategy {
+
+	private final MockStrategy mockStrategy;
+
+	/**
+	 * @param mockStrategy
+	 *            {@link MockStrategy} used to create the mocks
+	 */
+	public MethodIndexedMockStrategy(MockStrategy mockStrategy) {
+		this.mockStrategy = mockStrategy;
+	}
+
+	public <T> T createMock(Class<T> clazz) {
+		T mock = mockStrategy.createMock(clazz);
+		indexInvocations(mock);
+		return mock;
+	}
+
+	public <T> OrderedSet<T> createMocks(Class<T> clazz, int numberOfMocks) {
+		OrderedSet<T> mocks = mockStrategy.createMocks(clazz, numberOfMocks);
+		for (T mock : mocks) {
+			indexInvocations(mock);
+		}
+		return mocks;
+	}
+
+	private void indexInvocations(Object mock) {
+		RegisteredInvocationsAccessor.setRegisteredInvocations(mock, new MethodIndexedRegisteredInvocations());
+	}
+}
@@ -0,0 +1,94 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mockito.Mock;
+
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * Index of {@link Mock Mocks} by type. The type closure of each {@link Mock}, that is its {@link Class} and all of the
+ * superclasses and interfaces of that {@link Class}, is established once when the {@link MockRegistry} is created.
+ * Selecting the {@link Mock Mocks} of a type is then a lookup rather than a scan of every {@link Mock}. The
+ * {@link Mock Mocks} of each type are held in the order in which they were registered.
+ * 
+ * @author James Kennard
+ */
+public class MockRegistry {
+
+	private final OrderedSet<Object> mocks;
+
+	private final Map<Class<?>, List<Object>> mocksByType = new HashMap<Class<?>, List<Object>>();
+
+	/**
+	 * @param mocks
+	 *            The {@link Mock Mocks} to register, in the order in which they should be selected
+	 */
+	public MockRegistry(OrderedSet<Object> mocks) {
+		if (mocks == null) {
+			throw new IllegalArgumentException("mocks must not be null");
+		}
+		this.mocks = new OrderedSet<Object>(mocks);
+		Map<Class<?>, Set<Class<?>>> typeClosures = new HashMap<Class<?>, Set<Class<?>>>();
+		for (Object mock : this.mocks) {
+			Set<Class<?>> typeClosure = typeClosures.get(mock.getClass());
+			if (typeClosure == null) {
+				typeClosure = getTypeClosure(mock.getClass());
+				typeClosures.put(mock.getClass(), typeClosure);
+			}
+			for (Class<?> type : typeClosure) {
+				List<Object> mocksOfType = mocksByType.get(type);
+				if (mocksOfType == null) {
+					mocksOfType = new ArrayList<Object>();
+					mocksByType.put(type, mocksOfType);
+				}
+				mocksOfType.add(mock);
+			}
+		}
+	}
+
+	/**
+	 * @return All of the registered {@link Mock Mocks}, this method will never return <code>null</code>. The returned
+	 *         {@link Set} is unmodifiable.
+	 */
+	public Set<Object> getMocks() {
+		return Collections.unmodifiableSet(mocks);
+	}
+
+	/**
+	 * @param type
+	 * @return A new {@link OrderedSet} of the registered {@link Mock Mocks} that are assignable to the type. If there
+	 *         are no such {@link Mock Mocks} this method will return an empty {@link OrderedSet}, this method will never
+	 *         return <code>null</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> OrderedSet<T> getMocks(Class<T> type) {
+		List<Object> mocksOfType = mocksByType.get(type);
+		if (mocksOfType == null) {
+			return new OrderedSet<T>();
+		}
+		return new OrderedSet<T>((List<T>) mocksOfType);
+	}
+
+	private static Set<Class<?>> getTypeClosure(Class<?> clazz) {
+		Set<Class<?>> typeClosure = new LinkedHashSet<Class<?>>();
+		addTypeClosure(clazz, typeClosure);
+		return typeClosure;
+	}
+
+	private static void addTypeClosure(Class<?> type, Set<Class<?>> typeClosure) {
+		if (type == null || !typeClosure.add(type)) {
+			return;
+		}
+		addTypeClosure(type.getSuperclass(), typeClosure);
+		for (Class<?> interfaceType : type.getInterfaces()) {
+			addTypeClosure(interfaceType, typeClosure);
+		}
+	}
+}
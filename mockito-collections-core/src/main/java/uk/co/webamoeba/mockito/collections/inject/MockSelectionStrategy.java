@@ -16,7 +16,7 @@ import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 public interface MockSelectionStrategy {
 
 	/**
-	 * Selects the {@link Mock Mocks} from the provided {@link Set} of {@link Mock Mocks} that can be injected into a
+	 * Selects the {@link Mock Mocks} from the provided {@link MockRegistry} that can be injected into a
 	 * {@link Collection} where the generic type is of the specified type. In the case that there are no suitable
 	 * {@link Mock Mocks}, this method will return an empty {@link Set}. <b>This method must never return
 	 * <code>null</code></b>.
@@ -25,7 +25,7 @@ public interface MockSelectionStrategy {
 	 * @param mockClass
 	 * @return The {@link Mock Mocks} that are of the specified type.
 	 */
-	public <T> OrderedSet<T> selectMocks(OrderedSet<Object> mocks, Class<T> mockClass);
+	public <T> OrderedSet<T> selectMocks(MockRegistry mocks, Class<T> mockClass);
 
 	/**
 	 * Gets the {@link CollectionOfMocksField} from the provided {@link CollectionOfMocksFieldSet} that matches the
@@ -1,5 +1,7 @@
 package uk.co.webamoeba.mockito.collections.inject;
 
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
 /**
  * Strategy that can be used to create mocks, the idea is that not only should you be able to instantiate Mockito style
  * mocks, but any other type of mock.
@@ -14,4 +16,15 @@ public interface MockStrategy {
 	 */
 	public <T extends Object> T createMock(Class<T> clazz);
 
+	/**
+	 * Creates a number of mocks of the same type. Implementations may create the mocks concurrently, but the order of
+	 * the returned mocks must not depend on the order in which they were created. <b>This method must never return
+	 * <code>null</code></b>.
+	 * 
+	 * @param clazz
+	 * @param numberOfMocks
+	 * @return A new {@link OrderedSet} containing numberOfMocks new mocks in place of the specified type.
+	 */
+	public <T extends Object> OrderedSet<T> createMocks(Class<T> clazz, int numberOfMocks);
+
 }
@@ -0,0 +1,108 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * Selects the {@link MockStrategy} for the {@link CollectionOfMocks#mockType() MockType} of a {@link CollectionOfMocks}
+ * field.
+ * 
+ * @author James Kennard
+ */
+public class MockStrategySelector {
+
+	private MockStrategy mockitoMockStrategy;
+
+	private MockStrategy proxyMockStrategy;
+
+	private MockStrategy concurrentMockStrategy;
+
+	private MockStrategy methodIndexedMockStrategy;
+
+	private MockStrategy flyweightMockStrategy;
+
+	private MockType defaultMockType;
+
+	/**
+	 * @param mockitoMockStrategy
+	 *            {@link MockStrategy} for {@link MockType#MOCKITO}
+	 * @param proxyMockStrategy
+	 *            {@link MockStrategy} for {@link MockType#PROXY}
+	 * @param concurrentMockStrategy
+	 *            {@link MockStrategy} for {@link MockType#CONCURRENT}
+	 * @param methodIndexedMockStrategy
+	 *            {@link MockStrategy} for {@link MockType#METHOD_INDEXED}
+	 * @param flyweightMockStrategy
+	 *            {@link MockStrategy} for {@link MockType#FLYWEIGHT}
+	 * @param defaultMockType
+	 *            The {@link MockType} used in place of {@link MockType#DEFAULT}
+	 */
+	public MockStrategySelector(MockStrategy mockitoMockStrategy, MockStrategy proxyMockStrategy,
+			MockStrategy concurrentMockStrategy, MockStrategy methodIndexedMockStrategy,
+			MockStrategy flyweightMockStrategy, MockType defaultMockType) {
+		if (defaultMockType == null || defaultMockType == MockType.DEFAULT) {
+			throw new IllegalArgumentException("defaultMockType must be one of " + MockType.MOCKITO + ", "
+					+ MockType.PROXY + ", " + MockType.CONCURRENT + ", " + MockType.METHOD_INDEXED + " or "
+					+ MockType.FLYWEIGHT);
+		}
+		this.mockitoMockStrategy = mockitoMockStrategy;
+		this.proxyMockStrategy = proxyMockStrategy;
+		this.concurrentMockStrategy = concurrentMockStrategy;
+		this.methodIndexedMockStrategy = methodIndexedMockStrategy;
+		this.flyweightMockStrategy = flyweightMockStrategy;
+		this.defaultMockType = defaultMockType;
+	}
+
+	/**
+	 * @param mockType
+	 * @return The {@link MockStrategy} that creates mocks of the {@link MockType}
+	 */
+	public MockStrategy getMockStrategy(MockType mockType) {
+		if (mockType == MockType.DEFAULT) {
+			mockType = defaultMockType;
+		}
+		if (mockType == MockType.PROXY) {
+			return proxyMockStrategy;
+		} else if (mockType == MockType.CONCURRENT) {
+			return concurrentMockStrategy;
+		} else if (mockType == MockType.METHOD_INDEXED) {
+			return methodIndexedMockStrategy;
+		} else if (mockType == MockType.FLYWEIGHT) {
+			return flyweightMockStrategy;
+		}
+		return mockitoMockStrategy;
+	}
+
+	/**
+	 * @param mockType
+	 * @param retainedInvocations
+	 *            The number of invocations retained by each mock, negative retains every invocation
+	 * @return The {@link MockStrategy} that creates mocks of the {@link MockType} that retain the number of
+	 *         invocations, {@link MockType#FLYWEIGHT} mocks retain no invocations whatever the number
+	 * @throws MockitoCollectionsException
+	 *             If the number of invocations is not negative and the {@link MockType} is
+	 *             {@link MockType#CONCURRENT} or {@link MockType#METHOD_INDEXED}, these record their invocations in
+	 *             their own store
+	 */
+	public MockStrategy getMockStrategy(MockType mockType, int retainedInvocations) {
+		MockStrategy mockStrategy = getMockStrategy(mockType);
+		if (retainedInvocations < 0 || mockStrategy == flyweightMockStrategy) {
+			return mockStrategy;
+		}
+		if (mockStrategy == concurrentMockStrategy || mockStrategy == methodIndexedMockStrategy) {
+			throw new MockitoCollectionsException(getRetainedInvocationsUnsupportedMessage(
+					mockStrategy == concurrentMockStrategy ? MockType.CONCURRENT : MockType.METHOD_INDEXED));
+		}
+		return new RetainingMockStrategy(mockStrategy, retainedInvocations);
+	}
+
+	/**
+	 * @param mockType
+	 * @return Message explaining that mocks of the {@link MockType} cannot retain a limited number of invocations
+	 */
+	static String getRetainedInvocationsUnsupportedMessage(MockType mockType) {
+		return "retainedInvocations cannot be used with " + MockType.class.getSimpleName() + "." + mockType
+				+ ", these mocks record their invocations in their own store";
+	}
+}
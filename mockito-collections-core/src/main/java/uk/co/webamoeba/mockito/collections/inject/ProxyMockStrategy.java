@@ -0,0 +1,260 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.mockito.cglib.proxy.Callback;
+import org.mockito.cglib.proxy.Factory;
+import org.mockito.internal.InternalMockHandler;
+import org.mockito.internal.creation.DelegatingMethod;
+import org.mockito.internal.creation.MethodInterceptorFilter;
+import org.mockito.internal.creation.MockSettingsImpl;
+import org.mockito.internal.handler.MockHandlerFactory;
+import org.mockito.internal.invocation.InvocationImpl;
+import org.mockito.internal.invocation.realmethod.RealMethod;
+import org.mockito.internal.progress.MockingProgress;
+import org.mockito.internal.progress.SequenceNumber;
+import org.mockito.internal.progress.ThreadSafeMockingProgress;
+import org.mockito.internal.util.ObjectMethodsGuru;
+import org.mockito.internal.util.Primitives;
+import org.mockito.mock.MockCreationSettings;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.internal.ObservableInvocationListener;
+import uk.co.webamoeba.mockito.collections.util.ClassCache;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * {@link MockStrategy} that creates {@link MockType#PROXY} mocks of interfaces using {@link Proxy}, avoiding the class
+ * generation and instantiation costs of Mockito mocks. Each mock has its own Mockito handler, so it can be stubbed and
+ * verified, including by {@link uk.co.webamoeba.mockito.collections.MockitoCollections#collectiveVerify(Class,
+ * java.util.Collection)}, in the same way as any other Mockito mock. Mockito recognises a mock by the {@link Factory}
+ * interface and its {@link MethodInterceptorFilter} callback, so every {@link Proxy} also implements {@link Factory}.
+ * Each mock has an {@link ObservableInvocationListener} so that it can be awaited and journaled.
+ * <p>
+ * Mocks of types that are not interfaces, or that cannot be seen from the same {@link ClassLoader} as Mockito, are
+ * created by the fallback {@link MockStrategy}. The {@link Proxy} {@link Constructor} of each type is held in a
+ * {@link ClassCache}, so it never prevents a {@link ClassLoader} from being unloaded.
+ * 
+ * @author James Kennard
+ */
+public class ProxyMockStrategy implements MockStrategy {
+
+	private static final RealMethod NO_REAL_METHOD = new RealMethod() {
+
+		public Object invoke(Object target, Object[] arguments) throws Throwable {
+			throw new MockitoCollectionsException("Cannot call a real method on a mock of an interface");
+		}
+	};
+
+	private static final Constructor<?> NOT_PROXYABLE;
+	static {
+		try {
+			NOT_PROXYABLE = Object.class.getConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final MockStrategy fallbackMockStrategy;
+
+	private final ClassCache<Constructor<?>> proxyConstructors = new ClassCache<Constructor<?>>();
+
+	/**
+	 * @param fallbackMockStrategy
+	 *            {@link MockStrategy} used to create mocks of types that cannot be mocked using a {@link Proxy}
+	 */
+	public ProxyMockStrategy(MockStrategy fallbackMockStrategy) {
+		this.fallbackMockStrategy = fallbackMockStrategy;
+	}
+
+	public <T> T createMock(Class<T> clazz) {
+		Constructor<?> proxyConstructor = getProxyConstructor(clazz);
+		if (proxyConstructor == NOT_PROXYABLE) {
+			return fallbackMockStrategy.createMock(clazz);
+		}
+		MockingProgress mockingProgress = new ThreadSafeMockingProgress();
+		mockingProgress.validateState();
+		T mock = createProxy(clazz, proxyConstructor);
+		mockingProgress.mockingStarted(mock, clazz);
+		return mock;
+	}
+
+	public <T> OrderedSet<T> createMocks(Class<T> clazz, int numberOfMocks) {
+		if (getProxyConstructor(clazz) == NOT_PROXYABLE) {
+			return fallbackMockStrategy.createMocks(clazz, numberOfMocks);
+		}
+		OrderedSet<T> mocks = new OrderedSet<T>(numberOfMocks);
+		for (int i = 0; i < numberOfMocks; i++) {
+			mocks.add(createMock(clazz));
+		}
+		return mocks;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T createProxy(Class<T> clazz, Constructor<?> proxyConstructor) {
+		// Confirming the settings validates them, as Mockito does when it creates a mock
+		MockCreationSettings<T> settings = ((MockSettingsImpl<T>) withSettings().defaultAnswer(RETURNS_DEFAULTS)
+				.invocationListeners(new ObservableInvocationListener())).confirm(clazz);
+		InternalMockHandler<T> handler = new MockHandlerFactory().create(settings);
+		try {
+			return (T) proxyConstructor.newInstance(new ProxyMockInvocationHandler(new MethodInterceptorFilter(
+					handler, settings)));
+		} catch (InstantiationException e) {
+			throw new MockitoCollectionsException("Could not create a proxy mock of " + clazz, e);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Could not create a proxy mock of " + clazz, e);
+		} catch (InvocationTargetException e) {
+			throw new MockitoCollectionsException("Could not create a proxy mock of " + clazz, e.getCause());
+		}
+	}
+
+	/**
+	 * @param clazz
+	 * @return The {@link Constructor} of the {@link Proxy} {@link Class} for the clazz, or {@link #NOT_PROXYABLE}
+	 */
+	private Constructor<?> getProxyConstructor(Class<?> clazz) {
+		Constructor<?> proxyConstructor = proxyConstructors.get(clazz);
+		if (proxyConstructor == null) {
+			proxyConstructor = createProxyConstructor(clazz);
+			Constructor<?> existing = proxyConstructors.putIfAbsent(clazz, proxyConstructor);
+			if (existing != null) {
+				proxyConstructor = existing;
+			}
+		}
+		return proxyConstructor;
+	}
+
+	private static Constructor<?> createProxyConstructor(Class<?> clazz) {
+		if (!clazz.isInterface()) {
+			return NOT_PROXYABLE;
+		}
+		ClassLoader classLoader = getProxyClassLoader(clazz);
+		if (classLoader == null) {
+			return NOT_PROXYABLE;
+		}
+		try {
+			return Proxy.getProxyClass(classLoader, clazz, Factory.class).getConstructor(InvocationHandler.class);
+		} catch (IllegalArgumentException e) {
+			return NOT_PROXYABLE;
+		} catch (NoSuchMethodException e) {
+			return NOT_PROXYABLE;
+		}
+	}
+
+	/**
+	 * @return The {@link ClassLoader} of either the clazz or Mockito that can see both, or <code>null</code>
+	 */
+	private static ClassLoader getProxyClassLoader(Class<?> clazz) {
+		ClassLoader[] candidates = new ClassLoader[] { clazz.getClassLoader(), Factory.class.getClassLoader() };
+		for (ClassLoader candidate : candidates) {
+			if (candidate != null && isVisible(clazz, candidate) && isVisible(Factory.class, candidate)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isVisible(Class<?> clazz, ClassLoader classLoader) {
+		try {
+			return Class.forName(clazz.getName(), false, classLoader) == clazz;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Dispatches invocations of a {@link Proxy} mock to the Mockito handler held by its {@link MethodInterceptorFilter}
+	 * callback. The callback is replaced when the mock is {@link org.mockito.Mockito#reset(Object...) reset}.
+	 */
+	private static class ProxyMockInvocationHandler implements InvocationHandler {
+
+		private static final ObjectMethodsGuru OBJECT_METHODS_GURU = new ObjectMethodsGuru();
+
+		private volatile MethodInterceptorFilter methodInterceptorFilter;
+
+		public ProxyMockInvocationHandler(MethodInterceptorFilter methodInterceptorFilter) {
+			this.methodInterceptorFilter = methodInterceptorFilter;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Factory.class) {
+				return invokeFactoryMethod(proxy, method, args);
+			} else if (OBJECT_METHODS_GURU.isEqualsMethod(method)) {
+				return proxy == args[0];
+			} else if (OBJECT_METHODS_GURU.isHashCodeMethod(method)) {
+				return System.identityHashCode(proxy);
+			}
+			InvocationImpl invocation = new InvocationImpl(proxy, new DelegatingMethod(method),
+					args == null ? new Object[0] : args, SequenceNumber.next(), NO_REAL_METHOD);
+			Object result = methodInterceptorFilter.getHandler().handle(invocation);
+			if (result == null && method.getReturnType().isPrimitive()) {
+				// For example when verifying, a Proxy cannot return null in place of a primitive
+				return Primitives.defaultValueForPrimitiveOrWrapper(method.getReturnType());
+			}
+			return result;
+		}
+
+		/**
+		 * Implements {@link Factory} in the same way as a Mockito mock with a single callback. The index of any other
+		 * callback is ignored, and new instances, which are interfaces so have no constructor arguments, are new
+		 * {@link Proxy} mocks of the same interfaces with the callback supplied.
+		 */
+		private Object invokeFactoryMethod(Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("getCallback")) {
+				return ((Integer) args[0]).intValue() == 0 ? methodInterceptorFilter : null;
+			} else if (name.equals("getCallbacks")) {
+				return new Callback[] { methodInterceptorFilter };
+			} else if (name.equals("setCallback")) {
+				if (((Integer) args[0]).intValue() == 0) {
+					methodInterceptorFilter = toMethodInterceptorFilter((Callback) args[1]);
+				}
+				return null;
+			} else if (name.equals("setCallbacks")) {
+				methodInterceptorFilter = toMethodInterceptorFilter(((Callback[]) args[0])[0]);
+				return null;
+			} else if (args.length == 1 && args[0] instanceof Callback) {
+				return newInstance(proxy, (Callback) args[0]);
+			} else if (args.length == 1) {
+				return newInstance(proxy, ((Callback[]) args[0])[0]);
+			}
+			Class<?>[] argumentTypes = (Class<?>[]) args[0];
+			if (argumentTypes.length > 0) {
+				throw new IllegalArgumentException("A proxy mock of an interface has no constructor with arguments");
+			}
+			return newInstance(proxy, ((Callback[]) args[2])[0]);
+		}
+
+		private static Object newInstance(Object proxy, Callback callback) {
+			try {
+				return proxy.getClass().getConstructor(InvocationHandler.class).newInstance(
+						new ProxyMockInvocationHandler(toMethodInterceptorFilter(callback)));
+			} catch (NoSuchMethodException e) {
+				throw new MockitoCollectionsException("Could not create a proxy mock of " + proxy.getClass(), e);
+			} catch (InstantiationException e) {
+				throw new MockitoCollectionsException("Could not create a proxy mock of " + proxy.getClass(), e);
+			} catch (IllegalAccessException e) {
+				throw new MockitoCollectionsException("Could not create a proxy mock of " + proxy.getClass(), e);
+			} catch (InvocationTargetException e) {
+				throw new MockitoCollectionsException("Could not create a proxy mock of " + proxy.getClass(),
+						e.getCause());
+			}
+		}
+
+		private static MethodInterceptorFilter toMethodInterceptorFilter(Callback callback) {
+			if (!(callback instanceof MethodInterceptorFilter)) {
+				throw new MockitoCollectionsException("The callback of a proxy mock must be a "
+						+ MethodInterceptorFilter.class.getSimpleName() + " but was " + callback);
+			}
+			return (MethodInterceptorFilter) callback;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.internal.BoundedRegisteredInvocations;
+import uk.co.webamoeba.mockito.collections.internal.RegisteredInvocationsAccessor;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * {@link MockStrategy} that creates mocks which retain only their most recent invocations, for
+ * {@link CollectionOfMocks} fields that specify a {@link CollectionOfMocks#retainedInvocations() number of retained
+ * invocations}. The mocks are created by another {@link MockStrategy}, and the invocations of each are then recorded
+ * in a {@link BoundedRegisteredInvocations}, so the memory used by a mock stays the same however many times it is
+ * invoked.
+ * 
+ * @author James Kennard
+ */
+public class RetainingMockStrategy implements MockStrategy {
+
+	private final MockStrategy mockStrategy;
+
+	private final int retainedInvocations;
+
+	/**
+	 * @param mockStrategy
+	 *            {@link MockStrategy} used to create the mocks
+	 * @param retainedInvocations
+	 *            The number of invocations retained by each mock
+	 */
+	public RetainingMockStrategy(MockStrategy mockStrategy, int retainedInvocations) {
+		if (retainedInvocations < 0) {
+			throw new IllegalArgumentException("retainedInvocations must not be negative");
+		}
+		this.mockStrategy = mockStrategy;
+		this.retainedInvocations = retainedInvocations;
+	}
+
+	public <T> T createMock(Class<T> clazz) {
+		T mock = mockStrategy.createMock(clazz);
+		boundInvocations(mock);
+		return mock;
+	}
+
+	public <T> OrderedSet<T> createMocks(Class<T> clazz, int numberOfMocks) {
+		OrderedSet<T> mocks = mockStrategy.createMocks(clazz, numberOfMocks);
+		for (T mock : mocks) {
+			boundInvocations(mock);
+		}
+		return mocks;
+	}
+
+	private void boundInvocations(Object mock) {
+		RegisteredInvocationsAccessor.setRegisteredInvocations(mock, new BoundedRegisteredInvocations(
+				retainedInvocations));
+	}
+}
@@ -0,0 +1,191 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.mockito.internal.util.ObjectMethodsGuru;
+import org.mockito.internal.verification.RegisteredInvocations;
+import org.mockito.invocation.Invocation;
+
+import uk.co.webamoeba.mockito.collections.internal.SequenceNumberComparator;
+import uk.co.webamoeba.mockito.collections.internal.SequencedRegisteredInvocations;
+
+/**
+ * {@link RegisteredInvocations} that records the invocations of a mock in stripes, chosen by the id of the invoking
+ * {@link Thread}, rather than in a single synchronized {@link List}. Threads recorded in different stripes do not
+ * contend with one another to record their invocations. The stripes are merged in
+ * {@link Invocation#getSequenceNumber() sequence number} order only when the invocations are read, for example when
+ * the mock is verified.
+ * 
+ * @author James Kennard
+ */
+class StripedRegisteredInvocations extends RegisteredInvocations implements SequencedRegisteredInvocations {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ObjectMethodsGuru OBJECT_METHODS_GURU = new ObjectMethodsGuru();
+
+	private final AtomicReferenceArray<Stripe> stripes;
+
+	private final int mask;
+
+	/**
+	 * @param numberOfStripes
+	 *            The number of stripes, rounded up to a power of two
+	 */
+	StripedRegisteredInvocations(int numberOfStripes) {
+		if (numberOfStripes <= 0) {
+			throw new IllegalArgumentException("numberOfStripes must be greater than zero");
+		}
+		int size = Integer.highestOneBit(numberOfStripes);
+		if (size < numberOfStripes) {
+			size <<= 1;
+		}
+		this.stripes = new AtomicReferenceArray<Stripe>(size);
+		this.mask = size - 1;
+	}
+
+	@Override
+	public void add(Invocation invocation) {
+		getStripe((int) Thread.currentThread().getId() & mask).add(invocation);
+	}
+
+	/**
+	 * Removes the most recent invocation, that is the invocation with the greatest sequence number. Each stripe keeps
+	 * its most recent invocation, so only the stripes are searched.
+	 */
+	@Override
+	public void removeLast() {
+		Stripe latestStripe = null;
+		Invocation latest = null;
+		for (int i = 0; i < stripes.length(); i++) {
+			Stripe stripe = stripes.get(i);
+			Invocation candidate = stripe == null ? null : stripe.getLatest();
+			if (candidate != null && (latest == null || candidate.getSequenceNumber() > latest.getSequenceNumber())) {
+				latestStripe = stripe;
+				latest = candidate;
+			}
+		}
+		if (latestStripe != null) {
+			latestStripe.remove(latest);
+		}
+	}
+
+	/**
+	 * @return A new {@link List} of the invocations, other than those of {@link Object#toString()}, in sequence number
+	 *         order
+	 */
+	@Override
+	public List<Invocation> getAll() {
+		List<Invocation> invocations = new ArrayList<Invocation>();
+		for (int i = 0; i < stripes.length(); i++) {
+			Stripe stripe = stripes.get(i);
+			if (stripe != null) {
+				stripe.addTo(invocations);
+			}
+		}
+		for (Iterator<Invocation> iterator = invocations.iterator(); iterator.hasNext();) {
+			if (OBJECT_METHODS_GURU.isToString(iterator.next().getMethod())) {
+				iterator.remove();
+			}
+		}
+		Collections.sort(invocations, SequenceNumberComparator.INSTANCE);
+		return invocations;
+	}
+
+	public List<Invocation> getAllAfter(int sequenceNumber) {
+		List<Invocation> invocations = new ArrayList<Invocation>();
+		for (int i = 0; i < stripes.length(); i++) {
+			Stripe stripe = stripes.get(i);
+			if (stripe != null) {
+				stripe.addAfter(invocations, sequenceNumber);
+			}
+		}
+		Collections.sort(invocations, SequenceNumberComparator.INSTANCE);
+		return invocations;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (int i = 0; i < stripes.length(); i++) {
+			Stripe stripe = stripes.get(i);
+			if (stripe != null && !stripe.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Stripe getStripe(int index) {
+		Stripe stripe = stripes.get(index);
+		if (stripe == null) {
+			stripes.compareAndSet(index, null, new Stripe());
+			stripe = stripes.get(index);
+		}
+		return stripe;
+	}
+
+	/**
+	 * The invocations recorded by the threads assigned to one stripe, in the order in which they were recorded.
+	 */
+	private static class Stripe implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Invocation> invocations = new ArrayList<Invocation>();
+
+		private Invocation latest;
+
+		synchronized void add(Invocation invocation) {
+			invocations.add(invocation);
+			if (latest == null || invocation.getSequenceNumber() > latest.getSequenceNumber()) {
+				latest = invocation;
+			}
+		}
+
+		synchronized void addTo(List<Invocation> target) {
+			target.addAll(invocations);
+		}
+
+		synchronized void addAfter(List<Invocation> target, int sequenceNumber) {
+			for (int i = invocations.size() - 1; i >= 0; i--) {
+				Invocation invocation = invocations.get(i);
+				if (invocation.getSequenceNumber() <= sequenceNumber) {
+					return;
+				}
+				if (!OBJECT_METHODS_GURU.isToString(invocation.getMethod())) {
+					target.add(invocation);
+				}
+			}
+		}
+
+		synchronized Invocation getLatest() {
+			return latest;
+		}
+
+		synchronized void remove(Invocation invocation) {
+			for (int i = invocations.size() - 1; i >= 0; i--) {
+				if (invocations.get(i) == invocation) {
+					invocations.remove(i);
+					break;
+				}
+			}
+			if (invocation == latest) {
+				latest = null;
+				for (Invocation remaining : invocations) {
+					if (latest == null || remaining.getSequenceNumber() > latest.getSequenceNumber()) {
+						latest = remaining;
+					}
+				}
+			}
+		}
+
+		synchronized boolean isEmpty() {
+			return invocations.isEmpty();
+		}
+	}
+}
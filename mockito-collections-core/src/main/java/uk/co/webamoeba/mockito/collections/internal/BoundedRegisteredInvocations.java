@@ -0,0 +1,233 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.internal.invocation.InvocationMarker;
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.internal.invocation.InvocationsFinder;
+import org.mockito.internal.util.ObjectMethodsGuru;
+import org.mockito.internal.verification.RegisteredInvocations;
+import org.mockito.invocation.Invocation;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * {@link RegisteredInvocations} that retains only the most recent invocations of a mock, in a ring buffer, so that the
+ * memory used by the mock does not grow with the number of times it is invoked. The invocations of each {@link Method}
+ * are counted exactly, including those that are no longer retained, so that the mock can still be collectively
+ * verified using {@link org.mockito.Mockito#times(int)}, {@link org.mockito.Mockito#atLeast(int)} and
+ * {@link org.mockito.Mockito#never()} provided that the verification matches any arguments.
+ * 
+ * @author James Kennard
+ */
+public class BoundedRegisteredInvocations extends RegisteredInvocations implements SequencedRegisteredInvocations {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ObjectMethodsGuru OBJECT_METHODS_GURU = new ObjectMethodsGuru();
+
+	private final Invocation[] retained;
+
+	private int next;
+
+	private int size;
+
+	private int count;
+
+	private Invocation latest;
+
+	private int lastDiscardedSequenceNumber = Integer.MIN_VALUE;
+
+	private final Map<Method, MethodInvocations> methodInvocations = new LinkedHashMap<Method, MethodInvocations>();
+
+	/**
+	 * @param capacity
+	 *            The number of invocations to retain, zero retains none
+	 */
+	public BoundedRegisteredInvocations(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+		this.retained = new Invocation[capacity];
+	}
+
+	@Override
+	public synchronized void add(Invocation invocation) {
+		MethodInvocations invocationsOfMethod = getMethodInvocations(invocation.getMethod());
+		invocationsOfMethod.count++;
+		invocationsOfMethod.last = invocation;
+		count++;
+		latest = invocation;
+		if (retained.length == 0) {
+			discard(invocation);
+			return;
+		}
+		if (size == retained.length) {
+			discard(retained[next]);
+		} else {
+			size++;
+		}
+		retained[next] = invocation;
+		next = (next + 1) % retained.length;
+	}
+
+	@Override
+	public synchronized void removeLast() {
+		if (latest == null) {
+			return;
+		}
+		MethodInvocations invocationsOfMethod = getMethodInvocations(latest.getMethod());
+		invocationsOfMethod.count--;
+		if (invocationsOfMethod.count == 0) {
+			invocationsOfMethod.last = null;
+		}
+		count--;
+		int previous = (next - 1 + retained.length) % Math.max(retained.length, 1);
+		if (size > 0 && retained[previous] == latest) {
+			retained[previous] = null;
+			next = previous;
+			size--;
+		} else {
+			invocationsOfMethod.discarded--;
+			invocationsOfMethod.verifiedDiscarded = Math.min(invocationsOfMethod.verifiedDiscarded,
+					invocationsOfMethod.discarded);
+		}
+		latest = null;
+	}
+
+	/**
+	 * @return A new {@link List} of the retained invocations, other than those of {@link Object#toString()}, oldest
+	 *         first
+	 */
+	@Override
+	public synchronized List<Invocation> getAll() {
+		List<Invocation> invocations = new ArrayList<Invocation>(size);
+		for (int i = 0; i < size; i++) {
+			Invocation invocation = retained[(next - size + i + retained.length) % retained.length];
+			if (!OBJECT_METHODS_GURU.isToString(invocation.getMethod())) {
+				invocations.add(invocation);
+			}
+		}
+		return invocations;
+	}
+
+	/**
+	 * @throws MockitoCollectionsException
+	 *             If any invocation that occurred after the sequence number is no longer retained
+	 */
+	public synchronized List<Invocation> getAllAfter(int sequenceNumber) {
+		if (lastDiscardedSequenceNumber > sequenceNumber) {
+			throw new MockitoCollectionsException("Some invocations after " + sequenceNumber
+					+ " are no longer retained, retain more invocations or take checkpoints more often");
+		}
+		LinkedList<Invocation> invocations = new LinkedList<Invocation>();
+		for (int i = size - 1; i >= 0; i--) {
+			Invocation invocation = retained[(next - size + i + retained.length) % retained.length];
+			if (invocation.getSequenceNumber() <= sequenceNumber) {
+				break;
+			}
+			if (!OBJECT_METHODS_GURU.isToString(invocation.getMethod())) {
+				invocations.addFirst(invocation);
+			}
+		}
+		return invocations;
+	}
+
+	@Override
+	public synchronized boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @param method
+	 * @return The number of invocations of the {@link Method}, including those that are no longer retained
+	 */
+	public synchronized int getInvocationCount(Method method) {
+		MethodInvocations invocationsOfMethod = methodInvocations.get(method);
+		return invocationsOfMethod == null ? 0 : invocationsOfMethod.count;
+	}
+
+	/**
+	 * @param method
+	 * @return <code>true</code> if any invocation of the {@link Method} is no longer retained
+	 */
+	public synchronized boolean hasDiscardedInvocations(Method method) {
+		MethodInvocations invocationsOfMethod = methodInvocations.get(method);
+		return invocationsOfMethod != null && invocationsOfMethod.discarded > 0;
+	}
+
+	/**
+	 * @param method
+	 * @return The most recent invocation of the {@link Method}, whether or not it is retained, or <code>null</code>
+	 */
+	public synchronized Invocation getLastInvocation(Method method) {
+		MethodInvocations invocationsOfMethod = methodInvocations.get(method);
+		return invocationsOfMethod == null ? null : invocationsOfMethod.last;
+	}
+
+	/**
+	 * Marks the retained invocations that match the wanted invocation as verified, and considers all of the
+	 * invocations of the wanted {@link Method} that are no longer retained to have been verified. Invocations of the
+	 * {@link Method} that are discarded later are considered to have been verified only if they were verified before
+	 * they were discarded.
+	 * 
+	 * @param wanted
+	 */
+	public synchronized void markVerified(InvocationMatcher wanted) {
+		List<Invocation> invocations = new InvocationsFinder().findInvocations(getAll(), wanted);
+		new InvocationMarker().markVerified(invocations, wanted);
+		MethodInvocations invocationsOfMethod = getMethodInvocations(wanted.getMethod());
+		invocationsOfMethod.verifiedDiscarded = invocationsOfMethod.discarded;
+	}
+
+	/**
+	 * @return The most recent invocation of a {@link Method}, other than {@link Object#toString()}, with invocations
+	 *         that are no longer retained and were not verified, or <code>null</code>
+	 */
+	public synchronized Invocation getUnverifiedDiscardedInvocation() {
+		for (MethodInvocations invocationsOfMethod : methodInvocations.values()) {
+			if (invocationsOfMethod.discarded > invocationsOfMethod.verifiedDiscarded
+					&& !OBJECT_METHODS_GURU.isToString(invocationsOfMethod.last.getMethod())) {
+				return invocationsOfMethod.last;
+			}
+		}
+		return null;
+	}
+
+	private void discard(Invocation invocation) {
+		MethodInvocations invocationsOfMethod = getMethodInvocations(invocation.getMethod());
+		invocationsOfMethod.discarded++;
+		if (invocation.isVerified()) {
+			invocationsOfMethod.verifiedDiscarded++;
+		}
+		lastDiscardedSequenceNumber = Math.max(lastDiscardedSequenceNumber, invocation.getSequenceNumber());
+	}
+
+	private MethodInvocations getMethodInvocations(Method method) {
+		MethodInvocations invocationsOfMethod = methodInvocations.get(method);
+		if (invocationsOfMethod == null) {
+			invocationsOfMethod = new MethodInvocations();
+			methodInvocations.put(method, invocationsOfMethod);
+		}
+		return invocationsOfMethod;
+	}
+
+	/**
+	 * Counters of the invocations of a single {@link Method}.
+	 */
+	private static class MethodInvocations {
+
+		private int count;
+
+		private int discarded;
+
+		private int verifiedDiscarded;
+
+		private Invocation last;
+	}
+}
@@ -0,0 +1,55 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.util.List;
+
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.internal.verification.api.VerificationData;
+import org.mockito.invocation.Invocation;
+import org.mockito.verification.VerificationMode;
+
+import uk.co.webamoeba.mockito.collections.verification.Checkpoint;
+
+/**
+ * {@link VerificationMode} that applies another {@link VerificationMode} to only the invocations of a mock that
+ * occurred after a {@link Checkpoint}. The invocations are read each time the delegate {@link VerificationMode} asks
+ * for them, so a delegate that waits, such as {@link org.mockito.Mockito#timeout(int)}, sees new invocations. Only
+ * the invocations of the wanted method are read from a {@link MethodIndexedRegisteredInvocations}.
+ * 
+ * @author James Kennard
+ */
+class CheckpointVerificationMode implements VerificationMode {
+
+	private final VerificationMode mode;
+
+	private final Checkpoint checkpoint;
+
+	/**
+	 * @param mode
+	 *            The {@link VerificationMode} to apply
+	 * @param checkpoint
+	 */
+	public CheckpointVerificationMode(VerificationMode mode, Checkpoint checkpoint) {
+		this.mode = mode;
+		this.checkpoint = checkpoint;
+	}
+
+	public void verify(final VerificationData data) {
+		mode.verify(new VerificationData() {
+
+			public List<Invocation> getAllInvocations() {
+				MethodIndexedRegisteredInvocations registeredInvocations = MethodIndexedVerificationMode
+						.getMethodIndexedRegisteredInvocations(mode, data.getWanted());
+				if (registeredInvocations != null) {
+					return registeredInvocations.getAllAfter(data.getWanted().getMethod(),
+							checkpoint.getSequenceNumber());
+				}
+				return RegisteredInvocationsAccessor.getInvocationsAfter(data.getWanted().getInvocation().getMock(),
+						checkpoint.getSequenceNumber());
+			}
+
+			public InvocationMatcher getWanted() {
+				return data.getWanted();
+			}
+		});
+	}
+}
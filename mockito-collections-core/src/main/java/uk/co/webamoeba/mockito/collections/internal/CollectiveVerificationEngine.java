@@ -0,0 +1,164 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import uk.co.webamoeba.mockito.collections.exception.CollectiveVerificationError;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.util.DaemonThreadFactory;
+
+/**
+ * Applies a {@link MockVerification} to every mock in a {@link List}. Below the parallel threshold the mocks are
+ * verified in order on the calling {@link Thread}, and the first failure is thrown immediately. At or above the
+ * parallel threshold the {@link List} is split into contiguous partitions, one per available processor, and the
+ * partitions are verified concurrently. Each mock has its own invocations, and Mockito holds the state of a
+ * verification per {@link Thread}, so the partitions do not interfere with one another. Every mock is verified, and
+ * the failures are reported together in the order of the mocks regardless of thread scheduling.
+ * 
+ * @author James Kennard
+ */
+public class CollectiveVerificationEngine {
+
+	/**
+	 * The number of mocks at or above which mocks are verified concurrently, unless otherwise specified.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+
+	private final int parallelThreshold;
+
+	private final int parallelism;
+
+	/**
+	 * @param parallelThreshold
+	 *            The number of mocks at or above which mocks are verified concurrently, zero or less disables
+	 *            concurrent verification
+	 */
+	public CollectiveVerificationEngine(int parallelThreshold) {
+		this(parallelThreshold, Runtime.getRuntime().availableProcessors());
+	}
+
+	CollectiveVerificationEngine(int parallelThreshold, int parallelism) {
+		this.parallelThreshold = parallelThreshold;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @param mocks
+	 * @param verification
+	 *            The {@link MockVerification} to apply to each mock, when verifying concurrently this is used by more
+	 *            than one {@link Thread} at once
+	 */
+	public void verify(List<?> mocks, MockVerification verification) {
+		int partitions = Math.min(parallelism, mocks.size());
+		if (parallelThreshold <= 0 || mocks.size() < parallelThreshold || partitions < 2) {
+			for (int i = 0; i < mocks.size(); i++) {
+				try {
+					verification.verify(mocks.get(i), i);
+				} catch (Throwable t) {
+					throw propagate(t);
+				}
+			}
+			return;
+		}
+		List<Failure> failures = verifyConcurrently(mocks, verification, partitions);
+		if (failures.size() == 1) {
+			throw propagate(failures.get(0).throwable);
+		} else if (!failures.isEmpty()) {
+			throw createCollectiveVerificationError(failures, mocks.size());
+		}
+	}
+
+	private List<Failure> verifyConcurrently(final List<?> mocks, final MockVerification verification, int partitions) {
+		ExecutorService executorService = Executors.newFixedThreadPool(partitions, new DaemonThreadFactory(
+				"mockito-collections-verification-"));
+		try {
+			List<Future<List<Failure>>> futures = new ArrayList<Future<List<Failure>>>(partitions);
+			for (int i = 0; i < partitions; i++) {
+				final int from = (int) ((long) mocks.size() * i / partitions);
+				final int to = (int) ((long) mocks.size() * (i + 1) / partitions);
+				futures.add(executorService.submit(new Callable<List<Failure>>() {
+
+					public List<Failure> call() {
+						List<Failure> failures = new ArrayList<Failure>();
+						for (int j = from; j < to; j++) {
+							try {
+								verification.verify(mocks.get(j), j);
+							} catch (Throwable t) {
+								failures.add(new Failure(j, t));
+							}
+						}
+						return failures;
+					}
+				}));
+			}
+			List<Failure> failures = new ArrayList<Failure>();
+			for (Future<List<Failure>> future : futures) {
+				failures.addAll(future.get());
+			}
+			return failures;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MockitoCollectionsException("Interrupted whilst verifying mocks", e);
+		} catch (ExecutionException e) {
+			throw propagate(e.getCause());
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private CollectiveVerificationError createCollectiveVerificationError(List<Failure> failures, int numberOfMocks) {
+		StringBuilder message = new StringBuilder();
+		message.append(failures.size()).append(" of ").append(numberOfMocks).append(" mocks failed verification");
+		List<Throwable> throwables = new ArrayList<Throwable>(failures.size());
+		for (Failure failure : failures) {
+			message.append("\n\nMock at index ").append(failure.index).append(':');
+			message.append("\n").append(String.valueOf(failure.throwable.getMessage()).trim());
+			throwables.add(failure.throwable);
+		}
+		return new CollectiveVerificationError(message.toString(), throwables);
+	}
+
+	private static RuntimeException propagate(Throwable t) {
+		if (t instanceof RuntimeException) {
+			return (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		return new MockitoCollectionsException("Could not verify mocks", t);
+	}
+
+	/**
+	 * Verifies a single mock.
+	 * 
+	 * @author James Kennard
+	 */
+	public interface MockVerification {
+
+		/**
+		 * @param mock
+		 * @param index
+		 *            The index of the mock in the {@link List} of mocks being verified
+		 * @throws Throwable
+		 *             If the verification fails
+		 */
+		void verify(Object mock, int index) throws Throwable;
+	}
+
+	private static class Failure {
+
+		private final int index;
+
+		private final Throwable throwable;
+
+		public Failure(int index, Throwable throwable) {
+			this.index = index;
+			this.throwable = throwable;
+		}
+	}
+}
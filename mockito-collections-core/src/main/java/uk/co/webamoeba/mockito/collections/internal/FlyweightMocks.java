@@ -0,0 +1,364 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.hamcrest.Matcher;
+import org.mockito.Mockito;
+import org.mockito.exceptions.verification.NoInteractionsWanted;
+import org.mockito.internal.creation.DelegatingMethod;
+import org.mockito.internal.debugging.LocationImpl;
+import org.mockito.internal.invocation.ArgumentsComparator;
+import org.mockito.internal.invocation.InvocationImpl;
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.internal.invocation.realmethod.RealMethod;
+import org.mockito.internal.progress.SequenceNumber;
+import org.mockito.internal.stubbing.InvocationContainerImpl;
+import org.mockito.internal.stubbing.StubbedInvocationMatcher;
+import org.mockito.internal.util.MockUtil;
+import org.mockito.internal.util.ObjectMethodsGuru;
+import org.mockito.internal.util.Primitives;
+import org.mockito.invocation.Invocation;
+import org.mockito.invocation.Location;
+import org.mockito.verification.VerificationMode;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * A group of flyweight mocks of an interface that share one stubbing configuration. The stubs of every mock in the
+ * group are held by a single Mockito mock, the prototype, so stubbing the group once stubs every mock. Each mock is a
+ * {@link Proxy} that holds only its index in the group, and the group counts the invocations of each method of each
+ * mock in a shared array. No invocation, or its arguments, is retained.
+ * <p>
+ * The stubs of the prototype are copied each time one is added, so an invocation of a flyweight mock finds its stub
+ * without taking the lock that Mockito holds whilst finding the stub of a Mockito mock.
+ * <p>
+ * Because only the counts are kept, a flyweight mock can be verified by {@link Mockito#times(int)},
+ * {@link Mockito#never()} and {@link Mockito#atLeast(int)} using argument matchers that match any arguments. Flyweight
+ * mocks are not Mockito mocks, they cannot be stubbed or verified using {@link Mockito} directly, and they cannot be
+ * awaited, journaled, or verified by their order or distribution.
+ * 
+ * @author James Kennard
+ */
+public final class FlyweightMocks {
+
+	private static final RealMethod NO_REAL_METHOD = new RealMethod() {
+
+		public Object invoke(Object target, Object[] arguments) throws Throwable {
+			throw new MockitoCollectionsException("Cannot call a real method on a flyweight mock");
+		}
+	};
+
+	/**
+	 * Reported in place of the {@link Location} of an invocation, flyweight mocks do not retain their invocations.
+	 */
+	private static final Location UNKNOWN_LOCATION = new Location() {
+
+		@Override
+		public String toString() {
+			return "-> at an unknown location, flyweight mocks do not retain their invocations";
+		}
+	};
+
+	private static final ObjectMethodsGuru OBJECT_METHODS_GURU = new ObjectMethodsGuru();
+
+	private static final MockUtil MOCK_UTIL = new MockUtil();
+
+	private static final ArgumentsComparator ARGUMENTS_COMPARATOR = new ArgumentsComparator();
+
+	private static final Field STUBBED;
+	static {
+		try {
+			STUBBED = InvocationContainerImpl.class.getDeclaredField("stubbed");
+			STUBBED.setAccessible(true);
+		} catch (NoSuchFieldException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Class<?> type;
+
+	private final Object prototype;
+
+	private final StubbedInvocations stubs = new StubbedInvocations();
+
+	private final Constructor<?> proxyConstructor;
+
+	private final Map<Method, Integer> methodIds = new HashMap<Method, Integer>();
+
+	private final Method[] methods;
+
+	private final AtomicIntegerArray invocationCounts;
+
+	private final AtomicIntegerArray verifiedCounts;
+
+	private final int numberOfMocks;
+
+	/**
+	 * @param type
+	 *            The interface to mock
+	 * @param numberOfMocks
+	 *            The number of mocks in the group
+	 */
+	public FlyweightMocks(Class<?> type, int numberOfMocks) {
+		if (!type.isInterface()) {
+			throw new IllegalArgumentException("Only interfaces can be mocked by flyweight mocks");
+		}
+		this.type = type;
+		this.numberOfMocks = numberOfMocks;
+		this.prototype = Mockito.mock(type, withSettings().name(getMockName(type)));
+		try {
+			STUBBED.set(MOCK_UTIL.getMockHandler(prototype).getInvocationContainer(), stubs);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Could not create a flyweight mock of " + type, e);
+		}
+		this.proxyConstructor = createProxyConstructor(type);
+		this.methods = type.getMethods();
+		for (int i = 0; i < methods.length; i++) {
+			methodIds.put(methods[i], i);
+		}
+		this.invocationCounts = new AtomicIntegerArray(numberOfMocks * methods.length);
+		this.verifiedCounts = new AtomicIntegerArray(numberOfMocks * methods.length);
+	}
+
+	/**
+	 * @param index
+	 * @return A new flyweight mock at the index in the group
+	 */
+	public Object createMock(int index) {
+		if (index < 0 || index >= numberOfMocks) {
+			throw new IndexOutOfBoundsException("index must be between 0 and " + (numberOfMocks - 1));
+		}
+		try {
+			return proxyConstructor.newInstance(new FlyweightInvocationHandler(this, index));
+		} catch (InstantiationException e) {
+			throw new MockitoCollectionsException("Could not create a flyweight mock of " + type, e);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Could not create a flyweight mock of " + type, e);
+		} catch (InvocationTargetException e) {
+			throw new MockitoCollectionsException("Could not create a flyweight mock of " + type, e.getCause());
+		}
+	}
+
+	/**
+	 * @return The Mockito mock that holds the stubs shared by every mock in the group
+	 */
+	public Object getPrototype() {
+		return prototype;
+	}
+
+	/**
+	 * @param mock
+	 * @return The group of the flyweight mock, or <code>null</code> if the mock is not a flyweight mock
+	 */
+	public static FlyweightMocks getFlyweightMocks(Object mock) {
+		FlyweightInvocationHandler handler = getHandler(mock);
+		return handler == null ? null : handler.flyweightMocks;
+	}
+
+	/**
+	 * @param mock
+	 *            A flyweight mock
+	 * @return The index of the flyweight mock in its group
+	 */
+	public static int getIndex(Object mock) {
+		FlyweightInvocationHandler handler = getHandler(mock);
+		if (handler == null) {
+			throw new MockitoCollectionsException(mock + " is not a flyweight mock");
+		}
+		return handler.index;
+	}
+
+	/**
+	 * @param mock
+	 * @param operation
+	 *            The operation that cannot be applied to a flyweight mock, for example "await"
+	 * @throws MockitoCollectionsException
+	 *             If the mock is a flyweight mock
+	 */
+	public static void checkNotFlyweightMock(Object mock, String operation) {
+		if (getHandler(mock) != null) {
+			throw new MockitoCollectionsException("Cannot " + operation + " " + mock
+					+ ", flyweight mocks only count their invocations");
+		}
+	}
+
+	/**
+	 * Verifies the number of invocations of the wanted method by the flyweight mock. The invocations counted are
+	 * then verified.
+	 * 
+	 * @param mock
+	 *            A flyweight mock in the group
+	 * @param mode
+	 *            {@link Mockito#times(int)}, {@link Mockito#never()} or {@link Mockito#atLeast(int)}
+	 * @param method
+	 *            The wanted method
+	 * @param arguments
+	 *            The wanted arguments
+	 * @param matchers
+	 *            The argument matchers of the wanted arguments, or an empty {@link List}
+	 */
+	public void verify(Object mock, VerificationMode mode, Method method, Object[] arguments,
+			List<Matcher> matchers) {
+		InvocationMatcher wanted = new InvocationMatcher(new InvocationImpl(prototype, new DelegatingMethod(method),
+				arguments, SequenceNumber.next(), NO_REAL_METHOD), matchers);
+		RetainedInvocationsVerificationMode.checkMatchesAnyArguments(wanted);
+		int slot = getSlot(getIndex(mock), method);
+		int actualCount = invocationCounts.get(slot);
+		RetainedInvocationsVerificationMode.verifyCount(mode, wanted, actualCount, UNKNOWN_LOCATION);
+		verifiedCounts.set(slot, actualCount);
+	}
+
+	/**
+	 * Checks that the flyweight mock has not been invoked since the invocations of each method were last verified.
+	 * 
+	 * @param mock
+	 *            A flyweight mock in the group
+	 * @throws NoInteractionsWanted
+	 *             If any invocation is unverified
+	 */
+	public void verifyNoMoreInteractions(Object mock) {
+		int index = getIndex(mock);
+		for (int i = 0; i < methods.length; i++) {
+			int unverified = invocationCounts.get(index * methods.length + i)
+					- verifiedCounts.get(index * methods.length + i);
+			if (unverified > 0) {
+				throw new NoInteractionsWanted("\nNo interactions wanted here:\n" + new LocationImpl() + "\nBut found "
+						+ unverified + " unverified invocation(s) of " + methods[i].getName() + "() on " + mock
+						+ ", flyweight mocks do not retain their invocations.\n");
+			}
+		}
+	}
+
+	private Object answer(Object mock, int index, Method method, Object[] args) throws Throwable {
+		Integer methodId = methodIds.get(method);
+		if (methodId != null) {
+			invocationCounts.incrementAndGet(index * methods.length + methodId);
+		}
+		Object[] arguments = args == null ? new Object[0] : args;
+		Invocation invocation = new InvocationImpl(mock, new DelegatingMethod(method), arguments,
+				SequenceNumber.next(), NO_REAL_METHOD);
+		StubbedInvocationMatcher stub = findStub(invocation);
+		Object result = stub == null ? Mockito.RETURNS_DEFAULTS.answer(invocation) : stub.answer(invocation);
+		if (result == null && method.getReturnType().isPrimitive()) {
+			// A Proxy cannot return null in place of a primitive
+			return Primitives.defaultValueForPrimitiveOrWrapper(method.getReturnType());
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the most recently added stub that matches the invocation, in the same way as
+	 * {@link InvocationContainerImpl#findAnswerFor(Invocation)}. Every stub is a stub of the prototype, so the mock of
+	 * the invocation is not compared.
+	 */
+	private StubbedInvocationMatcher findStub(Invocation invocation) {
+		StubbedInvocationMatcher[] current = stubs.snapshot;
+		for (int i = 0; i < current.length; i++) {
+			StubbedInvocationMatcher stub = current[i];
+			if (stub.hasSameMethod(invocation) && ARGUMENTS_COMPARATOR.argumentsMatch(stub, invocation)) {
+				stub.markStubUsed(invocation);
+				return stub;
+			}
+		}
+		return null;
+	}
+
+	private int getSlot(int index, Method method) {
+		Integer methodId = methodIds.get(method);
+		if (methodId == null) {
+			throw new MockitoCollectionsException(method + " is not a method of " + type);
+		}
+		return index * methods.length + methodId;
+	}
+
+	private static FlyweightInvocationHandler getHandler(Object mock) {
+		if (mock == null || !Proxy.isProxyClass(mock.getClass())) {
+			return null;
+		}
+		InvocationHandler handler = Proxy.getInvocationHandler(mock);
+		return handler instanceof FlyweightInvocationHandler ? (FlyweightInvocationHandler) handler : null;
+	}
+
+	private static Constructor<?> createProxyConstructor(Class<?> type) {
+		try {
+			return Proxy.getProxyClass(type.getClassLoader(), type).getConstructor(InvocationHandler.class);
+		} catch (NoSuchMethodException e) {
+			throw new MockitoCollectionsException("Could not create a flyweight mock of " + type, e);
+		}
+	}
+
+	private static String getMockName(Class<?> type) {
+		String simpleName = type.getSimpleName();
+		return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+	}
+
+	/**
+	 * Stubs of the prototype that are copied each time Mockito changes them, whilst Mockito holds the lock of the
+	 * {@link List}, so they can be read without the lock. Mockito adds each stub to the front of the {@link List}.
+	 */
+	private static class StubbedInvocations extends LinkedList<StubbedInvocationMatcher> {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final StubbedInvocationMatcher[] NO_STUBS = new StubbedInvocationMatcher[0];
+
+		private volatile StubbedInvocationMatcher[] snapshot = NO_STUBS;
+
+		@Override
+		public void addFirst(StubbedInvocationMatcher stub) {
+			super.addFirst(stub);
+			snapshot = toArray(NO_STUBS);
+		}
+
+		@Override
+		public boolean add(StubbedInvocationMatcher stub) {
+			boolean added = super.add(stub);
+			snapshot = toArray(NO_STUBS);
+			return added;
+		}
+
+		@Override
+		public void clear() {
+			super.clear();
+			snapshot = NO_STUBS;
+		}
+	}
+
+	/**
+	 * The only state of a flyweight mock, its group and its index in the group.
+	 */
+	private static class FlyweightInvocationHandler implements InvocationHandler {
+
+		private final FlyweightMocks flyweightMocks;
+
+		private final int index;
+
+		public FlyweightInvocationHandler(FlyweightMocks flyweightMocks, int index) {
+			this.flyweightMocks = flyweightMocks;
+			this.index = index;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (OBJECT_METHODS_GURU.isEqualsMethod(method)) {
+				return proxy == args[0];
+			} else if (OBJECT_METHODS_GURU.isHashCodeMethod(method)) {
+				return System.identityHashCode(proxy);
+			} else if (OBJECT_METHODS_GURU.isToString(method)) {
+				return getMockName(flyweightMocks.type) + "[" + index + "]";
+			}
+			return flyweightMocks.answer(proxy, index, method, args);
+		}
+	}
+}
@@ -7,13 +7,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
 import uk.co.webamoeba.mockito.collections.inject.CollectionFactory;
 import uk.co.webamoeba.mockito.collections.inject.CollectionInjector;
 import uk.co.webamoeba.mockito.collections.inject.CollectionOfMocksInitialiser;
+import uk.co.webamoeba.mockito.collections.inject.ConcurrentMockStrategy;
 import uk.co.webamoeba.mockito.collections.inject.DefaultMockSelectionStrategy;
 import uk.co.webamoeba.mockito.collections.inject.DefaultMockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.FlyweightMockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjector;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjectorLocator;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjectorSupport;
 import uk.co.webamoeba.mockito.collections.inject.InjectionDetailsFactory;
+import uk.co.webamoeba.mockito.collections.inject.InjectionPlan;
+import uk.co.webamoeba.mockito.collections.inject.InjectionPlanCache;
+import uk.co.webamoeba.mockito.collections.inject.InjectionPlanFactory;
+import uk.co.webamoeba.mockito.collections.inject.MethodIndexedMockStrategy;
 import uk.co.webamoeba.mockito.collections.inject.MockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.MockStrategySelector;
+import uk.co.webamoeba.mockito.collections.inject.ProxyMockStrategy;
 import uk.co.webamoeba.mockito.collections.util.AnnotatedFieldRetriever;
 import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
 
@@ -38,33 +50,77 @@ import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
  * }
  * </code>
  * </pre>
+ * <p>
+ * The reflective work required to initialise an {@link Object} is captured in an {@link InjectionPlan} which is
+ * created once per {@link Class} and replayed on subsequent initialisations.
+ * <p>
+ * Where a {@link GeneratedCollectionInjector} was generated for the {@link Class} at compile time, by the
+ * mockito-collections-apt annotation processor, it is used in place of the {@link InjectionPlan}.
+ * <p>
+ * Large {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} fields are populated concurrently,
+ * the number of mocks at or above which this happens can be set using the {@value #PARALLEL_THRESHOLD} system
+ * property, zero disables concurrent creation. The {@link MockType} of mocks created for
+ * {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} fields that do not specify one can be set
+ * using the {@value #MOCK_TYPE} system property.
  * 
  * @author James Kennard
  */
 public class Initialiser {
 
+	/**
+	 * Name of the system property that sets the {@link DefaultMockStrategy parallel threshold}.
+	 */
+	public static final String PARALLEL_THRESHOLD = "mockito.collections.parallelThreshold";
+
+	/**
+	 * Name of the system property that sets the {@link MockType} used in place of {@link MockType#DEFAULT}.
+	 */
+	public static final String MOCK_TYPE = "mockito.collections.mockType";
+
 	private CollectionInjector injector;
 
 	private InjectionDetailsFactory factory;
 
 	private CollectionOfMocksInitialiser collectionOfMocksInitialiser;
 
+	private InjectionPlanCache injectionPlanCache;
+
+	private GeneratedCollectionInjectorLocator generatedCollectionInjectorLocator;
+
+	private GeneratedCollectionInjectorSupport generatedCollectionInjectorSupport;
+
 	{
 		GenericCollectionTypeResolver genericCollectionTypeResolver = new GenericCollectionTypeResolver();
 		DefaultMockSelectionStrategy mockSelectionStrategy = new DefaultMockSelectionStrategy();
 		CollectionFactory collectionFactory = new CollectionFactory();
 		AnnotatedFieldRetriever annotatedFieldRetriever = new AnnotatedFieldRetriever();
-		MockStrategy mockStrategy = new DefaultMockStrategy();
+		MockStrategy mockStrategy = new DefaultMockStrategy(Integer.getInteger(PARALLEL_THRESHOLD,
+				DefaultMockStrategy.DEFAULT_PARALLEL_THRESHOLD));
+		MockStrategySelector mockStrategySelector = new MockStrategySelector(mockStrategy, new ProxyMockStrategy(
+				mockStrategy), new ConcurrentMockStrategy(mockStrategy), new MethodIndexedMockStrategy(mockStrategy),
+				new FlyweightMockStrategy(mockStrategy), MockType.valueOf(System.getProperty(MOCK_TYPE,
+						MockType.MOCKITO.name())));
 
-		injector = new CollectionInjector(collectionFactory, mockSelectionStrategy, genericCollectionTypeResolver);
-		factory = new InjectionDetailsFactory(annotatedFieldRetriever, genericCollectionTypeResolver);
-		collectionOfMocksInitialiser = new CollectionOfMocksInitialiser(annotatedFieldRetriever,
-				genericCollectionTypeResolver, collectionFactory, mockStrategy);
+		injectionPlanCache = new InjectionPlanCache(new InjectionPlanFactory(annotatedFieldRetriever,
+				genericCollectionTypeResolver));
+		injector = new CollectionInjector(collectionFactory, mockSelectionStrategy, injectionPlanCache);
+		factory = new InjectionDetailsFactory();
+		collectionOfMocksInitialiser = new CollectionOfMocksInitialiser(collectionFactory, mockStrategySelector);
+		generatedCollectionInjectorLocator = new GeneratedCollectionInjectorLocator();
+		generatedCollectionInjectorSupport = new GeneratedCollectionInjectorSupport(collectionFactory,
+				mockStrategySelector);
 	}
 
 	public void initialise(Object object) {
-		collectionOfMocksInitialiser.initialise(object);
-		injector.inject(factory.createInjectionDetails(object));
+		GeneratedCollectionInjector generatedCollectionInjector = generatedCollectionInjectorLocator
+				.getGeneratedCollectionInjector(object.getClass());
+		if (generatedCollectionInjector != null && generatedCollectionInjector.canInitialise(object)) {
+			generatedCollectionInjector.initialise(object, generatedCollectionInjectorSupport);
+			return;
+		}
+		InjectionPlan injectionPlan = injectionPlanCache.getInjectionPlan(object.getClass());
+		collectionOfMocksInitialiser.initialise(object, injectionPlan);
+		injector.inject(factory.createInjectionDetails(object, injectionPlan));
 	}
 
 }
@@ -0,0 +1,56 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.mockito.internal.invocation.InvocationMarker;
+import org.mockito.internal.invocation.InvocationsFinder;
+import org.mockito.internal.verification.api.VerificationData;
+import org.mockito.invocation.Invocation;
+import org.mockito.verification.VerificationMode;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * {@link VerificationMode} that never fails, it collects, in {@link Invocation#getSequenceNumber() sequence number}
+ * order, and marks as verified the invocations of a single mock that match the wanted invocation. A new
+ * {@link InvocationCollector} is required for each mock.
+ * 
+ * @author James Kennard
+ */
+class InvocationCollector implements VerificationMode {
+
+	private List<Invocation> invocations = Collections.emptyList();
+
+	private String wanted;
+
+	/**
+	 * @throws MockitoCollectionsException
+	 *             If the mock no longer retains some invocations of the wanted method
+	 */
+	public void verify(VerificationData data) {
+		if (RetainedInvocationsVerificationMode.getDiscardingRegisteredInvocations(data.getWanted()) != null) {
+			throw new MockitoCollectionsException("The order of " + data.getWanted()
+					+ " cannot be verified, some invocations of " + data.getWanted().getMethod().getName()
+					+ " are no longer retained");
+		}
+		invocations = new InvocationsFinder().findInvocations(data.getAllInvocations(), data.getWanted());
+		Collections.sort(invocations, SequenceNumberComparator.INSTANCE);
+		new InvocationMarker().markVerified(invocations, data.getWanted());
+		wanted = data.getWanted().toString();
+	}
+
+	/**
+	 * @return The matching invocations, in sequence number order
+	 */
+	public List<Invocation> getInvocations() {
+		return invocations;
+	}
+
+	/**
+	 * @return Description of the wanted invocation, or <code>null</code> if the mock has not been verified
+	 */
+	public String getWanted() {
+		return wanted;
+	}
+}
@@ -0,0 +1,52 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.util.List;
+
+import org.mockito.internal.invocation.InvocationMarker;
+import org.mockito.internal.invocation.InvocationsFinder;
+import org.mockito.internal.verification.api.VerificationData;
+import org.mockito.invocation.Invocation;
+import org.mockito.verification.VerificationMode;
+
+/**
+ * {@link VerificationMode} that never fails, it counts and marks as verified the invocations of a single mock that
+ * match the wanted invocation. A new {@link InvocationCounter} is required for each mock. Invocations that are no
+ * longer retained by a {@link BoundedRegisteredInvocations} are counted provided that the wanted invocation matches
+ * any arguments.
+ * 
+ * @author James Kennard
+ */
+class InvocationCounter implements VerificationMode {
+
+	private int count;
+
+	private String wanted;
+
+	public void verify(VerificationData data) {
+		BoundedRegisteredInvocations registeredInvocations = RetainedInvocationsVerificationMode
+				.getDiscardingRegisteredInvocations(data.getWanted());
+		if (registeredInvocations == null) {
+			List<Invocation> invocations = new InvocationsFinder().findInvocations(data.getAllInvocations(),
+					data.getWanted());
+			new InvocationMarker().markVerified(invocations, data.getWanted());
+			count = invocations.size();
+		} else {
+			count = RetainedInvocationsVerificationMode.countInvocations(registeredInvocations, data.getWanted());
+		}
+		wanted = data.getWanted().toString();
+	}
+
+	/**
+	 * @return The number of matching invocations
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return Description of the wanted invocation, or <code>null</code> if the mock has not been verified
+	 */
+	public String getWanted() {
+		return wanted;
+	}
+}
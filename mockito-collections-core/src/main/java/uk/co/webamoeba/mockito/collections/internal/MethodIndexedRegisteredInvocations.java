@@ -0,0 +1,178 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.internal.util.ObjectMethodsGuru;
+import org.mockito.internal.verification.RegisteredInvocations;
+import org.mockito.invocation.Invocation;
+
+/**
+ * {@link RegisteredInvocations} that records the invocations of a mock in a separate bucket for each {@link Method}, so
+ * that the invocations of one {@link Method} can be read without reading the invocations of every other
+ * {@link Method}. The buckets are merged in {@link Invocation#getSequenceNumber() sequence number} order only when all
+ * of the invocations are read.
+ * <p>
+ * Each bucket also remembers how many of its invocations, from the first, are known to be verified, so that finding
+ * the first unverified invocation of the mock does not re-read invocations that have already been verified.
+ * 
+ * @author James Kennard
+ */
+public class MethodIndexedRegisteredInvocations extends RegisteredInvocations implements
+		SequencedRegisteredInvocations {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ObjectMethodsGuru OBJECT_METHODS_GURU = new ObjectMethodsGuru();
+
+	private final Map<Method, Bucket> buckets = new LinkedHashMap<Method, Bucket>();
+
+	@Override
+	public synchronized void add(Invocation invocation) {
+		Bucket bucket = buckets.get(invocation.getMethod());
+		if (bucket == null) {
+			bucket = new Bucket();
+			buckets.put(invocation.getMethod(), bucket);
+		}
+		bucket.invocations.add(invocation);
+	}
+
+	/**
+	 * Removes the most recent invocation, that is the invocation with the greatest sequence number.
+	 */
+	@Override
+	public synchronized void removeLast() {
+		Bucket latestBucket = null;
+		for (Bucket bucket : buckets.values()) {
+			if (!bucket.invocations.isEmpty()
+					&& (latestBucket == null || bucket.getLatest().getSequenceNumber() > latestBucket.getLatest()
+							.getSequenceNumber())) {
+				latestBucket = bucket;
+			}
+		}
+		if (latestBucket != null) {
+			latestBucket.removeLatest();
+		}
+	}
+
+	/**
+	 * @return A new {@link List} of the invocations, other than those of {@link Object#toString()}, in sequence number
+	 *         order
+	 */
+	@Override
+	public synchronized List<Invocation> getAll() {
+		List<Invocation> invocations = new ArrayList<Invocation>();
+		for (Map.Entry<Method, Bucket> entry : buckets.entrySet()) {
+			if (!OBJECT_METHODS_GURU.isToString(entry.getKey())) {
+				invocations.addAll(entry.getValue().invocations);
+			}
+		}
+		Collections.sort(invocations, SequenceNumberComparator.INSTANCE);
+		return invocations;
+	}
+
+	/**
+	 * @param method
+	 * @return A new {@link List} of the invocations of the {@link Method}, in sequence number order, the cost is
+	 *         proportional to the number of invocations of the {@link Method}
+	 */
+	public synchronized List<Invocation> getAll(Method method) {
+		Bucket bucket = buckets.get(method);
+		if (bucket == null || OBJECT_METHODS_GURU.isToString(method)) {
+			return new ArrayList<Invocation>();
+		}
+		return new ArrayList<Invocation>(bucket.invocations);
+	}
+
+	public synchronized List<Invocation> getAllAfter(int sequenceNumber) {
+		List<Invocation> invocations = new ArrayList<Invocation>();
+		for (Method method : buckets.keySet()) {
+			invocations.addAll(getAllAfter(method, sequenceNumber));
+		}
+		Collections.sort(invocations, SequenceNumberComparator.INSTANCE);
+		return invocations;
+	}
+
+	/**
+	 * @param method
+	 * @param sequenceNumber
+	 * @return A new {@link List} of the invocations of the {@link Method} with a greater sequence number, in sequence
+	 *         number order, the cost is proportional to the number of invocations returned
+	 */
+	public synchronized List<Invocation> getAllAfter(Method method, int sequenceNumber) {
+		Bucket bucket = buckets.get(method);
+		if (bucket == null || OBJECT_METHODS_GURU.isToString(method)) {
+			return new ArrayList<Invocation>();
+		}
+		int from = bucket.invocations.size();
+		while (from > 0 && bucket.invocations.get(from - 1).getSequenceNumber() > sequenceNumber) {
+			from--;
+		}
+		return new ArrayList<Invocation>(bucket.invocations.subList(from, bucket.invocations.size()));
+	}
+
+	/**
+	 * @return The unverified invocation, other than of {@link Object#toString()}, with the smallest sequence number, or
+	 *         <code>null</code> if every invocation is verified
+	 */
+	public synchronized Invocation getFirstUnverifiedInvocation() {
+		Invocation first = null;
+		for (Map.Entry<Method, Bucket> entry : buckets.entrySet()) {
+			if (OBJECT_METHODS_GURU.isToString(entry.getKey())) {
+				continue;
+			}
+			Invocation candidate = entry.getValue().getFirstUnverified();
+			if (candidate != null && (first == null || candidate.getSequenceNumber() < first.getSequenceNumber())) {
+				first = candidate;
+			}
+		}
+		return first;
+	}
+
+	@Override
+	public synchronized boolean isEmpty() {
+		for (Bucket bucket : buckets.values()) {
+			if (!bucket.invocations.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The invocations of one {@link Method}, in the order in which they were recorded.
+	 */
+	private static class Bucket implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Invocation> invocations = new ArrayList<Invocation>();
+
+		/**
+		 * The number of invocations, from the first, known to be verified. Invocations are never unverified, so this
+		 * only moves backwards when the latest invocation is removed.
+		 */
+		private int verified;
+
+		Invocation getLatest() {
+			return invocations.get(invocations.size() - 1);
+		}
+
+		void removeLatest() {
+			invocations.remove(invocations.size() - 1);
+			verified = Math.min(verified, invocations.size());
+		}
+
+		Invocation getFirstUnverified() {
+			while (verified < invocations.size() && invocations.get(verified).isVerified()) {
+				verified++;
+			}
+			return verified < invocations.size() ? invocations.get(verified) : null;
+		}
+	}
+}
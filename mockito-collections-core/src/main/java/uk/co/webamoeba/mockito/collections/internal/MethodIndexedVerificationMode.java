@@ -0,0 +1,104 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.util.List;
+
+import org.mockito.exceptions.Reporter;
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.internal.util.MockUtil;
+import org.mockito.internal.verification.Only;
+import org.mockito.internal.verification.RegisteredInvocations;
+import org.mockito.internal.verification.api.VerificationData;
+import org.mockito.invocation.Invocation;
+import org.mockito.verification.VerificationMode;
+
+/**
+ * {@link VerificationMode} that applies another {@link VerificationMode} to only the invocations of the wanted method
+ * when the mock records its invocations in a {@link MethodIndexedRegisteredInvocations}, so that the cost of the
+ * verification is proportional to the number of invocations of the wanted method. {@link Only} is applied to all of
+ * the invocations of the mock, it has to check that no other method was invoked. Any other mock is verified by the
+ * delegate {@link VerificationMode} in the usual way.
+ * 
+ * @author James Kennard
+ */
+class MethodIndexedVerificationMode implements VerificationMode {
+
+	private static final MockUtil MOCK_UTIL = new MockUtil();
+
+	private final VerificationMode mode;
+
+	/**
+	 * @param mode
+	 *            The {@link VerificationMode} to apply
+	 */
+	public MethodIndexedVerificationMode(VerificationMode mode) {
+		this.mode = mode;
+	}
+
+	public void verify(final VerificationData data) {
+		final MethodIndexedRegisteredInvocations registeredInvocations = getMethodIndexedRegisteredInvocations(mode,
+				data.getWanted());
+		if (registeredInvocations == null) {
+			mode.verify(data);
+			return;
+		}
+		mode.verify(new VerificationData() {
+
+			public List<Invocation> getAllInvocations() {
+				return registeredInvocations.getAll(data.getWanted().getMethod());
+			}
+
+			public InvocationMatcher getWanted() {
+				return data.getWanted();
+			}
+		});
+	}
+
+	/**
+	 * @param mode
+	 * @param wanted
+	 * @return The {@link MethodIndexedRegisteredInvocations} of the mock of the wanted invocation, if the
+	 *         {@link VerificationMode} can be limited to the invocations of the wanted method, or <code>null</code>
+	 */
+	static MethodIndexedRegisteredInvocations getMethodIndexedRegisteredInvocations(VerificationMode mode,
+			InvocationMatcher wanted) {
+		if (mode instanceof RetainedInvocationsVerificationMode) {
+			mode = ((RetainedInvocationsVerificationMode) mode).getMode();
+		}
+		if (mode instanceof Only) {
+			return null;
+		}
+		return getMethodIndexedRegisteredInvocations(wanted.getInvocation().getMock());
+	}
+
+	/**
+	 * @param mock
+	 * @return The {@link MethodIndexedRegisteredInvocations} of the mock, or <code>null</code> if the mock records its
+	 *         invocations in some other way
+	 */
+	static MethodIndexedRegisteredInvocations getMethodIndexedRegisteredInvocations(Object mock) {
+		if (!MOCK_UTIL.isMock(mock)) {
+			return null;
+		}
+		RegisteredInvocations registeredInvocations = RegisteredInvocationsAccessor.getRegisteredInvocations(mock);
+		if (registeredInvocations instanceof MethodIndexedRegisteredInvocations) {
+			return (MethodIndexedRegisteredInvocations) registeredInvocations;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks that the mock has no unverified invocations, in the same way as
+	 * {@link org.mockito.Mockito#verifyNoMoreInteractions(Object...)}, using the
+	 * {@link MethodIndexedRegisteredInvocations} of the mock to skip the invocations already known to be verified.
+	 * 
+	 * @param registeredInvocations
+	 *            The {@link MethodIndexedRegisteredInvocations} of the mock
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static void verifyNoMoreInteractions(MethodIndexedRegisteredInvocations registeredInvocations) {
+		Invocation unverified = registeredInvocations.getFirstUnverifiedInvocation();
+		if (unverified != null) {
+			new Reporter().noMoreInteractionsWanted(unverified, (List) registeredInvocations.getAll());
+		}
+	}
+}
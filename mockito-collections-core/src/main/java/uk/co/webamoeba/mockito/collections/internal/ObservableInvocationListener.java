@@ -0,0 +1,69 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import org.mockito.internal.util.MockUtil;
+import org.mockito.listeners.InvocationListener;
+import org.mockito.listeners.MethodInvocationReport;
+import org.mockito.mock.MockCreationSettings;
+
+/**
+ * {@link InvocationListener} of a single mock to which other {@link InvocationListener InvocationListeners} are added
+ * when they are first needed, for example when the mock is first awaited or journaled. Mocks created for
+ * {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} fields each have their own
+ * {@link ObservableInvocationListener}. Until an {@link InvocationListener} is added, reporting an invocation costs a
+ * single volatile read.
+ * 
+ * @author James Kennard
+ */
+public class ObservableInvocationListener implements InvocationListener {
+
+	private static final MockUtil MOCK_UTIL = new MockUtil();
+
+	private static final InvocationListener[] NO_LISTENERS = new InvocationListener[0];
+
+	private volatile InvocationListener[] listeners = NO_LISTENERS;
+
+	/**
+	 * @param mock
+	 * @return The {@link ObservableInvocationListener} of the mock, or <code>null</code> if the mock is not a mock or
+	 *         does not have one
+	 */
+	public static ObservableInvocationListener getListener(Object mock) {
+		if (MOCK_UTIL.isMock(mock)) {
+			MockCreationSettings<?> settings = MOCK_UTIL.getMockHandler(mock).getMockSettings();
+			for (InvocationListener listener : settings.getInvocationListeners()) {
+				if (listener instanceof ObservableInvocationListener) {
+					return (ObservableInvocationListener) listener;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the listener, unless a listener of the same {@link Class} has already been added.
+	 *
+	 * @param listener
+	 * @return The listener of the same {@link Class} that has been added
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <L extends InvocationListener> L addListener(L listener) {
+		InvocationListener[] current = listeners;
+		for (InvocationListener existing : current) {
+			if (existing.getClass() == listener.getClass()) {
+				return (L) existing;
+			}
+		}
+		InvocationListener[] added = new InvocationListener[current.length + 1];
+		System.arraycopy(current, 0, added, 0, current.length);
+		added[current.length] = listener;
+		listeners = added;
+		return listener;
+	}
+
+	public void reportInvocation(MethodInvocationReport methodInvocationReport) {
+		InvocationListener[] current = listeners;
+		for (int i = 0; i < current.length; i++) {
+			current[i].reportInvocation(methodInvocationReport);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.lang.reflect.Field;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.mockito.internal.stubbing.InvocationContainer;
+import org.mockito.internal.stubbing.InvocationContainerImpl;
+import org.mockito.internal.util.MockUtil;
+import org.mockito.internal.util.ObjectMethodsGuru;
+import org.mockito.internal.verification.RegisteredInvocations;
+import org.mockito.invocation.Invocation;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * Reads and replaces the {@link RegisteredInvocations} in which a mock records its invocations. Mockito does not
+ * provide a way of changing how invocations are recorded, so the {@link RegisteredInvocations} are accessed
+ * reflectively. Replacing the {@link RegisteredInvocations} of a mock that has been invoked discards the invocations.
+ * 
+ * @author James Kennard
+ */
+public final class RegisteredInvocationsAccessor {
+
+	private static final MockUtil MOCK_UTIL = new MockUtil();
+
+	private static final Field REGISTERED_INVOCATIONS;
+	static {
+		try {
+			REGISTERED_INVOCATIONS = InvocationContainerImpl.class.getDeclaredField("registeredInvocations");
+			REGISTERED_INVOCATIONS.setAccessible(true);
+		} catch (NoSuchFieldException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static final Field INVOCATIONS;
+	static {
+		try {
+			INVOCATIONS = RegisteredInvocations.class.getDeclaredField("invocations");
+			INVOCATIONS.setAccessible(true);
+		} catch (NoSuchFieldException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private static final ObjectMethodsGuru OBJECT_METHODS_GURU = new ObjectMethodsGuru();
+
+	private RegisteredInvocationsAccessor() {
+	}
+
+	/**
+	 * @param mock
+	 * @return The {@link RegisteredInvocations} of the mock
+	 */
+	public static RegisteredInvocations getRegisteredInvocations(Object mock) {
+		try {
+			return (RegisteredInvocations) REGISTERED_INVOCATIONS.get(getInvocationContainer(mock));
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Cannot read the invocations of " + MOCK_UTIL.getMockName(mock), e);
+		}
+	}
+
+	/**
+	 * @param mock
+	 * @param registeredInvocations
+	 *            The {@link RegisteredInvocations} in which the mock will record its invocations
+	 */
+	public static void setRegisteredInvocations(Object mock, RegisteredInvocations registeredInvocations) {
+		try {
+			REGISTERED_INVOCATIONS.set(getInvocationContainer(mock), registeredInvocations);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Cannot replace the invocations of " + MOCK_UTIL.getMockName(mock),
+					e);
+		}
+	}
+
+	/**
+	 * Reads the invocations of the mock that occurred after the sequence number. The invocations are read from the most
+	 * recent backwards, stopping at the first invocation that did not occur after the sequence number, so the cost is
+	 * proportional to the number of invocations returned rather than the number of invocations of the mock.
+	 * 
+	 * @param mock
+	 * @param sequenceNumber
+	 * @return A new {@link List} of the invocations, other than those of {@link Object#toString()}, with a greater
+	 *         {@link Invocation#getSequenceNumber() sequence number}, in sequence number order
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<Invocation> getInvocationsAfter(Object mock, int sequenceNumber) {
+		RegisteredInvocations registeredInvocations = getRegisteredInvocations(mock);
+		if (registeredInvocations instanceof SequencedRegisteredInvocations) {
+			return ((SequencedRegisteredInvocations) registeredInvocations).getAllAfter(sequenceNumber);
+		}
+		List<Invocation> invocations;
+		try {
+			invocations = (List<Invocation>) INVOCATIONS.get(registeredInvocations);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Cannot read the invocations of " + MOCK_UTIL.getMockName(mock), e);
+		}
+		LinkedList<Invocation> after = new LinkedList<Invocation>();
+		synchronized (invocations) {
+			for (ListIterator<Invocation> iterator = invocations.listIterator(invocations.size()); iterator
+					.hasPrevious();) {
+				Invocation invocation = iterator.previous();
+				if (invocation.getSequenceNumber() <= sequenceNumber) {
+					break;
+				}
+				if (!OBJECT_METHODS_GURU.isToString(invocation.getMethod())) {
+					after.addFirst(invocation);
+				}
+			}
+		}
+		return after;
+	}
+
+	private static InvocationContainer getInvocationContainer(Object mock) {
+		InvocationContainer invocationContainer = MOCK_UTIL.getMockHandler(mock).getInvocationContainer();
+		if (!(invocationContainer instanceof InvocationContainerImpl)) {
+			throw new MockitoCollectionsException("Cannot access the invocations of " + MOCK_UTIL.getMockName(mock));
+		}
+		return invocationContainer;
+	}
+}
@@ -0,0 +1,192 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.hamcrest.Matcher;
+import org.mockito.exceptions.Reporter;
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.internal.matchers.Any;
+import org.mockito.internal.matchers.AnyVararg;
+import org.mockito.internal.matchers.LocalizedMatcher;
+import org.mockito.internal.reporting.Discrepancy;
+import org.mockito.internal.verification.AtLeast;
+import org.mockito.internal.verification.RegisteredInvocations;
+import org.mockito.internal.verification.Times;
+import org.mockito.internal.verification.api.VerificationData;
+import org.mockito.internal.verification.checkers.AtLeastDiscrepancy;
+import org.mockito.invocation.Invocation;
+import org.mockito.invocation.Location;
+import org.mockito.verification.VerificationMode;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * {@link VerificationMode} that verifies a mock that no longer retains some invocations of the wanted method, see
+ * {@link BoundedRegisteredInvocations}, using the number of invocations of the method rather than the retained
+ * invocations. Only {@link Times} and {@link AtLeast} verifications that match any arguments can be made this way.
+ * Any other mock is verified by the delegate {@link VerificationMode}.
+ * 
+ * @author James Kennard
+ */
+class RetainedInvocationsVerificationMode implements VerificationMode {
+
+	private static final Field TIMES_WANTED_COUNT = getWantedCountField(Times.class);
+
+	private static final Field AT_LEAST_WANTED_COUNT = getWantedCountField(AtLeast.class);
+
+	private final VerificationMode mode;
+
+	/**
+	 * @param mode
+	 *            The {@link VerificationMode} to apply
+	 */
+	public RetainedInvocationsVerificationMode(VerificationMode mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * @return The delegate {@link VerificationMode}
+	 */
+	VerificationMode getMode() {
+		return mode;
+	}
+
+	public void verify(VerificationData data) {
+		InvocationMatcher wanted = data.getWanted();
+		BoundedRegisteredInvocations registeredInvocations = getDiscardingRegisteredInvocations(wanted);
+		if (registeredInvocations == null) {
+			mode.verify(data);
+			return;
+		}
+		int actualCount = countInvocations(registeredInvocations, wanted);
+		Location lastLocation = actualCount == 0 ? null : registeredInvocations.getLastInvocation(wanted.getMethod())
+				.getLocation();
+		verifyCount(mode, wanted, actualCount, lastLocation);
+	}
+
+	/**
+	 * Verifies the number of invocations of the wanted method against a {@link Times} or {@link AtLeast}
+	 * {@link VerificationMode}.
+	 * 
+	 * @param mode
+	 * @param wanted
+	 * @param actualCount
+	 *            The number of invocations of the wanted method
+	 * @param lastLocation
+	 *            The {@link Location} of the last invocation of the wanted method, if known
+	 * @throws MockitoCollectionsException
+	 *             If the {@link VerificationMode} is not {@link Times} or {@link AtLeast}
+	 */
+	static void verifyCount(VerificationMode mode, InvocationMatcher wanted, int actualCount, Location lastLocation) {
+		Reporter reporter = new Reporter();
+		if (mode instanceof Times) {
+			int wantedCount = getWantedCount(TIMES_WANTED_COUNT, mode);
+			if (wantedCount > 0 && actualCount == 0) {
+				reporter.wantedButNotInvoked(wanted);
+			} else if (wantedCount > actualCount) {
+				reporter.tooLittleActualInvocations(new Discrepancy(wantedCount, actualCount), wanted, lastLocation);
+			} else if (wantedCount == 0 && actualCount > 0) {
+				reporter.neverWantedButInvoked(wanted, lastLocation);
+			} else if (wantedCount < actualCount) {
+				reporter.tooManyActualInvocations(wantedCount, actualCount, wanted, lastLocation);
+			}
+		} else if (mode instanceof AtLeast) {
+			int wantedCount = getWantedCount(AT_LEAST_WANTED_COUNT, mode);
+			if (wantedCount > 0 && actualCount == 0) {
+				reporter.wantedButNotInvoked(wanted);
+			} else if (wantedCount > actualCount) {
+				reporter.tooLittleActualInvocations(new AtLeastDiscrepancy(wantedCount, actualCount), wanted,
+						lastLocation);
+			}
+		} else {
+			throw new MockitoCollectionsException(mode + " cannot be verified, some invocations of " + wanted
+					+ " are no longer retained. Only times, never and atLeast can be verified.");
+		}
+	}
+
+	/**
+	 * @param wanted
+	 * @return The {@link BoundedRegisteredInvocations} of the mock of the wanted invocation, if it no longer retains
+	 *         some invocations of the wanted method, or <code>null</code>
+	 */
+	static BoundedRegisteredInvocations getDiscardingRegisteredInvocations(InvocationMatcher wanted) {
+		RegisteredInvocations registeredInvocations = RegisteredInvocationsAccessor.getRegisteredInvocations(wanted
+				.getInvocation().getMock());
+		if (registeredInvocations instanceof BoundedRegisteredInvocations
+				&& ((BoundedRegisteredInvocations) registeredInvocations).hasDiscardedInvocations(wanted.getMethod())) {
+			return (BoundedRegisteredInvocations) registeredInvocations;
+		}
+		return null;
+	}
+
+	/**
+	 * Counts the invocations of the wanted method, including those that are no longer retained, and marks them as
+	 * verified.
+	 * 
+	 * @param registeredInvocations
+	 * @param wanted
+	 * @return The number of invocations of the wanted method
+	 * @throws MockitoCollectionsException
+	 *             If the wanted invocation does not match any arguments
+	 */
+	static int countInvocations(BoundedRegisteredInvocations registeredInvocations, InvocationMatcher wanted) {
+		checkMatchesAnyArguments(wanted);
+		registeredInvocations.markVerified(wanted);
+		return registeredInvocations.getInvocationCount(wanted.getMethod());
+	}
+
+	/**
+	 * @param wanted
+	 * @throws MockitoCollectionsException
+	 *             If the wanted invocation does not match any arguments
+	 */
+	static void checkMatchesAnyArguments(InvocationMatcher wanted) {
+		for (Matcher<?> matcher : wanted.getMatchers()) {
+			if (matcher instanceof LocalizedMatcher) {
+				matcher = ((LocalizedMatcher) matcher).getActualMatcher();
+			}
+			if (!(matcher instanceof Any) && !(matcher instanceof AnyVararg)) {
+				throw new MockitoCollectionsException(wanted + " cannot be verified, some invocations of "
+						+ wanted.getMethod().getName()
+						+ " are no longer retained. Only verifications that match any arguments can be made.");
+			}
+		}
+	}
+
+	/**
+	 * Checks that the mock has no unverified invocations that are no longer retained, the retained invocations are
+	 * checked by {@link org.mockito.Mockito#verifyNoMoreInteractions(Object...)}.
+	 * 
+	 * @param mock
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static void verifyNoMoreDiscardedInteractions(Object mock) {
+		RegisteredInvocations registeredInvocations = RegisteredInvocationsAccessor.getRegisteredInvocations(mock);
+		if (registeredInvocations instanceof BoundedRegisteredInvocations) {
+			Invocation unverified = ((BoundedRegisteredInvocations) registeredInvocations)
+					.getUnverifiedDiscardedInvocation();
+			if (unverified != null) {
+				new Reporter().noMoreInteractionsWanted(unverified, (List) registeredInvocations.getAll());
+			}
+		}
+	}
+
+	private static int getWantedCount(Field wantedCountField, VerificationMode mode) {
+		try {
+			return wantedCountField.getInt(mode);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Cannot read the wanted count of " + mode, e);
+		}
+	}
+
+	private static Field getWantedCountField(Class<? extends VerificationMode> modeClass) {
+		try {
+			Field field = modeClass.getDeclaredField("wantedCount");
+			field.setAccessible(true);
+			return field;
+		} catch (NoSuchFieldException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+import org.mockito.invocation.Invocation;
+
+/**
+ * Orders {@link Invocation Invocations} by {@link Invocation#getSequenceNumber() sequence number}, that is the order
+ * in which they occurred across all mocks.
+ * 
+ * @author James Kennard
+ */
+public final class SequenceNumberComparator implements Comparator<Invocation>, Serializable {
+
+	public static final SequenceNumberComparator INSTANCE = new SequenceNumberComparator();
+
+	private static final long serialVersionUID = 1L;
+
+	private SequenceNumberComparator() {
+	}
+
+	public int compare(Invocation invocation1, Invocation invocation2) {
+		int sequenceNumber1 = invocation1.getSequenceNumber();
+		int sequenceNumber2 = invocation2.getSequenceNumber();
+		return sequenceNumber1 < sequenceNumber2 ? -1 : (sequenceNumber1 == sequenceNumber2 ? 0 : 1);
+	}
+
+	private Object readResolve() {
+		return INSTANCE;
+	}
+}
@@ -0,0 +1,23 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import java.util.List;
+
+import org.mockito.internal.verification.RegisteredInvocations;
+import org.mockito.invocation.Invocation;
+
+/**
+ * Implemented by {@link RegisteredInvocations} that can read the invocations that occurred after a given
+ * {@link Invocation#getSequenceNumber() sequence number} without reading every invocation of the mock.
+ * 
+ * @author James Kennard
+ */
+public interface SequencedRegisteredInvocations {
+
+	/**
+	 * @param sequenceNumber
+	 * @return A new {@link List} of the invocations, other than those of {@link Object#toString()}, with a greater
+	 *         sequence number, in sequence number order. The cost is proportional to the number of invocations
+	 *         returned.
+	 */
+	List<Invocation> getAllAfter(int sequenceNumber);
+}
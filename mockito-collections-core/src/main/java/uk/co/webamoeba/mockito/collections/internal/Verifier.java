@@ -3,19 +3,114 @@ package uk.co.webamoeba.mockito.collections.internal;
 import static org.mockito.Mockito.times;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.TimeUnit;
 
+import org.hamcrest.Matcher;
 import org.mockito.Mockito;
+import org.mockito.cglib.proxy.Callback;
+import org.mockito.cglib.proxy.Factory;
 import org.mockito.cglib.proxy.MethodInterceptor;
 import org.mockito.cglib.proxy.MethodProxy;
+import org.mockito.internal.creation.DelegatingMethod;
 import org.mockito.internal.creation.jmock.ClassImposterizer;
+import org.mockito.internal.invocation.InvocationImpl;
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.internal.invocation.MatchersBinder;
+import org.mockito.internal.matchers.LocalizedMatcher;
+import org.mockito.internal.progress.ArgumentMatcherStorage;
+import org.mockito.internal.progress.SequenceNumber;
+import org.mockito.internal.progress.ThreadSafeMockingProgress;
+import org.mockito.internal.stubbing.InvocationContainer;
+import org.mockito.internal.stubbing.InvocationContainerImpl;
+import org.mockito.internal.util.MockUtil;
+import org.mockito.invocation.Invocation;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.mockito.verification.VerificationMode;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import uk.co.webamoeba.mockito.collections.await.AwaitableInvocationListener;
+import uk.co.webamoeba.mockito.collections.await.InvocationLatch;
+import uk.co.webamoeba.mockito.collections.exception.CollectiveVerificationError;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.exception.SampledVerificationError;
+import uk.co.webamoeba.mockito.collections.inject.LazyCollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.internal.CollectiveVerificationEngine.MockVerification;
+import uk.co.webamoeba.mockito.collections.stubbing.IndexedAnswer;
+import uk.co.webamoeba.mockito.collections.util.ClassCache;
+import uk.co.webamoeba.mockito.collections.verification.Checkpoint;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveOrder;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveTimeout;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationMode;
+import uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes;
+import uk.co.webamoeba.mockito.collections.verification.InvocationDistribution;
+import uk.co.webamoeba.mockito.collections.verification.InvocationTimeline;
+import uk.co.webamoeba.mockito.collections.verification.Sample;
 
 /**
+ * The first collective verification of a mock {@link Class} imposterises a prototype verifier, that intercepts nothing,
+ * using the {@link ClassImposterizer}. Every collective verification of the mock {@link Class} instantiates the
+ * {@link Class} of the prototype rather than generating a {@link Class}. The prototypes are held in a
+ * {@link ClassCache}, so they never prevent a {@link ClassLoader} from being unloaded. Verifiers dispatch to each mock
+ * using the {@link MethodProxy} of the verified method, which calls the method directly rather than reflectively.
+ * <p>
+ * Large collections of mocks are verified concurrently by a {@link CollectiveVerificationEngine}, the number of mocks
+ * at or above which this happens can be set using the {@value #PARALLEL_THRESHOLD} system property, zero disables
+ * concurrent verification. Argument matchers used when calling a verifier are applied to every mock in the collection.
+ * <p>
+ * Mocks that no longer retain some invocations, see {@link BoundedRegisteredInvocations}, are verified using the
+ * number of invocations of the verified method. Mocks that record their invocations in a
+ * {@link MethodIndexedRegisteredInvocations} are verified using only the invocations of the verified method.
+ * 
  * @author James Kennard
  */
 public class Verifier {
 
+	/**
+	 * Name of the system property that sets the {@link CollectiveVerificationEngine parallel threshold}.
+	 */
+	public static final String PARALLEL_THRESHOLD = "mockito.collections.verifyParallelThreshold";
+
+	private static final MockUtil MOCK_UTIL = new MockUtil();
+
+	/**
+	 * Callback of the prototype verifiers, replaced in every verifier created from a prototype.
+	 */
+	private static final MethodInterceptor PROTOTYPE_INTERCEPTOR = new MethodInterceptor() {
+
+		public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) {
+			throw new MockitoCollectionsException("A prototype verifier cannot be used for verification");
+		}
+	};
+
+	private final CollectiveVerificationEngine engine;
+
+	private final Objenesis objenesis = new ObjenesisStd(true);
+
+	private final ClassCache<Factory> verifierPrototypes = new ClassCache<Factory>();
+
+	public Verifier() {
+		this(new CollectiveVerificationEngine(Integer.getInteger(PARALLEL_THRESHOLD,
+				CollectiveVerificationEngine.DEFAULT_PARALLEL_THRESHOLD)));
+	}
+
+	/**
+	 * @param engine
+	 *            The {@link CollectiveVerificationEngine} used to verify each mock in a collection
+	 */
+	public Verifier(CollectiveVerificationEngine engine) {
+		this.engine = engine;
+	}
+
 	/**
 	 * Verifies certain behaviour of all the mocks in the {@link Collection} <b>occurred once</b>.
 	 * <p>
@@ -54,6 +149,19 @@ public class Verifier {
 	 * </code>
 	 * </pre>
 	 * 
+	 * Using {@link Mockito#timeout(int)} waits for each mock in turn, so the longest wait grows with the number of
+	 * mocks. Use a {@link CollectiveTimeout} to wait for all of the mocks with a single deadline, for example:
+	 * 
+	 * <pre class="code">
+	 * <code class="java">
+	 *   collectiveVerify(SomeClass.class, collectionOfMocks, collectiveTimeout(500)).method("arg");
+	 *   collectiveVerify(SomeClass.class, collectionOfMocks, collectiveTimeout(500).times(2)).method("arg");
+	 * </code>
+	 * </pre>
+	 * 
+	 * If any mock is not verified by the deadline, a {@link CollectiveVerificationError} naming each of those mocks is
+	 * thrown.
+	 * 
 	 * @see #collectiveVerify(Class, Collection)
 	 * @see Mockito#verify(Object, VerificationMode)
 	 * @param mockClass
@@ -62,8 +170,286 @@ public class Verifier {
 	 * @return Object used for verification of all the mocks in the supplied collection
 	 */
 	public <T> T collectiveVerify(Class<T> mockClass, Collection<T> collection, VerificationMode mode) {
-		MethodInterceptor interceptor = new CollectiveVerifyMethodInterceptor(collection, mode);
-		T verifier = ClassImposterizer.INSTANCE.imposterise(interceptor, mockClass);
+		return createVerifier(mockClass, createInterceptor(collection, mode, null));
+	}
+
+	/**
+	 * Takes a {@link Checkpoint} of the mocks in the {@link Collection}, a verification limited to the
+	 * {@link Checkpoint} considers only the invocations that occur after it. For example, to repeatedly verify a
+	 * long-running test:
+	 * 
+	 * <pre class="code">
+	 * <code class="java">
+	 *   Checkpoint checkpoint = checkpoint(collectionOfMocks);
+	 *   // Exercise the object under test
+	 *   collectiveVerify(SomeClass.class, collectionOfMocks, atLeastOnce(), checkpoint).method("arg");
+	 *   checkpoint = checkpoint(collectionOfMocks);
+	 * </code>
+	 * </pre>
+	 * 
+	 * @see #collectiveVerify(Class, Collection, VerificationMode, Checkpoint)
+	 * @param collection
+	 * @return {@link Checkpoint}
+	 * @throws MockitoCollectionsException
+	 *             If any element of the {@link Collection} is not a mock
+	 */
+	public Checkpoint checkpoint(Collection<?> collection) {
+		for (Object mock : getCreatedMocks(collection)) {
+			if (!MOCK_UTIL.isMock(mock)) {
+				throw new MockitoCollectionsException("Cannot take a checkpoint of " + mock + ", it is not a mock");
+			}
+		}
+		return new Checkpoint(SequenceNumber.next());
+	}
+
+	/**
+	 * Verifies certain behaviour of all the mocks in the {@link Collection} occurs after the {@link Checkpoint}, in the
+	 * same way as {@link #collectiveVerify(Class, Collection, VerificationMode)}. Only the invocations after the
+	 * {@link Checkpoint} are read, so the cost of the verification is proportional to the number of those invocations.
+	 * 
+	 * @see #checkpoint(Collection)
+	 * @param mockClass
+	 * @param collection
+	 * @param mode
+	 * @param checkpoint
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public <T> T collectiveVerify(Class<T> mockClass, Collection<T> collection, VerificationMode mode,
+			Checkpoint checkpoint) {
+		return createVerifier(mockClass, createInterceptor(collection, mode, checkpoint));
+	}
+
+	/**
+	 * Mocks that no longer retain some invocations are verified using the number of invocations of the verified
+	 * method, including when the verification uses a {@link CollectiveTimeout}, unless the verification is limited to
+	 * a {@link Checkpoint}.
+	 */
+	private MethodInterceptor createInterceptor(Collection<?> collection, VerificationMode mode,
+			Checkpoint checkpoint) {
+		if (mode instanceof CollectiveTimeout) {
+			VerificationMode delegate = ((CollectiveTimeout) mode).getDelegate();
+			VerificationMode limitedDelegate = checkpoint == null ? new MethodIndexedVerificationMode(
+					new RetainedInvocationsVerificationMode(delegate)) : new CheckpointVerificationMode(delegate,
+					checkpoint);
+			return new CollectiveTimeoutMethodInterceptor(engine, collection, (CollectiveTimeout) mode, limitedDelegate,
+					checkpoint == null ? delegate : null);
+		}
+		VerificationMode limitedMode = checkpoint == null ? new MethodIndexedVerificationMode(
+				new RetainedInvocationsVerificationMode(mode)) : new CheckpointVerificationMode(mode, checkpoint);
+		return new CollectiveVerifyMethodInterceptor(engine, collection, limitedMode, checkpoint == null ? mode : null);
+	}
+
+	/**
+	 * Verifies certain behaviour of a reproducible random {@link Sample} of the mocks in the {@link Collection} occurs,
+	 * in the same way as {@link #collectiveVerify(Class, Collection, VerificationMode)}. The {@link Sample} can be
+	 * specified using {@link CollectiveVerificationModes}, for example:
+	 * 
+	 * <pre class="code">
+	 * <code class="java">
+	 *   collectiveVerify(SomeClass.class, collectionOfMocks, times(1), sample(100, 42L)).method("arg");
+	 * </code>
+	 * </pre>
+	 * 
+	 * Only the sampled mocks are verified, so the cost of the verification depends on the size of the {@link Sample}
+	 * rather than the size of the {@link Collection}. If the verification fails, a
+	 * {@link uk.co.webamoeba.mockito.collections.exception.SampledVerificationError} holding the seed of the
+	 * {@link Sample} is thrown, the same mocks are selected when the verification is repeated with the same seed. The
+	 * invocations of the mocks that are not sampled are not marked as verified.
+	 * 
+	 * @see #collectiveVerify(Class, Collection, VerificationMode)
+	 * @param mockClass
+	 * @param collection
+	 * @param mode
+	 * @param sample
+	 * @return Object used for verification of the sampled mocks in the supplied collection
+	 */
+	public <T> T collectiveVerify(Class<T> mockClass, Collection<T> collection, VerificationMode mode, Sample sample) {
+		int[] indexes = sample.select(collection.size());
+		MethodInterceptor interceptor = createInterceptor(select(collection, indexes), mode, null);
+		return createVerifier(mockClass, new SampledMethodInterceptor(interceptor, sample, collection.size(), indexes));
+	}
+
+	/**
+	 * Gets the mocks at the ascending indexes without copying the {@link Collection}. The mocks of a {@link List} that
+	 * is {@link RandomAccess}, including a {@link LazyCollectionOfMocks}, are got by index, so only the sampled mocks of
+	 * a {@link LazyCollectionOfMocks} are created. Any other {@link Collection} is iterated up to the last index.
+	 */
+	private static List<Object> select(Collection<?> collection, int[] indexes) {
+		List<Object> selected = new ArrayList<Object>(indexes.length);
+		if (collection instanceof List<?> && collection instanceof RandomAccess) {
+			for (int index : indexes) {
+				selected.add(((List<?>) collection).get(index));
+			}
+			return selected;
+		}
+		int next = 0;
+		int index = 0;
+		for (Iterator<?> iterator = collection.iterator(); next < indexes.length; index++) {
+			Object mock = iterator.next();
+			if (index == indexes[next]) {
+				selected.add(mock);
+				next++;
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Verifies the distribution of invocations across all the mocks in the {@link Collection}, in a single pass over
+	 * the {@link Collection}. The {@link CollectiveVerificationMode} can be specified using
+	 * {@link CollectiveVerificationModes}, for example:
+	 * 
+	 * <pre class="code">
+	 * <code class="java">
+	 *   collectiveVerify(SomeClass.class, collectionOfMocks, totalTimes(100)).method("arg");
+	 *   collectiveVerify(SomeClass.class, collectionOfMocks, atLeastInvokedMocks(3)).method("arg");
+	 *   collectiveVerify(SomeClass.class, collectionOfMocks, balanced(1.2)).method("arg");
+	 * </code>
+	 * </pre>
+	 * 
+	 * The matching invocations of every mock are marked as verified, whether or not the distribution is as wanted. If
+	 * it is not, an {@link uk.co.webamoeba.mockito.collections.exception.InvocationDistributionError} holding the
+	 * number of invocations of each mock is thrown.
+	 * 
+	 * @see #collectiveVerify(Class, Collection, VerificationMode)
+	 * @param mockClass
+	 * @param collection
+	 * @param mode
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public <T> T collectiveVerify(Class<T> mockClass, Collection<T> collection, CollectiveVerificationMode mode) {
+		return createVerifier(mockClass, new DistributionVerifyMethodInterceptor(engine, collection, mode));
+	}
+
+	/**
+	 * Registers the {@link InvocationLatch} with all the mocks in the {@link Collection}, the wanted invocation is
+	 * specified by calling a method on the returned {@link Object}, for example:
+	 * 
+	 * <pre class="code">
+	 * <code class="java">
+	 *   InvocationLatch latch = eachInvoked();
+	 *   collectiveAwait(SomeClass.class, collectionOfMocks, latch).method(anyString());
+	 *   // Start the asynchronous work
+	 *   assertTrue(latch.await(1, TimeUnit.SECONDS));
+	 * </code>
+	 * </pre>
+	 * 
+	 * Only mocks created for {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} fields can be
+	 * awaited.
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param invocationLatch
+	 * @return Object used to specify the wanted invocation
+	 */
+	public <T> T collectiveAwait(Class<T> mockClass, Collection<T> collection, InvocationLatch invocationLatch) {
+		return createVerifier(mockClass, new CollectiveAwaitMethodInterceptor(collection, invocationLatch));
+	}
+
+	/**
+	 * Stubs all the mocks in the {@link Collection} with the same {@link Answer}, the stubbed invocation is specified
+	 * by calling a method on the returned {@link Object}, for example:
+	 * 
+	 * <pre class="code">
+	 * <code class="java">
+	 *   collectiveWhen(SomeClass.class, collectionOfMocks, new Returns(true)).method(anyString());
+	 * </code>
+	 * </pre>
+	 * 
+	 * The argument matchers are bound once, and the stub is added to each mock directly rather than by invoking each
+	 * mock, so the mocks are stubbed in a single pass. As with any other stubbing, the mocks should be stubbed before
+	 * they are exercised.
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param answer
+	 *            The {@link Answer} shared by all the mocks
+	 * @return Object used to specify the stubbed invocation
+	 * @throws MockitoCollectionsException
+	 *             If any element of the {@link Collection} is not a mock
+	 */
+	public <T> T collectiveWhen(Class<T> mockClass, Collection<T> collection, Answer<?> answer) {
+		return createVerifier(mockClass, new CollectiveStubMethodInterceptor(collection, answer, null));
+	}
+
+	/**
+	 * Stubs all the mocks in the {@link Collection} with an {@link IndexedAnswer}, in the same way as
+	 * {@link #collectiveWhen(Class, Collection, Answer)}. Each mock answers using its index in the {@link Collection},
+	 * so the mocks can behave differently from one another without being stubbed one at a time.
+	 * 
+	 * @see #collectiveWhen(Class, Collection, Answer)
+	 * @param mockClass
+	 * @param collection
+	 * @param answer
+	 *            The {@link IndexedAnswer} shared by all the mocks
+	 * @return Object used to specify the stubbed invocation
+	 * @throws MockitoCollectionsException
+	 *             If any element of the {@link Collection} is not a mock
+	 */
+	public <T> T collectiveWhen(Class<T> mockClass, Collection<T> collection, IndexedAnswer<?> answer) {
+		return createVerifier(mockClass, new CollectiveStubMethodInterceptor(collection, null, answer));
+	}
+
+	/**
+	 * Verifies each of the mocks in the {@link Collection} was invoked exactly once, in the order of the
+	 * {@link Collection}.
+	 * <p>
+	 * Alias to {@link #collectiveInOrder(Class, Collection, CollectiveOrder)} where CollectiveOrder is
+	 * <code>eachOnceInCollectionOrder()</code>.
+	 * 
+	 * @see #collectiveInOrder(Class, Collection, CollectiveOrder)
+	 * @param mockClass
+	 * @param collection
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public <T> T collectiveInOrder(Class<T> mockClass, Collection<T> collection) {
+		return collectiveInOrder(mockClass, collection, CollectiveVerificationModes.eachOnceInCollectionOrder());
+	}
+
+	/**
+	 * Verifies the order in which the mocks in the {@link Collection} were invoked, without building an
+	 * {@link org.mockito.InOrder} over the mocks. The matching invocations of each mock are merged, by
+	 * {@link Invocation#getSequenceNumber() sequence number}, into a single {@link InvocationTimeline} which is checked
+	 * by the {@link CollectiveOrder} in a single pass. The {@link CollectiveOrder} can be specified using
+	 * {@link CollectiveVerificationModes}, for example:
+	 * 
+	 * <pre class="code">
+	 * <code class="java">
+	 *   collectiveInOrder(SomeClass.class, collectionOfMocks, eachOnceInCollectionOrder()).method("arg");
+	 *   collectiveInOrder(SomeClass.class, collectionOfMocks, inCollectionOrder()).method(anyString());
+	 * </code>
+	 * </pre>
+	 * 
+	 * The matching invocations of every mock are marked as verified, whether or not the order is as wanted. If it is
+	 * not, an {@link uk.co.webamoeba.mockito.collections.exception.InvocationOrderError} holding the
+	 * {@link InvocationTimeline} is thrown.
+	 * 
+	 * @param mockClass
+	 * @param collection
+	 * @param order
+	 * @return Object used for verification of all the mocks in the supplied collection
+	 */
+	public <T> T collectiveInOrder(Class<T> mockClass, Collection<T> collection, CollectiveOrder order) {
+		return createVerifier(mockClass, new InOrderMethodInterceptor(engine, collection, order));
+	}
+
+	private <T> T createVerifier(Class<T> mockClass, MethodInterceptor interceptor) {
+		Factory prototype = verifierPrototypes.get(mockClass);
+		if (prototype == null) {
+			prototype = (Factory) ClassImposterizer.INSTANCE.imposterise(PROTOTYPE_INTERCEPTOR, mockClass);
+			Factory existing = verifierPrototypes.putIfAbsent(mockClass, prototype);
+			if (existing != null) {
+				prototype = existing;
+			}
+		}
+		return mockClass.cast(createVerifier(prototype, interceptor));
+	}
+
+	private Factory createVerifier(Factory prototype, MethodInterceptor interceptor) {
+		Factory verifier = (Factory) objenesis.newInstance(prototype.getClass());
+		Callback[] callbacks = prototype.getCallbacks().clone();
+		callbacks[0] = interceptor;
+		verifier.setCallbacks(callbacks);
 		return verifier;
 	}
 
@@ -88,31 +474,554 @@ public class Verifier {
 	 * @param mocks
 	 */
 	public <T extends Object> void collectiveVerifyNoMoreInteractions(Collection<T>... mocks) {
+		new ThreadSafeMockingProgress().validateState();
+		List<Object> items = new ArrayList<Object>();
 		for (Collection<T> collection : mocks) {
-			for (T item : collection) {
-				Mockito.verifyNoMoreInteractions(item);
+			items.addAll(getMocks(collection));
+		}
+		engine.verify(items, new MockVerification() {
+
+			public void verify(Object mock, int index) {
+				FlyweightMocks flyweightMocks = FlyweightMocks.getFlyweightMocks(mock);
+				if (flyweightMocks != null) {
+					flyweightMocks.verifyNoMoreInteractions(mock);
+					return;
+				}
+				MethodIndexedRegisteredInvocations registeredInvocations = MethodIndexedVerificationMode
+						.getMethodIndexedRegisteredInvocations(mock);
+				if (registeredInvocations != null) {
+					MethodIndexedVerificationMode.verifyNoMoreInteractions(registeredInvocations);
+				} else {
+					Mockito.verifyNoMoreInteractions(mock);
+				}
+				RetainedInvocationsVerificationMode.verifyNoMoreDiscardedInteractions(mock);
 			}
+		});
+	}
+
+	/**
+	 * Copies the mocks in the {@link Collection}. A {@link LazyCollectionOfMocks} is copied without creating the mocks
+	 * that have not yet been created, each of which is replaced by a stand-in mock that has no interactions.
+	 */
+	private static List<Object> getMocks(Collection<?> collection) {
+		if (collection instanceof LazyCollectionOfMocks<?>) {
+			return new ArrayList<Object>(((LazyCollectionOfMocks<?>) collection).getMocksWithoutCreating());
 		}
+		return new ArrayList<Object>(collection);
+	}
+
+	/**
+	 * @return The elements of the {@link Collection}, other than the mocks of a {@link LazyCollectionOfMocks} that have
+	 *         not been created
+	 */
+	private static List<Object> getCreatedMocks(Collection<?> collection) {
+		if (collection instanceof LazyCollectionOfMocks<?>) {
+			LazyCollectionOfMocks<?> lazyCollection = (LazyCollectionOfMocks<?>) collection;
+			List<Object> mocks = new ArrayList<Object>();
+			for (int i = 0; i < lazyCollection.size(); i++) {
+				if (lazyCollection.isCreated(i)) {
+					mocks.add(lazyCollection.get(i));
+				}
+			}
+			return mocks;
+		}
+		return new ArrayList<Object>(collection);
+	}
+
+	/**
+	 * Pulls the argument matchers used when calling a verifier, so that they can be reported again for each mock,
+	 * possibly on another {@link Thread}.
+	 */
+	private static List<Matcher> pullMatchers() {
+		List<LocalizedMatcher> localizedMatchers = new ThreadSafeMockingProgress().getArgumentMatcherStorage()
+				.pullLocalizedMatchers();
+		List<Matcher> matchers = new ArrayList<Matcher>(localizedMatchers.size());
+		for (LocalizedMatcher localizedMatcher : localizedMatchers) {
+			matchers.add(localizedMatcher.getActualMatcher());
+		}
+		return matchers;
+	}
+
+	private static void reportMatchers(List<Matcher> matchers) {
+		ArgumentMatcherStorage argumentMatcherStorage = new ThreadSafeMockingProgress().getArgumentMatcherStorage();
+		for (Matcher matcher : matchers) {
+			argumentMatcherStorage.reportMatcher(matcher);
+		}
+	}
+
+	/**
+	 * @param flyweightMode
+	 *            The {@link VerificationMode} of the number of invocations, or <code>null</code> if the verification is
+	 *            limited to a {@link Checkpoint}
+	 */
+	private static void verifyFlyweightMock(FlyweightMocks flyweightMocks, Object mock, VerificationMode flyweightMode,
+			Method method, Object[] args, List<Matcher> matchers) {
+		if (flyweightMode == null) {
+			throw new MockitoCollectionsException("Cannot verify " + mock
+					+ " after a checkpoint, flyweight mocks do not retain their invocations");
+		}
+		flyweightMocks.verify(mock, flyweightMode, method, args, matchers);
 	}
 
 	private static class CollectiveVerifyMethodInterceptor implements MethodInterceptor {
 
+		private CollectiveVerificationEngine engine;
+
 		private Collection<?> collection;
 
 		private VerificationMode mode;
 
-		public CollectiveVerifyMethodInterceptor(Collection<?> collection, VerificationMode mode) {
+		private VerificationMode flyweightMode;
+
+		/**
+		 * @param engine
+		 * @param collection
+		 * @param mode
+		 * @param flyweightMode
+		 *            The {@link VerificationMode} of the number of invocations of {@link FlyweightMocks flyweight
+		 *            mocks}, or <code>null</code> if flyweight mocks cannot be verified
+		 */
+		public CollectiveVerifyMethodInterceptor(CollectiveVerificationEngine engine, Collection<?> collection,
+				VerificationMode mode, VerificationMode flyweightMode) {
+			this.engine = engine;
 			this.collection = collection;
 			this.mode = mode;
+			this.flyweightMode = flyweightMode;
+		}
+
+		public Object intercept(Object obj, final Method method, final Object[] args, final MethodProxy proxy) {
+			final List<Matcher> matchers = pullMatchers();
+			engine.verify(getMocks(collection), new MockVerification() {
+
+				public void verify(Object mock, int index) throws Throwable {
+					FlyweightMocks flyweightMocks = FlyweightMocks.getFlyweightMocks(mock);
+					if (flyweightMocks != null) {
+						verifyFlyweightMock(flyweightMocks, mock, flyweightMode, method, args, matchers);
+						return;
+					}
+					Object verify = Mockito.verify(mock, mode);
+					reportMatchers(matchers);
+					proxy.invoke(verify, args);
+				}
+			});
+			return null;
+		}
+	}
+
+	/**
+	 * Reports the {@link Sample} when the verification of the sampled mocks by the delegate {@link MethodInterceptor}
+	 * fails.
+	 */
+	private static class SampledMethodInterceptor implements MethodInterceptor {
+
+		private MethodInterceptor interceptor;
+
+		private Sample sample;
+
+		private int numberOfMocks;
+
+		private int[] indexes;
+
+		public SampledMethodInterceptor(MethodInterceptor interceptor, Sample sample, int numberOfMocks,
+				int[] indexes) {
+			this.interceptor = interceptor;
+			this.sample = sample;
+			this.numberOfMocks = numberOfMocks;
+			this.indexes = indexes;
 		}
 
 		public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
-			for (Object item : collection) {
-				Object verify = Mockito.verify(item, mode);
-				method.invoke(verify, args);
+			try {
+				return interceptor.intercept(obj, method, args, proxy);
+			} catch (AssertionError e) {
+				throw new SampledVerificationError(sample, numberOfMocks, indexes, e);
+			}
+		}
+	}
+
+	/**
+	 * Repeatedly verifies the mocks that have not yet satisfied the {@link CollectiveTimeout}, until all of the mocks
+	 * have satisfied it or the deadline shared by all of the mocks has passed.
+	 */
+	private static class CollectiveTimeoutMethodInterceptor implements MethodInterceptor {
+
+		private CollectiveVerificationEngine engine;
+
+		private Collection<?> collection;
+
+		private CollectiveTimeout timeout;
+
+		private VerificationMode mode;
+
+		private VerificationMode flyweightMode;
+
+		/**
+		 * @param engine
+		 * @param collection
+		 * @param timeout
+		 * @param mode
+		 *            The {@link VerificationMode} applied to each mock in each polling period
+		 * @param flyweightMode
+		 *            The {@link VerificationMode} of the number of invocations of {@link FlyweightMocks flyweight
+		 *            mocks}, or <code>null</code> if flyweight mocks cannot be verified
+		 */
+		public CollectiveTimeoutMethodInterceptor(CollectiveVerificationEngine engine, Collection<?> collection,
+				CollectiveTimeout timeout, VerificationMode mode, VerificationMode flyweightMode) {
+			this.engine = engine;
+			this.collection = collection;
+			this.timeout = timeout;
+			this.mode = mode;
+			this.flyweightMode = flyweightMode;
+		}
+
+		public Object intercept(Object obj, final Method method, final Object[] args, final MethodProxy proxy) {
+			final List<Matcher> matchers = pullMatchers();
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout.getMillis());
+			List<Integer> unsatisfiedIndexes = new ArrayList<Integer>(collection.size());
+			for (int i = 0; i < collection.size(); i++) {
+				unsatisfiedIndexes.add(i);
+			}
+			while (true) {
+				// Read the mocks in each polling period, a lazy mock may be created while waiting
+				List<Object> mocks = getMocks(collection);
+				List<Object> unsatisfied = new ArrayList<Object>(unsatisfiedIndexes.size());
+				for (Integer index : unsatisfiedIndexes) {
+					unsatisfied.add(mocks.get(index));
+				}
+				final AssertionError[] failures = new AssertionError[unsatisfied.size()];
+				engine.verify(unsatisfied, new MockVerification() {
+
+					public void verify(Object mock, int index) throws Throwable {
+						FlyweightMocks flyweightMocks = FlyweightMocks.getFlyweightMocks(mock);
+						try {
+							if (flyweightMocks != null) {
+								verifyFlyweightMock(flyweightMocks, mock, flyweightMode, method, args, matchers);
+							} else {
+								Object verify = Mockito.verify(mock, mode);
+								reportMatchers(matchers);
+								proxy.invoke(verify, args);
+							}
+						} catch (AssertionError e) {
+							failures[index] = e;
+						}
+					}
+				});
+				List<Object> stillUnsatisfied = new ArrayList<Object>();
+				List<Integer> stillUnsatisfiedIndexes = new ArrayList<Integer>();
+				List<Throwable> stillUnsatisfiedFailures = new ArrayList<Throwable>();
+				for (int i = 0; i < failures.length; i++) {
+					if (failures[i] != null) {
+						stillUnsatisfied.add(unsatisfied.get(i));
+						stillUnsatisfiedIndexes.add(unsatisfiedIndexes.get(i));
+						stillUnsatisfiedFailures.add(failures[i]);
+					}
+				}
+				if (stillUnsatisfied.isEmpty()) {
+					return null;
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw createCollectiveVerificationError(stillUnsatisfied, stillUnsatisfiedIndexes,
+							stillUnsatisfiedFailures);
+				}
+				unsatisfiedIndexes = stillUnsatisfiedIndexes;
+				sleep(Math.min(timeout.getPollingPeriod(), TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+			}
+		}
+
+		private CollectiveVerificationError createCollectiveVerificationError(List<Object> unsatisfied,
+				List<Integer> unsatisfiedIndexes, List<Throwable> failures) {
+			StringBuilder message = new StringBuilder();
+			message.append(unsatisfied.size()).append(" of ").append(collection.size());
+			message.append(" mocks were not verified within the timeout of ").append(timeout.getMillis()).append(" ms");
+			for (int i = 0; i < unsatisfied.size(); i++) {
+				message.append("\n\nMock at index ").append(unsatisfiedIndexes.get(i)).append(" (");
+				message.append(unsatisfied.get(i)).append("):\n");
+				message.append(String.valueOf(failures.get(i).getMessage()).trim());
+			}
+			return new CollectiveVerificationError(message.toString(), failures);
+		}
+
+		private void sleep(long millis) {
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MockitoCollectionsException("Interrupted whilst waiting to verify mocks", e);
 			}
+		}
+	}
+
+	private static class CollectiveAwaitMethodInterceptor implements MethodInterceptor {
+
+		private Collection<?> collection;
+
+		private InvocationLatch invocationLatch;
+
+		public CollectiveAwaitMethodInterceptor(Collection<?> collection, InvocationLatch invocationLatch) {
+			this.collection = collection;
+			this.invocationLatch = invocationLatch;
+		}
+
+		public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) {
+			Invocation invocation = new InvocationImpl(obj, new DelegatingMethod(method), args, SequenceNumber.next(),
+					null);
+			InvocationMatcher wanted = new MatchersBinder().bindMatchers(new ThreadSafeMockingProgress()
+					.getArgumentMatcherStorage(), invocation);
+			AwaitableInvocationListener.register(new ArrayList<Object>(collection), wanted, invocationLatch);
 			return null;
 		}
 	}
 
+	/**
+	 * Adds a stub for the wanted invocation to each mock, through the {@link InvocationContainerImpl} of the mock, in
+	 * the same way as {@link Mockito#doAnswer(Answer)}. The argument matchers are bound once and shared by every stub.
+	 * {@link FlyweightMocks Flyweight mocks} share their stubs, so each group of flyweight mocks is stubbed once.
+	 */
+	private static class CollectiveStubMethodInterceptor implements MethodInterceptor {
+
+		private Collection<?> collection;
+
+		private Answer<?> answer;
+
+		private IndexedAnswer<?> indexedAnswer;
+
+		/**
+		 * @param collection
+		 * @param answer
+		 *            The {@link Answer} shared by all the mocks, or <code>null</code> if indexedAnswer is specified
+		 * @param indexedAnswer
+		 *            The {@link IndexedAnswer} shared by all the mocks, or <code>null</code> if answer is specified
+		 */
+		public CollectiveStubMethodInterceptor(Collection<?> collection, Answer<?> answer,
+				IndexedAnswer<?> indexedAnswer) {
+			this.collection = collection;
+			this.answer = answer;
+			this.indexedAnswer = indexedAnswer;
+		}
+
+		public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) {
+			DelegatingMethod mockitoMethod = new DelegatingMethod(method);
+			List<Matcher> matchers = new MatchersBinder().bindMatchers(
+					new ThreadSafeMockingProgress().getArgumentMatcherStorage(),
+					new InvocationImpl(obj, mockitoMethod, args, SequenceNumber.next(), null)).getMatchers();
+			List<InvocationContainerImpl> invocationContainers = new ArrayList<InvocationContainerImpl>(
+					collection.size());
+			Map<FlyweightMocks, Object> prototypes = new IdentityHashMap<FlyweightMocks, Object>();
+			int index = 0;
+			for (Object mock : collection) {
+				FlyweightMocks flyweightMocks = FlyweightMocks.getFlyweightMocks(mock);
+				if (flyweightMocks == null) {
+					invocationContainers.add(getInvocationContainer(mock));
+				} else {
+					if (answer == null && FlyweightMocks.getIndex(mock) != index) {
+						throw new MockitoCollectionsException("Cannot stub " + mock + " at index " + index
+								+ " using an IndexedAnswer, flyweight mocks share their stubs and must be stubbed in "
+								+ "the order in which they were created");
+					}
+					invocationContainers.add(null);
+					prototypes.put(flyweightMocks, flyweightMocks.getPrototype());
+				}
+				index++;
+			}
+			for (Object prototype : prototypes.values()) {
+				stub(getInvocationContainer(prototype), prototype, mockitoMethod, args, matchers,
+						answer == null ? new FlyweightIndexAnswer(indexedAnswer) : answer);
+			}
+			index = 0;
+			for (Object mock : collection) {
+				InvocationContainerImpl invocationContainer = invocationContainers.get(index);
+				if (invocationContainer != null) {
+					stub(invocationContainer, mock, mockitoMethod, args, matchers,
+							answer == null ? new IndexAnswer(indexedAnswer, index) : answer);
+				}
+				index++;
+			}
+			return null;
+		}
+
+		private static void stub(InvocationContainerImpl invocationContainer, Object mock,
+				DelegatingMethod mockitoMethod, Object[] args, List<Matcher> matchers, Answer<?> answer) {
+			Invocation invocation = new InvocationImpl(mock, mockitoMethod, args, SequenceNumber.next(), null);
+			invocationContainer.resetInvocationForPotentialStubbing(new InvocationMatcher(invocation, matchers));
+			invocationContainer.addAnswer(answer, false);
+		}
+
+		private static InvocationContainerImpl getInvocationContainer(Object mock) {
+			if (!MOCK_UTIL.isMock(mock)) {
+				throw new MockitoCollectionsException("Cannot stub " + mock + ", it is not a mock");
+			}
+			InvocationContainer invocationContainer = MOCK_UTIL.getMockHandler(mock).getInvocationContainer();
+			if (!(invocationContainer instanceof InvocationContainerImpl)) {
+				throw new MockitoCollectionsException("Cannot stub " + MOCK_UTIL.getMockName(mock));
+			}
+			return (InvocationContainerImpl) invocationContainer;
+		}
+	}
+
+	/**
+	 * {@link Answer} of the mock at one index, that delegates to an {@link IndexedAnswer}.
+	 */
+	private static class IndexAnswer implements Answer<Object> {
+
+		private final IndexedAnswer<?> indexedAnswer;
+
+		private final int index;
+
+		public IndexAnswer(IndexedAnswer<?> indexedAnswer, int index) {
+			this.indexedAnswer = indexedAnswer;
+			this.index = index;
+		}
+
+		public Object answer(InvocationOnMock invocation) throws Throwable {
+			return indexedAnswer.answer(index, invocation);
+		}
+	}
+
+	/**
+	 * {@link Answer} shared by a group of {@link FlyweightMocks flyweight mocks}, that delegates to an
+	 * {@link IndexedAnswer} with the index of the invoked flyweight mock.
+	 */
+	private static class FlyweightIndexAnswer implements Answer<Object> {
+
+		private final IndexedAnswer<?> indexedAnswer;
+
+		public FlyweightIndexAnswer(IndexedAnswer<?> indexedAnswer) {
+			this.indexedAnswer = indexedAnswer;
+		}
+
+		public Object answer(InvocationOnMock invocation) throws Throwable {
+			return indexedAnswer.answer(FlyweightMocks.getIndex(invocation.getMock()), invocation);
+		}
+	}
+
+	private static class DistributionVerifyMethodInterceptor implements MethodInterceptor {
+
+		private CollectiveVerificationEngine engine;
+
+		private Collection<?> collection;
+
+		private CollectiveVerificationMode mode;
+
+		public DistributionVerifyMethodInterceptor(CollectiveVerificationEngine engine, Collection<?> collection,
+				CollectiveVerificationMode mode) {
+			this.engine = engine;
+			this.collection = collection;
+			this.mode = mode;
+		}
+
+		public Object intercept(Object obj, Method method, final Object[] args, final MethodProxy proxy) {
+			final List<Matcher> matchers = pullMatchers();
+			List<Object> mocks = getMocks(collection);
+			final InvocationCounter[] counters = new InvocationCounter[mocks.size()];
+			engine.verify(mocks, new MockVerification() {
+
+				public void verify(Object mock, int index) throws Throwable {
+					FlyweightMocks.checkNotFlyweightMock(mock, "verify the distribution of invocations of");
+					counters[index] = new InvocationCounter();
+					Object verify = Mockito.verify(mock, new MethodIndexedVerificationMode(counters[index]));
+					reportMatchers(matchers);
+					proxy.invoke(verify, args);
+				}
+			});
+			int[] invocationCounts = new int[counters.length];
+			for (int i = 0; i < counters.length; i++) {
+				invocationCounts[i] = counters[i].getCount();
+			}
+			String wanted = counters.length == 0 ? method.getDeclaringClass().getSimpleName() + "."
+					+ method.getName() + "()" : counters[0].getWanted();
+			mode.verify(new InvocationDistribution(wanted, invocationCounts));
+			return null;
+		}
+	}
+
+	/**
+	 * Merges the matching invocations of each mock, each already in sequence number order, into a single
+	 * {@link InvocationTimeline} using a k-way merge.
+	 */
+	private static class InOrderMethodInterceptor implements MethodInterceptor {
+
+		private CollectiveVerificationEngine engine;
+
+		private Collection<?> collection;
+
+		private CollectiveOrder order;
+
+		public InOrderMethodInterceptor(CollectiveVerificationEngine engine, Collection<?> collection,
+				CollectiveOrder order) {
+			this.engine = engine;
+			this.collection = collection;
+			this.order = order;
+		}
+
+		public Object intercept(Object obj, Method method, final Object[] args, final MethodProxy proxy) {
+			final List<Matcher> matchers = pullMatchers();
+			List<Object> mocks = getMocks(collection);
+			final InvocationCollector[] collectors = new InvocationCollector[mocks.size()];
+			engine.verify(mocks, new MockVerification() {
+
+				public void verify(Object mock, int index) throws Throwable {
+					FlyweightMocks.checkNotFlyweightMock(mock, "verify the order of invocations of");
+					collectors[index] = new InvocationCollector();
+					Object verify = Mockito.verify(mock, new MethodIndexedVerificationMode(collectors[index]));
+					reportMatchers(matchers);
+					proxy.invoke(verify, args);
+				}
+			});
+			String wanted = collectors.length == 0 ? method.getDeclaringClass().getSimpleName() + "."
+					+ method.getName() + "()" : collectors[0].getWanted();
+			order.verify(new InvocationTimeline(wanted, collectors.length, merge(collectors)));
+			return null;
+		}
+
+		private static int[] merge(InvocationCollector[] collectors) {
+			PriorityQueue<Cursor> cursors = new PriorityQueue<Cursor>(Math.max(collectors.length, 1));
+			int numberOfInvocations = 0;
+			for (int i = 0; i < collectors.length; i++) {
+				List<Invocation> invocations = collectors[i].getInvocations();
+				numberOfInvocations += invocations.size();
+				if (!invocations.isEmpty()) {
+					cursors.add(new Cursor(i, invocations));
+				}
+			}
+			int[] mockIndexes = new int[numberOfInvocations];
+			for (int position = 0; position < numberOfInvocations; position++) {
+				Cursor cursor = cursors.poll();
+				mockIndexes[position] = cursor.mockIndex;
+				if (cursor.advance()) {
+					cursors.add(cursor);
+				}
+			}
+			return mockIndexes;
+		}
+	}
+
+	/**
+	 * Position in the invocations of a single mock, ordered by the sequence number of the current invocation.
+	 */
+	private static class Cursor implements Comparable<Cursor> {
+
+		private final int mockIndex;
+
+		private final List<Invocation> invocations;
+
+		private int position;
+
+		public Cursor(int mockIndex, List<Invocation> invocations) {
+			this.mockIndex = mockIndex;
+			this.invocations = invocations;
+		}
+
+		/**
+		 * @return <code>true</code> if there is another invocation
+		 */
+		public boolean advance() {
+			return ++position < invocations.size();
+		}
+
+		public int compareTo(Cursor other) {
+			return SequenceNumberComparator.INSTANCE.compare(invocations.get(position), other.invocations
+					.get(other.position));
+		}
+	}
 }
@@ -0,0 +1,328 @@
+package uk.co.webamoeba.mockito.collections.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.mockito.internal.util.MockUtil;
+import org.mockito.invocation.Invocation;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.internal.ObservableInvocationListener;
+import uk.co.webamoeba.mockito.collections.util.DaemonThreadFactory;
+
+/**
+ * Journal, written to a {@link File}, of the invocations of the mocks in one or more {@link Collection Collections} of
+ * mocks. The invocations of all of the mocks are appended to the one journal in the order in which they are reported,
+ * each as a fixed size record of the {@link Invocation#getSequenceNumber() sequence number}, the index of the mock in
+ * the journal, the id of the {@link Method}, the id of the invoking {@link Thread} and {@link System#nanoTime()}. The
+ * time is read as the record is appended, so the records are in time order.
+ * <p>
+ * Records are appended to a buffer in memory. Full buffers are handed to a daemon {@link Thread} that writes them to a
+ * {@link FileChannel}, so the invoking {@link Thread Threads} never wait for the file to be written. Use
+ * {@link #flush()} or {@link #close()} to wait for the records to be written, and {@link InvocationJournalReader} to
+ * read them back.
+ * <p>
+ * Only mocks created for {@link uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks} fields can be
+ * attached to a journal. Invocations made to stub or verify the mocks are journaled in the same way as any other
+ * invocation, and invocations made after the journal is closed are ignored.
+ * 
+ * @author James Kennard
+ */
+public class InvocationJournal implements Closeable {
+
+	/**
+	 * The size of each buffer in which records are appended, unless otherwise specified.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	static final int MAGIC = 0x4D434A4E;
+
+	static final short VERSION = 1;
+
+	static final byte MOCK_RECORD = 'K';
+
+	static final byte METHOD_RECORD = 'M';
+
+	static final byte INVOCATION_RECORD = 'I';
+
+	static final int INVOCATION_RECORD_SIZE = 1 + 4 + 4 + 4 + 8 + 8;
+
+	private static final int MAXIMUM_NAME_LENGTH = 0xFFFF;
+
+	private static final DaemonThreadFactory THREAD_FACTORY = new DaemonThreadFactory("mockito-collections-journal-");
+
+	private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+	private static final MockUtil MOCK_UTIL = new MockUtil();
+
+	private final FileChannel channel;
+
+	private final int bufferSize;
+
+	private final BlockingQueue<ByteBuffer> filledBuffers = new LinkedBlockingQueue<ByteBuffer>();
+
+	private final Queue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<ByteBuffer>();
+
+	private final Map<Method, Integer> methodIds = new HashMap<Method, Integer>();
+
+	private final Object progress = new Object();
+
+	private final Thread writer;
+
+	private ByteBuffer buffer;
+
+	private int numberOfMocks;
+
+	private long handedOver;
+
+	private long written;
+
+	private boolean closed;
+
+	private volatile IOException failure;
+
+	/**
+	 * @param file
+	 *            The {@link File} to which the journal is written, an existing {@link File} is overwritten
+	 */
+	public InvocationJournal(File file) {
+		this(file, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param file
+	 *            The {@link File} to which the journal is written, an existing {@link File} is overwritten
+	 * @param bufferSize
+	 *            The size, in bytes, of each buffer in which records are appended before they are written
+	 */
+	public InvocationJournal(File file, int bufferSize) {
+		if (bufferSize < INVOCATION_RECORD_SIZE) {
+			throw new IllegalArgumentException("bufferSize must be at least " + INVOCATION_RECORD_SIZE);
+		}
+		try {
+			this.channel = new FileOutputStream(file).getChannel();
+		} catch (FileNotFoundException e) {
+			throw new MockitoCollectionsException("Could not open the journal " + file, e);
+		}
+		this.bufferSize = bufferSize;
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		buffer.putInt(MAGIC).putShort(VERSION);
+		this.writer = THREAD_FACTORY.newThread(new Writer());
+		writer.start();
+	}
+
+	/**
+	 * Attaches each of the mocks to this journal, so that their subsequent invocations are journaled. The mocks are
+	 * indexed in the order in which they are attached, starting from zero, across all of the attached
+	 * {@link Collection Collections}. A mock is journaled in at most one journal, attaching it to this journal
+	 * detaches it from any other.
+	 * 
+	 * @param mocks
+	 *            Mocks that each have an {@link ObservableInvocationListener}
+	 * @throws MockitoCollectionsException
+	 *             If any of the mocks does not have an {@link ObservableInvocationListener}
+	 */
+	public void attach(Collection<?> mocks) {
+		List<JournalingInvocationListener> listeners = new ArrayList<JournalingInvocationListener>(mocks.size());
+		for (Object mock : mocks) {
+			listeners.add(JournalingInvocationListener.getListener(mock));
+		}
+		synchronized (this) {
+			int index = 0;
+			for (Object mock : mocks) {
+				int mockIndex = numberOfMocks++;
+				putName(MOCK_RECORD, mockIndex, MOCK_UTIL.getMockName(mock).toString());
+				listeners.get(index++).attach(this, mockIndex);
+			}
+		}
+	}
+
+	/**
+	 * Appends the invocation to the journal, unless the journal is closed.
+	 * 
+	 * @param invocation
+	 * @param mockIndex
+	 *            The index of the mock of the invocation in the journal
+	 */
+	synchronized void append(Invocation invocation, int mockIndex) {
+		if (closed) {
+			return;
+		}
+		Method method = invocation.getMethod();
+		Integer methodId = methodIds.get(method);
+		if (methodId == null) {
+			methodId = methodIds.size();
+			methodIds.put(method, methodId);
+			putName(METHOD_RECORD, methodId, getSignature(method));
+		}
+		reserve(INVOCATION_RECORD_SIZE);
+		buffer.put(INVOCATION_RECORD).putInt(invocation.getSequenceNumber()).putInt(mockIndex).putInt(methodId)
+				.putLong(Thread.currentThread().getId()).putLong(System.nanoTime());
+	}
+
+	/**
+	 * Waits for every record appended so far to be written.
+	 * 
+	 * @throws MockitoCollectionsException
+	 *             If the records could not be written, or the current {@link Thread} is interrupted
+	 */
+	public void flush() {
+		long target;
+		synchronized (this) {
+			handOver();
+			target = handedOver;
+		}
+		synchronized (progress) {
+			while (written < target) {
+				try {
+					progress.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MockitoCollectionsException("Interrupted while flushing the journal", e);
+				}
+			}
+		}
+		if (failure != null) {
+			throw new MockitoCollectionsException("Could not write the journal", failure);
+		}
+	}
+
+	/**
+	 * Writes every record appended so far and closes the journal. Invocations of the attached mocks are no longer
+	 * journaled.
+	 * 
+	 * @throws MockitoCollectionsException
+	 *             If the records could not be written, or the current {@link Thread} is interrupted
+	 */
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			handOver();
+			closed = true;
+		}
+		filledBuffers.offer(END);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MockitoCollectionsException("Interrupted while closing the journal", e);
+		} finally {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+		if (failure != null) {
+			throw new MockitoCollectionsException("Could not write the journal", failure);
+		}
+	}
+
+	private void putName(byte recordType, int id, String name) {
+		byte[] bytes;
+		try {
+			bytes = name.getBytes("UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new MockitoCollectionsException("Could not encode " + name, e);
+		}
+		int length = Math.min(bytes.length, MAXIMUM_NAME_LENGTH);
+		reserve(1 + 4 + 2 + length);
+		buffer.put(recordType).putInt(id).putShort((short) length).put(bytes, 0, length);
+	}
+
+	private void reserve(int recordSize) {
+		if (buffer.remaining() >= recordSize) {
+			return;
+		}
+		handOver();
+		if (buffer.remaining() < recordSize) {
+			buffer = ByteBuffer.allocate(recordSize);
+		}
+	}
+
+	private void handOver() {
+		if (buffer.position() == 0) {
+			return;
+		}
+		filledBuffers.offer(buffer);
+		handedOver++;
+		ByteBuffer freeBuffer = freeBuffers.poll();
+		buffer = freeBuffer == null ? ByteBuffer.allocate(bufferSize) : freeBuffer;
+	}
+
+	private static String getSignature(Method method) {
+		StringBuilder signature = new StringBuilder(method.getDeclaringClass().getName()).append('.')
+				.append(method.getName()).append('(');
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (i > 0) {
+				signature.append(',');
+			}
+			signature.append(parameterTypes[i].getName());
+		}
+		return signature.append(')').toString();
+	}
+
+	/**
+	 * Writes the filled buffers to the {@link FileChannel} in the order in which they were handed over. Once a write
+	 * has failed the remaining buffers are discarded, so that {@link InvocationJournal#flush()} does not wait forever.
+	 */
+	private class Writer implements Runnable {
+
+		public void run() {
+			while (true) {
+				ByteBuffer filledBuffer;
+				try {
+					filledBuffer = filledBuffers.take();
+				} catch (InterruptedException e) {
+					continue;
+				}
+				if (filledBuffer == END) {
+					return;
+				}
+				write(filledBuffer);
+				synchronized (progress) {
+					written++;
+					progress.notifyAll();
+				}
+			}
+		}
+
+		private void write(ByteBuffer filledBuffer) {
+			filledBuffer.flip();
+			if (failure == null) {
+				try {
+					while (filledBuffer.hasRemaining()) {
+						channel.write(filledBuffer);
+					}
+				} catch (IOException e) {
+					failure = e;
+				}
+			}
+			filledBuffer.clear();
+			if (filledBuffer.capacity() == bufferSize) {
+				freeBuffers.offer(filledBuffer);
+			}
+		}
+	}
+}
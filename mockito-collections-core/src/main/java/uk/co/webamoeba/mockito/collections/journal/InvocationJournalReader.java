@@ -0,0 +1,143 @@
+package uk.co.webamoeba.mockito.collections.journal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * Streams the {@link JournalRecord JournalRecords} of a {@link File} written by an {@link InvocationJournal}, in the
+ * order in which they were appended. Records are read one at a time, so a journal of any size can be read, for example
+ * to check the global order of the invocations or the rate at which each mock was invoked.
+ * 
+ * @author James Kennard
+ */
+public class InvocationJournalReader implements Iterator<JournalRecord>, Closeable {
+
+	private final DataInputStream input;
+
+	private final List<String> mockNames = new ArrayList<String>();
+
+	private final List<String> methods = new ArrayList<String>();
+
+	private JournalRecord next;
+
+	/**
+	 * @param file
+	 *            A {@link File} written by an {@link InvocationJournal}
+	 * @throws MockitoCollectionsException
+	 *             If the {@link File} cannot be read or is not a journal
+	 */
+	public InvocationJournalReader(File file) {
+		try {
+			this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		} catch (IOException e) {
+			throw new MockitoCollectionsException("Could not open the journal " + file, e);
+		}
+		try {
+			if (input.readInt() != InvocationJournal.MAGIC || input.readShort() != InvocationJournal.VERSION) {
+				throw new MockitoCollectionsException(file + " is not a journal");
+			}
+		} catch (IOException e) {
+			close();
+			throw new MockitoCollectionsException(file + " is not a journal", e);
+		} catch (MockitoCollectionsException e) {
+			close();
+			throw e;
+		}
+	}
+
+	public boolean hasNext() {
+		if (next == null) {
+			next = readNext();
+		}
+		return next != null;
+	}
+
+	public JournalRecord next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		JournalRecord record = next;
+		next = null;
+		return record;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             Always, a journal cannot be modified
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException("A journal cannot be modified");
+	}
+
+	/**
+	 * @return The number of mocks read so far
+	 */
+	public int getNumberOfMocks() {
+		return mockNames.size();
+	}
+
+	public void close() {
+		try {
+			input.close();
+		} catch (IOException e) {
+			throw new MockitoCollectionsException("Could not close the journal", e);
+		}
+	}
+
+	private JournalRecord readNext() {
+		try {
+			while (true) {
+				int recordType = input.read();
+				if (recordType == -1) {
+					return null;
+				} else if (recordType == InvocationJournal.INVOCATION_RECORD) {
+					int sequenceNumber = input.readInt();
+					int mockIndex = input.readInt();
+					int methodId = input.readInt();
+					long threadId = input.readLong();
+					long nanoTime = input.readLong();
+					return new JournalRecord(sequenceNumber, mockIndex, get(mockNames, mockIndex), methodId, get(
+							methods, methodId), threadId, nanoTime);
+				} else if (recordType == InvocationJournal.MOCK_RECORD) {
+					readName(mockNames);
+				} else if (recordType == InvocationJournal.METHOD_RECORD) {
+					readName(methods);
+				} else {
+					throw new MockitoCollectionsException("Unknown record type " + recordType + " in the journal");
+				}
+			}
+		} catch (EOFException e) {
+			throw new MockitoCollectionsException("The journal is truncated", e);
+		} catch (IOException e) {
+			throw new MockitoCollectionsException("Could not read the journal", e);
+		}
+	}
+
+	private void readName(List<String> names) throws IOException {
+		int id = input.readInt();
+		byte[] bytes = new byte[input.readUnsignedShort()];
+		input.readFully(bytes);
+		if (id != names.size()) {
+			throw new MockitoCollectionsException("Unexpected id " + id + " in the journal, expected " + names.size());
+		}
+		names.add(new String(bytes, "UTF-8"));
+	}
+
+	private static String get(List<String> names, int id) {
+		if (id < 0 || id >= names.size()) {
+			throw new MockitoCollectionsException("Undefined id " + id + " in the journal");
+		}
+		return names.get(id);
+	}
+}
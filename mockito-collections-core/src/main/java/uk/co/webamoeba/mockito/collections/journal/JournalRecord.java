@@ -0,0 +1,89 @@
+package uk.co.webamoeba.mockito.collections.journal;
+
+/**
+ * A single invocation read from an {@link InvocationJournal} by an {@link InvocationJournalReader}.
+ * 
+ * @author James Kennard
+ */
+public class JournalRecord {
+
+	private final int sequenceNumber;
+
+	private final int mockIndex;
+
+	private final String mockName;
+
+	private final int methodId;
+
+	private final String method;
+
+	private final long threadId;
+
+	private final long nanoTime;
+
+	public JournalRecord(int sequenceNumber, int mockIndex, String mockName, int methodId, String method,
+			long threadId, long nanoTime) {
+		this.sequenceNumber = sequenceNumber;
+		this.mockIndex = mockIndex;
+		this.mockName = mockName;
+		this.methodId = methodId;
+		this.method = method;
+		this.threadId = threadId;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * @return The Mockito sequence number of the invocation
+	 */
+	public int getSequenceNumber() {
+		return sequenceNumber;
+	}
+
+	/**
+	 * @return The index of the invoked mock in the journal, mocks are indexed in the order in which they were attached
+	 */
+	public int getMockIndex() {
+		return mockIndex;
+	}
+
+	/**
+	 * @return The name of the invoked mock
+	 */
+	public String getMockName() {
+		return mockName;
+	}
+
+	/**
+	 * @return The id of the invoked method, methods are numbered in the order in which they were first invoked
+	 */
+	public int getMethodId() {
+		return methodId;
+	}
+
+	/**
+	 * @return The invoked method, for example <code>java.lang.Comparable.compareTo(java.lang.Object)</code>
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return The id of the invoking {@link Thread}
+	 */
+	public long getThreadId() {
+		return threadId;
+	}
+
+	/**
+	 * @return The value of {@link System#nanoTime()} when the invocation was journaled
+	 */
+	public long getNanoTime() {
+		return nanoTime;
+	}
+
+	@Override
+	public String toString() {
+		return "#" + sequenceNumber + " " + mockName + "[" + mockIndex + "]." + method + " on thread " + threadId
+				+ " at " + nanoTime;
+	}
+}
@@ -0,0 +1,74 @@
+package uk.co.webamoeba.mockito.collections.journal;
+
+import org.mockito.invocation.DescribedInvocation;
+import org.mockito.invocation.Invocation;
+import org.mockito.listeners.InvocationListener;
+import org.mockito.listeners.MethodInvocationReport;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.internal.FlyweightMocks;
+import uk.co.webamoeba.mockito.collections.internal.ObservableInvocationListener;
+
+/**
+ * {@link InvocationListener} of a single mock that appends the invocations of the mock to the {@link InvocationJournal}
+ * to which the mock is attached, if any. The {@link JournalingInvocationListener} is added to the
+ * {@link ObservableInvocationListener} of the mock when the mock is first attached to an {@link InvocationJournal}, a
+ * mock without an {@link ObservableInvocationListener} cannot be journaled.
+ * 
+ * @author James Kennard
+ */
+public class JournalingInvocationListener implements InvocationListener {
+
+	private volatile Attachment attachment;
+
+	/**
+	 * @param mock
+	 * @return The {@link JournalingInvocationListener} of the mock, added if the mock has not been journaled before
+	 * @throws MockitoCollectionsException
+	 *             If the mock does not have an {@link ObservableInvocationListener}
+	 */
+	static JournalingInvocationListener getListener(Object mock) {
+		FlyweightMocks.checkNotFlyweightMock(mock, "journal");
+		ObservableInvocationListener observableListener = ObservableInvocationListener.getListener(mock);
+		if (observableListener == null) {
+			throw new MockitoCollectionsException("Cannot journal " + mock
+					+ ", only mocks created for CollectionOfMocks fields can be journaled");
+		}
+		return observableListener.addListener(new JournalingInvocationListener());
+	}
+
+	/**
+	 * Attaches the mock to the {@link InvocationJournal}, replacing any {@link InvocationJournal} to which the mock was
+	 * previously attached.
+	 * 
+	 * @param journal
+	 * @param mockIndex
+	 *            The index of the mock in the {@link InvocationJournal}
+	 */
+	void attach(InvocationJournal journal, int mockIndex) {
+		attachment = new Attachment(journal, mockIndex);
+	}
+
+	public void reportInvocation(MethodInvocationReport methodInvocationReport) {
+		Attachment current = attachment;
+		if (current == null) {
+			return;
+		}
+		DescribedInvocation describedInvocation = methodInvocationReport.getInvocation();
+		if (describedInvocation instanceof Invocation) {
+			current.journal.append((Invocation) describedInvocation, current.mockIndex);
+		}
+	}
+
+	private static class Attachment {
+
+		private final InvocationJournal journal;
+
+		private final int mockIndex;
+
+		public Attachment(InvocationJournal journal, int mockIndex) {
+			this.journal = journal;
+			this.mockIndex = mockIndex;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package uk.co.webamoeba.mockito.collections.stubbing;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Answers the invocations of the mocks in a collection of mocks, given the index of the invoked mock in the
+ * collection. Installed on every mock at once using <code>MockitoCollections.collectiveWhen</code>, so that the mocks
+ * can behave differently from one another without being stubbed one at a time. For example, to make every third
+ * handler reject the event:
+ * 
+ * <pre class="code">
+ * <code class="java">
+ *   collectiveWhen(Handler.class, handlers, new IndexedAnswer&lt;Boolean&gt;() {
+ *       public Boolean answer(int index, InvocationOnMock invocation) {
+ *           return index % 3 != 0;
+ *       }
+ *   }).handle(anyString());
+ * </code>
+ * </pre>
+ * 
+ * @see Answer
+ * @author James Kennard
+ */
+public interface IndexedAnswer<T> {
+
+	/**
+	 * @param index
+	 *            The index of the invoked mock, in the iteration order of the collection when it was stubbed
+	 * @param invocation
+	 * @return The value to be returned
+	 * @throws Throwable
+	 *             The {@link Throwable} to be thrown
+	 */
+	T answer(int index, InvocationOnMock invocation) throws Throwable;
+}
@@ -6,10 +6,17 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
+ * Retrieves annotated {@link Field Fields} from {@link Class Classes}. A {@link ClassFieldIndex} is created for each
+ * {@link Class} the first time it is inspected and cached, so the inheritance hierarchy of a {@link Class} is only ever
+ * walked once, regardless of how many different annotations are looked up. The indexes are held in a
+ * {@link ClassCache}, so they never prevent a {@link ClassLoader} from being unloaded.
+ * 
  * @author James Kennard
  */
 public class AnnotatedFieldRetriever {
 
+	private final ClassCache<ClassFieldIndex> classFieldIndexes = new ClassCache<ClassFieldIndex>();
+
 	/**
 	 * @param clazz
 	 *            The {@link Class} from which we want to retrieve annotated {@link Field Fields}
@@ -19,19 +26,23 @@ public class AnnotatedFieldRetriever {
 	 *         {@link Class}.
 	 */
 	public Set<Field> getAnnotatedFields(Class<?> clazz, Class<? extends Annotation> annotationClass) {
-		Set<Field> mockDependentFields = new HashSet<Field>();
-		while (clazz != Object.class) {
-			// We use getDeclaredFields because we want to get fields that are not otherwise visible. This means we also
-			// want to look through the inheritance hierarchy because getDeclaredFields will not do
-			// this for us
-			Field[] fields = clazz.getDeclaredFields();
-			for (Field field : fields) {
-				if (null != field.getAnnotation(annotationClass)) {
-					mockDependentFields.add(field);
-				}
+		return new HashSet<Field>(getClassFieldIndex(clazz).getAnnotatedFields(annotationClass));
+	}
+
+	/**
+	 * @param clazz
+	 *            The {@link Class} from which we want to retrieve {@link Field Fields}
+	 * @return The {@link ClassFieldIndex} for the {@link Class}, created if it has not been previously requested.
+	 */
+	public ClassFieldIndex getClassFieldIndex(Class<?> clazz) {
+		ClassFieldIndex classFieldIndex = classFieldIndexes.get(clazz);
+		if (classFieldIndex == null) {
+			classFieldIndex = new ClassFieldIndex(clazz);
+			ClassFieldIndex existing = classFieldIndexes.putIfAbsent(clazz, classFieldIndex);
+			if (existing != null) {
+				classFieldIndex = existing;
 			}
-			clazz = clazz.getSuperclass();
 		}
-		return mockDependentFields;
+		return classFieldIndex;
 	}
 }
@@ -0,0 +1,101 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of values held against a {@link Class} that never prevents a {@link ClassLoader} from being unloaded. The
+ * {@link Class Classes} are weakly referenced. The values are softly referenced, because a value derived from a
+ * {@link Class}, for example its {@link java.lang.reflect.Field Fields}, typically references the {@link Class} and
+ * would otherwise keep it reachable. A value may therefore be discarded when memory is low, in which case it is
+ * recreated by the caller.
+ * <p>
+ * Values are read without locking, a lock is taken only to add a value, and the entries of {@link Class Classes} that
+ * have been collected are removed at the same time.
+ * 
+ * @param <V>
+ *            The type of the values
+ * @author James Kennard
+ */
+public class ClassCache<V> {
+
+	private final ConcurrentMap<ClassKey, Reference<V>> values = new ConcurrentHashMap<ClassKey, Reference<V>>();
+
+	private final ReferenceQueue<Class<?>> collectedClasses = new ReferenceQueue<Class<?>>();
+
+	/**
+	 * @param clazz
+	 * @return The value held against the {@link Class}, or <code>null</code> if there is none
+	 */
+	public V get(Class<?> clazz) {
+		Reference<V> value = values.get(new ClassKey(clazz, null));
+		return value != null ? value.get() : null;
+	}
+
+	/**
+	 * Holds the value against the {@link Class}, unless another value is already held against it.
+	 * 
+	 * @param clazz
+	 * @param value
+	 * @return The value already held against the {@link Class}, or <code>null</code> if the value was added
+	 */
+	public V putIfAbsent(Class<?> clazz, V value) {
+		synchronized (values) {
+			for (Reference<?> collected = collectedClasses.poll(); collected != null; collected = collectedClasses
+					.poll()) {
+				values.remove(collected);
+			}
+			ClassKey key = new ClassKey(clazz, collectedClasses);
+			Reference<V> existing = values.get(key);
+			V existingValue = existing != null ? existing.get() : null;
+			if (existingValue != null) {
+				return existingValue;
+			}
+			values.put(key, new SoftReference<V>(value));
+			return null;
+		}
+	}
+
+	/**
+	 * @return The number of {@link Class Classes} that have a value, including any that have been collected but are yet
+	 *         to be removed
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * Weak reference to a {@link Class}, equal to any other {@link ClassKey} of the same {@link Class}. Once the
+	 * {@link Class} has been collected a {@link ClassKey} is equal only to itself.
+	 */
+	private static class ClassKey extends WeakReference<Class<?>> {
+
+		private final int hashCode;
+
+		public ClassKey(Class<?> clazz, ReferenceQueue<Class<?>> queue) {
+			super(clazz, queue);
+			this.hashCode = System.identityHashCode(clazz);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof ClassKey)) {
+				return false;
+			}
+			Class<?> clazz = get();
+			return clazz != null && clazz == ((ClassKey) obj).get();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the {@link Field Fields} declared by a {@link Class} and its superclasses, grouped by the
+ * {@link Annotation Annotations} present on them. The inheritance hierarchy is walked once, when the index is created,
+ * after which any number of {@link Annotation} lookups can be made without further reflection.
+ * 
+ * @author James Kennard
+ */
+public class ClassFieldIndex {
+
+	private final Class<?> clazz;
+
+	private final List<Field> fields;
+
+	private final Map<Class<? extends Annotation>, Set<Field>> annotatedFields;
+
+	/**
+	 * @param clazz
+	 *            The {@link Class} to index
+	 */
+	public ClassFieldIndex(Class<?> clazz) {
+		this.clazz = clazz;
+		List<Field> fields = new ArrayList<Field>();
+		Map<Class<? extends Annotation>, Set<Field>> annotatedFields = new HashMap<Class<? extends Annotation>, Set<Field>>();
+		while (clazz != Object.class && clazz != null) {
+			// We use getDeclaredFields because we want to get fields that are not otherwise visible. This means we also
+			// want to look through the inheritance hierarchy because getDeclaredFields will not do this for us
+			for (Field field : clazz.getDeclaredFields()) {
+				fields.add(field);
+				for (Annotation annotation : field.getDeclaredAnnotations()) {
+					Set<Field> fieldsWithAnnotation = annotatedFields.get(annotation.annotationType());
+					if (fieldsWithAnnotation == null) {
+						fieldsWithAnnotation = new HashSet<Field>();
+						annotatedFields.put(annotation.annotationType(), fieldsWithAnnotation);
+					}
+					fieldsWithAnnotation.add(field);
+				}
+			}
+			clazz = clazz.getSuperclass();
+		}
+		for (Map.Entry<Class<? extends Annotation>, Set<Field>> entry : annotatedFields.entrySet()) {
+			entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+		}
+		this.fields = Collections.unmodifiableList(fields);
+		this.annotatedFields = annotatedFields;
+	}
+
+	public Class<?> getIndexedClass() {
+		return clazz;
+	}
+
+	/**
+	 * @return All of the {@link Field Fields} declared by the {@link Class} and its superclasses, the {@link Field
+	 *         Fields} declared by the {@link Class} come first followed by those of each superclass in turn. The
+	 *         returned {@link List} is unmodifiable.
+	 */
+	public List<Field> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @param annotationClass
+	 *            The annotation to use to identify the {@link Field Fields} we want to retrieve
+	 * @return The {@link Field Fields} that are annotated with the {@link Annotation} {@link Class}. The returned
+	 *         {@link Set} is unmodifiable, and will be empty if there are no such {@link Field Fields}.
+	 */
+	public Set<Field> getAnnotatedFields(Class<? extends Annotation> annotationClass) {
+		Set<Field> fieldsWithAnnotation = annotatedFields.get(annotationClass);
+		if (fieldsWithAnnotation == null) {
+			return Collections.emptySet();
+		}
+		return fieldsWithAnnotation;
+	}
+}
@@ -0,0 +1,35 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates numbered daemon {@link Thread Threads} with the context {@link ClassLoader} of the {@link Thread} that
+ * created the {@link DaemonThreadFactory}, so that work, such as generating mock {@link Class Classes}, behaves in the
+ * same way regardless of which {@link Thread} performs it.
+ * 
+ * @author James Kennard
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+	private final String namePrefix;
+
+	private final ClassLoader contextClassLoader;
+
+	private int count;
+
+	/**
+	 * @param namePrefix
+	 *            Prefix of the name of each {@link Thread}, the name is suffixed with the number of the {@link Thread}
+	 */
+	public DaemonThreadFactory(String namePrefix) {
+		this.namePrefix = namePrefix;
+		this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+	}
+
+	public synchronized Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, namePrefix + ++count);
+		thread.setDaemon(true);
+		thread.setContextClassLoader(contextClassLoader);
+		return thread;
+	}
+}
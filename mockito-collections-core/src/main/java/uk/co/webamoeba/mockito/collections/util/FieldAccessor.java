@@ -0,0 +1,80 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import java.lang.reflect.Field;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * Reads and writes the value of a {@link Field}. The {@link FieldAccessor} makes its own copy of the {@link Field} and
+ * makes the copy accessible once, when the {@link FieldAccessor} is created. This means reads and writes do not need
+ * to toggle the accessibility of the {@link Field}, and the accessibility of the {@link Field} provided by the caller
+ * is never changed. A {@link FieldAccessor} is intended to be created once per {@link Field} and reused.
+ * 
+ * @author James Kennard
+ */
+public class FieldAccessor {
+
+	private final Field field;
+
+	/**
+	 * @param field
+	 *            The {@link Field} to read and write, this {@link Field} will not be modified
+	 */
+	public FieldAccessor(Field field) {
+		this.field = copy(field);
+		if (!this.field.isAccessible()) {
+			this.field.setAccessible(true);
+		}
+	}
+
+	/**
+	 * @return The {@link Field} this {@link FieldAccessor} reads and writes
+	 */
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @param object
+	 *            The {@link Object} from which to read the value of the {@link Field}
+	 * @return The value of the {@link Field}
+	 */
+	public Object read(Object object) {
+		try {
+			return field.get(object);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Could not read field '" + field + "' on object '" + object
+					+ "' because field is not accessible", e);
+		} catch (IllegalArgumentException e) {
+			throw new MockitoCollectionsException("Could not read field '" + field + "' on object '" + object
+					+ "' because the object does not declare the field", e);
+		}
+	}
+
+	/**
+	 * @param object
+	 *            The {@link Object} on which to set the value of the {@link Field}
+	 * @param value
+	 *            The new value of the {@link Field}
+	 */
+	public void write(Object object, Object value) {
+		try {
+			field.set(object, value);
+		} catch (IllegalAccessException e) {
+			throw new MockitoCollectionsException("Could not set field '" + field + "' on object '" + object
+					+ "' with value: '" + value + "' because field is not accessible", e);
+		} catch (IllegalArgumentException e) {
+			throw new MockitoCollectionsException("Could not set field '" + field + "' on object '" + object
+					+ "' with value '" + value + "' because value was of an incompatible type", e);
+		}
+	}
+
+	private Field copy(Field field) {
+		try {
+			return field.getDeclaringClass().getDeclaredField(field.getName());
+		} catch (NoSuchFieldException e) {
+			// Can only happen if the field has been obtained from a different version of the class
+			throw new MockitoCollectionsException("Could not access field '" + field + "'", e);
+		}
+	}
+}
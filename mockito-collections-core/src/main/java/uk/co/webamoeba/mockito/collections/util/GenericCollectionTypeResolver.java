@@ -16,6 +16,8 @@ package uk.co.webamoeba.mockito.collections.util;
  * limitations under the License.
  */
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
@@ -24,6 +26,9 @@ import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Helper class for determining element types of {@link Collection} and {@link Map} {@link Field}s.
@@ -34,6 +39,12 @@ import java.util.Map;
  * <p>
  * Includes modifications, mainly with the intent to reduce the capabilities of the class. We want to deal exclusively
  * with {@link Collection} {@link Field}s, and we want to get away from the static nature of the original class.
+ * <p>
+ * The type of a {@link Field} never changes, so resolved types, including those that could not be resolved, are
+ * memoized. The memo is held against the declaring {@link Class} of each {@link Field} in a {@link ClassCache}, and
+ * the resolved types are weakly referenced, such that the memo never prevents a {@link ClassLoader} from being
+ * unloaded. Memoized types are read without locking, a lock is taken only to add the memo of a declaring
+ * {@link Class}. The {@link #getCacheHits() hits} and {@link #getCacheMisses() misses} are counted.
  * 
  * @author Juergen Hoeller
  * @author James Kennard
@@ -43,6 +54,20 @@ public class GenericCollectionTypeResolver {
 	@SuppressWarnings("rawtypes")
 	private static final Class<Collection> COLLECTION_CLASS = Collection.class;
 
+	/**
+	 * Memoized value for {@link Field Fields} whose type could not be resolved.
+	 */
+	private static final Reference<Class<?>> UNRESOLVABLE = new WeakReference<Class<?>>(null);
+
+	/**
+	 * Memoized types keyed on the declaring {@link Class} and then the name of the {@link Field}.
+	 */
+	private final ClassCache<ConcurrentMap<String, Reference<Class<?>>>> resolvedTypes = new ClassCache<ConcurrentMap<String, Reference<Class<?>>>>();
+
+	private final AtomicLong cacheHits = new AtomicLong();
+
+	private final AtomicLong cacheMisses = new AtomicLong();
+
 	/**
 	 * Determine the generic element type of the given {@link Collection} {@link Field}.
 	 * 
@@ -51,7 +76,50 @@ public class GenericCollectionTypeResolver {
 	 * @return the generic type, or <code>null</code> if none
 	 */
 	public Class<?> getCollectionFieldType(Field collectionField) {
-		return extractType(collectionField.getGenericType(), COLLECTION_CLASS);
+		ConcurrentMap<String, Reference<Class<?>>> resolvedTypesForClass = getResolvedTypes(collectionField
+				.getDeclaringClass());
+		Reference<Class<?>> resolvedType = resolvedTypesForClass.get(collectionField.getName());
+		if (resolvedType == UNRESOLVABLE) {
+			cacheHits.incrementAndGet();
+			return null;
+		}
+		Class<?> type = resolvedType != null ? resolvedType.get() : null;
+		if (type != null) {
+			cacheHits.incrementAndGet();
+			return type;
+		}
+		cacheMisses.incrementAndGet();
+		type = extractType(collectionField.getGenericType(), COLLECTION_CLASS);
+		resolvedTypesForClass.put(collectionField.getName(), type != null ? new WeakReference<Class<?>>(type)
+				: UNRESOLVABLE);
+		return type;
+	}
+
+	/**
+	 * @return The number of times {@link #getCollectionFieldType(Field)} has been answered from the memo.
+	 */
+	public long getCacheHits() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * @return The number of times {@link #getCollectionFieldType(Field)} has had to resolve the type.
+	 */
+	public long getCacheMisses() {
+		return cacheMisses.get();
+	}
+
+	private ConcurrentMap<String, Reference<Class<?>>> getResolvedTypes(Class<?> declaringClass) {
+		ConcurrentMap<String, Reference<Class<?>>> resolvedTypesForClass = resolvedTypes.get(declaringClass);
+		if (resolvedTypesForClass == null) {
+			resolvedTypesForClass = new ConcurrentHashMap<String, Reference<Class<?>>>();
+			ConcurrentMap<String, Reference<Class<?>>> existing = resolvedTypes.putIfAbsent(declaringClass,
+					resolvedTypesForClass);
+			if (existing != null) {
+				resolvedTypesForClass = existing;
+			}
+		}
+		return resolvedTypesForClass;
 	}
 
 	/**
@@ -164,5 +232,4 @@ public class GenericCollectionTypeResolver {
 	private boolean isIntrospectionCandidate(Class clazz) {
 		return (COLLECTION_CLASS.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz));
 	}
-
-}
\ No newline at end of file
+}
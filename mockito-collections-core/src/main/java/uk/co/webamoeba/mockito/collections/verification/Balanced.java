@@ -0,0 +1,46 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import uk.co.webamoeba.mockito.collections.exception.InvocationDistributionError;
+
+/**
+ * {@link CollectiveVerificationMode} that verifies that the number of invocations of every mock is within a band
+ * relative to the mean number of invocations per mock, for example no mock received more than 1.2 times the mean.
+ * 
+ * @author James Kennard
+ */
+public class Balanced implements CollectiveVerificationMode {
+
+	private final double minimumRatioToMean;
+
+	private final double maximumRatioToMean;
+
+	/**
+	 * @param minimumRatioToMean
+	 *            The minimum number of invocations of each mock as a ratio of the mean
+	 * @param maximumRatioToMean
+	 *            The maximum number of invocations of each mock as a ratio of the mean
+	 */
+	public Balanced(double minimumRatioToMean, double maximumRatioToMean) {
+		if (minimumRatioToMean < 0 || maximumRatioToMean < minimumRatioToMean) {
+			throw new IllegalArgumentException("Expected 0 <= minimumRatioToMean <= maximumRatioToMean, but "
+					+ "minimumRatioToMean was " + minimumRatioToMean + " and maximumRatioToMean was "
+					+ maximumRatioToMean);
+		}
+		this.minimumRatioToMean = minimumRatioToMean;
+		this.maximumRatioToMean = maximumRatioToMean;
+	}
+
+	public void verify(InvocationDistribution distribution) {
+		double mean = distribution.getMean();
+		double minimum = minimumRatioToMean * mean;
+		double maximum = maximumRatioToMean * mean;
+		for (int i = 0; i < distribution.getNumberOfMocks(); i++) {
+			int invocationCount = distribution.getInvocationCount(i);
+			if (invocationCount < minimum || invocationCount > maximum) {
+				throw new InvocationDistributionError("Wanted between " + minimumRatioToMean + "x and "
+						+ maximumRatioToMean + "x the mean number of invocations per mock but mock at index " + i
+						+ " was invoked " + invocationCount + " times", distribution);
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+/**
+ * A watermark in the invocations of a collection of mocks. A verification limited to a {@link Checkpoint} considers
+ * only the invocations that occurred after the {@link Checkpoint} was taken, and reads only those invocations, so a
+ * verification that is repeated as a test runs costs time proportional to the invocations since the
+ * {@link Checkpoint} rather than every invocation the mocks have received. Invocations that are in progress when the
+ * {@link Checkpoint} is taken may fall either side of it. A {@link Checkpoint} is immutable.
+ * 
+ * @author James Kennard
+ */
+public final class Checkpoint {
+
+	private final int sequenceNumber;
+
+	/**
+	 * @param sequenceNumber
+	 *            The {@link org.mockito.invocation.Invocation#getSequenceNumber() sequence number} after which
+	 *            invocations are considered
+	 */
+	public Checkpoint(int sequenceNumber) {
+		this.sequenceNumber = sequenceNumber;
+	}
+
+	/**
+	 * @return The sequence number after which invocations are considered
+	 */
+	public int getSequenceNumber() {
+		return sequenceNumber;
+	}
+
+	@Override
+	public String toString() {
+		return "checkpoint after invocation #" + sequenceNumber;
+	}
+}
@@ -0,0 +1,49 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import uk.co.webamoeba.mockito.collections.exception.InvocationOrderError;
+
+/**
+ * {@link CollectiveOrder} that verifies the mocks were invoked in the order of the collection, every invocation of a
+ * mock preceding every invocation of the next mock in the collection. The {@link InvocationTimeline} is checked in a
+ * single pass.
+ * 
+ * @author James Kennard
+ */
+public class CollectionOrder implements CollectiveOrder {
+
+	private final boolean once;
+
+	/**
+	 * @param once
+	 *            <code>true</code> if each mock should be invoked exactly once, otherwise each mock should be invoked
+	 *            at least once
+	 */
+	public CollectionOrder(boolean once) {
+		this.once = once;
+	}
+
+	public void verify(InvocationTimeline timeline) {
+		int previous = -1;
+		for (int position = 0; position < timeline.getNumberOfInvocations(); position++) {
+			int mockIndex = timeline.getMockIndex(position);
+			if (mockIndex < previous || (once && mockIndex == previous)) {
+				throw new InvocationOrderError(describeWanted(timeline) + " but the mock at index " + mockIndex
+						+ " was invoked at position " + position + ", after the mock at index " + previous,
+						timeline);
+			} else if (mockIndex > previous + 1) {
+				throw new InvocationOrderError(describeWanted(timeline) + " but the mock at index " + (previous + 1)
+						+ " was not invoked before the mock at index " + mockIndex, timeline);
+			}
+			previous = mockIndex;
+		}
+		if (previous < timeline.getNumberOfMocks() - 1) {
+			throw new InvocationOrderError(describeWanted(timeline) + " but the mock at index " + (previous + 1)
+					+ " was not invoked", timeline);
+		}
+	}
+
+	private String describeWanted(InvocationTimeline timeline) {
+		return "Wanted each of " + timeline.getNumberOfMocks() + " mocks to be invoked "
+				+ (once ? "once, in collection order" : "in collection order");
+	}
+}
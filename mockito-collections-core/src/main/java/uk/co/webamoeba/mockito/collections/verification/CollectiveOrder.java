@@ -0,0 +1,19 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import uk.co.webamoeba.mockito.collections.exception.InvocationOrderError;
+
+/**
+ * Verifies the order in which the mocks in a collection were invoked, using the {@link InvocationTimeline} of a wanted
+ * invocation across the collection. Use {@link CollectiveVerificationModes} to create a {@link CollectiveOrder}.
+ * 
+ * @author James Kennard
+ */
+public interface CollectiveOrder {
+
+	/**
+	 * @param timeline
+	 * @throws InvocationOrderError
+	 *             If the mocks were not invoked in the wanted order
+	 */
+	void verify(InvocationTimeline timeline);
+}
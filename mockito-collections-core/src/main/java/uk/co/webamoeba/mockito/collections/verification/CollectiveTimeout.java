@@ -0,0 +1,124 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import org.mockito.Mockito;
+import org.mockito.internal.verification.api.VerificationData;
+import org.mockito.verification.Timeout;
+import org.mockito.verification.VerificationMode;
+import org.mockito.verification.VerificationWithTimeout;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * {@link VerificationWithTimeout} with a single deadline shared by every mock in a collection. When used to
+ * collectively verify a collection, every mock that has not yet satisfied the delegate {@link VerificationMode} is
+ * checked in each polling period, the verification succeeds as soon as every mock is satisfied, and fails when the
+ * deadline passes. The longest wait is therefore the timeout, regardless of the number of mocks. When used to verify
+ * a single mock a {@link CollectiveTimeout} behaves in the same way as a {@link Timeout}.
+ * <p>
+ * A {@link CollectiveTimeout} is immutable, {@link #times(int)}, {@link #atLeast(int)}, {@link #atLeastOnce()} and
+ * {@link #only()} return a new {@link CollectiveTimeout} with the same timeout.
+ * 
+ * @author James Kennard
+ */
+public class CollectiveTimeout implements VerificationWithTimeout {
+
+	/**
+	 * The number of milliseconds between checks of the mocks, unless otherwise specified.
+	 */
+	public static final int DEFAULT_POLLING_PERIOD = 10;
+
+	private final int millis;
+
+	private final int pollingPeriod;
+
+	private final VerificationMode delegate;
+
+	/**
+	 * @param millis
+	 *            The timeout shared by every mock in a collection
+	 */
+	public CollectiveTimeout(int millis) {
+		this(millis, DEFAULT_POLLING_PERIOD, Mockito.times(1));
+	}
+
+	/**
+	 * @param millis
+	 *            The timeout shared by every mock in a collection
+	 * @param pollingPeriod
+	 *            The number of milliseconds between checks of the mocks
+	 * @param delegate
+	 *            The {@link VerificationMode} each mock must satisfy
+	 */
+	public CollectiveTimeout(int millis, int pollingPeriod, VerificationMode delegate) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("millis must not be negative");
+		}
+		if (pollingPeriod <= 0) {
+			throw new IllegalArgumentException("pollingPeriod must be greater than zero");
+		}
+		if (delegate == null) {
+			throw new IllegalArgumentException("delegate must not be null");
+		}
+		this.millis = millis;
+		this.pollingPeriod = pollingPeriod;
+		this.delegate = delegate;
+	}
+
+	public int getMillis() {
+		return millis;
+	}
+
+	public int getPollingPeriod() {
+		return pollingPeriod;
+	}
+
+	/**
+	 * @return The {@link VerificationMode} each mock must satisfy
+	 */
+	public VerificationMode getDelegate() {
+		return delegate;
+	}
+
+	public void verify(VerificationData data) {
+		new Timeout(millis, delegate).verify(data);
+	}
+
+	public CollectiveTimeout times(int wantedNumberOfInvocations) {
+		return new CollectiveTimeout(millis, pollingPeriod, Mockito.times(wantedNumberOfInvocations));
+	}
+
+	public CollectiveTimeout atLeastOnce() {
+		return atLeast(1);
+	}
+
+	public CollectiveTimeout atLeast(int minNumberOfInvocations) {
+		return new CollectiveTimeout(millis, pollingPeriod, Mockito.atLeast(minNumberOfInvocations));
+	}
+
+	public CollectiveTimeout only() {
+		return new CollectiveTimeout(millis, pollingPeriod, Mockito.only());
+	}
+
+	/**
+	 * Not supported, whether a mock is never invoked cannot be decided before the deadline.
+	 * 
+	 * @throws MockitoCollectionsException
+	 * @deprecated As in {@link VerificationWithTimeout}, a timeout cannot be combined with {@link Mockito#never()}
+	 */
+	@Deprecated
+	public VerificationMode never() {
+		throw new MockitoCollectionsException("never() is not supported with a collective timeout");
+	}
+
+	/**
+	 * Not supported, whether a mock is invoked at most a number of times cannot be decided before the deadline.
+	 * 
+	 * @throws MockitoCollectionsException
+	 * @deprecated As in {@link VerificationWithTimeout}, a timeout cannot be combined with
+	 *             {@link Mockito#atMost(int)}
+	 */
+	@Deprecated
+	public VerificationMode atMost(int maxNumberOfInvocations) {
+		throw new MockitoCollectionsException("atMost(int) is not supported with a collective timeout");
+	}
+}
@@ -0,0 +1,20 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import uk.co.webamoeba.mockito.collections.exception.InvocationDistributionError;
+
+/**
+ * Verifies the {@link InvocationDistribution} of a wanted invocation across a collection of mocks, rather than the
+ * invocations of each mock individually. Use {@link CollectiveVerificationModes} to create a
+ * {@link CollectiveVerificationMode}.
+ * 
+ * @author James Kennard
+ */
+public interface CollectiveVerificationMode {
+
+	/**
+	 * @param distribution
+	 * @throws InvocationDistributionError
+	 *             If the distribution is not as wanted
+	 */
+	void verify(InvocationDistribution distribution);
+}
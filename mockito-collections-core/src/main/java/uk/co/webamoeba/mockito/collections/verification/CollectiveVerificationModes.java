@@ -0,0 +1,102 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+/**
+ * Factory of {@link CollectiveVerificationMode CollectiveVerificationModes} and
+ * {@link CollectiveTimeout CollectiveTimeouts}.
+ * 
+ * @author James Kennard
+ */
+public class CollectiveVerificationModes {
+
+	/**
+	 * @param wantedTotal
+	 * @return {@link CollectiveVerificationMode} that verifies the total number of invocations of all of the mocks
+	 */
+	public static CollectiveVerificationMode totalTimes(int wantedTotal) {
+		return new TotalTimes(wantedTotal);
+	}
+
+	/**
+	 * @param wantedNumberOfMocks
+	 * @return {@link CollectiveVerificationMode} that verifies exactly the wantedNumberOfMocks were invoked
+	 */
+	public static CollectiveVerificationMode invokedMocks(int wantedNumberOfMocks) {
+		return new InvokedMocks(wantedNumberOfMocks, wantedNumberOfMocks);
+	}
+
+	/**
+	 * @param minimumNumberOfMocks
+	 * @return {@link CollectiveVerificationMode} that verifies at least the minimumNumberOfMocks were invoked
+	 */
+	public static CollectiveVerificationMode atLeastInvokedMocks(int minimumNumberOfMocks) {
+		return new InvokedMocks(minimumNumberOfMocks, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param maximumNumberOfMocks
+	 * @return {@link CollectiveVerificationMode} that verifies at most the maximumNumberOfMocks were invoked
+	 */
+	public static CollectiveVerificationMode atMostInvokedMocks(int maximumNumberOfMocks) {
+		return new InvokedMocks(0, maximumNumberOfMocks);
+	}
+
+	/**
+	 * @param maximumRatioToMean
+	 * @return {@link CollectiveVerificationMode} that verifies no mock was invoked more than the maximumRatioToMean
+	 *         times the mean number of invocations per mock
+	 */
+	public static CollectiveVerificationMode balanced(double maximumRatioToMean) {
+		return new Balanced(0, maximumRatioToMean);
+	}
+
+	/**
+	 * @param minimumRatioToMean
+	 * @param maximumRatioToMean
+	 * @return {@link CollectiveVerificationMode} that verifies every mock was invoked between the minimumRatioToMean
+	 *         and the maximumRatioToMean times the mean number of invocations per mock
+	 */
+	public static CollectiveVerificationMode balanced(double minimumRatioToMean, double maximumRatioToMean) {
+		return new Balanced(minimumRatioToMean, maximumRatioToMean);
+	}
+
+	/**
+	 * @param millis
+	 * @return {@link CollectiveTimeout} that waits at most millis for every mock in a collection to be invoked once
+	 */
+	public static CollectiveTimeout collectiveTimeout(int millis) {
+		return new CollectiveTimeout(millis);
+	}
+
+	/**
+	 * @return {@link CollectiveOrder} that verifies each mock was invoked exactly once, in the order of the collection
+	 */
+	public static CollectiveOrder eachOnceInCollectionOrder() {
+		return new CollectionOrder(true);
+	}
+
+	/**
+	 * @return {@link CollectiveOrder} that verifies each mock was invoked at least once, every invocation of a mock
+	 *         preceding every invocation of the next mock in the collection
+	 */
+	public static CollectiveOrder inCollectionOrder() {
+		return new CollectionOrder(false);
+	}
+
+	/**
+	 * @param size
+	 * @param seed
+	 * @return {@link Sample} that selects the same size mocks from a collection every time it is used with the seed
+	 */
+	public static Sample sample(int size, long seed) {
+		return new Sample(size, seed);
+	}
+
+	/**
+	 * @param size
+	 * @return {@link Sample} that selects size mocks from a collection using a new seed, the seed is reported if a
+	 *         verification using the {@link Sample} fails
+	 */
+	public static Sample sample(int size) {
+		return new Sample(size, System.nanoTime());
+	}
+}
@@ -0,0 +1,116 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The number of invocations of a wanted method that each mock in a collection received, in the order of the mocks in
+ * the collection. An {@link InvocationDistribution} is immutable.
+ * 
+ * @author James Kennard
+ */
+public final class InvocationDistribution {
+
+	private static final int MAXIMUM_DESCRIBED_MOCKS = 100;
+
+	private final String wanted;
+
+	private final int[] invocationCounts;
+
+	private final int total;
+
+	private final int numberOfInvokedMocks;
+
+	/**
+	 * @param wanted
+	 *            Description of the wanted invocation
+	 * @param invocationCounts
+	 *            The number of invocations of each mock, in the order of the mocks in the collection
+	 */
+	public InvocationDistribution(String wanted, int[] invocationCounts) {
+		this.wanted = wanted;
+		this.invocationCounts = invocationCounts.clone();
+		int total = 0;
+		int numberOfInvokedMocks = 0;
+		for (int invocationCount : invocationCounts) {
+			total += invocationCount;
+			if (invocationCount > 0) {
+				numberOfInvokedMocks++;
+			}
+		}
+		this.total = total;
+		this.numberOfInvokedMocks = numberOfInvokedMocks;
+	}
+
+	/**
+	 * @return Description of the wanted invocation
+	 */
+	public String getWanted() {
+		return wanted;
+	}
+
+	public int getNumberOfMocks() {
+		return invocationCounts.length;
+	}
+
+	/**
+	 * @param index
+	 *            The index of the mock in the collection
+	 * @return The number of invocations of the mock
+	 */
+	public int getInvocationCount(int index) {
+		return invocationCounts[index];
+	}
+
+	/**
+	 * @return The number of invocations of each mock, in the order of the mocks in the collection, the returned
+	 *         {@link List} is unmodifiable
+	 */
+	public List<Integer> getInvocationCounts() {
+		List<Integer> counts = new ArrayList<Integer>(invocationCounts.length);
+		for (int invocationCount : invocationCounts) {
+			counts.add(invocationCount);
+		}
+		return Collections.unmodifiableList(counts);
+	}
+
+	/**
+	 * @return The number of invocations of all of the mocks
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return The number of mocks that were invoked at least once
+	 */
+	public int getNumberOfInvokedMocks() {
+		return numberOfInvokedMocks;
+	}
+
+	/**
+	 * @return The mean number of invocations per mock, or zero if there are no mocks
+	 */
+	public double getMean() {
+		return invocationCounts.length == 0 ? 0 : (double) total / invocationCounts.length;
+	}
+
+	/**
+	 * @return Histogram of the number of invocations of each mock, listing at most the first
+	 *         {@value #MAXIMUM_DESCRIBED_MOCKS} mocks
+	 */
+	@Override
+	public String toString() {
+		StringBuilder description = new StringBuilder();
+		description.append(wanted).append("\nInvocations per mock (total ").append(total).append(", mean ");
+		description.append(String.format("%.2f", getMean())).append("):");
+		for (int i = 0; i < invocationCounts.length && i < MAXIMUM_DESCRIBED_MOCKS; i++) {
+			description.append("\n  [").append(i).append("] ").append(invocationCounts[i]);
+		}
+		if (invocationCounts.length > MAXIMUM_DESCRIBED_MOCKS) {
+			description.append("\n  ... ").append(invocationCounts.length - MAXIMUM_DESCRIBED_MOCKS).append(" more");
+		}
+		return description.toString();
+	}
+}
@@ -0,0 +1,97 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The invocations of a wanted method across a collection of mocks, merged into a single timeline in the order in which
+ * they occurred. Each invocation is represented by the index of the invoked mock in the collection. An
+ * {@link InvocationTimeline} is immutable.
+ * 
+ * @author James Kennard
+ */
+public final class InvocationTimeline {
+
+	private static final int MAXIMUM_DESCRIBED_INVOCATIONS = 100;
+
+	private final String wanted;
+
+	private final int numberOfMocks;
+
+	private final int[] mockIndexes;
+
+	/**
+	 * @param wanted
+	 *            Description of the wanted invocation
+	 * @param numberOfMocks
+	 *            The number of mocks in the collection
+	 * @param mockIndexes
+	 *            The index of the mock of each invocation, in the order in which the invocations occurred
+	 */
+	public InvocationTimeline(String wanted, int numberOfMocks, int[] mockIndexes) {
+		this.wanted = wanted;
+		this.numberOfMocks = numberOfMocks;
+		this.mockIndexes = mockIndexes.clone();
+	}
+
+	/**
+	 * @return Description of the wanted invocation
+	 */
+	public String getWanted() {
+		return wanted;
+	}
+
+	public int getNumberOfMocks() {
+		return numberOfMocks;
+	}
+
+	/**
+	 * @return The number of invocations of all of the mocks
+	 */
+	public int getNumberOfInvocations() {
+		return mockIndexes.length;
+	}
+
+	/**
+	 * @param position
+	 *            The position of the invocation in the timeline
+	 * @return The index of the invoked mock in the collection
+	 */
+	public int getMockIndex(int position) {
+		return mockIndexes[position];
+	}
+
+	/**
+	 * @return The index of the mock of each invocation, in the order in which the invocations occurred, the returned
+	 *         {@link List} is unmodifiable
+	 */
+	public List<Integer> getMockIndexes() {
+		List<Integer> indexes = new ArrayList<Integer>(mockIndexes.length);
+		for (int mockIndex : mockIndexes) {
+			indexes.add(mockIndex);
+		}
+		return Collections.unmodifiableList(indexes);
+	}
+
+	/**
+	 * @return The indexes of the invoked mocks in the order in which they were invoked, listing at most the first
+	 *         {@value #MAXIMUM_DESCRIBED_INVOCATIONS} invocations
+	 */
+	@Override
+	public String toString() {
+		StringBuilder description = new StringBuilder();
+		description.append(wanted).append("\nIndexes of the invoked mocks, in order of invocation (");
+		description.append(mockIndexes.length).append(" invocations of ").append(numberOfMocks).append(" mocks):\n  [");
+		for (int i = 0; i < mockIndexes.length && i < MAXIMUM_DESCRIBED_INVOCATIONS; i++) {
+			if (i > 0) {
+				description.append(", ");
+			}
+			description.append(mockIndexes[i]);
+		}
+		if (mockIndexes.length > MAXIMUM_DESCRIBED_INVOCATIONS) {
+			description.append(", ... ").append(mockIndexes.length - MAXIMUM_DESCRIBED_INVOCATIONS).append(" more");
+		}
+		return description.append(']').toString();
+	}
+}
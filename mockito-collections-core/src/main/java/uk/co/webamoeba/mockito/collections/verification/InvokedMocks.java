@@ -0,0 +1,50 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import uk.co.webamoeba.mockito.collections.exception.InvocationDistributionError;
+
+/**
+ * {@link CollectiveVerificationMode} that verifies the number of mocks that were invoked at least once.
+ * 
+ * @author James Kennard
+ */
+public class InvokedMocks implements CollectiveVerificationMode {
+
+	private final int minimum;
+
+	private final int maximum;
+
+	/**
+	 * @param minimum
+	 *            The minimum number of mocks that should be invoked
+	 * @param maximum
+	 *            The maximum number of mocks that should be invoked
+	 */
+	public InvokedMocks(int minimum, int maximum) {
+		if (minimum < 0 || maximum < minimum) {
+			throw new IllegalArgumentException("Expected 0 <= minimum <= maximum, but minimum was " + minimum
+					+ " and maximum was " + maximum);
+		}
+		this.minimum = minimum;
+		this.maximum = maximum;
+	}
+
+	public void verify(InvocationDistribution distribution) {
+		int invoked = distribution.getNumberOfInvokedMocks();
+		if (invoked < minimum || invoked > maximum) {
+			throw new InvocationDistributionError("Wanted " + describeWanted() + " of "
+					+ distribution.getNumberOfMocks() + " mocks to be invoked but " + invoked + " were invoked",
+					distribution);
+		}
+	}
+
+	private String describeWanted() {
+		if (minimum == maximum) {
+			return "exactly " + minimum;
+		} else if (maximum == Integer.MAX_VALUE) {
+			return "at least " + minimum;
+		} else if (minimum == 0) {
+			return "at most " + maximum;
+		}
+		return "between " + minimum + " and " + maximum;
+	}
+}
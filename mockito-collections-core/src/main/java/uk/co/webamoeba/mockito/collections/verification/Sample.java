@@ -0,0 +1,84 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A reproducible random sample of the mocks in a collection. The mocks of a sample are selected using a {@link Random}
+ * seeded with the seed of the sample, so a sample of the same size and seed selects the same mocks from a collection of
+ * the same size every time. Selecting a sample costs time proportional to the size of the sample, not to the size of
+ * the collection. A {@link Sample} is immutable.
+ * 
+ * @author James Kennard
+ */
+public final class Sample {
+
+	private final int size;
+
+	private final long seed;
+
+	/**
+	 * @param size
+	 *            The number of mocks to select
+	 * @param seed
+	 *            The seed of the {@link Random} used to select the mocks
+	 */
+	public Sample(int size, long seed) {
+		if (size < 0) {
+			throw new IllegalArgumentException("size must not be negative");
+		}
+		this.size = size;
+		this.seed = seed;
+	}
+
+	/**
+	 * @return The number of mocks to select
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Selects the indexes of the sampled mocks using Floyd's algorithm, every subset of the size is equally likely.
+	 * 
+	 * @param numberOfMocks
+	 *            The number of mocks in the collection
+	 * @return The indexes of the sampled mocks in ascending order, every index if the collection is no larger than the
+	 *         sample
+	 */
+	public int[] select(int numberOfMocks) {
+		if (numberOfMocks <= size) {
+			int[] indexes = new int[numberOfMocks];
+			for (int i = 0; i < numberOfMocks; i++) {
+				indexes[i] = i;
+			}
+			return indexes;
+		}
+		Random random = new Random(seed);
+		Set<Integer> selected = new HashSet<Integer>(size * 2);
+		for (int j = numberOfMocks - size; j < numberOfMocks; j++) {
+			int index = random.nextInt(j + 1);
+			if (!selected.add(index)) {
+				selected.add(j);
+			}
+		}
+		int[] indexes = new int[size];
+		int i = 0;
+		for (Integer index : selected) {
+			indexes[i++] = index;
+		}
+		Arrays.sort(indexes);
+		return indexes;
+	}
+
+	@Override
+	public String toString() {
+		return "sample(" + size + ", " + seed + "L)";
+	}
+}
@@ -0,0 +1,31 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import uk.co.webamoeba.mockito.collections.exception.InvocationDistributionError;
+
+/**
+ * {@link CollectiveVerificationMode} that verifies the total number of invocations of all of the mocks.
+ * 
+ * @author James Kennard
+ */
+public class TotalTimes implements CollectiveVerificationMode {
+
+	private final int wantedTotal;
+
+	/**
+	 * @param wantedTotal
+	 *            The wanted number of invocations of all of the mocks
+	 */
+	public TotalTimes(int wantedTotal) {
+		if (wantedTotal < 0) {
+			throw new IllegalArgumentException("wantedTotal must not be negative");
+		}
+		this.wantedTotal = wantedTotal;
+	}
+
+	public void verify(InvocationDistribution distribution) {
+		if (distribution.getTotal() != wantedTotal) {
+			throw new InvocationDistributionError("Wanted " + wantedTotal + " invocations in total but there were "
+					+ distribution.getTotal(), distribution);
+		}
+	}
+}
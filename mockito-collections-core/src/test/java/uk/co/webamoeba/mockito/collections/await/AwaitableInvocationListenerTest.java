@@ -0,0 +1,112 @@
+package uk.co.webamoeba.mockito.collections.await;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.inject.DefaultMockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.ProxyMockStrategy;
+
+/**
+ * @author James Kennard
+ */
+public class AwaitableInvocationListenerTest {
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldReleaseLatchGivenAsynchronousInvocations() throws InterruptedException {
+		// Given
+		List<Comparable<String>> mocks = new ArrayList(new DefaultMockStrategy().createMocks(Comparable.class, 3));
+		InvocationLatch latch = InvocationLatch.eachInvoked();
+		MockitoCollections.collectiveAwait(Comparable.class, (Collection) mocks, latch).compareTo(anyString());
+
+		// When
+		invokeAsynchronously(mocks, "a");
+
+		// Then
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldReleaseLatchGivenProxyMocks() throws InterruptedException {
+		// Given
+		List<Comparable<String>> mocks = new ArrayList(new ProxyMockStrategy(new DefaultMockStrategy())
+				.createMocks(Comparable.class, 3));
+		InvocationLatch latch = InvocationLatch.totalInvocations(3);
+		MockitoCollections.collectiveAwait(Comparable.class, (Collection) mocks, latch).compareTo(anyString());
+
+		// When
+		invokeAsynchronously(mocks, "a");
+
+		// Then
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldNotCountInvocationsThatDoNotMatch() {
+		// Given
+		List<Comparable<String>> mocks = new ArrayList(new DefaultMockStrategy().createMocks(Comparable.class, 2));
+		InvocationLatch latch = InvocationLatch.totalInvocations(2);
+		MockitoCollections.collectiveAwait(Comparable.class, (Collection) mocks, latch).compareTo(eq("a"));
+
+		// When
+		mocks.get(0).compareTo("a");
+		mocks.get(1).compareTo("b");
+		mocks.get(1).toString();
+
+		// Then
+		assertEquals(1, latch.getCount());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldNotCountInvocationsBeforeRegistration() throws InterruptedException {
+		// Given
+		List<Comparable<String>> mocks = new ArrayList(new DefaultMockStrategy().createMocks(Comparable.class, 1));
+		mocks.get(0).compareTo("a");
+		InvocationLatch latch = InvocationLatch.eachInvoked();
+
+		// When
+		MockitoCollections.collectiveAwait(Comparable.class, (Collection) mocks, latch).compareTo(anyString());
+
+		// Then
+		assertFalse(latch.await(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToRegisterGivenMockWithoutListener() {
+		// Given
+		List<Comparable<String>> mocks = new ArrayList<Comparable<String>>();
+		mocks.add(mock(Comparable.class));
+
+		// When
+		MockitoCollections.collectiveAwait(Comparable.class, (Collection) mocks, InvocationLatch.eachInvoked())
+				.compareTo(anyString());
+	}
+
+	private void invokeAsynchronously(final List<Comparable<String>> mocks, final String argument) {
+		new Thread() {
+			@Override
+			public void run() {
+				for (Comparable<String> mock : mocks) {
+					mock.compareTo(argument);
+				}
+			}
+		}.start();
+	}
+}
@@ -0,0 +1,84 @@
+package uk.co.webamoeba.mockito.collections.await;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @author James Kennard
+ */
+public class InvocationLatchTest {
+
+	@Test
+	public void shouldReleaseTotalInvocationsLatch() throws InterruptedException {
+		// Given
+		InvocationLatch latch = InvocationLatch.totalInvocations(3);
+		latch.register(2);
+
+		// When
+		boolean released1 = latch.invoked(1);
+		boolean released2 = latch.invoked(1);
+		boolean released3 = latch.invoked(2);
+
+		// Then
+		assertFalse(released1);
+		assertFalse(released2);
+		assertTrue(released3);
+		assertTrue(latch.await(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void shouldReleaseEachInvokedLatch() throws InterruptedException {
+		// Given
+		InvocationLatch latch = InvocationLatch.eachInvoked(2);
+		latch.register(2);
+
+		// When
+		latch.invoked(1);
+		latch.invoked(2);
+		latch.invoked(3);
+		latch.invoked(1);
+
+		// Then
+		assertEquals(1, latch.getCount());
+		assertFalse(latch.await(0, TimeUnit.MILLISECONDS));
+		latch.invoked(2);
+		assertTrue(latch.await(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void shouldReleaseEachInvokedLatchGivenNoMocks() throws InterruptedException {
+		// Given
+		InvocationLatch latch = InvocationLatch.eachInvoked();
+
+		// When
+		latch.register(0);
+
+		// Then
+		assertTrue(latch.await(0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailToAwaitGivenNotRegistered() throws InterruptedException {
+		InvocationLatch.eachInvoked().await();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailToRegisterTwice() {
+		// Given
+		InvocationLatch latch = InvocationLatch.eachInvoked();
+		latch.register(1);
+
+		// When
+		latch.register(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToCreateEachInvokedLatchGivenZero() {
+		InvocationLatch.eachInvoked(0);
+	}
+}
@@ -17,6 +17,7 @@ import org.junit.Test;
 import org.mockito.internal.util.MockUtil;
 import org.mockito.mock.MockCreationSettings;
 
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
 import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 
 /**
@@ -138,6 +139,22 @@ public class CollectionFactoryTest {
 		assertTrue(exception.getMessage().contains("do not know how to instantiate"));
 	}
 
+	@Test
+	public void shouldCreateLazyCollectionGivenList() {
+		// When
+		List<Object> collection = factory.createLazyCollection(List.class, Runnable.class, 3,
+				new DefaultMockStrategy());
+
+		// Then
+		assertEquals(LazyCollectionOfMocks.class, collection.getClass());
+		assertEquals(3, collection.size());
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCreateLazyCollectionGivenSet() {
+		factory.createLazyCollection(Set.class, Runnable.class, 3, new DefaultMockStrategy());
+	}
+
 	private <T extends Collection<Object>> Collection<Object> shouldCreateCollection(Class<T> clazz) {
 		return shouldCreateCollection(clazz, null);
 	}
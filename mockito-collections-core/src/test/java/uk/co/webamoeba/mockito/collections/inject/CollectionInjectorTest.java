@@ -22,12 +22,12 @@ import java.util.Vector;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
+import uk.co.webamoeba.mockito.collections.util.AnnotatedFieldRetriever;
 import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
 import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 
@@ -38,7 +38,6 @@ import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 @SuppressWarnings({ "unchecked", "rawtypes" })
 public class CollectionInjectorTest {
 
-	@InjectMocks
 	private CollectionInjector injector;
 
 	@Mock
@@ -52,13 +51,16 @@ public class CollectionInjectorTest {
 
 	@Before
 	public void setup() {
+		injector = new CollectionInjector(collectionFactory, strategy, new InjectionPlanCache(new InjectionPlanFactory(
+				new AnnotatedFieldRetriever(), genericCollectionTypeResolver)));
+
 		// Workaround so as we can mock this correctly in tests, without this will throw ClassCastException when
 		// specifying willReturn (unless returning a LinkedList or parent type) because the default Mockito answer
 		// returns an empty LinkedList. Would be nicer if there were an Answers type that always returned null.
 		given(collectionFactory.createCollection(any(Class.class), any(OrderedSet.class))).willReturn(null);
 
 		// strategy.selectMocks must always return an OrderedSet, i.e. it must never return null
-		given(strategy.selectMocks(any(OrderedSet.class), any(Class.class))).willAnswer(withNewOrderedSet());
+		given(strategy.selectMocks(any(MockRegistry.class), any(Class.class))).willAnswer(withNewOrderedSet());
 	}
 
 	@Test
@@ -90,7 +92,7 @@ public class CollectionInjectorTest {
 		Field field = getField("listeners", injectCollections);
 		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn((Class) EventListener.class);
 
-		given(strategy.selectMocks(any(OrderedSet.class), any(Class.class))).willReturn(new OrderedSet());
+		given(strategy.selectMocks(any(MockRegistry.class), any(Class.class))).willReturn(new OrderedSet());
 
 		// When
 		injector.inject(injectionDetails);
@@ -111,7 +113,7 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListener> stragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListener> clazz = EventListener.class;
-		given(strategy.selectMocks(mocks, clazz)).willReturn(stragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), clazz)).willReturn(stragtegyInjectables);
 
 		Collection<Object> set = mock(Collection.class);
 		given(collectionFactory.createCollection(Collection.class, stragtegyInjectables)).willReturn(set);
@@ -138,7 +140,7 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListener> stragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListener> clazz = EventListener.class;
-		given(strategy.selectMocks(mocks, clazz)).willReturn(stragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), clazz)).willReturn(stragtegyInjectables);
 
 		Collection<Object> collection = mock(Collection.class);
 		given(collectionFactory.createCollection(Collection.class, stragtegyInjectables)).willReturn(collection);
@@ -163,7 +165,7 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListener> stragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListener> clazz = EventListener.class;
-		given(strategy.selectMocks(mocks, clazz)).willReturn(stragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), clazz)).willReturn(stragtegyInjectables);
 
 		Set<Object> set = mock(Set.class);
 		given(collectionFactory.createCollection(Set.class, stragtegyInjectables)).willReturn(set);
@@ -188,7 +190,7 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListener> stragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListener> clazz = EventListener.class;
-		given(strategy.selectMocks(mocks, clazz)).willReturn(stragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), clazz)).willReturn(stragtegyInjectables);
 
 		Vector<Object> vector = mock(Vector.class);
 		given(collectionFactory.createCollection(Vector.class, stragtegyInjectables)).willReturn(vector);
@@ -213,7 +215,8 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListener> stragtegyInjectables = mock(OrderedSet.class);
 		EventListener[] eventListeners = { mock(EventListener.class) };
-		given(strategy.selectMocks(mocks, EventListener.class)).willReturn(stragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), EventListener.class)).willReturn(
+				stragtegyInjectables);
 		given(stragtegyInjectables.toArray()).willReturn(eventListeners);
 
 		// When
@@ -254,6 +257,34 @@ public class CollectionInjectorTest {
 		assertFalse(eventListeners == injectCollections.listeners);
 	}
 
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldInjectLazyCollectionOfMocksWithoutCreatingMocks() throws NoSuchFieldException {
+		// Given
+		ClassWithPrivateEventListenerCollection injectCollections = new ClassWithPrivateEventListenerCollection();
+		CollectionOfMocksFieldSet collectionOfMocksFieldSet = mock(CollectionOfMocksFieldSet.class);
+		InjectionDetails injectionDetails = new InjectionDetails(Collections.<Object> singleton(injectCollections),
+				new OrderedSet<Object>(), collectionOfMocksFieldSet);
+
+		Class<EventListener> clazz = EventListener.class;
+		CollectionOfMocksField collectionOfMocksField = mock(CollectionOfMocksField.class);
+		LazyCollectionOfMocks<EventListener> eventListeners = new LazyCollectionOfMocks<EventListener>(clazz, 100,
+				new DefaultMockStrategy());
+		given(collectionOfMocksField.getValue()).willReturn(eventListeners);
+		given(strategy.getCollectionOfMocksField(collectionOfMocksFieldSet, Collection.class, clazz)).willReturn(
+				collectionOfMocksField);
+
+		Field field = getField("listeners", injectCollections);
+		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn((Class) clazz);
+
+		// When
+		injector.inject(injectionDetails);
+
+		// Then
+		assertSame(eventListeners, injectCollections.listeners);
+		assertFalse(eventListeners.isCreated(0));
+	}
+
 	@Test
 	public void shouldInjectIntoExtendedClassWithInheritedCollection() throws Exception {
 		// Given
@@ -264,7 +295,7 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListener> stragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListener> clazz = EventListener.class;
-		given(strategy.selectMocks(mocks, clazz)).willReturn(stragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), clazz)).willReturn(stragtegyInjectables);
 		Collection<Object> collection = mock(Collection.class);
 		given(collectionFactory.createCollection(Collection.class, stragtegyInjectables)).willReturn(collection);
 		Field field = getField("listeners", ClassWithPrivateEventListenerCollection.class);
@@ -272,7 +303,8 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListenerProxy> eventListenerProxyStragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListenerProxy> childClazz = EventListenerProxy.class;
-		given(strategy.selectMocks(mocks, childClazz)).willReturn(eventListenerProxyStragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), childClazz)).willReturn(
+				eventListenerProxyStragtegyInjectables);
 		Collection<Object> childCollection = mock(Collection.class);
 		given(collectionFactory.createCollection(Collection.class, eventListenerProxyStragtegyInjectables)).willReturn(
 				childCollection);
@@ -297,7 +329,8 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListener> eventListenerStragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListener> clazz = EventListener.class;
-		given(strategy.selectMocks(mocks, clazz)).willReturn(eventListenerStragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), clazz)).willReturn(
+				eventListenerStragtegyInjectables);
 		Collection<Object> collection = mock(Collection.class);
 		given(collectionFactory.createCollection(Collection.class, eventListenerStragtegyInjectables)).willReturn(
 				collection);
@@ -306,7 +339,8 @@ public class CollectionInjectorTest {
 
 		OrderedSet<EventListenerProxy> eventListenerProxyStragtegyInjectables = mock(OrderedSet.class);
 		Class<EventListenerProxy> childClazz = EventListenerProxy.class;
-		given(strategy.selectMocks(mocks, childClazz)).willReturn(eventListenerProxyStragtegyInjectables);
+		given(strategy.selectMocks(injectionDetails.getMockRegistry(), childClazz)).willReturn(
+				eventListenerProxyStragtegyInjectables);
 		Collection<Object> childCollection = mock(Collection.class);
 		given(collectionFactory.createCollection(Collection.class, eventListenerProxyStragtegyInjectables)).willReturn(
 				childCollection);
@@ -1,26 +1,31 @@
 package uk.co.webamoeba.mockito.collections.inject;
 
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
-import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.mock;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
 /**
  * @author James Kennard
  */
+@SuppressWarnings({ "unchecked", "rawtypes" })
 public class CollectionOfMocksFieldSetTest {
 
 	@Test
-	@SuppressWarnings("rawtypes")
 	public void shouldConstructGivenVarArg() {
 		// Given
-		CollectionOfMocksField mocksField1 = mock(CollectionOfMocksField.class);
+		CollectionOfMocksField mocksField1 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
 
 		// When
 		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(mocksField1);
@@ -31,10 +36,10 @@ public class CollectionOfMocksFieldSetTest {
 	}
 
 	@Test
-	@SuppressWarnings("rawtypes")
 	public void shouldConstructGivenCollection() {
 		// Given
-		CollectionOfMocksField mocksField1 = mock(CollectionOfMocksField.class);
+		CollectionOfMocksField mocksField1 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
 		Collection<CollectionOfMocksField> collection = Collections.singleton(mocksField1);
 
 		// When
@@ -46,13 +51,12 @@ public class CollectionOfMocksFieldSetTest {
 	}
 
 	@Test
-	@SuppressWarnings("rawtypes")
 	public void shouldFailToConstructGivenMatchingMockCollections() {
 		// Given
-		CollectionOfMocksField mocksField1 = mock(CollectionOfMocksField.class);
-		CollectionOfMocksField mocksField2 = mock(CollectionOfMocksField.class);
-		given(mocksField1.matches(mocksField2)).willReturn(true);
-		given(mocksField2.matches(mocksField1)).willReturn(true);
+		CollectionOfMocksField mocksField1 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
+		CollectionOfMocksField mocksField2 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
 		Collection<CollectionOfMocksField> collection = Arrays.asList(mocksField1, mocksField2);
 
 		try {
@@ -67,13 +71,12 @@ public class CollectionOfMocksFieldSetTest {
 	}
 
 	@Test
-	@SuppressWarnings("rawtypes")
 	public void shouldConstructGivenNonMatchingMockCollections() {
 		// Given
-		CollectionOfMocksField mocksField1 = mock(CollectionOfMocksField.class);
-		CollectionOfMocksField mocksField2 = mock(CollectionOfMocksField.class);
-		given(mocksField1.matches(mocksField2)).willReturn(false);
-		given(mocksField2.matches(mocksField1)).willReturn(false);
+		CollectionOfMocksField mocksField1 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
+		CollectionOfMocksField mocksField2 = new CollectionOfMocksField(Collections.emptyList(), List.class,
+				InputStream.class);
 		Collection<CollectionOfMocksField> collection = Arrays.asList(mocksField1, mocksField2);
 
 		// When
@@ -86,13 +89,12 @@ public class CollectionOfMocksFieldSetTest {
 	}
 
 	@Test
-	@SuppressWarnings("rawtypes")
 	public void shouldAddNonMatchingMockCollection() {
 		// Given
-		CollectionOfMocksField mocksField1 = mock(CollectionOfMocksField.class);
-		CollectionOfMocksField mocksField2 = mock(CollectionOfMocksField.class);
-		given(mocksField1.matches(mocksField2)).willReturn(false);
-		given(mocksField2.matches(mocksField1)).willReturn(false);
+		CollectionOfMocksField mocksField1 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
+		CollectionOfMocksField mocksField2 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				OutputStream.class);
 		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(mocksField1);
 
 		// When
@@ -105,13 +107,12 @@ public class CollectionOfMocksFieldSetTest {
 	}
 
 	@Test
-	@SuppressWarnings("rawtypes")
 	public void shouldFailToAddMatchingMockCollection() {
 		// Given
-		CollectionOfMocksField mocksField1 = mock(CollectionOfMocksField.class);
-		CollectionOfMocksField mocksField2 = mock(CollectionOfMocksField.class);
-		given(mocksField1.matches(mocksField2)).willReturn(true);
-		given(mocksField2.matches(mocksField1)).willReturn(true);
+		CollectionOfMocksField mocksField1 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
+		CollectionOfMocksField mocksField2 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
 		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(mocksField1);
 
 		try {
@@ -124,4 +125,33 @@ public class CollectionOfMocksFieldSetTest {
 			assertTrue(e.getMessage().contains("more than one"));
 		}
 	}
+
+	@Test
+	public void shouldGet() {
+		// Given
+		CollectionOfMocksField mocksField1 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				InputStream.class);
+		CollectionOfMocksField mocksField2 = new CollectionOfMocksField(Collections.emptySet(), Set.class,
+				OutputStream.class);
+		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(mocksField1, mocksField2);
+
+		// When
+		CollectionOfMocksField actual = set.get(Set.class, OutputStream.class);
+
+		// Then
+		assertSame(mocksField2, actual);
+	}
+
+	@Test
+	public void shouldGetGivenNoMatchingMockCollection() {
+		// Given
+		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(new CollectionOfMocksField(
+				Collections.emptySet(), Set.class, InputStream.class));
+
+		// When
+		CollectionOfMocksField actual = set.get(Collection.class, InputStream.class);
+
+		// Then
+		assertNull(actual);
+	}
 }
@@ -1,19 +1,18 @@
 package uk.co.webamoeba.mockito.collections.inject;
 
 import static org.junit.Assert.assertSame;
-import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
-import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EventListener;
-import java.util.Iterator;
-import java.util.Set;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -21,9 +20,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
-import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
-import uk.co.webamoeba.mockito.collections.util.AnnotatedFieldRetriever;
-import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
 import uk.co.webamoeba.mockito.collections.util.OrderedSet;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -33,37 +30,35 @@ public class CollectionOfMocksInitialiserTest {
 	private CollectionOfMocksInitialiser initialiser;
 
 	@Mock
-	private AnnotatedFieldRetriever annotatedFieldRetriever;
+	private CollectionFactory collectionFactory;
 
 	@Mock
-	private GenericCollectionTypeResolver genericCollectionTypeResolver;
-
-	@Mock
-	private CollectionFactory collectionFactory;
+	private MockStrategySelector mockStrategySelector;
 
 	@Mock
 	private MockStrategy mockStrategy;
 
+	@Before
+	public void setup() {
+		given(mockStrategySelector.getMockStrategy(MockType.DEFAULT, -1)).willReturn(mockStrategy);
+	}
+
 	@Test
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public void shouldInitialise() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field field = getField(object.getClass(), "collection");
-		Set<Field> fields = Collections.singleton(field);
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), CollectionOfMocks.class))
-				.willReturn(fields);
-		Class collectionType = EventListener.class;
-		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+		InjectionPlan injectionPlan = createInjectionPlan(getField(object.getClass(), "collection"), 1);
 		EventListener mockEventListener = mock(EventListener.class);
-		given(mockStrategy.createMock(EventListener.class)).willReturn(mockEventListener);
+		given(mockStrategy.createMocks(EventListener.class, 1)).willReturn(
+				new OrderedSet<EventListener>(Collections.singleton(mockEventListener)));
 		Collection collection = mock(Collection.class);
 		given(
 				collectionFactory.createCollection(eq(Collection.class),
 						eq(new OrderedSet(Collections.singleton(mockEventListener))))).willReturn(collection);
 
 		// When
-		initialiser.initialise(object);
+		initialiser.initialise(object, injectionPlan);
 
 		// Then
 		assertSame(collection, object.collection);
@@ -74,17 +69,13 @@ public class CollectionOfMocksInitialiserTest {
 	public void shouldInitialiseGivenAnnotationWithZeroMocks() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field field = getField(object.getClass(), "collectionWithZeroMocks");
-		Set<Field> fields = Collections.singleton(field);
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), CollectionOfMocks.class))
-				.willReturn(fields);
-		Class collectionType = EventListener.class;
-		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+		InjectionPlan injectionPlan = createInjectionPlan(getField(object.getClass(), "collectionWithZeroMocks"), 0);
+		given(mockStrategy.createMocks(EventListener.class, 0)).willReturn(new OrderedSet<EventListener>());
 		Collection collection = mock(Collection.class);
 		given(collectionFactory.createCollection(Collection.class, new OrderedSet())).willReturn(collection);
 
 		// When
-		initialiser.initialise(object);
+		initialiser.initialise(object, injectionPlan);
 
 		// Then
 		assertSame(collection, object.collectionWithZeroMocks);
@@ -92,85 +83,51 @@ public class CollectionOfMocksInitialiserTest {
 
 	@Test
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public void shouldFailToInitialiseGivenAnnotationWithNegativeNumberOfMocks() {
+	public void shouldInitialiseGivenLazy() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field field = getField(object.getClass(), "collectionWithNegativeNumberOfMocks");
-		Set<Field> fields = Collections.singleton(field);
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), CollectionOfMocks.class))
-				.willReturn(fields);
-		Class collectionType = EventListener.class;
-		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+		Field field = getField(object.getClass(), "lazyCollection");
+		Class typeOfCollection = Collection.class;
+		Class typeOfElements = EventListener.class;
+		CollectionOfMocksDefinition definition = new CollectionOfMocksDefinition(field, typeOfCollection,
+				typeOfElements, new CollectionOfMocksSettings(1000, MockType.DEFAULT, -1, true));
+		InjectionPlan injectionPlan = new InjectionPlan(field.getDeclaringClass(), Collections.singleton(definition),
+				Collections.<Field> emptySet(), Collections.<Field> emptySet());
+		Collection collection = mock(Collection.class);
+		given(collectionFactory.createLazyCollection(Collection.class, EventListener.class, 1000, mockStrategy))
+				.willReturn(collection);
 
 		// When
-		MockitoCollectionsException exception = initialiseAndMockitoCollectionsExceptionThrown(object);
+		initialiser.initialise(object, injectionPlan);
 
 		// Then
-		assertTrue(exception.getMessage().contains("Unexpected numberOfMocks"));
+		assertSame(collection, object.lazyCollection);
+		verify(mockStrategy, never()).createMocks(EventListener.class, 1000);
 	}
 
 	@Test
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public void shouldFailToInitialiseGivenAnnotatedFieldNotCollection() {
+	public void shouldInitialiseGivenNoCollectionOfMocks() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field field = getField(object.getClass(), "notCollection");
-		Set<Field> fields = Collections.singleton(field);
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), CollectionOfMocks.class))
-				.willReturn(fields);
-		Class collectionType = EventListener.class;
-		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+		InjectionPlan injectionPlan = new InjectionPlan(object.getClass(),
+				Collections.<CollectionOfMocksDefinition> emptySet(), Collections.<Field> emptySet(),
+				Collections.<Field> emptySet());
 
 		// When
-		MockitoCollectionsException exception = initialiseAndMockitoCollectionsExceptionThrown(object);
+		initialiser.initialise(object, injectionPlan);
 
 		// Then
-		assertTrue(exception.getMessage().contains("must be a Collection"));
+		assertSame(null, object.collection);
 	}
 
-	@Test
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public void shouldFailToInitialiseGivenAnnotatedFieldNotCollectionButIsParameterizedType() {
-		// Given
-		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field field = getField(object.getClass(), "notCollectionButIsParameterizedType");
-		Set<Field> fields = Collections.singleton(field);
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), CollectionOfMocks.class))
-				.willReturn(fields);
-		Class collectionType = EventListener.class;
-		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
-
-		// When
-		MockitoCollectionsException exception = initialiseAndMockitoCollectionsExceptionThrown(object);
-
-		// Then
-		assertTrue(exception.getMessage().contains("must be a Collection"));
-	}
-
-	@Test
-	public void shouldFailToInitialiseGivenAnnotatedFieldIsCollectionButHasNoGenerics() {
-		// Given
-		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field field = getField(object.getClass(), "collectionButHasNoGenerics");
-		Set<Field> fields = Collections.singleton(field);
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), CollectionOfMocks.class))
-				.willReturn(fields);
-		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(null);
-
-		// When
-		MockitoCollectionsException exception = initialiseAndMockitoCollectionsExceptionThrown(object);
-
-		// Then
-		assertTrue(exception.getMessage().contains("must be a Collection with Generics"));
-	}
-
-	private MockitoCollectionsException initialiseAndMockitoCollectionsExceptionThrown(Object object) {
-		try {
-			initialiser.initialise(object);
-		} catch (MockitoCollectionsException e) {
-			return e;
-		}
-		return null;
+	private InjectionPlan createInjectionPlan(Field field, int numberOfMocks) {
+		Class typeOfCollection = Collection.class;
+		Class typeOfElements = EventListener.class;
+		CollectionOfMocksDefinition definition = new CollectionOfMocksDefinition(field, typeOfCollection,
+				typeOfElements, new CollectionOfMocksSettings(numberOfMocks, MockType.DEFAULT, -1, false));
+		return new InjectionPlan(field.getDeclaringClass(), Collections.singleton(definition),
+				Collections.<Field> emptySet(), Collections.<Field> emptySet());
 	}
 
 	private Field getField(Class<?> clazz, String name) {
@@ -183,7 +140,6 @@ public class CollectionOfMocksInitialiserTest {
 		return field;
 	}
 
-	@SuppressWarnings("unused")
 	private class ClassWithAnnnotations {
 
 		@CollectionOfMocks
@@ -192,17 +148,7 @@ public class CollectionOfMocksInitialiserTest {
 		@CollectionOfMocks(numberOfMocks = 0)
 		private Collection<EventListener> collectionWithZeroMocks;
 
-		@CollectionOfMocks
-		@SuppressWarnings("rawtypes")
-		private Collection collectionButHasNoGenerics;
-
-		@CollectionOfMocks
-		private InputStream notCollection;
-
-		@CollectionOfMocks
-		private Iterator<String> notCollectionButIsParameterizedType;
-
-		@CollectionOfMocks(numberOfMocks = -1)
-		private Collection<EventListener> collectionWithNegativeNumberOfMocks;
+		@CollectionOfMocks(numberOfMocks = 1000, lazy = true)
+		private Collection<EventListener> lazyCollection;
 	}
 }
@@ -0,0 +1,166 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.co.webamoeba.mockito.collections.internal.RegisteredInvocationsAccessor.getRegisteredInvocations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EventListener;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.exceptions.verification.NoInteractionsWanted;
+import org.mockito.internal.util.MockUtil;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * @author James Kennard
+ */
+public class ConcurrentMockStrategyTest {
+
+	private ConcurrentMockStrategy strategy = new ConcurrentMockStrategy(new DefaultMockStrategy());
+
+	private MockUtil mockUtil = new MockUtil();
+
+	@Test
+	public void shouldCreateMock() {
+		// When
+		EventListener mock = strategy.createMock(EventListener.class);
+
+		// Then
+		assertTrue(mockUtil.isMock(mock));
+		assertSame(StripedRegisteredInvocations.class, getRegisteredInvocations(mock).getClass());
+	}
+
+	@Test
+	public void shouldCreateMocks() {
+		// When
+		OrderedSet<EventListener> mocks = strategy.createMocks(EventListener.class, 3);
+
+		// Then
+		assertEquals(3, mocks.size());
+		for (EventListener mock : mocks) {
+			assertSame(StripedRegisteredInvocations.class, getRegisteredInvocations(mock).getClass());
+		}
+	}
+
+	@Test
+	public void shouldCreateProxyMocks() {
+		// Given
+		ConcurrentMockStrategy strategy = new ConcurrentMockStrategy(new ProxyMockStrategy(new DefaultMockStrategy()));
+
+		// When
+		EventListener mock = strategy.createMock(EventListener.class);
+
+		// Then
+		assertSame(StripedRegisteredInvocations.class, getRegisteredInvocations(mock).getClass());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldStubAndVerifyMock() {
+		// Given
+		Comparator<String> mock = strategy.createMock(Comparator.class);
+		given(mock.compare("a", "b")).willReturn(-1);
+
+		// When
+		int result = mock.compare("a", "b");
+		mock.compare("b", "c");
+
+		// Then
+		assertEquals(-1, result);
+		InOrder inOrder = Mockito.inOrder(mock);
+		inOrder.verify(mock).compare("a", "b");
+		inOrder.verify(mock).compare("b", "c");
+		verifyNoMoreInteractions(mock);
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectivelyVerifyMocksInvokedByManyThreads() throws InterruptedException {
+		// Given
+		final OrderedSet<Comparator> mocks = strategy.createMocks(Comparator.class, 4);
+		int numberOfThreads = 32;
+		final int invocationsPerThread = 100;
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			threads.add(new Thread() {
+
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < invocationsPerThread; j++) {
+						for (Comparator mock : mocks) {
+							mock.compare("a", "b");
+						}
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+
+		// When
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// Then
+		MockitoCollections.collectiveVerify(Comparator.class, mocks, times(numberOfThreads * invocationsPerThread))
+				.compare("a", "b");
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+	}
+
+	@Test(expected = NoInteractionsWanted.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectivelyVerifyNoMoreInteractions() {
+		// Given
+		OrderedSet<Comparator> mocks = strategy.createMocks(Comparator.class, 2);
+		mocks.iterator().next().compare("a", "b");
+
+		// When
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+
+		// Then
+		// Exception Thrown
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldVerifyMockAfterReset() {
+		// Given
+		Comparator<String> mock = strategy.createMock(Comparator.class);
+		mock.compare("a", "b");
+
+		// When
+		Mockito.reset(mock);
+		mock.compare("b", "c");
+
+		// Then
+		verify(mock).compare("b", "c");
+		verifyNoMoreInteractions(mock);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToConstructGivenNoStripes() {
+		new ConcurrentMockStrategy(new DefaultMockStrategy(), 0);
+	}
+}
@@ -4,7 +4,6 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 import java.io.FileInputStream;
@@ -15,7 +14,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EventListener;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -40,7 +38,7 @@ public class DefaultMockSelectionStrategyTest {
 		OrderedSet<Object> mocks = new OrderedSet<Object>(Arrays.<Object> asList(mock1, mock2, mock3));
 
 		// When
-		OrderedSet<InputStream> actualMocks = strategy.selectMocks(mocks, InputStream.class);
+		OrderedSet<InputStream> actualMocks = strategy.selectMocks(new MockRegistry(mocks), InputStream.class);
 
 		// Then
 		assertTrue(actualMocks.equals(new OrderedSet<InputStream>(Arrays.<InputStream> asList(mock1, mock3))));
@@ -54,7 +52,8 @@ public class DefaultMockSelectionStrategyTest {
 		OrderedSet<Object> mocks = new OrderedSet<Object>(Arrays.asList(mock1, mock2));
 
 		// When
-		OrderedSet<FileOutputStream> actualMocks = strategy.selectMocks(mocks, FileOutputStream.class);
+		OrderedSet<FileOutputStream> actualMocks = strategy.selectMocks(new MockRegistry(mocks),
+				FileOutputStream.class);
 
 		// Then
 		assertTrue(actualMocks.isEmpty());
@@ -68,10 +67,7 @@ public class DefaultMockSelectionStrategyTest {
 				InputStream.class);
 		CollectionOfMocksField mockCollection2 = new CollectionOfMocksField(mock(TreeSet.class), TreeSet.class,
 				InputStream.class);
-		Set<CollectionOfMocksField<Collection<Object>, Object>> mockCollections = new HashSet<CollectionOfMocksField<Collection<Object>, Object>>(
-				Arrays.<CollectionOfMocksField<Collection<Object>, Object>> asList(mockCollection1, mockCollection2));
-		CollectionOfMocksFieldSet set = mock(CollectionOfMocksFieldSet.class);
-		given(set.iterator()).willReturn(mockCollections.iterator());
+		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(mockCollection1, mockCollection2);
 
 		Class<Set> typeOfCollection = Set.class;
 		Class<InputStream> typeOfElements = InputStream.class;
@@ -92,10 +88,7 @@ public class DefaultMockSelectionStrategyTest {
 				FileOutputStream.class);
 		CollectionOfMocksField mockCollection2 = new CollectionOfMocksField(Collections.emptyList(), List.class,
 				OutputStream.class);
-		Set<CollectionOfMocksField<Collection<Object>, Object>> mockCollections = new HashSet<CollectionOfMocksField<Collection<Object>, Object>>(
-				Arrays.<CollectionOfMocksField<Collection<Object>, Object>> asList(mockCollection1, mockCollection2));
-		CollectionOfMocksFieldSet set = mock(CollectionOfMocksFieldSet.class);
-		given(set.iterator()).willReturn(mockCollections.iterator());
+		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(mockCollection1, mockCollection2);
 
 		Class<List> typeOfCollection = List.class;
 		Class<OutputStream> typeOfElements = OutputStream.class;
@@ -114,10 +107,7 @@ public class DefaultMockSelectionStrategyTest {
 		// Given
 		CollectionOfMocksField collectionOfMocksField = new CollectionOfMocksField(Collections.emptyList(), List.class,
 				FileOutputStream.class);
-		Set<CollectionOfMocksField<Collection<Object>, Object>> mockCollections = Collections
-				.<CollectionOfMocksField<Collection<Object>, Object>> singleton(collectionOfMocksField);
-		CollectionOfMocksFieldSet set = mock(CollectionOfMocksFieldSet.class);
-		given(set.iterator()).willReturn(mockCollections.iterator());
+		CollectionOfMocksFieldSet set = new CollectionOfMocksFieldSet(collectionOfMocksField);
 		Class<Collection> typeOfCollection = Collection.class;
 		Class<EventListener> typeOfElements = EventListener.class;
 
@@ -177,28 +167,6 @@ public class DefaultMockSelectionStrategyTest {
 		assertEquals("typeOfElements must not be null", exception.getMessage());
 	}
 
-	@Test
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public void shouldFailToGetMockCollectionGivenMoreThanOneMatchingField() {
-		Class<Set> typeOfCollection = Set.class;
-		Class<InputStream> typeOfElements = InputStream.class;
-		CollectionOfMocksField mockCollection1 = new CollectionOfMocksField(Collections.emptySet(), typeOfCollection,
-				typeOfElements);
-		CollectionOfMocksField mockCollection2 = new CollectionOfMocksField(Collections.emptySet(), typeOfCollection,
-				typeOfElements);
-		Set<CollectionOfMocksField<Collection<Object>, Object>> mockCollections = new HashSet<CollectionOfMocksField<Collection<Object>, Object>>(
-				Arrays.<CollectionOfMocksField<Collection<Object>, Object>> asList(mockCollection1, mockCollection2));
-		CollectionOfMocksFieldSet set = mock(CollectionOfMocksFieldSet.class);
-		given(set.iterator()).willReturn(mockCollections.iterator());
-
-		// When
-		IllegalArgumentException exception = getCollectionOfMocksFieldAndIllegalArgumentExceptionThrown(set,
-				typeOfCollection, typeOfElements);
-
-		// Then
-		assertTrue(exception.getMessage().contains("There is more than one"));
-	}
-
 	private <C extends Collection<E>, E> IllegalArgumentException getCollectionOfMocksFieldAndIllegalArgumentExceptionThrown(
 			CollectionOfMocksFieldSet set, Class<C> typeOfCollection, Class<E> typeOfElements) {
 		try {
@@ -1,8 +1,16 @@
 package uk.co.webamoeba.mockito.collections.inject;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Dictionary;
+import java.util.EventListener;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -10,6 +18,8 @@ import org.mockito.InjectMocks;
 import org.mockito.internal.util.MockUtil;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
 /**
  * @author James Kennard
  */
@@ -33,4 +43,69 @@ public class DefaultMockStrategyTest {
 		// Then
 		assertTrue(mockUtil.isMock(mock));
 	}
+
+	@Test
+	public void shouldCreateMocks() {
+		// When
+		OrderedSet<EventListener> mocks = strategy.createMocks(EventListener.class, 3);
+
+		// Then
+		assertEquals(3, mocks.size());
+		assertMocks(mocks);
+	}
+
+	@Test
+	public void shouldCreateMocksGivenZeroMocks() {
+		// When
+		OrderedSet<EventListener> mocks = strategy.createMocks(EventListener.class, 0);
+
+		// Then
+		assertTrue(mocks.isEmpty());
+	}
+
+	@Test
+	public void shouldCreateMocksConcurrently() {
+		// Given
+		DefaultMockStrategy concurrentStrategy = new DefaultMockStrategy(2, 4);
+
+		// When
+		OrderedSet<EventListener> mocks = concurrentStrategy.createMocks(EventListener.class, 101);
+
+		// Then
+		assertEquals(101, mocks.size());
+		assertMocks(mocks);
+	}
+
+	@Test
+	public void shouldCreateMocksConcurrentlyInPartitionOrder() {
+		// Given
+		final Map<Object, String> threadNames = Collections.synchronizedMap(new IdentityHashMap<Object, String>());
+		DefaultMockStrategy concurrentStrategy = new DefaultMockStrategy(2, 3) {
+
+			@Override
+			public <T> T createMock(Class<T> clazz) {
+				T mock = super.createMock(clazz);
+				threadNames.put(mock, Thread.currentThread().getName());
+				return mock;
+			}
+		};
+
+		// When
+		OrderedSet<EventListener> mocks = concurrentStrategy.createMocks(EventListener.class, 10);
+
+		// Then
+		List<String> actualThreadNames = new ArrayList<String>();
+		for (EventListener mock : mocks) {
+			actualThreadNames.add(threadNames.get(mock));
+		}
+		String thread = "mockito-collections-mock-creation-";
+		assertEquals(Arrays.asList(Thread.currentThread().getName(), thread + 1, thread + 1, thread + 1, thread + 2,
+				thread + 2, thread + 2, thread + 3, thread + 3, thread + 3), actualThreadNames);
+	}
+
+	private void assertMocks(OrderedSet<EventListener> mocks) {
+		for (EventListener mock : mocks) {
+			assertTrue(mockUtil.isMock(mock));
+		}
+	}
 }
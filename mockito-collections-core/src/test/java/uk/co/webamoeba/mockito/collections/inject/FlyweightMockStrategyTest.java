@@ -0,0 +1,318 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.when;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.collectiveTimeout;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.inCollectionOrder;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.totalTimes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.exceptions.verification.NoInteractionsWanted;
+import org.mockito.exceptions.verification.TooLittleActualInvocations;
+import org.mockito.internal.util.MockUtil;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.await.InvocationLatch;
+import uk.co.webamoeba.mockito.collections.exception.CollectiveVerificationError;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.internal.FlyweightMocks;
+import uk.co.webamoeba.mockito.collections.stubbing.IndexedAnswer;
+
+/**
+ * @author James Kennard
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class FlyweightMockStrategyTest {
+
+	private FlyweightMockStrategy strategy = new FlyweightMockStrategy(new DefaultMockStrategy());
+
+	private MockUtil mockUtil = new MockUtil();
+
+	@Test
+	public void shouldCreateMocks() {
+		// When
+		List<Comparator> mocks = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 3));
+
+		// Then
+		assertEquals(3, mocks.size());
+		FlyweightMocks flyweightMocks = FlyweightMocks.getFlyweightMocks(mocks.get(0));
+		int index = 0;
+		for (Comparator mock : mocks) {
+			assertFalse(mockUtil.isMock(mock));
+			assertSame(flyweightMocks, FlyweightMocks.getFlyweightMocks(mock));
+			assertEquals(index, FlyweightMocks.getIndex(mock));
+			assertEquals("comparator[" + index + "]", mock.toString());
+			index++;
+		}
+		assertFalse(mocks.get(0).equals(mocks.get(1)));
+	}
+
+	@Test
+	public void shouldCreateMockGivenClass() {
+		// When
+		ArrayList mock = strategy.createMock(ArrayList.class);
+
+		// Then
+		assertTrue(mockUtil.isMock(mock));
+		assertNull(FlyweightMocks.getFlyweightMocks(mock));
+	}
+
+	@Test
+	public void shouldAnswerWithDefaults() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 2));
+
+		// When
+		int size = mocks.get(0).size();
+		Object element = mocks.get(1).get(0);
+
+		// Then
+		assertEquals(0, size);
+		assertNull(element);
+	}
+
+	@Test
+	public void shouldStubAllMocksOnce() {
+		// Given
+		List<Comparator> mocks = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 3));
+		Answer<Integer> answer = new Answer<Integer>() {
+
+			public Integer answer(InvocationOnMock invocation) {
+				return 7;
+			}
+		};
+
+		// When
+		MockitoCollections.collectiveWhen(Comparator.class, mocks, answer).compare(eq("a"), any());
+
+		// Then
+		for (Comparator mock : mocks) {
+			assertEquals(7, mock.compare("a", "b"));
+			assertEquals(0, mock.compare("b", "b"));
+		}
+	}
+
+	@Test
+	public void shouldStubAllMocksGivenIndexedAnswer() {
+		// Given
+		List<Comparator> mocks = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 3));
+		IndexedAnswer<Integer> answer = new IndexedAnswer<Integer>() {
+
+			public Integer answer(int index, InvocationOnMock invocation) {
+				return index * 10;
+			}
+		};
+
+		// When
+		MockitoCollections.collectiveWhen(Comparator.class, mocks, answer).compare(any(), any());
+
+		// Then
+		assertEquals(0, mocks.get(0).compare("a", "b"));
+		assertEquals(10, mocks.get(1).compare("a", "b"));
+		assertEquals(20, mocks.get(2).compare("a", "b"));
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToStubGivenIndexedAnswerAndMocksOutOfOrder() {
+		// Given
+		List<Comparator> mocks = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 3));
+		List<Comparator> reversed = new ArrayList<Comparator>();
+		reversed.add(mocks.get(1));
+		reversed.add(mocks.get(0));
+		IndexedAnswer<Integer> answer = new IndexedAnswer<Integer>() {
+
+			public Integer answer(int index, InvocationOnMock invocation) {
+				return index;
+			}
+		};
+
+		// When
+		MockitoCollections.collectiveWhen(Comparator.class, reversed, answer).compare(any(), any());
+	}
+
+	@Test
+	public void shouldCollectiveVerify() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 3));
+
+		// When
+		for (List mock : mocks) {
+			mock.get(1);
+			mock.get(2);
+		}
+
+		// Then
+		MockitoCollections.collectiveVerify(List.class, mocks, times(2)).get(anyInt());
+		MockitoCollections.collectiveVerify(List.class, mocks, atLeast(1)).get(anyInt());
+		MockitoCollections.collectiveVerify(List.class, mocks, never()).clear();
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+	}
+
+	@Test(expected = TooLittleActualInvocations.class)
+	public void shouldFailToCollectiveVerifyGivenTooFewInvocations() {
+		// Given
+		List<Comparator> mocks = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 1));
+		mocks.get(0).compare("a", "b");
+
+		// When
+		MockitoCollections.collectiveVerify(Comparator.class, mocks, times(2)).compare(any(), any());
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCollectiveVerifyGivenSpecificArguments() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 1));
+		mocks.get(0).get(1);
+
+		// When
+		MockitoCollections.collectiveVerify(List.class, mocks, times(1)).get(1);
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCollectiveVerifyGivenTimeout() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 1));
+		mocks.get(0).get(1);
+
+		// When
+		MockitoCollections.collectiveVerify(List.class, mocks, timeout(10)).get(anyInt());
+	}
+
+	@Test
+	public void shouldCollectiveVerifyGivenCollectiveTimeout() throws InterruptedException {
+		// Given
+		final List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 3));
+		Thread thread = new Thread() {
+
+			@Override
+			public void run() {
+				for (List mock : mocks) {
+					mock.get(1);
+				}
+			}
+		};
+
+		// When
+		thread.start();
+		MockitoCollections.collectiveVerify(List.class, mocks, collectiveTimeout(1000)).get(anyInt());
+
+		// Then
+		thread.join();
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+	}
+
+	@Test(expected = CollectiveVerificationError.class)
+	public void shouldFailToCollectiveVerifyGivenCollectiveTimeoutAndTooFewInvocations() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 2));
+		mocks.get(0).get(1);
+
+		// When
+		MockitoCollections.collectiveVerify(List.class, mocks, collectiveTimeout(10)).get(anyInt());
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCollectiveVerifyGivenCollectiveVerificationMode() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 2));
+		mocks.get(0).get(1);
+
+		// When
+		MockitoCollections.collectiveVerify(List.class, mocks, totalTimes(1)).get(anyInt());
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCollectiveInOrder() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 2));
+		mocks.get(0).get(1);
+		mocks.get(1).get(1);
+
+		// When
+		MockitoCollections.collectiveInOrder(List.class, mocks, inCollectionOrder()).get(anyInt());
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCollectiveAwait() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 2));
+
+		// When
+		MockitoCollections.collectiveAwait(List.class, mocks, InvocationLatch.eachInvoked()).get(anyInt());
+	}
+
+	@Test
+	public void shouldAnswerWithMostRecentStub() {
+		// Given
+		List<Comparator> mocks = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 2));
+		Comparator prototype = (Comparator) FlyweightMocks.getFlyweightMocks(mocks.get(0)).getPrototype();
+		when(prototype.compare(any(), any())).thenReturn(1);
+		assertEquals(1, mocks.get(0).compare("a", "b"));
+
+		// When
+		when(prototype.compare(eq("a"), any())).thenReturn(2);
+
+		// Then
+		assertEquals(2, mocks.get(0).compare("a", "b"));
+		assertEquals(2, mocks.get(1).compare("a", "b"));
+		assertEquals(1, mocks.get(1).compare("b", "b"));
+	}
+
+	@Test
+	public void shouldFailToCollectiveVerifyNoMoreInteractionsGivenInvocationAfterVerification() {
+		// Given
+		List<List> mocks = new ArrayList<List>(strategy.createMocks(List.class, 2));
+		mocks.get(1).size();
+		MockitoCollections.collectiveVerify(List.class, mocks.subList(1, 2), times(1)).size();
+		mocks.get(1).size();
+
+		// When
+		try {
+			MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+		} catch (NoInteractionsWanted e) {
+			// Then
+			assertTrue(e.getMessage(), e.getMessage().contains("list[1]"));
+			return;
+		}
+		throw new AssertionError("Expected NoInteractionsWanted");
+	}
+
+	@Test
+	public void shouldShareStubsBetweenGroupsSeparately() {
+		// Given
+		List<Comparator> first = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 1));
+		List<Comparator> second = new ArrayList<Comparator>(strategy.createMocks(Comparator.class, 1));
+		Answer<Integer> answer = new Answer<Integer>() {
+
+			public Integer answer(InvocationOnMock invocation) {
+				return 1;
+			}
+		};
+
+		// When
+		MockitoCollections.collectiveWhen(Comparator.class, first, answer).compare(any(), any());
+
+		// Then
+		assertNotSame(FlyweightMocks.getFlyweightMocks(first.get(0)), FlyweightMocks.getFlyweightMocks(second.get(0)));
+		assertEquals(1, first.get(0).compare("a", "b"));
+		assertEquals(0, second.get(0).compare("a", "b"));
+	}
+}
@@ -0,0 +1,67 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GeneratedCollectionInjectorLocatorTest {
+
+	private final GeneratedCollectionInjectorLocator locator = new GeneratedCollectionInjectorLocator();
+
+	@Test
+	public void shouldGetGeneratedCollectionInjector() {
+		// When
+		GeneratedCollectionInjector injector = locator.getGeneratedCollectionInjector(Fixture.class);
+
+		// Then
+		assertTrue(injector instanceof Fixture$$CollectionInjector);
+	}
+
+	@Test
+	public void shouldGetSameGeneratedCollectionInjectorGivenRepeatedCalls() {
+		// Given
+		GeneratedCollectionInjector expected = locator.getGeneratedCollectionInjector(Fixture.class);
+
+		// When
+		GeneratedCollectionInjector actual = locator.getGeneratedCollectionInjector(Fixture.class);
+
+		// Then
+		assertSame(expected, actual);
+	}
+
+	@Test
+	public void shouldGetNullGivenNoGeneratedCollectionInjector() {
+		// When
+		GeneratedCollectionInjector injector = locator.getGeneratedCollectionInjector(FixtureWithoutInjector.class);
+
+		// Then
+		assertNull(injector);
+	}
+
+	@Test
+	public void shouldGetNullGivenClassFromBootstrapClassLoader() {
+		// When
+		GeneratedCollectionInjector injector = locator.getGeneratedCollectionInjector(String.class);
+
+		// Then
+		assertNull(injector);
+	}
+
+	public static class Fixture {
+	}
+
+	public static class Fixture$$CollectionInjector implements GeneratedCollectionInjector {
+
+		public boolean canInitialise(Object object) {
+			return true;
+		}
+
+		public void initialise(Object object, GeneratedCollectionInjectorSupport support) {
+		}
+	}
+
+	public static class FixtureWithoutInjector {
+	}
+}
@@ -0,0 +1,199 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EventListener;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.util.FieldAccessor;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GeneratedCollectionInjectorSupportTest {
+
+	@InjectMocks
+	private GeneratedCollectionInjectorSupport support;
+
+	@Mock
+	private CollectionFactory collectionFactory;
+
+	@Mock
+	private MockStrategySelector mockStrategySelector;
+
+	@Mock
+	private MockStrategy mockStrategy;
+
+	@Before
+	public void setup() {
+		given(mockStrategySelector.getMockStrategy(MockType.DEFAULT, -1)).willReturn(mockStrategy);
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void shouldCreateCollectionOfMocks() {
+		// Given
+		EventListener mock1 = mock(EventListener.class);
+		EventListener mock2 = mock(EventListener.class);
+		given(mockStrategy.createMocks(EventListener.class, 2)).willReturn(
+				new OrderedSet<EventListener>(Arrays.asList(mock1, mock2)));
+		List collection = mock(List.class);
+		given(collectionFactory.createCollection(eq(List.class), eq(new OrderedSet(Arrays.asList(mock1, mock2)))))
+				.willReturn(collection);
+
+		// When
+		Collection<Object> actual = support.createCollectionOfMocks(List.class, EventListener.class,
+				new CollectionOfMocksSettings(2, MockType.DEFAULT, -1, false));
+
+		// Then
+		assertSame(collection, actual);
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void shouldCreateCollectionOfMocksGivenMockType() {
+		// Given
+		MockStrategy proxyMockStrategy = mock(MockStrategy.class);
+		given(mockStrategySelector.getMockStrategy(MockType.PROXY, -1)).willReturn(proxyMockStrategy);
+		EventListener mock1 = mock(EventListener.class);
+		given(proxyMockStrategy.createMocks(EventListener.class, 1)).willReturn(
+				new OrderedSet<EventListener>(Arrays.asList(mock1)));
+		List collection = mock(List.class);
+		given(collectionFactory.createCollection(eq(List.class), eq(new OrderedSet(Arrays.asList(mock1)))))
+				.willReturn(collection);
+
+		// When
+		Collection<Object> actual = support.createCollectionOfMocks(List.class, EventListener.class,
+				new CollectionOfMocksSettings(1, MockType.PROXY, -1, false));
+
+		// Then
+		assertSame(collection, actual);
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void shouldCreateCollectionWithoutDuplicates() {
+		// Given
+		EventListener mock1 = mock(EventListener.class);
+		EventListener mock2 = mock(EventListener.class);
+		List collection = mock(List.class);
+		given(collectionFactory.createCollection(eq(List.class), eq(new OrderedSet(Arrays.asList(mock1, mock2)))))
+				.willReturn(collection);
+
+		// When
+		Collection<Object> actual = support.createCollection(List.class, mock1, mock2, mock1);
+
+		// Then
+		assertSame(collection, actual);
+	}
+
+	@Test
+	public void shouldCreateNullCollectionGivenNoMocks() {
+		// When
+		Collection<Object> actual = support.createCollection(List.class);
+
+		// Then
+		assertNull(actual);
+	}
+
+	@Test
+	public void shouldCopyNullCollectionOfMocksGivenEmptyCollectionOfMocks() {
+		// When
+		Collection<Object> actual = support.copyCollectionOfMocks(List.class, new OrderedSet<Object>());
+
+		// Then
+		assertNull(actual);
+	}
+
+	@Test
+	public void shouldNotCopyLazyCollectionOfMocks() {
+		// Given
+		LazyCollectionOfMocks<EventListener> lazyCollection = new LazyCollectionOfMocks<EventListener>(
+				EventListener.class, 100, new DefaultMockStrategy());
+
+		// When
+		Collection<Object> actual = support.copyCollectionOfMocks(List.class, lazyCollection);
+
+		// Then
+		assertSame(lazyCollection, actual);
+		assertFalse(lazyCollection.isCreated(0));
+	}
+
+	@Test
+	public void shouldCreateArrayOfTypeOfElements() {
+		// Given
+		EventListener mock1 = mock(EventListener.class);
+		EventListener mock2 = mock(EventListener.class);
+
+		// When
+		Object actual = support.createArray(EventListener.class, mock1, mock2);
+
+		// Then
+		assertEquals(EventListener[].class, actual.getClass());
+		assertArrayEquals(new Object[] { mock1, mock2 }, (Object[]) actual);
+	}
+
+	@Test
+	public void shouldFailToGetRequiredValueGivenNull() {
+		try {
+			// When
+			support.getRequiredValue(null, "listener");
+
+			// Then
+			fail();
+		} catch (MockitoCollectionsException e) {
+			assertTrue(e.getMessage().contains("The field listener is null"));
+		}
+	}
+
+	@Test
+	public void shouldGetFieldAccessorGivenDeclaringClassName() {
+		// When
+		FieldAccessor fieldAccessor = GeneratedCollectionInjectorSupport.getFieldAccessor(ExtendedFixture.class,
+				Fixture.class.getName(), "listeners");
+
+		// Then
+		assertEquals(Fixture.class, fieldAccessor.getField().getDeclaringClass());
+	}
+
+	@Test
+	public void shouldFailToGetFieldAccessorGivenUnknownField() {
+		try {
+			// When
+			GeneratedCollectionInjectorSupport.getFieldAccessor(Fixture.class, "unknown");
+
+			// Then
+			fail();
+		} catch (MockitoCollectionsException e) {
+			assertTrue(e.getMessage().contains("the generated injector is out of date"));
+		}
+	}
+
+	private static class Fixture {
+
+		@SuppressWarnings("unused")
+		private List<EventListener> listeners;
+	}
+
+	private static class ExtendedFixture extends Fixture {
+	}
+}
@@ -3,7 +3,6 @@ package uk.co.webamoeba.mockito.collections.inject;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 import java.io.InputStream;
@@ -12,46 +11,32 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EventListener;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.runners.MockitoJUnitRunner;
 
-import uk.co.webamoeba.mockito.collections.annotation.IgnoreForCollections;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
 import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
-import uk.co.webamoeba.mockito.collections.util.AnnotatedFieldRetriever;
-import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
 
 /**
  * @author James Kennard
  */
-@RunWith(MockitoJUnitRunner.class)
 public class InjectionDetailsFactoryTest {
 
-	@InjectMocks
-	private InjectionDetailsFactory factory;
-
-	@Mock
-	private AnnotatedFieldRetriever annotatedFieldRetriever;
-
-	@Mock
-	private GenericCollectionTypeResolver genericCollectionTypeResolver;
+	private InjectionDetailsFactory factory = new InjectionDetailsFactory();
 
 	@Test
 	public void shouldCreateInjectionDetailsGivenInjectMocks() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
 		Field injectCollectionsField = getField(object.getClass(), "injectCollections1");
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), InjectMocks.class)).willReturn(
-				Collections.singleton(injectCollectionsField));
+		InjectionPlan injectionPlan = createInjectionPlan(object.getClass(),
+				Collections.<CollectionOfMocksDefinition> emptyList(), Collections.singletonList(injectCollectionsField),
+				Collections.<Field> emptyList());
 
 		// When
-		InjectionDetails injectionDetails = factory.createInjectionDetails(object);
+		InjectionDetails injectionDetails = factory.createInjectionDetails(object, injectionPlan);
 
 		// Then
 		assertEquals(0, injectionDetails.getMocks().size());
@@ -65,11 +50,12 @@ public class InjectionDetailsFactoryTest {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
 		Field mockField = getField(object.getClass(), "mock1");
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), Mock.class)).willReturn(
-				Collections.singleton(mockField));
+		InjectionPlan injectionPlan = createInjectionPlan(object.getClass(),
+				Collections.<CollectionOfMocksDefinition> emptyList(), Collections.<Field> emptyList(),
+				Collections.singletonList(mockField));
 
 		// When
-		InjectionDetails injectionDetails = factory.createInjectionDetails(object);
+		InjectionDetails injectionDetails = factory.createInjectionDetails(object, injectionPlan);
 
 		// Then
 		assertEquals(0, injectionDetails.getInjectCollections().size());
@@ -86,12 +72,12 @@ public class InjectionDetailsFactoryTest {
 		Field mockField2 = getField(ExtendedClassWithAnnnotations.class, "mock2");
 		Field inheritedInjectableField1 = getField(ClassWithAnnnotations.class, "mock1");
 		Field inheritedInjectableField2 = getField(ClassWithAnnnotations.class, "mock2");
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), Mock.class)).willReturn(
-				new HashSet<Field>(Arrays.asList(mockField1, inheritedInjectableField1, mockField2,
-						inheritedInjectableField2)));
+		InjectionPlan injectionPlan = createInjectionPlan(object.getClass(),
+				Collections.<CollectionOfMocksDefinition> emptyList(), Collections.<Field> emptyList(),
+				Arrays.asList(inheritedInjectableField1, inheritedInjectableField2, mockField1, mockField2));
 
 		// When
-		InjectionDetails injectionDetails = factory.createInjectionDetails(object);
+		InjectionDetails injectionDetails = factory.createInjectionDetails(object, injectionPlan);
 
 		// Then
 		assertEquals(0, injectionDetails.getInjectCollections().size());
@@ -104,40 +90,21 @@ public class InjectionDetailsFactoryTest {
 		assertSame(object.getExtendedInjectable2(), iterator.next());
 	}
 
-	@Test
-	public void shouldCreateInjectionDetailsGivenIgnoredInjectables() {
-		// Given
-		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field mockField1 = getField(object.getClass(), "mock1");
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), Mock.class)).willReturn(
-				new HashSet<Field>(Collections.singleton(mockField1)));
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), IgnoreForCollections.class))
-				.willReturn(Collections.singleton(mockField1));
-
-		// When
-		InjectionDetails injectionDetails = factory.createInjectionDetails(object);
-
-		// Then
-		assertEquals(0, injectionDetails.getInjectCollections().size());
-		assertEquals(0, injectionDetails.getInjectableCollectionSet().size());
-		assertEquals(0, injectionDetails.getMocks().size());
-	}
-
 	@Test
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public void shouldCreateInjectionDetailsGivenCollectionOfMocks() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
 		Field collectionOfMocksField = getField(object.getClass(), "mocksField1");
-		given(
-				annotatedFieldRetriever.getAnnotatedFields(object.getClass(),
-						uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks.class)).willReturn(
-				Collections.singleton(collectionOfMocksField));
+		Class typeOfCollection = List.class;
 		Class typeOfElements = EventListener.class;
-		given(genericCollectionTypeResolver.getCollectionFieldType(collectionOfMocksField)).willReturn(typeOfElements);
+		CollectionOfMocksDefinition definition = new CollectionOfMocksDefinition(collectionOfMocksField,
+				typeOfCollection, typeOfElements, new CollectionOfMocksSettings(1, MockType.DEFAULT, -1, false));
+		InjectionPlan injectionPlan = createInjectionPlan(object.getClass(), Collections.singletonList(definition),
+				Collections.<Field> emptyList(), Collections.<Field> emptyList());
 
 		// When
-		InjectionDetails injectionDetails = factory.createInjectionDetails(object);
+		InjectionDetails injectionDetails = factory.createInjectionDetails(object, injectionPlan);
 
 		// Then
 		assertEquals(0, injectionDetails.getMocks().size());
@@ -151,17 +118,21 @@ public class InjectionDetailsFactoryTest {
 	}
 
 	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public void shouldFailToCreateInjectionDetailsGivenCollectionOfMocksOnNonCollection() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
 		Field collectionOfMocksField = getField(object.getClass(), "mock1");
-		given(
-				annotatedFieldRetriever.getAnnotatedFields(object.getClass(),
-						uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks.class)).willReturn(
-				Collections.singleton(collectionOfMocksField));
+		Class typeOfCollection = List.class;
+		Class typeOfElements = EventListener.class;
+		CollectionOfMocksDefinition definition = new CollectionOfMocksDefinition(collectionOfMocksField,
+				typeOfCollection, typeOfElements, new CollectionOfMocksSettings(1, MockType.DEFAULT, -1, false));
+		InjectionPlan injectionPlan = createInjectionPlan(object.getClass(), Collections.singletonList(definition),
+				Collections.<Field> emptyList(), Collections.<Field> emptyList());
 
 		// When
-		MockitoCollectionsException exception = createInjectionDetailsAndThrowMockitoCollectionsException(object);
+		MockitoCollectionsException exception = createInjectionDetailsAndThrowMockitoCollectionsException(object,
+				injectionPlan);
 
 		// Then
 		assertTrue(exception.getMessage().contains("field is not a Collection"));
@@ -171,12 +142,14 @@ public class InjectionDetailsFactoryTest {
 	public void shouldFailToCreateInjectionDetailsGivenMockFieldIsNull() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field collectionOfMocksField = getField(object.getClass(), "nullMock");
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), Mock.class)).willReturn(
-				Collections.singleton(collectionOfMocksField));
+		Field nullMockField = getField(object.getClass(), "nullMock");
+		InjectionPlan injectionPlan = createInjectionPlan(object.getClass(),
+				Collections.<CollectionOfMocksDefinition> emptyList(), Collections.<Field> emptyList(),
+				Collections.singletonList(nullMockField));
 
 		// When
-		MockitoCollectionsException exception = createInjectionDetailsAndThrowMockitoCollectionsException(object);
+		MockitoCollectionsException exception = createInjectionDetailsAndThrowMockitoCollectionsException(object,
+				injectionPlan);
 
 		// Then
 		assertEquals("The field nullMock is null, you must initialse the fields before using Mockito-Collections",
@@ -187,12 +160,14 @@ public class InjectionDetailsFactoryTest {
 	public void shouldFailToCreateInjectionDetailsGivenInjectMocksFieldIsNull() {
 		// Given
 		ClassWithAnnnotations object = new ClassWithAnnnotations();
-		Field collectionOfMocksField = getField(object.getClass(), "nullInjectCollections");
-		given(annotatedFieldRetriever.getAnnotatedFields(object.getClass(), InjectMocks.class)).willReturn(
-				Collections.singleton(collectionOfMocksField));
+		Field nullInjectCollectionsField = getField(object.getClass(), "nullInjectCollections");
+		InjectionPlan injectionPlan = createInjectionPlan(object.getClass(),
+				Collections.<CollectionOfMocksDefinition> emptyList(),
+				Collections.singletonList(nullInjectCollectionsField), Collections.<Field> emptyList());
 
 		// When
-		MockitoCollectionsException exception = createInjectionDetailsAndThrowMockitoCollectionsException(object);
+		MockitoCollectionsException exception = createInjectionDetailsAndThrowMockitoCollectionsException(object,
+				injectionPlan);
 
 		// Then
 		assertEquals(
@@ -200,10 +175,16 @@ public class InjectionDetailsFactoryTest {
 				exception.getMessage());
 	}
 
+	private InjectionPlan createInjectionPlan(Class<?> clazz,
+			Collection<CollectionOfMocksDefinition> collectionOfMocksDefinitions, Collection<Field> injectMocksFields,
+			Collection<Field> mockFields) {
+		return new InjectionPlan(clazz, collectionOfMocksDefinitions, injectMocksFields, mockFields);
+	}
+
 	private MockitoCollectionsException createInjectionDetailsAndThrowMockitoCollectionsException(
-			ClassWithAnnnotations object) {
+			ClassWithAnnnotations object, InjectionPlan injectionPlan) {
 		try {
-			factory.createInjectionDetails(object);
+			factory.createInjectionDetails(object, injectionPlan);
 		} catch (MockitoCollectionsException e) {
 			return e;
 		}
@@ -0,0 +1,82 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author James Kennard
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InjectionPlanCacheTest {
+
+	@InjectMocks
+	private InjectionPlanCache cache;
+
+	@Mock
+	private InjectionPlanFactory injectionPlanFactory;
+
+	@Test
+	public void shouldGetInjectionPlan() {
+		// Given
+		InjectionPlan injectionPlan = mock(InjectionPlan.class);
+		given(injectionPlanFactory.createInjectionPlan(String.class)).willReturn(injectionPlan);
+
+		// When
+		InjectionPlan actualInjectionPlan = cache.getInjectionPlan(String.class);
+
+		// Then
+		assertSame(injectionPlan, actualInjectionPlan);
+	}
+
+	@Test
+	public void shouldGetInjectionPlanGivenPreviouslyRequested() {
+		// Given
+		InjectionPlan injectionPlan = mock(InjectionPlan.class);
+		given(injectionPlanFactory.createInjectionPlan(String.class)).willReturn(injectionPlan);
+		cache.getInjectionPlan(String.class);
+
+		// When
+		InjectionPlan actualInjectionPlan = cache.getInjectionPlan(String.class);
+
+		// Then
+		assertSame(injectionPlan, actualInjectionPlan);
+		verify(injectionPlanFactory, times(1)).createInjectionPlan(String.class);
+	}
+
+	@Test
+	public void shouldGetInjectionTargetPlan() {
+		// Given
+		InjectionTargetPlan injectionTargetPlan = mock(InjectionTargetPlan.class);
+		given(injectionPlanFactory.createInjectionTargetPlan(String.class)).willReturn(injectionTargetPlan);
+
+		// When
+		InjectionTargetPlan actualInjectionTargetPlan = cache.getInjectionTargetPlan(String.class);
+
+		// Then
+		assertSame(injectionTargetPlan, actualInjectionTargetPlan);
+	}
+
+	@Test
+	public void shouldGetInjectionTargetPlanGivenPreviouslyRequested() {
+		// Given
+		InjectionTargetPlan injectionTargetPlan = mock(InjectionTargetPlan.class);
+		given(injectionPlanFactory.createInjectionTargetPlan(String.class)).willReturn(injectionTargetPlan);
+		cache.getInjectionTargetPlan(String.class);
+
+		// When
+		InjectionTargetPlan actualInjectionTargetPlan = cache.getInjectionTargetPlan(String.class);
+
+		// Then
+		assertSame(injectionTargetPlan, actualInjectionTargetPlan);
+		verify(injectionPlanFactory, times(1)).createInjectionTargetPlan(String.class);
+	}
+}
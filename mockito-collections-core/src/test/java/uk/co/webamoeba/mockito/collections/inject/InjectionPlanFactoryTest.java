@@ -0,0 +1,380 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EventListener;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.annotation.IgnoreForCollections;
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.util.AnnotatedFieldRetriever;
+import uk.co.webamoeba.mockito.collections.util.ClassFieldIndex;
+import uk.co.webamoeba.mockito.collections.util.GenericCollectionTypeResolver;
+
+/**
+ * @author James Kennard
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InjectionPlanFactoryTest {
+
+	@InjectMocks
+	private InjectionPlanFactory factory;
+
+	@Mock
+	private AnnotatedFieldRetriever annotatedFieldRetriever;
+
+	@Mock
+	private GenericCollectionTypeResolver genericCollectionTypeResolver;
+
+	@Mock
+	private ClassFieldIndex classFieldIndex;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		given(annotatedFieldRetriever.getClassFieldIndex(any(Class.class))).willReturn(classFieldIndex);
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCreateInjectionPlanGivenCollectionOfMocks() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "collection");
+		given(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class))
+				.willReturn(Collections.singleton(field));
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+
+		// When
+		InjectionPlan injectionPlan = factory.createInjectionPlan(ClassWithAnnnotations.class);
+
+		// Then
+		assertSame(ClassWithAnnnotations.class, injectionPlan.getTestClass());
+		assertEquals(1, injectionPlan.getCollectionOfMocksDefinitions().size());
+		CollectionOfMocksDefinition definition = injectionPlan.getCollectionOfMocksDefinitions().get(0);
+		assertEquals(field, definition.getField());
+		assertEquals(Collection.class, definition.getTypeOfCollection());
+		assertEquals(EventListener.class, definition.getTypeOfElements());
+		assertEquals(1, definition.getSettings().getNumberOfMocks());
+		assertTrue(injectionPlan.getInjectMocksFields().isEmpty());
+		assertTrue(injectionPlan.getMockFields().isEmpty());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCreateInjectionPlanGivenAnnotationWithNegativeNumberOfMocks() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "collectionWithNegativeNumberOfMocks");
+		given(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class))
+				.willReturn(Collections.singleton(field));
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+
+		// When
+		MockitoCollectionsException exception = createInjectionPlanAndMockitoCollectionsExceptionThrown();
+
+		// Then
+		assertTrue(exception.getMessage().contains("Unexpected numberOfMocks"));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCreateInjectionPlanGivenConcurrentMockTypeWithRetainedInvocations() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "concurrentCollectionWithRetainedInvocations");
+		given(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class))
+				.willReturn(Collections.singleton(field));
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+
+		// When
+		MockitoCollectionsException exception = createInjectionPlanAndMockitoCollectionsExceptionThrown();
+
+		// Then
+		assertTrue(exception.getMessage().contains("retainedInvocations cannot be used with MockType.CONCURRENT"));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCreateInjectionPlanGivenAnnotatedFieldNotCollection() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "notCollection");
+		given(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class))
+				.willReturn(Collections.singleton(field));
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+
+		// When
+		MockitoCollectionsException exception = createInjectionPlanAndMockitoCollectionsExceptionThrown();
+
+		// Then
+		assertTrue(exception.getMessage().contains("must be a Collection"));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCreateInjectionPlanGivenAnnotatedFieldNotCollectionButIsParameterizedType() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "notCollectionButIsParameterizedType");
+		given(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class))
+				.willReturn(Collections.singleton(field));
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(collectionType);
+
+		// When
+		MockitoCollectionsException exception = createInjectionPlanAndMockitoCollectionsExceptionThrown();
+
+		// Then
+		assertTrue(exception.getMessage().contains("must be a Collection"));
+	}
+
+	@Test
+	public void shouldFailToCreateInjectionPlanGivenAnnotatedFieldIsCollectionButHasNoGenerics() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "collectionButHasNoGenerics");
+		given(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class))
+				.willReturn(Collections.singleton(field));
+		given(genericCollectionTypeResolver.getCollectionFieldType(field)).willReturn(null);
+
+		// When
+		MockitoCollectionsException exception = createInjectionPlanAndMockitoCollectionsExceptionThrown();
+
+		// Then
+		assertTrue(exception.getMessage().contains("must be a Collection with Generics"));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCreateInjectionPlanGivenMatchingCollectionOfMocks() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "collection");
+		Field otherField = getField(ClassWithAnnnotations.class, "otherCollection");
+		given(classFieldIndex.getAnnotatedFields(CollectionOfMocks.class)).willReturn(
+				new HashSet<Field>(Arrays.asList(field, otherField)));
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(any(Field.class))).willReturn(collectionType);
+
+		try {
+			// When
+			factory.createInjectionPlan(ClassWithAnnnotations.class);
+
+			// Then
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("There is more than one CollectionOfMocks"));
+		}
+	}
+
+	@Test
+	public void shouldCreateInjectionPlanGivenInjectMocks() {
+		// Given
+		Field field = getField(ClassWithAnnnotations.class, "injectCollections");
+		given(classFieldIndex.getAnnotatedFields(InjectMocks.class)).willReturn(
+				Collections.singleton(field));
+
+		// When
+		InjectionPlan injectionPlan = factory.createInjectionPlan(ClassWithAnnnotations.class);
+
+		// Then
+		assertEquals(Collections.singletonList(field), injectionPlan.getInjectMocksFields());
+		assertTrue(injectionPlan.getCollectionOfMocksDefinitions().isEmpty());
+		assertTrue(injectionPlan.getMockFields().isEmpty());
+	}
+
+	@Test
+	public void shouldCreateInjectionPlanGivenInheritance() {
+		// Given
+		Field mockField1 = getField(ExtendedClassWithAnnnotations.class, "mock1");
+		Field mockField2 = getField(ExtendedClassWithAnnnotations.class, "mock2");
+		Field inheritedMockField1 = getField(ClassWithAnnnotations.class, "mock1");
+		Field inheritedMockField2 = getField(ClassWithAnnnotations.class, "mock2");
+		given(classFieldIndex.getAnnotatedFields(Mock.class)).willReturn(
+				new HashSet<Field>(Arrays.asList(mockField1, inheritedMockField1, mockField2, inheritedMockField2)));
+
+		// When
+		InjectionPlan injectionPlan = factory.createInjectionPlan(ExtendedClassWithAnnnotations.class);
+
+		// Then
+		assertEquals(4, injectionPlan.getMockFields().size());
+		Iterator<Field> iterator = injectionPlan.getMockFields().iterator();
+		assertEquals(inheritedMockField1, iterator.next());
+		assertEquals(inheritedMockField2, iterator.next());
+		assertEquals(mockField1, iterator.next());
+		assertEquals(mockField2, iterator.next());
+	}
+
+	@Test
+	public void shouldCreateInjectionPlanGivenIgnoredMocks() {
+		// Given
+		Field mockField1 = getField(ClassWithAnnnotations.class, "mock1");
+		Field mockField2 = getField(ClassWithAnnnotations.class, "mock2");
+		given(classFieldIndex.getAnnotatedFields(Mock.class)).willReturn(
+				new HashSet<Field>(Arrays.asList(mockField1, mockField2)));
+		given(classFieldIndex.getAnnotatedFields(IgnoreForCollections.class))
+				.willReturn(Collections.singleton(mockField1));
+
+		// When
+		InjectionPlan injectionPlan = factory.createInjectionPlan(ClassWithAnnnotations.class);
+
+		// Then
+		assertEquals(Collections.singletonList(mockField2), injectionPlan.getMockFields());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCreateInjectionTargetPlan() {
+		// Given
+		Field listenersField = getField(ClassWithCollaborators.class, "listeners");
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(listenersField)).willReturn(collectionType);
+		given(classFieldIndex.getFields()).willReturn(new ClassFieldIndex(ClassWithCollaborators.class).getFields());
+
+		// When
+		InjectionTargetPlan injectionTargetPlan = factory.createInjectionTargetPlan(ClassWithCollaborators.class);
+
+		// Then
+		assertSame(ClassWithCollaborators.class, injectionTargetPlan.getTargetClass());
+		List<InjectionPoint> injectionPoints = injectionTargetPlan.getInjectionPoints();
+		assertEquals(2, injectionPoints.size());
+		InjectionPoint collectionInjectionPoint = getInjectionPoint(injectionPoints, "listeners");
+		assertEquals(Set.class, collectionInjectionPoint.getTypeOfCollection());
+		assertEquals(EventListener.class, collectionInjectionPoint.getTypeOfElements());
+		assertEquals(false, collectionInjectionPoint.isArray());
+		InjectionPoint arrayInjectionPoint = getInjectionPoint(injectionPoints, "listenerArray");
+		assertNull(arrayInjectionPoint.getTypeOfCollection());
+		assertEquals(EventListener.class, arrayInjectionPoint.getTypeOfElements());
+		assertEquals(true, arrayInjectionPoint.isArray());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCreateInjectionTargetPlanGivenInheritance() {
+		// Given
+		Field listenersField = getField(ClassWithCollaborators.class, "listeners");
+		Class collectionType = EventListener.class;
+		given(genericCollectionTypeResolver.getCollectionFieldType(listenersField)).willReturn(collectionType);
+		given(classFieldIndex.getFields()).willReturn(
+				new ClassFieldIndex(ExtendedClassWithCollaborators.class).getFields());
+
+		// When
+		InjectionTargetPlan injectionTargetPlan = factory
+				.createInjectionTargetPlan(ExtendedClassWithCollaborators.class);
+
+		// Then
+		List<InjectionPoint> injectionPoints = injectionTargetPlan.getInjectionPoints();
+		assertEquals(3, injectionPoints.size());
+		assertEquals(ExtendedClassWithCollaborators.class, injectionPoints.get(0).getField().getDeclaringClass());
+		assertEquals(ClassWithCollaborators.class, injectionPoints.get(1).getField().getDeclaringClass());
+		assertEquals(ClassWithCollaborators.class, injectionPoints.get(2).getField().getDeclaringClass());
+	}
+
+	private InjectionPoint getInjectionPoint(List<InjectionPoint> injectionPoints, String fieldName) {
+		for (InjectionPoint injectionPoint : injectionPoints) {
+			if (injectionPoint.getField().getName().equals(fieldName)) {
+				return injectionPoint;
+			}
+		}
+		throw new IllegalArgumentException("No such injection point exists");
+	}
+
+	private MockitoCollectionsException createInjectionPlanAndMockitoCollectionsExceptionThrown() {
+		try {
+			factory.createInjectionPlan(ClassWithAnnnotations.class);
+		} catch (MockitoCollectionsException e) {
+			return e;
+		}
+		return null;
+	}
+
+	private Field getField(Class<?> clazz, String name) {
+		Field field;
+		try {
+			field = clazz.getDeclaredField(name);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("No such field exists");
+		}
+		return field;
+	}
+
+	@SuppressWarnings("unused")
+	private static class ClassWithAnnnotations {
+
+		private Object injectCollections;
+
+		protected Object mock1;
+
+		public Object mock2;
+
+		@CollectionOfMocks
+		private Collection<EventListener> collection;
+
+		@CollectionOfMocks
+		private Collection<EventListener> otherCollection;
+
+		@CollectionOfMocks
+		@SuppressWarnings("rawtypes")
+		private Collection collectionButHasNoGenerics;
+
+		@CollectionOfMocks
+		private InputStream notCollection;
+
+		@CollectionOfMocks
+		private Iterator<String> notCollectionButIsParameterizedType;
+
+		@CollectionOfMocks(numberOfMocks = -1)
+		private Collection<EventListener> collectionWithNegativeNumberOfMocks;
+
+		@CollectionOfMocks(mockType = MockType.CONCURRENT, retainedInvocations = 10)
+		private Collection<EventListener> concurrentCollectionWithRetainedInvocations;
+	}
+
+	private static class ExtendedClassWithAnnnotations extends ClassWithAnnnotations {
+
+		protected Object mock1;
+
+		public Object mock2;
+	}
+
+	@SuppressWarnings("unused")
+	private static class ClassWithCollaborators {
+
+		private Set<EventListener> listeners;
+
+		private EventListener[] listenerArray;
+
+		private int[] primitiveArray;
+
+		private EventListener listener;
+
+		private Iterator<EventListener> iterator;
+	}
+
+	@SuppressWarnings("unused")
+	private static class ExtendedClassWithCollaborators extends ClassWithCollaborators {
+
+		private InputStream[] streams;
+	}
+}
@@ -0,0 +1,234 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.collectiveTimeout;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.sample;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.exceptions.verification.WantedButNotInvoked;
+import org.mockito.internal.util.MockUtil;
+import org.mockito.invocation.InvocationOnMock;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.exception.CollectiveVerificationError;
+import uk.co.webamoeba.mockito.collections.exception.SampledVerificationError;
+import uk.co.webamoeba.mockito.collections.internal.FlyweightMocks;
+import uk.co.webamoeba.mockito.collections.stubbing.IndexedAnswer;
+import uk.co.webamoeba.mockito.collections.verification.Checkpoint;
+
+/**
+ * @author James Kennard
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class LazyCollectionOfMocksTest {
+
+	private MockUtil mockUtil = new MockUtil();
+
+	@Test
+	public void shouldReportSizeWithoutCreatingMocks() {
+		// When
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 100000,
+				new DefaultMockStrategy());
+
+		// Then
+		assertEquals(100000, mocks.size());
+		assertFalse(mocks.isCreated(0));
+		assertFalse(mocks.isCreated(99999));
+	}
+
+	@Test
+	public void shouldCreateMockOnFirstAccess() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 10,
+				new DefaultMockStrategy());
+
+		// When
+		Runnable mock = mocks.get(3);
+
+		// Then
+		assertTrue(mockUtil.isMock(mock));
+		assertSame(mock, mocks.get(3));
+		assertTrue(mocks.isCreated(3));
+		assertFalse(mocks.isCreated(2));
+	}
+
+	@Test
+	public void shouldCreateMocksOnIteration() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 3,
+				new DefaultMockStrategy());
+
+		// When
+		int index = 0;
+		for (Runnable mock : mocks) {
+			assertSame(mocks.get(index++), mock);
+		}
+
+		// Then
+		assertTrue(mocks.isCreated(0));
+		assertTrue(mocks.isCreated(2));
+	}
+
+	@Test
+	public void shouldContainCreatedMocksWithoutCreatingOthers() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 10,
+				new DefaultMockStrategy());
+		Runnable mock = mocks.get(7);
+
+		// When
+		int index = mocks.indexOf(mock);
+
+		// Then
+		assertEquals(7, index);
+		assertTrue(mocks.contains(mock));
+		assertFalse(mocks.contains(new Object()));
+		assertFalse(mocks.isCreated(0));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void shouldFailToAdd() {
+		new LazyCollectionOfMocks<Runnable>(Runnable.class, 1, new DefaultMockStrategy()).add(null);
+	}
+
+	@Test
+	public void shouldCollectiveVerifyWithoutCreatingMocks() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 1000,
+				new DefaultMockStrategy());
+
+		// When
+		MockitoCollections.collectiveVerify(Runnable.class, mocks, never()).run();
+		mocks.get(5).run();
+		MockitoCollections.collectiveVerify(Runnable.class, mocks.subList(5, 6), times(1)).run();
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+
+		// Then
+		assertTrue(mocks.isCreated(5));
+		assertFalse(mocks.isCreated(0));
+		assertFalse(mocks.isCreated(999));
+	}
+
+	@Test
+	public void shouldTakeCheckpointWithoutCreatingMocks() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 1000,
+				new DefaultMockStrategy());
+		mocks.get(5).run();
+
+		// When
+		Checkpoint checkpoint = MockitoCollections.checkpoint(mocks);
+
+		// Then
+		assertNotNull(checkpoint);
+		assertTrue(mocks.isCreated(5));
+		assertFalse(mocks.isCreated(0));
+		assertFalse(mocks.isCreated(999));
+	}
+
+	@Test
+	public void shouldFailToCollectiveVerifyGivenMocksNotCreated() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 3,
+				new DefaultMockStrategy());
+		mocks.get(1).run();
+
+		// When
+		try {
+			MockitoCollections.collectiveVerify(Runnable.class, mocks, times(1)).run();
+		} catch (WantedButNotInvoked e) {
+			// Then
+			assertTrue(e.getMessage(), e.getMessage().contains("runnable (never created).run()"));
+			assertFalse(mocks.isCreated(0));
+			return;
+		}
+		throw new AssertionError("Expected WantedButNotInvoked");
+	}
+
+	@Test
+	public void shouldFailToCollectiveVerifyWithTimeoutWithoutCreatingMocks() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 1000,
+				new DefaultMockStrategy());
+		mocks.get(1).run();
+
+		// When
+		try {
+			MockitoCollections.collectiveVerify(Runnable.class, mocks, collectiveTimeout(20)).run();
+		} catch (CollectiveVerificationError e) {
+			// Then
+			assertFalse(mocks.isCreated(0));
+			assertFalse(mocks.isCreated(999));
+			return;
+		}
+		throw new AssertionError("Expected CollectiveVerificationError");
+	}
+
+	@Test
+	public void shouldCollectiveVerifyWithTimeoutGivenMocksCreatedWhileWaiting() {
+		// Given
+		final LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 2,
+				new DefaultMockStrategy());
+		mocks.get(0).run();
+		new Thread() {
+
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					return;
+				}
+				mocks.get(1).run();
+			}
+		}.start();
+
+		// When
+		MockitoCollections.collectiveVerify(Runnable.class, mocks, collectiveTimeout(5000)).run();
+
+		// Then
+		assertTrue(mocks.isCreated(1));
+	}
+
+	@Test(expected = SampledVerificationError.class)
+	public void shouldFailToCollectiveVerifySampleGivenMockNotCreated() {
+		// Given
+		LazyCollectionOfMocks<Runnable> mocks = new LazyCollectionOfMocks<Runnable>(Runnable.class, 1,
+				new DefaultMockStrategy());
+
+		// When
+		MockitoCollections.collectiveVerify(Runnable.class, mocks, times(1), sample(1, 1L)).run();
+	}
+
+	@Test
+	public void shouldCreateFlyweightMocksFromOneGroup() {
+		// Given
+		LazyCollectionOfMocks<Comparator> mocks = new LazyCollectionOfMocks<Comparator>(Comparator.class, 100,
+				new FlyweightMockStrategy(new DefaultMockStrategy()));
+		IndexedAnswer<Integer> answer = new IndexedAnswer<Integer>() {
+
+			public Integer answer(int index, InvocationOnMock invocation) {
+				return index;
+			}
+		};
+		List<Comparator> created = mocks.subList(40, 43);
+		MockitoCollections.collectiveWhen(Comparator.class, mocks.subList(0, 1), answer).compare(any(), any());
+
+		// When
+		int result = created.get(2).compare("a", "b");
+
+		// Then
+		assertEquals(42, result);
+		assertSame(FlyweightMocks.getFlyweightMocks(mocks.get(0)), FlyweightMocks.getFlyweightMocks(created.get(0)));
+	}
+}
@@ -0,0 +1,177 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.co.webamoeba.mockito.collections.internal.RegisteredInvocationsAccessor.getRegisteredInvocations;
+
+import java.util.EventListener;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.exceptions.verification.NoInteractionsWanted;
+import org.mockito.exceptions.verification.TooManyActualInvocations;
+import org.mockito.internal.util.MockUtil;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.internal.MethodIndexedRegisteredInvocations;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+import uk.co.webamoeba.mockito.collections.verification.Checkpoint;
+
+/**
+ * @author James Kennard
+ */
+public class MethodIndexedMockStrategyTest {
+
+	private MethodIndexedMockStrategy strategy = new MethodIndexedMockStrategy(new DefaultMockStrategy());
+
+	private MockUtil mockUtil = new MockUtil();
+
+	@Test
+	public void shouldCreateMock() {
+		// When
+		EventListener mock = strategy.createMock(EventListener.class);
+
+		// Then
+		assertTrue(mockUtil.isMock(mock));
+		assertSame(MethodIndexedRegisteredInvocations.class, getRegisteredInvocations(mock).getClass());
+	}
+
+	@Test
+	public void shouldCreateMocks() {
+		// When
+		OrderedSet<EventListener> mocks = strategy.createMocks(EventListener.class, 3);
+
+		// Then
+		assertEquals(3, mocks.size());
+		for (EventListener mock : mocks) {
+			assertSame(MethodIndexedRegisteredInvocations.class, getRegisteredInvocations(mock).getClass());
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldStubAndVerifyMock() {
+		// Given
+		List<String> mock = strategy.createMock(List.class);
+		given(mock.get(0)).willReturn("a");
+
+		// When
+		String result = mock.get(0);
+		mock.size();
+		mock.get(1);
+
+		// Then
+		assertEquals("a", result);
+		InOrder inOrder = Mockito.inOrder(mock);
+		inOrder.verify(mock).get(0);
+		inOrder.verify(mock).size();
+		inOrder.verify(mock).get(1);
+		verifyNoMoreInteractions(mock);
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectivelyVerifyMocksGivenInvocationsOfOtherMethods() {
+		// Given
+		OrderedSet<List> mocks = strategy.createMocks(List.class, 2);
+		for (List mock : mocks) {
+			for (int i = 0; i < 100; i++) {
+				mock.size();
+			}
+			mock.get(3);
+			mock.isEmpty();
+		}
+
+		// When
+		MockitoCollections.collectiveVerify(List.class, mocks).get(3);
+		MockitoCollections.collectiveVerify(List.class, mocks, never()).clear();
+		MockitoCollections.collectiveVerify(List.class, mocks, times(100)).size();
+		MockitoCollections.collectiveVerify(List.class, mocks).isEmpty();
+
+		// Then
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+	}
+
+	@Test(expected = NoInteractionsWanted.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectivelyVerifyNoMoreInteractionsGivenUnverifiedInvocationOfOtherMethod() {
+		// Given
+		OrderedSet<List> mocks = strategy.createMocks(List.class, 2);
+		for (List mock : mocks) {
+			mock.get(3);
+		}
+		mocks.iterator().next().size();
+		MockitoCollections.collectiveVerify(List.class, mocks).get(anyInt());
+
+		// When
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+
+		// Then
+		// Exception Thrown
+	}
+
+	@Test(expected = NoInteractionsWanted.class)
+	@SuppressWarnings("rawtypes")
+	public void shouldFailToCollectivelyVerifyOnlyGivenInvocationOfOtherMethod() {
+		// Given
+		OrderedSet<List> mocks = strategy.createMocks(List.class, 1);
+		List mock = mocks.iterator().next();
+		mock.get(3);
+		mock.size();
+
+		// When
+		MockitoCollections.collectiveVerify(List.class, mocks, only()).get(3);
+
+		// Then
+		// Exception Thrown
+	}
+
+	@Test(expected = TooManyActualInvocations.class)
+	@SuppressWarnings("rawtypes")
+	public void shouldCollectivelyVerifyOnlyInvocationsOfMethodAfterCheckpoint() {
+		// Given
+		OrderedSet<List> mocks = strategy.createMocks(List.class, 2);
+		for (List mock : mocks) {
+			mock.get(1);
+		}
+		Checkpoint checkpoint = MockitoCollections.checkpoint(mocks);
+		for (List mock : mocks) {
+			mock.size();
+			mock.get(2);
+		}
+		MockitoCollections.collectiveVerify(List.class, mocks, times(1), checkpoint).get(anyInt());
+		mocks.iterator().next().get(4);
+
+		// When
+		MockitoCollections.collectiveVerify(List.class, mocks, times(1), checkpoint).get(anyInt());
+
+		// Then
+		// Exception Thrown
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldVerifyMockAfterReset() {
+		// Given
+		List<String> mock = strategy.createMock(List.class);
+		mock.get(0);
+
+		// When
+		Mockito.reset(mock);
+		mock.get(1);
+
+		// Then
+		verify(mock).get(1);
+		verifyNoMoreInteractions(mock);
+	}
+}
@@ -0,0 +1,97 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EventListener;
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * @author James Kennard
+ */
+public class MockRegistryTest {
+
+	@Test
+	public void shouldGetMocksOfClass() {
+		// Given
+		InputStream mock1 = mock(InputStream.class);
+		OutputStream mock2 = mock(OutputStream.class);
+		InputStream mock3 = mock(FileInputStream.class);
+		MockRegistry registry = new MockRegistry(new OrderedSet<Object>(Arrays.<Object> asList(mock1, mock2, mock3)));
+
+		// When
+		OrderedSet<InputStream> mocks = registry.getMocks(InputStream.class);
+
+		// Then
+		assertEquals(Arrays.asList(mock1, mock3), new ArrayList<InputStream>(mocks));
+	}
+
+	@Test
+	public void shouldGetMocksOfInterfaceInRegistrationOrder() {
+		// Given
+		OutputStream mock1 = mock(OutputStream.class);
+		EventListener mock2 = mock(EventListener.class);
+		InputStream mock3 = mock(FileInputStream.class);
+		MockRegistry registry = new MockRegistry(new OrderedSet<Object>(Arrays.<Object> asList(mock1, mock2, mock3)));
+
+		// When
+		OrderedSet<Closeable> mocks = registry.getMocks(Closeable.class);
+
+		// Then
+		assertEquals(Arrays.<Closeable> asList(mock1, mock3), new ArrayList<Closeable>(mocks));
+	}
+
+	@Test
+	public void shouldGetAllMocksGivenObject() {
+		// Given
+		List<Object> allMocks = Arrays.<Object> asList(mock(OutputStream.class), mock(EventListener.class));
+		MockRegistry registry = new MockRegistry(new OrderedSet<Object>(allMocks));
+
+		// When
+		OrderedSet<Object> mocks = registry.getMocks(Object.class);
+
+		// Then
+		assertEquals(allMocks, new ArrayList<Object>(mocks));
+	}
+
+	@Test
+	public void shouldGetMocksGivenNoMatchingMocks() {
+		// Given
+		MockRegistry registry = new MockRegistry(new OrderedSet<Object>(Arrays.<Object> asList(mock(InputStream.class))));
+
+		// When
+		OrderedSet<Runnable> mocks = registry.getMocks(Runnable.class);
+
+		// Then
+		assertTrue(mocks.isEmpty());
+	}
+
+	@Test
+	public void shouldGetNewOrderedSet() {
+		// Given
+		MockRegistry registry = new MockRegistry(new OrderedSet<Object>(Arrays.<Object> asList(mock(InputStream.class))));
+		registry.getMocks(InputStream.class).clear();
+
+		// When
+		OrderedSet<InputStream> mocks = registry.getMocks(InputStream.class);
+
+		// Then
+		assertEquals(1, mocks.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToConstructGivenNullMocks() {
+		new MockRegistry(null);
+	}
+}
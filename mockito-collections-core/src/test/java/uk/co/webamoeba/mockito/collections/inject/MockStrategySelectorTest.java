@@ -0,0 +1,191 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+
+import uk.co.webamoeba.mockito.collections.annotation.MockType;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * @author James Kennard
+ */
+public class MockStrategySelectorTest {
+
+	private final MockStrategy mockitoMockStrategy = mock(MockStrategy.class);
+
+	private final MockStrategy proxyMockStrategy = mock(MockStrategy.class);
+
+	private final MockStrategy concurrentMockStrategy = mock(MockStrategy.class);
+
+	private final MockStrategy methodIndexedMockStrategy = mock(MockStrategy.class);
+
+	private final MockStrategy flyweightMockStrategy = mock(MockStrategy.class);
+
+	@Test
+	public void shouldGetMockStrategy() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.PROXY);
+
+		// Then
+		assertSame(proxyMockStrategy, mockStrategy);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenConcurrent() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.CONCURRENT);
+
+		// Then
+		assertSame(concurrentMockStrategy, mockStrategy);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenMethodIndexed() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.METHOD_INDEXED);
+
+		// Then
+		assertSame(methodIndexedMockStrategy, mockStrategy);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenFlyweight() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.FLYWEIGHT);
+
+		// Then
+		assertSame(flyweightMockStrategy, mockStrategy);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenFlyweightAndRetainedInvocations() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.FLYWEIGHT, 10);
+
+		// Then
+		assertSame(flyweightMockStrategy, mockStrategy);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenDefault() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.PROXY);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.DEFAULT);
+
+		// Then
+		assertSame(proxyMockStrategy, mockStrategy);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenRetainedInvocations() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.PROXY, 10);
+
+		// Then
+		assertSame(RetainingMockStrategy.class, mockStrategy.getClass());
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenAllInvocationsRetained() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.PROXY, -1);
+
+		// Then
+		assertSame(proxyMockStrategy, mockStrategy);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenMockitoAndRetainedInvocations() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.PROXY);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.MOCKITO, 10);
+
+		// Then
+		assertSame(RetainingMockStrategy.class, mockStrategy.getClass());
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToGetMockStrategyGivenConcurrentAndRetainedInvocations() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		selector.getMockStrategy(MockType.CONCURRENT, 10);
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToGetMockStrategyGivenMethodIndexedAndRetainedInvocations() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		selector.getMockStrategy(MockType.METHOD_INDEXED, 10);
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToGetMockStrategyGivenDefaultOfConcurrentAndRetainedInvocations() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.CONCURRENT);
+
+		// When
+		selector.getMockStrategy(MockType.DEFAULT, 10);
+	}
+
+	@Test
+	public void shouldGetMockStrategyGivenDefaultAndRetainedInvocations() {
+		// Given
+		MockStrategySelector selector = new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy,
+				concurrentMockStrategy, methodIndexedMockStrategy, flyweightMockStrategy, MockType.MOCKITO);
+
+		// When
+		MockStrategy mockStrategy = selector.getMockStrategy(MockType.DEFAULT, 10);
+
+		// Then
+		assertSame(RetainingMockStrategy.class, mockStrategy.getClass());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToConstructGivenDefaultMockTypeOfDefault() {
+		new MockStrategySelector(mockitoMockStrategy, proxyMockStrategy, concurrentMockStrategy,
+				methodIndexedMockStrategy, flyweightMockStrategy, MockType.DEFAULT);
+	}
+}
@@ -0,0 +1,207 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.lang.reflect.Proxy;
+import java.util.Comparator;
+import java.util.Dictionary;
+import java.util.EventListener;
+
+import org.junit.Test;
+import org.mockito.cglib.proxy.Callback;
+import org.mockito.cglib.proxy.Factory;
+import org.mockito.cglib.proxy.NoOp;
+import org.mockito.exceptions.misusing.InvalidUseOfMatchersException;
+import org.mockito.exceptions.misusing.UnfinishedStubbingException;
+import org.mockito.exceptions.verification.NoInteractionsWanted;
+import org.mockito.exceptions.verification.WantedButNotInvoked;
+import org.mockito.internal.util.MockUtil;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * @author James Kennard
+ */
+public class ProxyMockStrategyTest {
+
+	private ProxyMockStrategy strategy = new ProxyMockStrategy(new DefaultMockStrategy());
+
+	private MockUtil mockUtil = new MockUtil();
+
+	@Test(expected = UnfinishedStubbingException.class)
+	@SuppressWarnings("unchecked")
+	public void shouldFailToCreateMockGivenUnfinishedStubbing() {
+		// Given
+		Comparator<String> mock = strategy.createMock(Comparator.class);
+		given(mock.compare("a", "b"));
+
+		// When
+		strategy.createMock(EventListener.class);
+	}
+
+	@Test(expected = InvalidUseOfMatchersException.class)
+	public void shouldFailToCreateMockGivenMisplacedArgumentMatcher() {
+		// Given
+		anyString();
+
+		// When
+		strategy.createMock(EventListener.class);
+	}
+
+	@Test
+	public void shouldCreateProxyMock() {
+		// When
+		EventListener mock = strategy.createMock(EventListener.class);
+
+		// Then
+		assertTrue(Proxy.isProxyClass(mock.getClass()));
+		assertTrue(mockUtil.isMock(mock));
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void shouldCreateMockGivenClass() {
+		// When
+		Dictionary mock = strategy.createMock(Dictionary.class);
+
+		// Then
+		assertFalse(Proxy.isProxyClass(mock.getClass()));
+		assertTrue(mockUtil.isMock(mock));
+	}
+
+	@Test
+	public void shouldCreateMocks() {
+		// When
+		OrderedSet<EventListener> mocks = strategy.createMocks(EventListener.class, 3);
+
+		// Then
+		assertEquals(3, mocks.size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldStubAndVerifyProxyMock() {
+		// Given
+		Comparator<String> mock = strategy.createMock(Comparator.class);
+		given(mock.compare("a", "b")).willReturn(-1);
+
+		// When
+		int result = mock.compare("a", "b");
+
+		// Then
+		assertEquals(-1, result);
+		verify(mock).compare("a", "b");
+		verifyNoMoreInteractions(mock);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldReturnDefaultValuesFromProxyMock() {
+		// Given
+		Comparator<String> mock = strategy.createMock(Comparator.class);
+
+		// When
+		int result = mock.compare("a", "b");
+
+		// Then
+		assertEquals(0, result);
+		assertTrue(mock.equals(mock));
+		assertFalse(mock.equals(strategy.createMock(Comparator.class)));
+		assertEquals(System.identityHashCode(mock), mock.hashCode());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldResetProxyMock() {
+		// Given
+		Comparator<String> mock = strategy.createMock(Comparator.class);
+		mock.compare("a", "b");
+
+		// When
+		reset(mock);
+
+		// Then
+		verifyNoMoreInteractions(mock);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldCollectiveVerifyProxyMocks() {
+		// Given
+		OrderedSet<Comparator<String>> mocks = (OrderedSet) strategy.createMocks(Comparator.class, 2);
+		for (Comparator<String> mock : mocks) {
+			mock.compare("a", "b");
+		}
+
+		// When
+		MockitoCollections.collectiveVerify(Comparator.class, (OrderedSet) mocks).compare("a", "b");
+
+		// Then
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+	}
+
+	@Test(expected = WantedButNotInvoked.class)
+	@SuppressWarnings("unchecked")
+	public void shouldFailToVerifyProxyMock() {
+		// Given
+		Comparator<String> mock = strategy.createMock(Comparator.class);
+
+		// When
+		verify(mock).compare("a", "b");
+	}
+
+	@Test(expected = NoInteractionsWanted.class)
+	@SuppressWarnings("unchecked")
+	public void shouldFailToCollectiveVerifyNoMoreInteractionsOnProxyMocks() {
+		// Given
+		OrderedSet<Comparator<String>> mocks = (OrderedSet) strategy.createMocks(Comparator.class, 2);
+		mocks.iterator().next().compare("a", "b");
+
+		// When
+		MockitoCollections.collectiveVerifyNoMoreInteractions(mocks);
+	}
+
+	@Test
+	public void shouldCreateNewInstanceOfProxyMock() {
+		// Given
+		Factory mock = (Factory) strategy.createMock(EventListener.class);
+
+		// When
+		Factory newInstance = (Factory) mock.newInstance(new Class[0], new Object[0], mock.getCallbacks());
+
+		// Then
+		assertNotSame(mock, newInstance);
+		assertSame(mock.getClass(), newInstance.getClass());
+		assertSame(mock.getCallback(0), newInstance.getCallback(0));
+		assertTrue(mockUtil.isMock(newInstance));
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCreateNewInstanceOfProxyMockGivenOtherCallback() {
+		// Given
+		Factory mock = (Factory) strategy.createMock(EventListener.class);
+
+		// When
+		mock.newInstance(NoOp.INSTANCE);
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToSetCallbacksOfProxyMockGivenOtherCallback() {
+		// Given
+		Factory mock = (Factory) strategy.createMock(EventListener.class);
+
+		// When
+		mock.setCallbacks(new Callback[] { NoOp.INSTANCE });
+	}
+}
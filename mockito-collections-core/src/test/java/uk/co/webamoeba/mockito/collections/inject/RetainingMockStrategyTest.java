@@ -0,0 +1,58 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static uk.co.webamoeba.mockito.collections.internal.RegisteredInvocationsAccessor.getRegisteredInvocations;
+
+import java.util.Comparator;
+import java.util.EventListener;
+
+import org.junit.Test;
+import org.mockito.internal.util.MockUtil;
+
+import uk.co.webamoeba.mockito.collections.internal.BoundedRegisteredInvocations;
+import uk.co.webamoeba.mockito.collections.util.OrderedSet;
+
+/**
+ * @author James Kennard
+ */
+public class RetainingMockStrategyTest {
+
+	private RetainingMockStrategy strategy = new RetainingMockStrategy(new DefaultMockStrategy(), 2);
+
+	@Test
+	public void shouldCreateMock() {
+		// When
+		EventListener mock = strategy.createMock(EventListener.class);
+
+		// Then
+		assertTrue(new MockUtil().isMock(mock));
+		assertSame(BoundedRegisteredInvocations.class, getRegisteredInvocations(mock).getClass());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCreateMocksThatRetainMostRecentInvocations() {
+		// Given
+		OrderedSet<Comparator> mocks = strategy.createMocks(Comparator.class, 2);
+
+		// When
+		for (Comparator mock : mocks) {
+			mock.compare("a", "b");
+			mock.compare("b", "c");
+			mock.compare("c", "d");
+		}
+
+		// Then
+		for (Comparator mock : mocks) {
+			assertEquals(2, getRegisteredInvocations(mock).getAll().size());
+			assertEquals("b", getRegisteredInvocations(mock).getAll().get(0).getArguments()[0]);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToConstructGivenNegativeRetainedInvocations() {
+		new RetainingMockStrategy(new DefaultMockStrategy(), -1);
+	}
+}
@@ -0,0 +1,176 @@
+package uk.co.webamoeba.mockito.collections.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.invocation.Invocation;
+
+/**
+ * @author James Kennard
+ */
+public class StripedRegisteredInvocationsTest {
+
+	private StripedRegisteredInvocations registeredInvocations = new StripedRegisteredInvocations(4);
+
+	@Test
+	public void shouldBeEmpty() {
+		// When
+		boolean empty = registeredInvocations.isEmpty();
+
+		// Then
+		assertTrue(empty);
+	}
+
+	@Test
+	public void shouldAdd() throws Exception {
+		// Given
+		Invocation invocation = createInvocation(1, "hashCode");
+
+		// When
+		registeredInvocations.add(invocation);
+
+		// Then
+		assertFalse(registeredInvocations.isEmpty());
+		assertEquals(Arrays.asList(invocation), registeredInvocations.getAll());
+	}
+
+	@Test
+	public void shouldGetAllInSequenceNumberOrderGivenManyThreads() throws Exception {
+		// Given
+		final List<Invocation> invocations = new ArrayList<Invocation>();
+		for (int i = 0; i < 40; i++) {
+			invocations.add(createInvocation(i, "hashCode"));
+		}
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 8; i++) {
+			final int offset = i;
+			threads.add(new Thread() {
+
+				@Override
+				public void run() {
+					for (int j = invocations.size() - 1 - offset; j >= 0; j -= 8) {
+						registeredInvocations.add(invocations.get(j));
+					}
+				}
+			});
+		}
+
+		// When
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// Then
+		assertEquals(invocations, registeredInvocations.getAll());
+	}
+
+	@Test
+	public void shouldGetAllExcludingToString() throws Exception {
+		// Given
+		Invocation invocation1 = createInvocation(1, "hashCode");
+		Invocation invocation2 = createInvocation(2, "toString");
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+
+		// When
+		List<Invocation> all = registeredInvocations.getAll();
+
+		// Then
+		assertEquals(Arrays.asList(invocation1), all);
+	}
+
+	@Test
+	public void shouldRemoveLast() throws Exception {
+		// Given
+		Invocation invocation1 = createInvocation(1, "hashCode");
+		Invocation invocation2 = createInvocation(3, "hashCode");
+		Invocation invocation3 = createInvocation(2, "hashCode");
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+
+		// When
+		registeredInvocations.removeLast();
+
+		// Then
+		assertEquals(Arrays.asList(invocation1, invocation3), registeredInvocations.getAll());
+	}
+
+	@Test
+	public void shouldRemoveLastGivenLastAlreadyRemoved() throws Exception {
+		// Given
+		Invocation invocation1 = createInvocation(1, "hashCode");
+		Invocation invocation2 = createInvocation(3, "hashCode");
+		Invocation invocation3 = createInvocation(2, "hashCode");
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+		registeredInvocations.removeLast();
+
+		// When
+		registeredInvocations.removeLast();
+
+		// Then
+		assertEquals(Arrays.asList(invocation1), registeredInvocations.getAll());
+	}
+
+	@Test
+	public void shouldRemoveLastGivenEmpty() {
+		// When
+		registeredInvocations.removeLast();
+
+		// Then
+		assertTrue(registeredInvocations.isEmpty());
+	}
+
+	@Test
+	public void shouldGetAllAfterSequenceNumberGivenManyThreads() throws Exception {
+		// Given
+		final Invocation invocation1 = createInvocation(1, "hashCode");
+		final Invocation invocation2 = createInvocation(2, "hashCode");
+		final Invocation invocation3 = createInvocation(3, "toString");
+		final Invocation invocation4 = createInvocation(4, "hashCode");
+		registeredInvocations.add(invocation1);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				registeredInvocations.add(invocation2);
+				registeredInvocations.add(invocation3);
+			}
+		};
+		thread.start();
+		thread.join();
+		registeredInvocations.add(invocation4);
+
+		// When
+		List<Invocation> invocations = registeredInvocations.getAllAfter(1);
+
+		// Then
+		assertEquals(Arrays.asList(invocation2, invocation4), invocations);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToConstructGivenNoStripes() {
+		new StripedRegisteredInvocations(0);
+	}
+
+	private static Invocation createInvocation(int sequenceNumber, String methodName) throws NoSuchMethodException {
+		Method method = Object.class.getMethod(methodName);
+		Invocation invocation = mock(Invocation.class);
+		given(invocation.getSequenceNumber()).willReturn(sequenceNumber);
+		given(invocation.getMethod()).willReturn(method);
+		return invocation;
+	}
+}
@@ -0,0 +1,284 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+import org.mockito.internal.invocation.InvocationMatcher;
+import org.mockito.invocation.Invocation;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * @author James Kennard
+ */
+public class BoundedRegisteredInvocationsTest {
+
+	private static final Object MOCK = new Object();
+
+	private static final Method HASH_CODE = getMethod("hashCode");
+
+	private static final Method TO_STRING = getMethod("toString");
+
+	private BoundedRegisteredInvocations registeredInvocations = new BoundedRegisteredInvocations(2);
+
+	@Test
+	public void shouldBeEmpty() {
+		// When
+		boolean empty = registeredInvocations.isEmpty();
+
+		// Then
+		assertTrue(empty);
+		assertEquals(0, registeredInvocations.getInvocationCount(HASH_CODE));
+		assertNull(registeredInvocations.getUnverifiedDiscardedInvocation());
+	}
+
+	@Test
+	public void shouldRetainMostRecentInvocations() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE);
+		Invocation invocation2 = createInvocation(HASH_CODE);
+		Invocation invocation3 = createInvocation(HASH_CODE);
+
+		// When
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+
+		// Then
+		assertEquals(Arrays.asList(invocation2, invocation3), registeredInvocations.getAll());
+		assertEquals(3, registeredInvocations.getInvocationCount(HASH_CODE));
+		assertTrue(registeredInvocations.hasDiscardedInvocations(HASH_CODE));
+		assertSame(invocation3, registeredInvocations.getLastInvocation(HASH_CODE));
+		assertFalse(registeredInvocations.isEmpty());
+	}
+
+	@Test
+	public void shouldNotDiscardGivenCapacityNotExceeded() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE);
+		Invocation invocation2 = createInvocation(HASH_CODE);
+
+		// When
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+
+		// Then
+		assertEquals(Arrays.asList(invocation1, invocation2), registeredInvocations.getAll());
+		assertFalse(registeredInvocations.hasDiscardedInvocations(HASH_CODE));
+	}
+
+	@Test
+	public void shouldCountGivenNoInvocationsRetained() {
+		// Given
+		BoundedRegisteredInvocations registeredInvocations = new BoundedRegisteredInvocations(0);
+
+		// When
+		registeredInvocations.add(createInvocation(HASH_CODE));
+		registeredInvocations.add(createInvocation(HASH_CODE));
+
+		// Then
+		assertEquals(Collections.emptyList(), registeredInvocations.getAll());
+		assertEquals(2, registeredInvocations.getInvocationCount(HASH_CODE));
+		assertTrue(registeredInvocations.hasDiscardedInvocations(HASH_CODE));
+	}
+
+	@Test
+	public void shouldGetAllExcludingToString() {
+		// Given
+		Invocation invocation = createInvocation(HASH_CODE);
+		registeredInvocations.add(invocation);
+		registeredInvocations.add(createInvocation(TO_STRING));
+
+		// When
+		boolean empty = registeredInvocations.isEmpty();
+
+		// Then
+		assertFalse(empty);
+		assertEquals(Arrays.asList(invocation), registeredInvocations.getAll());
+	}
+
+	@Test
+	public void shouldRemoveLast() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE);
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(createInvocation(HASH_CODE));
+
+		// When
+		registeredInvocations.removeLast();
+
+		// Then
+		assertEquals(Arrays.asList(invocation1), registeredInvocations.getAll());
+		assertEquals(1, registeredInvocations.getInvocationCount(HASH_CODE));
+	}
+
+	@Test
+	public void shouldRemoveLastGivenNoInvocationsRetained() {
+		// Given
+		BoundedRegisteredInvocations registeredInvocations = new BoundedRegisteredInvocations(0);
+		registeredInvocations.add(createInvocation(HASH_CODE));
+
+		// When
+		registeredInvocations.removeLast();
+
+		// Then
+		assertTrue(registeredInvocations.isEmpty());
+		assertFalse(registeredInvocations.hasDiscardedInvocations(HASH_CODE));
+	}
+
+	@Test
+	public void shouldGetUnverifiedDiscardedInvocation() {
+		// Given
+		Invocation invocation = createInvocation(HASH_CODE);
+		registeredInvocations.add(createInvocation(HASH_CODE));
+		registeredInvocations.add(createInvocation(TO_STRING));
+		registeredInvocations.add(createInvocation(TO_STRING));
+		registeredInvocations.add(invocation);
+		registeredInvocations.add(createInvocation(TO_STRING));
+
+		// When
+		Invocation unverified = registeredInvocations.getUnverifiedDiscardedInvocation();
+
+		// Then
+		assertSame(invocation, unverified);
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void shouldMarkVerified() {
+		// Given
+		Invocation invocation = createInvocation(HASH_CODE);
+		registeredInvocations.add(invocation);
+		registeredInvocations.add(createInvocation(HASH_CODE));
+		registeredInvocations.add(createInvocation(HASH_CODE));
+
+		// When
+		registeredInvocations.markVerified(new InvocationMatcher(invocation, Collections.<Matcher> emptyList()));
+
+		// Then
+		assertNull(registeredInvocations.getUnverifiedDiscardedInvocation());
+	}
+
+	@Test
+	public void shouldNotGetUnverifiedDiscardedInvocationGivenInvocationsVerifiedBeforeDiscarded() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE);
+		Invocation invocation2 = createInvocation(HASH_CODE);
+		given(invocation1.isVerified()).willReturn(true);
+		given(invocation2.isVerified()).willReturn(true);
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(createInvocation(TO_STRING));
+		registeredInvocations.add(createInvocation(TO_STRING));
+
+		// When
+		Invocation unverified = registeredInvocations.getUnverifiedDiscardedInvocation();
+
+		// Then
+		assertNull(unverified);
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void shouldGetUnverifiedDiscardedInvocationGivenInvocationsDiscardedAfterMarkVerified() {
+		// Given
+		Invocation invocation = createInvocation(HASH_CODE);
+		registeredInvocations.add(invocation);
+		registeredInvocations.add(createInvocation(HASH_CODE));
+		registeredInvocations.add(createInvocation(HASH_CODE));
+		registeredInvocations.markVerified(new InvocationMatcher(invocation, Collections.<Matcher> emptyList()));
+		Invocation unverifiedInvocation = createInvocation(HASH_CODE);
+		registeredInvocations.add(unverifiedInvocation);
+		registeredInvocations.add(createInvocation(TO_STRING));
+		registeredInvocations.add(createInvocation(TO_STRING));
+
+		// When
+		Invocation unverified = registeredInvocations.getUnverifiedDiscardedInvocation();
+
+		// Then
+		assertSame(unverifiedInvocation, unverified);
+	}
+
+	@Test
+	public void shouldGetAllAfterSequenceNumber() {
+		// Given
+		registeredInvocations = new BoundedRegisteredInvocations(3);
+		Invocation invocation1 = createInvocation(HASH_CODE, 1);
+		Invocation invocation2 = createInvocation(TO_STRING, 2);
+		Invocation invocation3 = createInvocation(HASH_CODE, 3);
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+
+		// When
+		List<Invocation> invocations = registeredInvocations.getAllAfter(1);
+
+		// Then
+		assertEquals(Arrays.asList(invocation3), invocations);
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToGetAllAfterSequenceNumberGivenDiscardedInvocationsAfterSequenceNumber() {
+		// Given
+		registeredInvocations.add(createInvocation(HASH_CODE, 1));
+		registeredInvocations.add(createInvocation(HASH_CODE, 2));
+		registeredInvocations.add(createInvocation(HASH_CODE, 3));
+
+		// When
+		registeredInvocations.getAllAfter(0);
+	}
+
+	@Test
+	public void shouldGetAllAfterSequenceNumberGivenDiscardedInvocationsBeforeSequenceNumber() {
+		// Given
+		registeredInvocations.add(createInvocation(HASH_CODE, 1));
+		registeredInvocations.add(createInvocation(HASH_CODE, 2));
+		Invocation invocation = createInvocation(HASH_CODE, 3);
+		registeredInvocations.add(invocation);
+
+		// When
+		List<Invocation> invocations = registeredInvocations.getAllAfter(2);
+
+		// Then
+		assertEquals(Arrays.asList(invocation), invocations);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToConstructGivenNegativeCapacity() {
+		new BoundedRegisteredInvocations(-1);
+	}
+
+	private static Invocation createInvocation(Method method, int sequenceNumber) {
+		Invocation invocation = createInvocation(method);
+		given(invocation.getSequenceNumber()).willReturn(sequenceNumber);
+		return invocation;
+	}
+
+	private static Invocation createInvocation(Method method) {
+		Invocation invocation = mock(Invocation.class);
+		given(invocation.getMethod()).willReturn(method);
+		given(invocation.getArguments()).willReturn(new Object[0]);
+		given(invocation.getMock()).willReturn(MOCK);
+		return invocation;
+	}
+
+	private static Method getMethod(String name) {
+		try {
+			return Object.class.getMethod(name);
+		} catch (NoSuchMethodException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import uk.co.webamoeba.mockito.collections.exception.CollectiveVerificationError;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.internal.CollectiveVerificationEngine.MockVerification;
+
+/**
+ * @author James Kennard
+ */
+public class CollectiveVerificationEngineTest {
+
+	@Test
+	public void shouldVerifySequentiallyGivenFewerMocksThanThreshold() {
+		// Given
+		CollectiveVerificationEngine engine = new CollectiveVerificationEngine(10, 4);
+		RecordingMockVerification verification = new RecordingMockVerification();
+
+		// When
+		engine.verify(Arrays.asList(1, 2, 3), verification);
+
+		// Then
+		assertEquals(Arrays.<Object> asList(1, 2, 3), verification.verified);
+		assertEquals(Collections.singleton(Thread.currentThread().getName()), verification.threadNames);
+	}
+
+	@Test
+	public void shouldVerifyConcurrentlyGivenThreshold() {
+		// Given
+		CollectiveVerificationEngine engine = new CollectiveVerificationEngine(4, 2);
+		RecordingMockVerification verification = new RecordingMockVerification();
+
+		// When
+		engine.verify(Arrays.asList(1, 2, 3, 4), verification);
+
+		// Then
+		assertEquals(4, verification.verified.size());
+		for (String threadName : verification.threadNames) {
+			assertTrue(threadName.startsWith("mockito-collections-verification-"));
+		}
+	}
+
+	@Test
+	public void shouldFailSequentiallyOnFirstFailure() {
+		// Given
+		CollectiveVerificationEngine engine = new CollectiveVerificationEngine(0, 4);
+		RecordingMockVerification verification = new RecordingMockVerification(2, 3);
+
+		try {
+			// When
+			engine.verify(Arrays.asList(1, 2, 3), verification);
+
+			// Then
+			fail();
+		} catch (AssertionError e) {
+			assertEquals("2", e.getMessage());
+			assertEquals(Arrays.<Object> asList(1, 2), verification.verified);
+		}
+	}
+
+	@Test
+	public void shouldRethrowFailureGivenSingleConcurrentFailure() {
+		// Given
+		CollectiveVerificationEngine engine = new CollectiveVerificationEngine(1, 2);
+		RecordingMockVerification verification = new RecordingMockVerification(3);
+
+		try {
+			// When
+			engine.verify(Arrays.asList(1, 2, 3, 4), verification);
+
+			// Then
+			fail();
+		} catch (AssertionError e) {
+			assertEquals(AssertionError.class, e.getClass());
+			assertEquals("3", e.getMessage());
+			assertEquals(4, verification.verified.size());
+		}
+	}
+
+	@Test
+	public void shouldReportAllConcurrentFailuresInOrder() {
+		// Given
+		CollectiveVerificationEngine engine = new CollectiveVerificationEngine(1, 3);
+		RecordingMockVerification verification = new RecordingMockVerification(6, 1, 4);
+
+		try {
+			// When
+			engine.verify(Arrays.asList(1, 2, 3, 4, 5, 6), verification);
+
+			// Then
+			fail();
+		} catch (CollectiveVerificationError e) {
+			assertEquals(6, verification.verified.size());
+			assertEquals(3, e.getFailures().size());
+			assertEquals("1", e.getFailures().get(0).getMessage());
+			assertEquals("4", e.getFailures().get(1).getMessage());
+			assertEquals("6", e.getFailures().get(2).getMessage());
+			assertSame(e.getFailures().get(0), e.getCause());
+			assertTrue(e.getMessage().startsWith("3 of 6 mocks failed verification"));
+		}
+	}
+
+	@Test
+	public void shouldWrapCheckedException() {
+		// Given
+		CollectiveVerificationEngine engine = new CollectiveVerificationEngine(0, 1);
+		final Exception exception = new Exception();
+
+		try {
+			// When
+			engine.verify(Arrays.asList(1), new MockVerification() {
+
+				public void verify(Object mock, int index) throws Throwable {
+					throw exception;
+				}
+			});
+
+			// Then
+			fail();
+		} catch (MockitoCollectionsException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+
+	private static class RecordingMockVerification implements MockVerification {
+
+		private final List<Object> failing;
+
+		private final List<Object> verified = Collections.synchronizedList(new ArrayList<Object>());
+
+		private final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+
+		public RecordingMockVerification(Object... failing) {
+			this.failing = Arrays.asList(failing);
+		}
+
+		public void verify(Object mock, int index) {
+			assertEquals(mock, index + 1);
+			verified.add(mock);
+			threadNames.add(Thread.currentThread().getName());
+			if (failing.contains(mock)) {
+				throw new AssertionError(String.valueOf(mock));
+			}
+		}
+	}
+}
@@ -1,8 +1,11 @@
 package uk.co.webamoeba.mockito.collections.internal;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -12,8 +15,13 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import uk.co.webamoeba.mockito.collections.inject.CollectionInjector;
 import uk.co.webamoeba.mockito.collections.inject.CollectionOfMocksInitialiser;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjector;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjectorLocator;
+import uk.co.webamoeba.mockito.collections.inject.GeneratedCollectionInjectorSupport;
 import uk.co.webamoeba.mockito.collections.inject.InjectionDetails;
 import uk.co.webamoeba.mockito.collections.inject.InjectionDetailsFactory;
+import uk.co.webamoeba.mockito.collections.inject.InjectionPlan;
+import uk.co.webamoeba.mockito.collections.inject.InjectionPlanCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class InitialiserTest {
@@ -30,19 +38,65 @@ public class InitialiserTest {
 	@Mock
 	private CollectionOfMocksInitialiser collectionOfMocksInitialiser;
 
+	@Mock
+	private InjectionPlanCache injectionPlanCache;
+
+	@Mock
+	private GeneratedCollectionInjectorLocator generatedCollectionInjectorLocator;
+
+	@Mock
+	private GeneratedCollectionInjectorSupport generatedCollectionInjectorSupport;
+
 	@Test
 	public void shouldInitialise() {
 		// Given
 		Object object = mock(Object.class);
+		InjectionPlan injectionPlan = mock(InjectionPlan.class);
+		given(injectionPlanCache.getInjectionPlan(object.getClass())).willReturn(injectionPlan);
 		InjectionDetails injectionDetails = mock(InjectionDetails.class);
-		given(factory.createInjectionDetails(object)).willReturn(injectionDetails);
+		given(factory.createInjectionDetails(object, injectionPlan)).willReturn(injectionDetails);
 
 		// When
 		initialiser.initialise(object);
 
 		// Then
-		verify(collectionOfMocksInitialiser).initialise(object);
+		verify(collectionOfMocksInitialiser).initialise(object, injectionPlan);
 		verify(injector).inject(injectionDetails);
 	}
 
+	@Test
+	public void shouldInitialiseUsingGeneratedCollectionInjector() {
+		// Given
+		Object object = mock(Object.class);
+		GeneratedCollectionInjector generatedCollectionInjector = mock(GeneratedCollectionInjector.class);
+		given(generatedCollectionInjectorLocator.getGeneratedCollectionInjector(object.getClass())).willReturn(
+				generatedCollectionInjector);
+		given(generatedCollectionInjector.canInitialise(object)).willReturn(true);
+
+		// When
+		initialiser.initialise(object);
+
+		// Then
+		verify(generatedCollectionInjector).initialise(object, generatedCollectionInjectorSupport);
+		verifyZeroInteractions(injectionPlanCache, collectionOfMocksInitialiser, injector);
+	}
+
+	@Test
+	public void shouldInitialiseGivenGeneratedCollectionInjectorCannotInitialise() {
+		// Given
+		Object object = mock(Object.class);
+		GeneratedCollectionInjector generatedCollectionInjector = mock(GeneratedCollectionInjector.class);
+		given(generatedCollectionInjectorLocator.getGeneratedCollectionInjector(object.getClass())).willReturn(
+				generatedCollectionInjector);
+		InjectionPlan injectionPlan = mock(InjectionPlan.class);
+		given(injectionPlanCache.getInjectionPlan(object.getClass())).willReturn(injectionPlan);
+
+		// When
+		initialiser.initialise(object);
+
+		// Then
+		verify(generatedCollectionInjector).canInitialise(object);
+		verify(generatedCollectionInjector, never()).initialise(any(), any(GeneratedCollectionInjectorSupport.class));
+		verify(collectionOfMocksInitialiser).initialise(object, injectionPlan);
+	}
 }
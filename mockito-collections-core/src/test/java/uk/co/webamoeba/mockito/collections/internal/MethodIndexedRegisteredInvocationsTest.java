@@ -0,0 +1,171 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.invocation.Invocation;
+
+/**
+ * @author James Kennard
+ */
+public class MethodIndexedRegisteredInvocationsTest {
+
+	private static final Method HASH_CODE = getMethod("hashCode");
+
+	private static final Method GET_CLASS = getMethod("getClass");
+
+	private static final Method TO_STRING = getMethod("toString");
+
+	private MethodIndexedRegisteredInvocations registeredInvocations = new MethodIndexedRegisteredInvocations();
+
+	@Test
+	public void shouldBeEmpty() {
+		// When
+		boolean empty = registeredInvocations.isEmpty();
+
+		// Then
+		assertTrue(empty);
+		assertEquals(Collections.emptyList(), registeredInvocations.getAll());
+		assertEquals(Collections.emptyList(), registeredInvocations.getAll(HASH_CODE));
+		assertNull(registeredInvocations.getFirstUnverifiedInvocation());
+	}
+
+	@Test
+	public void shouldGetAllInSequenceNumberOrder() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE, 1);
+		Invocation invocation2 = createInvocation(GET_CLASS, 2);
+		Invocation invocation3 = createInvocation(HASH_CODE, 3);
+		Invocation invocation4 = createInvocation(TO_STRING, 4);
+
+		// When
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+		registeredInvocations.add(invocation4);
+
+		// Then
+		assertEquals(Arrays.asList(invocation1, invocation2, invocation3), registeredInvocations.getAll());
+		assertFalse(registeredInvocations.isEmpty());
+	}
+
+	@Test
+	public void shouldGetAllOfMethod() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE, 1);
+		Invocation invocation2 = createInvocation(GET_CLASS, 2);
+		Invocation invocation3 = createInvocation(HASH_CODE, 3);
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+		registeredInvocations.add(createInvocation(TO_STRING, 4));
+
+		// When
+		registeredInvocations.getAll(HASH_CODE).clear();
+
+		// Then
+		assertEquals(Arrays.asList(invocation1, invocation3), registeredInvocations.getAll(HASH_CODE));
+		assertEquals(Arrays.asList(invocation2), registeredInvocations.getAll(GET_CLASS));
+		assertEquals(Collections.emptyList(), registeredInvocations.getAll(TO_STRING));
+	}
+
+	@Test
+	public void shouldGetAllAfterSequenceNumber() {
+		// Given
+		Invocation invocation2 = createInvocation(GET_CLASS, 2);
+		Invocation invocation3 = createInvocation(HASH_CODE, 3);
+		registeredInvocations.add(createInvocation(HASH_CODE, 1));
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+
+		// When
+		List<Invocation> invocations = registeredInvocations.getAllAfter(1);
+
+		// Then
+		assertEquals(Arrays.asList(invocation2, invocation3), invocations);
+		assertEquals(Arrays.asList(invocation3), registeredInvocations.getAllAfter(HASH_CODE, 1));
+		assertEquals(Collections.emptyList(), registeredInvocations.getAllAfter(HASH_CODE, 3));
+	}
+
+	@Test
+	public void shouldRemoveLast() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE, 1);
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(createInvocation(GET_CLASS, 2));
+
+		// When
+		registeredInvocations.removeLast();
+
+		// Then
+		assertEquals(Arrays.asList(invocation1), registeredInvocations.getAll());
+		assertEquals(Collections.emptyList(), registeredInvocations.getAll(GET_CLASS));
+	}
+
+	@Test
+	public void shouldGetFirstUnverifiedInvocation() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE, 1);
+		Invocation invocation2 = createInvocation(GET_CLASS, 2);
+		Invocation invocation3 = createInvocation(HASH_CODE, 3);
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		registeredInvocations.add(invocation3);
+		registeredInvocations.add(createInvocation(TO_STRING, 4));
+		given(invocation1.isVerified()).willReturn(true);
+
+		// When
+		Invocation unverified = registeredInvocations.getFirstUnverifiedInvocation();
+
+		// Then
+		assertSame(invocation2, unverified);
+	}
+
+	@Test
+	public void shouldNotGetFirstUnverifiedInvocationGivenAllVerified() {
+		// Given
+		Invocation invocation1 = createInvocation(HASH_CODE, 1);
+		Invocation invocation2 = createInvocation(GET_CLASS, 2);
+		registeredInvocations.add(invocation1);
+		registeredInvocations.add(invocation2);
+		given(invocation1.isVerified()).willReturn(true);
+		given(invocation2.isVerified()).willReturn(true);
+		registeredInvocations.getFirstUnverifiedInvocation();
+		Invocation invocation3 = createInvocation(HASH_CODE, 3);
+		registeredInvocations.add(invocation3);
+
+		// When
+		Invocation unverified = registeredInvocations.getFirstUnverifiedInvocation();
+
+		// Then
+		assertSame(invocation3, unverified);
+		registeredInvocations.removeLast();
+		assertNull(registeredInvocations.getFirstUnverifiedInvocation());
+	}
+
+	private static Invocation createInvocation(Method method, int sequenceNumber) {
+		Invocation invocation = mock(Invocation.class);
+		given(invocation.getMethod()).willReturn(method);
+		given(invocation.getSequenceNumber()).willReturn(sequenceNumber);
+		return invocation;
+	}
+
+	private static Method getMethod(String name) {
+		try {
+			return Object.class.getMethod(name);
+		} catch (NoSuchMethodException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
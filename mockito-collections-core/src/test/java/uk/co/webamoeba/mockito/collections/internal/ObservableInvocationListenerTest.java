@@ -0,0 +1,120 @@
+package uk.co.webamoeba.mockito.collections.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.internal.util.MockUtil;
+import org.mockito.listeners.InvocationListener;
+import org.mockito.listeners.MethodInvocationReport;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.await.AwaitableInvocationListener;
+import uk.co.webamoeba.mockito.collections.await.InvocationLatch;
+import uk.co.webamoeba.mockito.collections.inject.DefaultMockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.ProxyMockStrategy;
+import uk.co.webamoeba.mockito.collections.journal.JournalingInvocationListener;
+
+/**
+ * @author James Kennard
+ */
+public class ObservableInvocationListenerTest {
+
+	@Test
+	public void shouldGetListener() {
+		// Given
+		ObservableInvocationListener listener = new ObservableInvocationListener();
+		Object mock = mock(Comparable.class, withSettings().invocationListeners(listener));
+
+		// When
+		ObservableInvocationListener actual = ObservableInvocationListener.getListener(mock);
+
+		// Then
+		assertSame(listener, actual);
+	}
+
+	@Test
+	public void shouldNotGetListenerGivenMockWithoutListener() {
+		// When
+		ObservableInvocationListener actual = ObservableInvocationListener.getListener(mock(Comparable.class));
+
+		// Then
+		assertNull(actual);
+	}
+
+	@Test
+	public void shouldNotGetListenerGivenNotMock() {
+		// When
+		ObservableInvocationListener actual = ObservableInvocationListener.getListener("a");
+
+		// Then
+		assertNull(actual);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldReportInvocationToAddedListeners() {
+		// Given
+		ObservableInvocationListener listener = new ObservableInvocationListener();
+		Comparable<String> mock = mock(Comparable.class, withSettings().invocationListeners(listener));
+		InvocationListener addedListener = mock(InvocationListener.class);
+		listener.addListener(addedListener);
+
+		// When
+		mock.compareTo("a");
+		mock.compareTo("b");
+
+		// Then
+		verify(addedListener, times(2)).reportInvocation(any(MethodInvocationReport.class));
+	}
+
+	@Test
+	public void shouldAddListenerOfEachClassOnce() {
+		// Given
+		ObservableInvocationListener listener = new ObservableInvocationListener();
+		AwaitableInvocationListener addedListener = listener.addListener(new AwaitableInvocationListener());
+
+		// When
+		AwaitableInvocationListener actual = listener.addListener(new AwaitableInvocationListener());
+
+		// Then
+		assertSame(addedListener, actual);
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldNotInstallAwaitableOrJournalingInvocationListenerInMockSettings() {
+		// Given
+		List<Object> mocks = new ArrayList<Object>();
+		mocks.add(new DefaultMockStrategy().createMock(Comparable.class));
+		mocks.add(new ProxyMockStrategy(new DefaultMockStrategy()).createMock(Comparable.class));
+
+		// When
+		MockitoCollections.collectiveAwait(Comparable.class, (Collection) mocks.subList(0, 1),
+				InvocationLatch.eachInvoked()).compareTo(anyString());
+
+		// Then
+		MockUtil mockUtil = new MockUtil();
+		for (Object mock : mocks) {
+			List<InvocationListener> listeners = mockUtil.getMockHandler(mock).getMockSettings()
+					.getInvocationListeners();
+			for (InvocationListener listener : listeners) {
+				assertFalse(listener instanceof AwaitableInvocationListener);
+				assertFalse(listener instanceof JournalingInvocationListener);
+			}
+			assertNotNull(ObservableInvocationListener.getListener(mock));
+		}
+	}
+}
@@ -1,24 +1,60 @@
 package uk.co.webamoeba.mockito.collections.internal;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.balanced;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.collectiveTimeout;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.inCollectionOrder;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.invokedMocks;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.sample;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.totalTimes;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
 
-import org.junit.Rule;
 import org.junit.Test;
-import org.junit.rules.ExpectedException;
+import org.mockito.exceptions.base.MockitoException;
+import org.mockito.exceptions.verification.NeverWantedButInvoked;
 import org.mockito.exceptions.verification.NoInteractionsWanted;
+import org.mockito.exceptions.verification.TooLittleActualInvocations;
 import org.mockito.exceptions.verification.WantedButNotInvoked;
+import org.mockito.internal.stubbing.answers.Returns;
+import org.mockito.invocation.InvocationOnMock;
 
-import uk.co.webamoeba.mockito.collections.support.ThrowableCausedByMatcher;
+import uk.co.webamoeba.mockito.collections.exception.CollectiveVerificationError;
+import uk.co.webamoeba.mockito.collections.exception.InvocationDistributionError;
+import uk.co.webamoeba.mockito.collections.exception.InvocationOrderError;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.exception.SampledVerificationError;
+import uk.co.webamoeba.mockito.collections.inject.DefaultMockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.LazyCollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.inject.ProxyMockStrategy;
+import uk.co.webamoeba.mockito.collections.stubbing.IndexedAnswer;
+import uk.co.webamoeba.mockito.collections.verification.Checkpoint;
 
 /**
  * @author James Kennard
@@ -27,22 +63,14 @@ public class VerifierTest {
 
 	private Verifier verification = new Verifier();
 
-	@Rule
-	public ExpectedException thrown = ExpectedException.none();
-
-	@Test
+	@Test(expected = WantedButNotInvoked.class)
 	public void shouldCollectiveVerifyGivenWantedButNotInvoked() throws IOException {
 		// Given
 		Closeable mock = mock(Closeable.class);
 		Collection<Closeable> collection = Collections.singleton(mock);
 
-		thrown.expect(new ThrowableCausedByMatcher(WantedButNotInvoked.class));
-
 		// When
 		verification.collectiveVerify(Closeable.class, collection).close();
-
-		// Then
-		// Exception thrown
 	}
 
 	@Test
@@ -59,7 +87,7 @@ public class VerifierTest {
 		// No Exception thrown
 	}
 
-	@Test
+	@Test(expected = WantedButNotInvoked.class)
 	public void shouldCollectiveVerifyGivenWantedButNotAllInvoked() throws IOException {
 		// Given
 		Closeable mock1 = mock(Closeable.class);
@@ -67,13 +95,233 @@ public class VerifierTest {
 		mock1.close();
 		Collection<Closeable> collection = Arrays.asList(mock1, mock2);
 
-		thrown.expect(new ThrowableCausedByMatcher(WantedButNotInvoked.class));
-
 		// When
 		verification.collectiveVerify(Closeable.class, collection).close();
+	}
+
+	@Test
+	public void shouldCollectiveVerifyRepeatedlyUsingSameVerifierClass() throws IOException {
+		// Given
+		Closeable mock1 = mock(Closeable.class);
+		Closeable mock2 = mock(Closeable.class);
+		mock1.close();
+		mock2.close();
+		Collection<Closeable> collection1 = Collections.singleton(mock1);
+		Collection<Closeable> collection2 = Collections.singleton(mock2);
+
+		// When
+		Closeable verifier1 = verification.collectiveVerify(Closeable.class, collection1);
+		Closeable verifier2 = verification.collectiveVerify(Closeable.class, collection2);
+		verifier1.close();
+		verifier2.close();
 
 		// Then
-		// Exception thrown
+		assertNotSame(verifier1, verifier2);
+		assertSame(verifier1.getClass(), verifier2.getClass());
+		verifyNoMoreInteractions(mock1, mock2);
+	}
+
+	@Test(expected = WantedButNotInvoked.class)
+	public void shouldCollectiveVerifyGivenWantedButNotInvokedUsingPrototypeVerifierClass() throws IOException {
+		// Given
+		Closeable mock1 = mock(Closeable.class);
+		mock1.close();
+		verification.collectiveVerify(Closeable.class, Collections.singleton(mock1)).close();
+		Closeable mock2 = mock(Closeable.class);
+
+		// When
+		verification.collectiveVerify(Closeable.class, Collections.singleton(mock2)).close();
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveVerifyGivenArgumentMatchers() {
+		// Given
+		Comparable<String> mock1 = mock(Comparable.class);
+		Comparable<String> mock2 = mock(Comparable.class);
+		mock1.compareTo("a");
+		mock2.compareTo("b");
+		Collection<Comparable<String>> collection = Arrays.asList(mock1, mock2);
+
+		// When
+		verification.collectiveVerify(Comparable.class, (Collection) collection).compareTo(anyString());
+
+		// Then
+		verifyNoMoreInteractions(mock1, mock2);
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveVerifyConcurrently() {
+		// Given
+		Verifier verification = new Verifier(new CollectiveVerificationEngine(1, 2));
+		List<Comparable<String>> collection = new ArrayList<Comparable<String>>();
+		for (int i = 0; i < 10; i++) {
+			Comparable<String> mock = mock(Comparable.class);
+			mock.compareTo("a");
+			collection.add(mock);
+		}
+
+		// When
+		verification.collectiveVerify(Comparable.class, (Collection) collection).compareTo(eq("a"));
+
+		// Then
+		verification.collectiveVerifyNoMoreInteractions(collection);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldReportAllFailuresGivenConcurrentCollectiveVerifyNoMoreInteractions() {
+		// Given
+		Verifier verification = new Verifier(new CollectiveVerificationEngine(1, 2));
+		Comparable<String> mock1 = mock(Comparable.class);
+		Comparable<String> mock2 = mock(Comparable.class);
+		Comparable<String> mock3 = mock(Comparable.class);
+		mock1.compareTo("a");
+		mock3.compareTo("a");
+
+		try {
+			// When
+			verification.collectiveVerifyNoMoreInteractions(Arrays.asList(mock1, mock2, mock3));
+
+			// Then
+			fail("expected exception to be thrown");
+		} catch (CollectiveVerificationError e) {
+			assertEquals(2, e.getFailures().size());
+			assertTrue(e.getMessage().startsWith("2 of 3 mocks failed verification"));
+		}
+	}
+
+	@Test
+	public void shouldCollectiveVerifyDistribution() throws IOException {
+		// Given
+		List<Closeable> collection = Arrays.asList(mock(Closeable.class), mock(Closeable.class),
+				mock(Closeable.class));
+		collection.get(0).close();
+		collection.get(0).close();
+		collection.get(2).close();
+
+		// When
+		verification.collectiveVerify(Closeable.class, collection, totalTimes(3)).close();
+
+		// Then
+		verifyNoMoreInteractions(collection.toArray());
+	}
+
+	@Test
+	public void shouldFailToCollectiveVerifyDistribution() throws IOException {
+		// Given
+		List<Closeable> collection = Arrays.asList(mock(Closeable.class), mock(Closeable.class));
+		collection.get(0).close();
+
+		try {
+			// When
+			verification.collectiveVerify(Closeable.class, collection, invokedMocks(2)).close();
+
+			// Then
+			fail("expected exception to be thrown");
+		} catch (InvocationDistributionError e) {
+			assertEquals(Arrays.asList(1, 0), e.getInvocationDistribution().getInvocationCounts());
+			assertTrue(e.getMessage().contains("closeable.close()"));
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveVerifyDistributionConcurrentlyGivenArgumentMatchers() {
+		// Given
+		Verifier verification = new Verifier(new CollectiveVerificationEngine(1, 2));
+		List<Comparable<String>> collection = new ArrayList<Comparable<String>>();
+		for (int i = 0; i < 10; i++) {
+			Comparable<String> mock = mock(Comparable.class);
+			mock.compareTo(String.valueOf(i));
+			mock.compareTo(String.valueOf(i));
+			collection.add(mock);
+		}
+
+		// When
+		verification.collectiveVerify(Comparable.class, (Collection) collection, balanced(1, 1)).compareTo(
+				anyString());
+
+		// Then
+		verification.collectiveVerifyNoMoreInteractions(collection);
+	}
+
+	@Test
+	public void shouldCollectiveVerifyWithCollectiveTimeoutGivenAsynchronousInvocations() throws Exception {
+		// Given
+		final List<Closeable> collection = Arrays.asList(mock(Closeable.class), mock(Closeable.class),
+				mock(Closeable.class));
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(50);
+					for (Closeable closeable : collection) {
+						closeable.close();
+					}
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		long start = System.currentTimeMillis();
+		thread.start();
+
+		// When
+		verification.collectiveVerify(Closeable.class, collection, collectiveTimeout(5000)).close();
+
+		// Then
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		thread.join();
+		verifyNoMoreInteractions(collection.toArray());
+	}
+
+	@Test
+	public void shouldFailToCollectiveVerifyWithCollectiveTimeoutAfterSharedDeadline() throws IOException {
+		// Given
+		List<Closeable> collection = new ArrayList<Closeable>();
+		for (int i = 0; i < 5; i++) {
+			collection.add(mock(Closeable.class, "closeable" + i));
+		}
+		collection.get(2).close();
+		long start = System.currentTimeMillis();
+
+		try {
+			// When
+			verification.collectiveVerify(Closeable.class, collection, collectiveTimeout(200)).close();
+
+			// Then
+			fail("expected exception to be thrown");
+		} catch (CollectiveVerificationError e) {
+			long elapsed = System.currentTimeMillis() - start;
+			assertTrue("elapsed " + elapsed, elapsed >= 200 && elapsed < 5 * 200);
+			assertEquals(4, e.getFailures().size());
+			assertTrue(e.getMessage().startsWith("4 of 5 mocks were not verified within the timeout of 200 ms"));
+			assertTrue(e.getMessage().contains("Mock at index 1 (closeable1)"));
+			assertFalse(e.getMessage().contains("closeable2"));
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveVerifyWithCollectiveTimeoutGivenArgumentMatchers() {
+		// Given
+		Verifier verification = new Verifier(new CollectiveVerificationEngine(1, 2));
+		List<Comparable<String>> collection = new ArrayList<Comparable<String>>();
+		for (int i = 0; i < 4; i++) {
+			Comparable<String> mock = mock(Comparable.class);
+			mock.compareTo(String.valueOf(i));
+			mock.compareTo(String.valueOf(i));
+			collection.add(mock);
+		}
+
+		// When
+		verification.collectiveVerify(Comparable.class, (Collection) collection, collectiveTimeout(100).times(2))
+				.compareTo(anyString());
+
+		// Then
+		verification.collectiveVerifyNoMoreInteractions(collection);
 	}
 
 	@Test
@@ -144,4 +392,438 @@ public class VerifierTest {
 			assertTrue(e.getMessage().contains("No interactions wanted"));
 		}
 	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveVerifyGivenDiscardedInvocations() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveVerify(Comparator.class, collection, times(5)).compare(any(), any());
+		verification.collectiveVerify(Comparator.class, collection, atLeast(3)).compare(any(), any());
+		verification.collectiveVerify(Comparator.class, collection, totalTimes(10)).compare(any(), any());
+		verification.collectiveVerifyNoMoreInteractions(collection);
+
+		// Then
+		// No Exception thrown
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveVerifyWithTimeoutGivenDiscardedInvocations() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveVerify(Comparator.class, collection, collectiveTimeout(50).times(5)).compare(any(),
+				any());
+
+		// Then
+		// No Exception thrown
+	}
+
+	@Test(expected = CollectiveVerificationError.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectiveVerifyWithTimeoutGivenDiscardedInvocationsAndTooManyInvocations() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveVerify(Comparator.class, collection, collectiveTimeout(50).times(2)).compare(any(),
+				any());
+	}
+
+	@Test(expected = TooLittleActualInvocations.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectiveVerifyGivenDiscardedInvocationsAndTooFewInvocations() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveVerify(Comparator.class, collection, times(6)).compare(any(), any());
+	}
+
+	@Test(expected = NeverWantedButInvoked.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectiveVerifyNeverGivenDiscardedInvocations() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveVerify(Comparator.class, collection, never()).compare(any(), any());
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectiveVerifyGivenDiscardedInvocationsAndSpecificArguments() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveVerify(Comparator.class, collection, times(1)).compare("0", "1");
+	}
+
+	@Test(expected = NoInteractionsWanted.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectiveVerifyNoMoreInteractionsGivenUnverifiedDiscardedInvocations() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveVerifyNoMoreInteractions(collection);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldCollectiveVerifyNoMoreInteractionsGivenInvocationsVerifiedBeforeDiscarded() {
+		// Given
+		List<Lock> collection = createLocksRetainingTwoInvocations();
+		Lock lock = collection.get(0);
+		lock.lock();
+		lock.lock();
+		verify(lock, times(2)).lock();
+		lock.unlock();
+		lock.unlock();
+
+		// When
+		verification.collectiveVerify(Lock.class, collection, times(2)).unlock();
+		verification.collectiveVerifyNoMoreInteractions(collection);
+
+		// Then
+		// No Exception thrown
+	}
+
+	@Test(expected = NoInteractionsWanted.class)
+	@SuppressWarnings("unchecked")
+	public void shouldFailToCollectiveVerifyNoMoreInteractionsGivenInvocationsDiscardedAfterVerified() {
+		// Given
+		List<Lock> collection = createLocksRetainingTwoInvocations();
+		Lock lock = collection.get(0);
+		for (int i = 0; i < 3; i++) {
+			lock.lock();
+		}
+		verification.collectiveVerify(Lock.class, collection, times(3)).lock();
+		for (int i = 0; i < 3; i++) {
+			lock.lock();
+		}
+		lock.unlock();
+		lock.unlock();
+		verification.collectiveVerify(Lock.class, collection, times(2)).unlock();
+
+		// When
+		verification.collectiveVerifyNoMoreInteractions(collection);
+	}
+
+	@Test
+	public void shouldCollectiveVerifyAfterCheckpoint() throws IOException {
+		// Given
+		List<Closeable> collection = Arrays.asList(mock(Closeable.class), mock(Closeable.class));
+		for (Closeable closeable : collection) {
+			closeable.close();
+		}
+		Checkpoint checkpoint = verification.checkpoint(collection);
+		collection.get(1).close();
+
+		// When
+		verification.collectiveVerify(Closeable.class, collection.subList(1, 2), times(1), checkpoint).close();
+
+		// Then
+		verification.collectiveVerify(Closeable.class, collection.subList(0, 1), never(), checkpoint).close();
+	}
+
+	@Test(expected = WantedButNotInvoked.class)
+	public void shouldFailToCollectiveVerifyAfterCheckpointGivenInvokedOnlyBeforeCheckpoint() throws IOException {
+		// Given
+		Closeable mock = mock(Closeable.class);
+		mock.close();
+		Collection<Closeable> collection = Collections.singleton(mock);
+		Checkpoint checkpoint = verification.checkpoint(collection);
+
+		// When
+		verification.collectiveVerify(Closeable.class, collection, times(1), checkpoint).close();
+	}
+
+	@Test
+	public void shouldCollectiveVerifyWithCollectiveTimeoutAfterCheckpoint() throws Exception {
+		// Given
+		final List<Closeable> collection = Arrays.asList(mock(Closeable.class), mock(Closeable.class));
+		for (Closeable closeable : collection) {
+			closeable.close();
+		}
+		Checkpoint checkpoint = verification.checkpoint(collection);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(50);
+					for (Closeable closeable : collection) {
+						closeable.close();
+					}
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+
+		// When
+		thread.start();
+		verification.collectiveVerify(Closeable.class, collection, collectiveTimeout(5000), checkpoint).close();
+
+		// Then
+		thread.join();
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToTakeCheckpointGivenNotAMock() {
+		verification.checkpoint(Arrays.asList(new Object()));
+	}
+
+	@Test
+	public void shouldCollectiveVerifySample() throws IOException {
+		// Given
+		Collection<Closeable> collection = new LinkedHashSet<Closeable>();
+		for (int i = 0; i < 50; i++) {
+			collection.add(mock(Closeable.class));
+		}
+		List<Closeable> mocks = new ArrayList<Closeable>(collection);
+		int[] indexes = sample(5, 42L).select(collection.size());
+		for (int index : indexes) {
+			mocks.get(index).close();
+		}
+
+		// When
+		verification.collectiveVerify(Closeable.class, collection, times(1), sample(5, 42L)).close();
+
+		// Then
+		for (int index : indexes) {
+			verifyNoMoreInteractions(mocks.get(index));
+		}
+	}
+
+	@Test
+	public void shouldCollectiveVerifySampleGivenLazyCollectionOfMocks() throws IOException {
+		// Given
+		LazyCollectionOfMocks<Closeable> collection = new LazyCollectionOfMocks<Closeable>(Closeable.class, 1000,
+				new DefaultMockStrategy());
+		int[] indexes = sample(5, 42L).select(collection.size());
+		for (int index : indexes) {
+			collection.get(index).close();
+		}
+
+		// When
+		verification.collectiveVerify(Closeable.class, collection, times(1), sample(5, 42L)).close();
+
+		// Then
+		int created = 0;
+		for (int i = 0; i < collection.size(); i++) {
+			if (collection.isCreated(i)) {
+				created++;
+			}
+		}
+		assertEquals(indexes.length, created);
+	}
+
+	@Test
+	public void shouldNotCreateMocksOtherThanSampleGivenLazyCollectionOfMocks() throws IOException {
+		// Given
+		LazyCollectionOfMocks<Closeable> collection = new LazyCollectionOfMocks<Closeable>(Closeable.class, 1000,
+				new DefaultMockStrategy());
+		int[] indexes = sample(5, 42L).select(collection.size());
+
+		// When
+		verification.collectiveVerify(Closeable.class, collection, never(), sample(5, 42L)).close();
+
+		// Then
+		for (int i = 0, next = 0; i < collection.size(); i++) {
+			boolean sampled = next < indexes.length && indexes[next] == i;
+			assertEquals(sampled, collection.isCreated(i));
+			if (sampled) {
+				next++;
+			}
+		}
+	}
+
+	@Test
+	public void shouldFailToCollectiveVerifySample() throws IOException {
+		// Given
+		List<Closeable> collection = new ArrayList<Closeable>();
+		for (int i = 0; i < 50; i++) {
+			collection.add(mock(Closeable.class));
+		}
+
+		try {
+			// When
+			verification.collectiveVerify(Closeable.class, collection, times(1), sample(5, 42L)).close();
+
+			// Then
+			fail("expected exception to be thrown");
+		} catch (SampledVerificationError e) {
+			assertEquals(42L, e.getSample().getSeed());
+			assertTrue(e.getMessage(), e.getMessage().contains("sample(5, 42L)"));
+			assertTrue(e.getCause() instanceof WantedButNotInvoked);
+		}
+	}
+
+	@Test
+	public void shouldCollectiveVerifyInOrder() throws IOException {
+		// Given
+		List<Closeable> collection = Arrays.asList(mock(Closeable.class), mock(Closeable.class), mock(Closeable.class));
+		for (Closeable closeable : collection) {
+			closeable.close();
+		}
+
+		// When
+		verification.collectiveInOrder(Closeable.class, collection).close();
+
+		// Then
+		verifyNoMoreInteractions(collection.toArray());
+	}
+
+	@Test
+	public void shouldFailToCollectiveVerifyInOrderGivenInvocationsOutOfOrder() throws IOException {
+		// Given
+		List<Closeable> collection = Arrays.asList(mock(Closeable.class), mock(Closeable.class), mock(Closeable.class));
+		collection.get(1).close();
+		collection.get(0).close();
+		collection.get(2).close();
+
+		try {
+			// When
+			verification.collectiveInOrder(Closeable.class, collection).close();
+
+			// Then
+			fail("expected exception to be thrown");
+		} catch (InvocationOrderError e) {
+			assertEquals(Arrays.asList(1, 0, 2), e.getInvocationTimeline().getMockIndexes());
+			assertTrue(e.getMessage().contains("closeable.close()"));
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveVerifyInOrderConcurrentlyGivenArgumentMatchers() {
+		// Given
+		Verifier verification = new Verifier(new CollectiveVerificationEngine(1, 2));
+		List<Comparable<String>> collection = new ArrayList<Comparable<String>>();
+		for (int i = 0; i < 10; i++) {
+			collection.add(mock(Comparable.class));
+		}
+		for (int i = collection.size() - 1; i >= 0; i--) {
+			collection.get(i).compareTo("other");
+		}
+		for (Comparable<String> mock : collection) {
+			mock.compareTo("wanted");
+			mock.compareTo("wanted");
+		}
+
+		// When
+		verification.collectiveInOrder(Comparable.class, (Collection) collection, inCollectionOrder()).compareTo(
+				eq("wanted"));
+
+		// Then
+		verification.collectiveVerify(Comparable.class, (Collection) collection).compareTo("other");
+		verification.collectiveVerifyNoMoreInteractions(collection);
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldFailToCollectiveVerifyInOrderGivenDiscardedInvocations() {
+		// Given
+		List<Comparator> collection = createComparatorsInvokedFiveTimes();
+
+		// When
+		verification.collectiveInOrder(Comparator.class, collection, inCollectionOrder()).compare(any(), any());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveWhen() {
+		// Given
+		List<Comparator> collection = Arrays.asList(mock(Comparator.class), mock(Comparator.class));
+
+		// When
+		verification.collectiveWhen(Comparator.class, collection, new Returns(7)).compare(anyString(), eq("b"));
+
+		// Then
+		for (Comparator comparator : collection) {
+			assertEquals(7, comparator.compare("a", "b"));
+			assertEquals(0, comparator.compare("a", "c"));
+		}
+		verification.collectiveVerify(Comparator.class, collection).compare("a", "b");
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveWhenGivenIndexedAnswer() {
+		// Given
+		List<Comparator> collection = new ArrayList(new ProxyMockStrategy(new DefaultMockStrategy()).createMocks(
+				Comparator.class, 3));
+
+		// When
+		verification.collectiveWhen(Comparator.class, collection, new IndexedAnswer<Integer>() {
+
+			public Integer answer(int index, InvocationOnMock invocation) {
+				return index * 10 + ((String) invocation.getArguments()[0]).length();
+			}
+		}).compare(anyString(), anyString());
+
+		// Then
+		assertEquals(2, collection.get(0).compare("ab", "c"));
+		assertEquals(11, collection.get(1).compare("a", "c"));
+		assertEquals(23, collection.get(2).compare("abc", "c"));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldCollectiveWhenGivenAlreadyStubbed() {
+		// Given
+		Comparator comparator = mock(Comparator.class);
+		given(comparator.compare("a", "b")).willReturn(1);
+
+		// When
+		verification.collectiveWhen(Comparator.class, Collections.singleton(comparator), new Returns(2)).compare("a",
+				"b");
+
+		// Then
+		assertEquals(2, comparator.compare("a", "b"));
+	}
+
+	@Test(expected = MockitoException.class)
+	public void shouldFailToCollectiveWhenGivenReturnValueForVoidMethod() {
+		// Given
+		List<Runnable> collection = Arrays.asList(mock(Runnable.class));
+
+		// When
+		verification.collectiveWhen(Runnable.class, collection, new Returns("a")).run();
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToCollectiveWhenGivenNotAMock() {
+		// Given
+		List<Runnable> collection = Arrays.asList(mock(Runnable.class), new Thread());
+
+		// When
+		verification.collectiveWhen(Runnable.class, collection, new Returns(null)).run();
+	}
+
+	private static List<Lock> createLocksRetainingTwoInvocations() {
+		Lock lock = mock(Lock.class);
+		RegisteredInvocationsAccessor.setRegisteredInvocations(lock, new BoundedRegisteredInvocations(2));
+		return Arrays.asList(lock);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static List<Comparator> createComparatorsInvokedFiveTimes() {
+		List<Comparator> comparators = new ArrayList<Comparator>();
+		for (int i = 0; i < 2; i++) {
+			Comparator comparator = mock(Comparator.class);
+			RegisteredInvocationsAccessor.setRegisteredInvocations(comparator, new BoundedRegisteredInvocations(2));
+			for (int j = 0; j < 5; j++) {
+				comparator.compare(String.valueOf(j), String.valueOf(j + 1));
+			}
+			comparators.add(comparator);
+		}
+		return comparators;
+	}
 }
@@ -0,0 +1,244 @@
+package uk.co.webamoeba.mockito.collections.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.co.webamoeba.mockito.collections.MockitoCollections;
+import uk.co.webamoeba.mockito.collections.annotation.CollectionOfMocks;
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+import uk.co.webamoeba.mockito.collections.inject.DefaultMockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.FlyweightMockStrategy;
+import uk.co.webamoeba.mockito.collections.inject.ProxyMockStrategy;
+
+/**
+ * @author James Kennard
+ */
+public class InvocationJournalTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@CollectionOfMocks(numberOfMocks = 2)
+	private List<Runnable> runnables;
+
+	@Test
+	public void shouldJournalInvocationsOfCollectionOfMocks() throws IOException {
+		// Given
+		MockitoCollections.initialise(this);
+		File file = temporaryFolder.newFile("journal");
+		InvocationJournal journal = MockitoCollections.journal(file, runnables);
+
+		// When
+		runnables.get(1).run();
+		runnables.get(0).run();
+		runnables.get(1).toString();
+		journal.close();
+
+		// Then
+		List<JournalRecord> records = read(file);
+		assertEquals(3, records.size());
+		assertEquals(1, records.get(0).getMockIndex());
+		assertEquals(0, records.get(1).getMockIndex());
+		assertEquals(0, records.get(0).getMethodId());
+		assertEquals("java.lang.Runnable.run()", records.get(0).getMethod());
+		assertEquals(1, records.get(2).getMethodId());
+		assertEquals("java.lang.Object.toString()", records.get(2).getMethod());
+		assertEquals(Thread.currentThread().getId(), records.get(0).getThreadId());
+		assertTrue(records.get(0).getSequenceNumber() < records.get(1).getSequenceNumber());
+		assertTrue(records.get(0).getNanoTime() <= records.get(1).getNanoTime());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldIndexMocksAcrossCollections() throws IOException {
+		// Given
+		List<Comparable<String>> comparables1 = new ArrayList(new DefaultMockStrategy().createMocks(Comparable.class,
+				2));
+		List<Comparable<String>> comparables2 = new ArrayList(new ProxyMockStrategy(new DefaultMockStrategy())
+				.createMocks(Comparable.class, 3));
+		File file = temporaryFolder.newFile("journal");
+		InvocationJournal journal = MockitoCollections.journal(file, comparables1, comparables2);
+
+		// When
+		comparables2.get(2).compareTo("a");
+		comparables1.get(0).compareTo("b");
+		journal.close();
+
+		// Then
+		List<JournalRecord> records = read(file);
+		assertEquals(2, records.size());
+		assertEquals(4, records.get(0).getMockIndex());
+		assertEquals(0, records.get(1).getMockIndex());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldJournalConcurrentInvocationsInTimeOrder() throws Exception {
+		// Given
+		final List<Comparable<String>> comparables = new ArrayList(new DefaultMockStrategy().createMocks(
+				Comparable.class, 4));
+		File file = temporaryFolder.newFile("journal");
+		InvocationJournal journal = new InvocationJournal(file, InvocationJournal.INVOCATION_RECORD_SIZE * 10);
+		journal.attach(comparables);
+		final int invocationsPerThread = 500;
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < comparables.size(); i++) {
+			final Comparable<String> comparable = comparables.get(i);
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < invocationsPerThread; j++) {
+						comparable.compareTo("a");
+					}
+				}
+			};
+			thread.start();
+			threads.add(thread);
+		}
+
+		// When
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		journal.close();
+
+		// Then
+		int[] invocationsPerMock = new int[comparables.size()];
+		long previousNanoTime = Long.MIN_VALUE;
+		int numberOfRecords = 0;
+		InvocationJournalReader reader = new InvocationJournalReader(file);
+		try {
+			while (reader.hasNext()) {
+				JournalRecord record = reader.next();
+				assertTrue(record.getNanoTime() >= previousNanoTime);
+				previousNanoTime = record.getNanoTime();
+				invocationsPerMock[record.getMockIndex()]++;
+				numberOfRecords++;
+			}
+		} finally {
+			reader.close();
+		}
+		assertEquals(comparables.size() * invocationsPerThread, numberOfRecords);
+		for (int invocations : invocationsPerMock) {
+			assertEquals(invocationsPerThread, invocations);
+		}
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldNotJournalInvocationsAfterClose() throws IOException {
+		// Given
+		List<Comparable<String>> comparables = new ArrayList(new DefaultMockStrategy().createMocks(Comparable.class,
+				1));
+		File file = temporaryFolder.newFile("journal");
+		InvocationJournal journal = MockitoCollections.journal(file, comparables);
+		journal.close();
+
+		// When
+		comparables.get(0).compareTo("a");
+
+		// Then
+		assertTrue(read(file).isEmpty());
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void shouldWriteRecordsGivenFlush() throws IOException {
+		// Given
+		List<Comparable<String>> comparables = new ArrayList(new DefaultMockStrategy().createMocks(Comparable.class,
+				1));
+		File file = temporaryFolder.newFile("journal");
+		InvocationJournal journal = MockitoCollections.journal(file, comparables);
+		comparables.get(0).compareTo("a");
+
+		// When
+		journal.flush();
+
+		// Then
+		assertEquals(1, read(file).size());
+		journal.close();
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	@SuppressWarnings("unchecked")
+	public void shouldFailToAttachGivenMockWithoutListener() throws IOException {
+		// Given
+		File file = temporaryFolder.newFile("journal");
+		InvocationJournal journal = new InvocationJournal(file);
+
+		// When
+		try {
+			journal.attach(Collections.singleton(mock(Comparable.class)));
+		} finally {
+			journal.close();
+		}
+
+		// Then
+		// Exception Thrown
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	public void shouldFailToAttachGivenFlyweightMock() throws IOException {
+		// Given
+		File file = temporaryFolder.newFile("journal");
+		InvocationJournal journal = new InvocationJournal(file);
+
+		// When
+		try {
+			journal.attach(new FlyweightMockStrategy(new DefaultMockStrategy()).createMocks(Comparable.class, 1));
+		} finally {
+			journal.close();
+		}
+
+		// Then
+		// Exception Thrown
+	}
+
+	@Test
+	public void shouldFailToReadGivenFileThatIsNotAJournal() throws IOException {
+		// Given
+		File file = temporaryFolder.newFile("journal");
+
+		// When
+		try {
+			new InvocationJournalReader(file);
+			assertFalse("Expected " + MockitoCollectionsException.class.getSimpleName(), true);
+		} catch (MockitoCollectionsException e) {
+			// Then
+			assertTrue(e.getMessage().endsWith("is not a journal"));
+		}
+	}
+
+	private static List<JournalRecord> read(File file) {
+		List<JournalRecord> records = new ArrayList<JournalRecord>();
+		InvocationJournalReader reader = new InvocationJournalReader(file);
+		try {
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+}
@@ -1,6 +1,7 @@
 package uk.co.webamoeba.mockito.collections.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.annotation.Annotation;
@@ -96,6 +97,31 @@ public class AnnotatedFieldRetrieverTest {
 		assertTrue(fields.contains(getField(ClassWithAnnnotations.class, "privateAnnotatedField")));
 	}
 
+	@Test
+	public void shouldGetClassFieldIndexGivenPreviouslyRequested() {
+		// Given
+		ClassFieldIndex classFieldIndex = retriever.getClassFieldIndex(ClassWithAnnnotations.class);
+
+		// When
+		ClassFieldIndex actualClassFieldIndex = retriever.getClassFieldIndex(ClassWithAnnnotations.class);
+
+		// Then
+		assertSame(classFieldIndex, actualClassFieldIndex);
+	}
+
+	@Test
+	public void shouldGetAnnotatedFieldsGivenReturnedFieldsModified() {
+		// Given
+		Class<ClassWithAnnnotations> clazz = ClassWithAnnnotations.class;
+		retriever.getAnnotatedFields(clazz, InjectMocks.class).clear();
+
+		// When
+		Set<Field> fields = retriever.getAnnotatedFields(clazz, InjectMocks.class);
+
+		// Then
+		assertEquals(1, fields.size());
+	}
+
 	private Field getField(Class<?> clazz, String name) {
 		Field field;
 		try {
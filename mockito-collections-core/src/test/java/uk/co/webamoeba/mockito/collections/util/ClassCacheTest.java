@@ -0,0 +1,125 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+
+/**
+ * @author James Kennard
+ */
+public class ClassCacheTest {
+
+	@Test
+	public void shouldGetNullGivenNoValue() {
+		// Given
+		ClassCache<Object> cache = new ClassCache<Object>();
+
+		// When
+		Object value = cache.get(String.class);
+
+		// Then
+		assertNull(value);
+	}
+
+	@Test
+	public void shouldPutIfAbsent() {
+		// Given
+		ClassCache<Object> cache = new ClassCache<Object>();
+		Object value = new Object();
+
+		// When
+		Object existing = cache.putIfAbsent(String.class, value);
+
+		// Then
+		assertNull(existing);
+		assertSame(value, cache.get(String.class));
+	}
+
+	@Test
+	public void shouldNotPutIfAbsentGivenExistingValue() {
+		// Given
+		ClassCache<Object> cache = new ClassCache<Object>();
+		Object value = new Object();
+		cache.putIfAbsent(String.class, value);
+
+		// When
+		Object existing = cache.putIfAbsent(String.class, new Object());
+
+		// Then
+		assertSame(value, existing);
+		assertSame(value, cache.get(String.class));
+	}
+
+	@Test
+	public void shouldHoldValuesAgainstEachClass() {
+		// Given
+		ClassCache<Object> cache = new ClassCache<Object>();
+		Object stringValue = new Object();
+		Object integerValue = new Object();
+
+		// When
+		cache.putIfAbsent(String.class, stringValue);
+		cache.putIfAbsent(Integer.class, integerValue);
+
+		// Then
+		assertSame(stringValue, cache.get(String.class));
+		assertSame(integerValue, cache.get(Integer.class));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void shouldRemoveCollectedClass() throws Exception {
+		// Given
+		ClassCache<Object> cache = new ClassCache<Object>();
+		WeakReference<Class<?>> collectedClass = putIsolatedClass(cache);
+
+		// When
+		for (int i = 0; i < 50 && collectedClass.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		cache.putIfAbsent(String.class, new Object());
+
+		// Then
+		assertNull(collectedClass.get());
+		assertEquals(1, cache.size());
+	}
+
+	private WeakReference<Class<?>> putIsolatedClass(ClassCache<Object> cache) throws IOException {
+		Class<?> clazz = new IsolatingClassLoader().defineClass(Isolated.class);
+		cache.putIfAbsent(clazz, new Object());
+		return new WeakReference<Class<?>>(clazz);
+	}
+
+	private static class Isolated {
+	}
+
+	private static class IsolatingClassLoader extends ClassLoader {
+
+		public IsolatingClassLoader() {
+			super(IsolatingClassLoader.class.getClassLoader());
+		}
+
+		public Class<?> defineClass(Class<?> clazz) throws IOException {
+			InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[4096];
+				for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+					out.write(buffer, 0, read);
+				}
+				byte[] bytes = out.toByteArray();
+				return defineClass(clazz.getName(), bytes, 0, bytes.length);
+			} finally {
+				in.close();
+			}
+		}
+	}
+}
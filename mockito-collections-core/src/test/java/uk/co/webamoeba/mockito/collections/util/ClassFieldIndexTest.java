@@ -0,0 +1,118 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import uk.co.webamoeba.mockito.collections.annotation.IgnoreForCollections;
+
+/**
+ * @author James Kennard
+ */
+public class ClassFieldIndexTest {
+
+	@Test
+	public void shouldGetFields() {
+		// Given
+		ClassFieldIndex index = new ClassFieldIndex(ExtendedClassWithAnnnotations.class);
+
+		// When
+		List<Field> fields = index.getFields();
+
+		// Then
+		assertEquals(3, fields.size());
+		assertEquals(getField(ExtendedClassWithAnnnotations.class, "extendedMock"), fields.get(0));
+		assertTrue(fields.contains(getField(ClassWithAnnnotations.class, "mock")));
+		assertTrue(fields.contains(getField(ClassWithAnnnotations.class, "injectMocks")));
+		assertSame(ExtendedClassWithAnnnotations.class, index.getIndexedClass());
+	}
+
+	@Test
+	public void shouldGetAnnotatedFields() {
+		// Given
+		ClassFieldIndex index = new ClassFieldIndex(ExtendedClassWithAnnnotations.class);
+
+		// When
+		Set<Field> fields = index.getAnnotatedFields(Mock.class);
+
+		// Then
+		assertEquals(2, fields.size());
+		assertTrue(fields.contains(getField(ExtendedClassWithAnnnotations.class, "extendedMock")));
+		assertTrue(fields.contains(getField(ClassWithAnnnotations.class, "mock")));
+	}
+
+	@Test
+	public void shouldGetAnnotatedFieldsGivenFieldWithMoreThanOneAnnotation() {
+		// Given
+		ClassFieldIndex index = new ClassFieldIndex(ExtendedClassWithAnnnotations.class);
+
+		// When
+		Set<Field> fields = index.getAnnotatedFields(IgnoreForCollections.class);
+
+		// Then
+		assertEquals(1, fields.size());
+		assertTrue(fields.contains(getField(ExtendedClassWithAnnnotations.class, "extendedMock")));
+	}
+
+	@Test
+	public void shouldGetAnnotatedFieldsGivenNoAnnotatedFields() {
+		// Given
+		ClassFieldIndex index = new ClassFieldIndex(ExtendedClassWithAnnnotations.class);
+
+		// When
+		Set<Field> fields = index.getAnnotatedFields(Deprecated.class);
+
+		// Then
+		assertTrue(fields.isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void shouldFailToModifyAnnotatedFields() {
+		// Given
+		ClassFieldIndex index = new ClassFieldIndex(ExtendedClassWithAnnnotations.class);
+
+		// When
+		index.getAnnotatedFields(Mock.class).clear();
+
+		// Then
+		// Exception thrown
+	}
+
+	private Field getField(Class<?> clazz, String name) {
+		Field field;
+		try {
+			field = clazz.getDeclaredField(name);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("No such field exists");
+		}
+		return field;
+	}
+
+	// suppressing unused warnings, in practice all fields are used via reflection
+	@SuppressWarnings("unused")
+	private static class ClassWithAnnnotations {
+
+		@InjectMocks
+		private Object injectMocks;
+
+		@Mock
+		protected Object mock;
+	}
+
+	// suppressing unused warnings, in practice all fields are used via reflection
+	@SuppressWarnings("unused")
+	private static class ExtendedClassWithAnnnotations extends ClassWithAnnnotations {
+
+		@Mock
+		@IgnoreForCollections
+		private Object extendedMock;
+	}
+}
@@ -0,0 +1,48 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author James Kennard
+ */
+public class DaemonThreadFactoryTest {
+
+	private static final Runnable RUNNABLE = new Runnable() {
+
+		public void run() {
+		}
+	};
+
+	@Test
+	public void shouldCreateNumberedDaemonThreads() {
+		// Given
+		DaemonThreadFactory factory = new DaemonThreadFactory("prefix-");
+
+		// When
+		Thread thread1 = factory.newThread(RUNNABLE);
+		Thread thread2 = factory.newThread(RUNNABLE);
+
+		// Then
+		assertEquals("prefix-1", thread1.getName());
+		assertEquals("prefix-2", thread2.getName());
+		assertTrue(thread1.isDaemon());
+		assertTrue(thread2.isDaemon());
+	}
+
+	@Test
+	public void shouldCreateThreadWithContextClassLoaderOfCreatingThread() {
+		// Given
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		DaemonThreadFactory factory = new DaemonThreadFactory("prefix-");
+
+		// When
+		Thread thread = factory.newThread(RUNNABLE);
+
+		// Then
+		assertSame(contextClassLoader, thread.getContextClassLoader());
+	}
+}
@@ -0,0 +1,109 @@
+package uk.co.webamoeba.mockito.collections.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+import org.junit.Test;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * @author James Kennard
+ */
+public class FieldAccessorTest {
+
+	private final FieldValueMutatorTestSupport support = new FieldValueMutatorTestSupport();
+
+	@Test
+	public void shouldReadGivenPrivateField() {
+		// Given
+		Field field = getField("privateCollection");
+		FieldAccessor accessor = new FieldAccessor(field);
+		Collection<?> value = mock(Collection.class);
+		new FieldValueMutator(support, field).mutateTo(value);
+
+		// When
+		Object actual = accessor.read(support);
+
+		// Then
+		assertSame(value, actual);
+		assertFalse(field.isAccessible());
+	}
+
+	@Test
+	public void shouldWriteGivenPrivateFieldRepeatedly() {
+		// Given
+		Field field = getField("privateCollection");
+		FieldAccessor accessor = new FieldAccessor(field);
+		Collection<?> value1 = mock(Collection.class);
+		Collection<?> value2 = mock(Collection.class);
+
+		// When
+		accessor.write(support, value1);
+		accessor.write(support, value2);
+
+		// Then
+		assertSame(value2, support.getPrivateCollection());
+		assertFalse(field.isAccessible());
+	}
+
+	@Test
+	public void shouldGetField() {
+		// Given
+		Field field = getField("publicString");
+
+		// When
+		Field actual = new FieldAccessor(field).getField();
+
+		// Then
+		assertEquals(field, actual);
+	}
+
+	@Test
+	public void shouldFailToReadGivenObjectThatDoesNotDeclareField() {
+		// Given
+		FieldAccessor accessor = new FieldAccessor(getField("publicString"));
+
+		try {
+			// When
+			accessor.read("Not the support object");
+
+			// Then
+			fail();
+		} catch (MockitoCollectionsException e) {
+			assertTrue(e.getMessage().contains("does not declare the field"));
+		}
+	}
+
+	@Test
+	public void shouldFailToWriteGivenIncompatibleType() {
+		// Given
+		FieldAccessor accessor = new FieldAccessor(getField("privateCollection"));
+
+		try {
+			// When
+			accessor.write(support, 100L);
+
+			// Then
+			fail();
+		} catch (MockitoCollectionsException e) {
+			assertTrue(e.getMessage().contains("incompatible type"));
+		}
+	}
+
+	private Field getField(String fieldName) {
+		for (Field field : support.getClass().getDeclaredFields()) {
+			if (field.getName().equals(fieldName)) {
+				return field;
+			}
+		}
+		return null;
+	}
+}
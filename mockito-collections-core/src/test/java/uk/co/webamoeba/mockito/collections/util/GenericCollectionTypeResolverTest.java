@@ -1,5 +1,6 @@
 package uk.co.webamoeba.mockito.collections.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
@@ -89,6 +90,50 @@ public class GenericCollectionTypeResolverTest {
 		shouldFailToGetCollectionFieldType("genericArrayType");
 	}
 
+	@Test
+	public void shouldGetCollectionFieldTypeGivenPreviouslyResolved() {
+		// Given
+		Field field = getField("collection");
+		resolver.getCollectionFieldType(field);
+
+		// When
+		Class<?> type = resolver.getCollectionFieldType(getField("collection"));
+
+		// Then
+		assertSame(String.class, type);
+		assertEquals(1, resolver.getCacheMisses());
+		assertEquals(1, resolver.getCacheHits());
+	}
+
+	@Test
+	public void shouldGetCollectionFieldTypeGivenPreviouslyUnresolvable() {
+		// Given
+		Field field = getField("rawCollection");
+		resolver.getCollectionFieldType(field);
+
+		// When
+		Class<?> type = resolver.getCollectionFieldType(field);
+
+		// Then
+		assertNull(type);
+		assertEquals(1, resolver.getCacheMisses());
+		assertEquals(1, resolver.getCacheHits());
+	}
+
+	@Test
+	public void shouldGetCollectionFieldTypeGivenFieldsOfSameNameInDifferentClasses() throws Exception {
+		// Given
+		resolver.getCollectionFieldType(getField("collection"));
+		Field field = OtherFieldProvider.class.getField("collection");
+
+		// When
+		Class<?> type = resolver.getCollectionFieldType(field);
+
+		// Then
+		assertSame(Long.class, type);
+		assertEquals(2, resolver.getCacheMisses());
+	}
+
 	private void shouldGetCollectionFieldType(String fieldName, Class<?> expectedType) {
 		// Given
 		Field field = getField(fieldName);
@@ -193,6 +238,15 @@ public class GenericCollectionTypeResolverTest {
 		public T[] genericArrayType;
 	}
 
+	@SuppressWarnings("unused")
+	private class OtherFieldProvider {
+
+		/**
+		 * Expect {@link Long}
+		 */
+		public Collection<Long> collection;
+	}
+
 	private interface HardCodedTypeCollection extends Collection<Integer> {
 	}
 
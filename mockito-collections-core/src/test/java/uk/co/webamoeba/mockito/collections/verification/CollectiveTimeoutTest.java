@@ -0,0 +1,69 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.mockito.exceptions.verification.TooLittleActualInvocations;
+import org.mockito.internal.verification.AtLeast;
+import org.mockito.internal.verification.Only;
+import org.mockito.internal.verification.Times;
+
+import uk.co.webamoeba.mockito.collections.exception.MockitoCollectionsException;
+
+/**
+ * @author James Kennard
+ */
+public class CollectiveTimeoutTest {
+
+	private CollectiveTimeout timeout = new CollectiveTimeout(100);
+
+	@Test
+	public void shouldCreateCollectiveTimeout() {
+		// Then
+		assertEquals(100, timeout.getMillis());
+		assertEquals(CollectiveTimeout.DEFAULT_POLLING_PERIOD, timeout.getPollingPeriod());
+		assertTrue(timeout.getDelegate() instanceof Times);
+	}
+
+	@Test
+	public void shouldCreateCollectiveTimeoutWithDelegate() {
+		// Then
+		assertEquals(100, timeout.times(2).getMillis());
+		assertTrue(timeout.atLeast(2).getDelegate() instanceof AtLeast);
+		assertTrue(timeout.atLeastOnce().getDelegate() instanceof AtLeast);
+		assertTrue(timeout.only().getDelegate() instanceof Only);
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	@SuppressWarnings("deprecation")
+	public void shouldFailToCreateNever() {
+		timeout.never();
+	}
+
+	@Test(expected = MockitoCollectionsException.class)
+	@SuppressWarnings("deprecation")
+	public void shouldFailToCreateAtMost() {
+		timeout.atMost(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToCreateCollectiveTimeoutGivenNegativeMillis() {
+		new CollectiveTimeout(-1);
+	}
+
+	@Test(expected = TooLittleActualInvocations.class)
+	public void shouldVerifySingleMockLikeTimeout() throws IOException {
+		// Given
+		Closeable mock = mock(Closeable.class);
+		mock.close();
+
+		// When
+		verify(mock, timeout.times(2)).close();
+	}
+}
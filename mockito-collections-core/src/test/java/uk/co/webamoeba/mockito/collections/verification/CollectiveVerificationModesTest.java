@@ -0,0 +1,128 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.atLeastInvokedMocks;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.atMostInvokedMocks;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.balanced;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.eachOnceInCollectionOrder;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.inCollectionOrder;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.invokedMocks;
+import static uk.co.webamoeba.mockito.collections.verification.CollectiveVerificationModes.totalTimes;
+
+import org.junit.Test;
+
+import uk.co.webamoeba.mockito.collections.exception.InvocationDistributionError;
+import uk.co.webamoeba.mockito.collections.exception.InvocationOrderError;
+
+/**
+ * @author James Kennard
+ */
+public class CollectiveVerificationModesTest {
+
+	private final InvocationDistribution distribution = new InvocationDistribution("wanted", new int[] { 3, 0, 3, 6 });
+
+	@Test
+	public void shouldVerifyTotalTimes() {
+		totalTimes(12).verify(distribution);
+	}
+
+	@Test
+	public void shouldFailToVerifyTotalTimes() {
+		assertFails(totalTimes(11), "Wanted 11 invocations in total but there were 12");
+	}
+
+	@Test
+	public void shouldVerifyInvokedMocks() {
+		invokedMocks(3).verify(distribution);
+		atLeastInvokedMocks(3).verify(distribution);
+		atMostInvokedMocks(3).verify(distribution);
+	}
+
+	@Test
+	public void shouldFailToVerifyInvokedMocks() {
+		assertFails(invokedMocks(4), "Wanted exactly 4 of 4 mocks to be invoked but 3 were invoked");
+		assertFails(atLeastInvokedMocks(4), "Wanted at least 4 of 4 mocks to be invoked but 3 were invoked");
+		assertFails(atMostInvokedMocks(2), "Wanted at most 2 of 4 mocks to be invoked but 3 were invoked");
+	}
+
+	@Test
+	public void shouldVerifyBalanced() {
+		balanced(2).verify(distribution);
+		balanced(0, 2).verify(distribution);
+	}
+
+	@Test
+	public void shouldFailToVerifyBalanced() {
+		assertFails(balanced(1.2), "mock at index 3 was invoked 6 times");
+		assertFails(balanced(0.5, 2), "mock at index 1 was invoked 0 times");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToCreateTotalTimesGivenNegative() {
+		totalTimes(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToCreateInvokedMocksGivenNegative() {
+		atMostInvokedMocks(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToCreateBalancedGivenMinimumGreaterThanMaximum() {
+		balanced(2, 1);
+	}
+
+	@Test
+	public void shouldVerifyEachOnceInCollectionOrder() {
+		eachOnceInCollectionOrder().verify(timeline(0, 1, 2));
+		eachOnceInCollectionOrder().verify(new InvocationTimeline("wanted", 0, new int[0]));
+	}
+
+	@Test
+	public void shouldFailToVerifyEachOnceInCollectionOrder() {
+		assertFails(eachOnceInCollectionOrder(), timeline(0, 2, 1),
+				"mock at index 1 was not invoked before the mock at index 2");
+		assertFails(eachOnceInCollectionOrder(), timeline(0, 0, 1, 2), "mock at index 0 was invoked at position 1");
+		assertFails(eachOnceInCollectionOrder(), timeline(0, 1), "mock at index 2 was not invoked");
+	}
+
+	@Test
+	public void shouldVerifyInCollectionOrder() {
+		inCollectionOrder().verify(timeline(0, 0, 1, 2, 2, 2));
+	}
+
+	@Test
+	public void shouldFailToVerifyInCollectionOrder() {
+		assertFails(inCollectionOrder(), timeline(0, 1, 0, 2),
+				"mock at index 0 was invoked at position 2, after the mock at index 1");
+		assertFails(inCollectionOrder(), timeline(1, 2), "mock at index 0 was not invoked before the mock at index 1");
+	}
+
+	private static InvocationTimeline timeline(int... mockIndexes) {
+		return new InvocationTimeline("wanted", 3, mockIndexes);
+	}
+
+	private void assertFails(CollectiveOrder order, InvocationTimeline timeline, String expectedMessage) {
+		try {
+			order.verify(timeline);
+			fail("expected exception to be thrown");
+		} catch (InvocationOrderError e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+			assertTrue(e.getMessage(), e.getMessage().contains(timeline.getMockIndexes().toString()));
+			assertSame(timeline, e.getInvocationTimeline());
+		}
+	}
+
+	private void assertFails(CollectiveVerificationMode mode, String expectedMessage) {
+		try {
+			mode.verify(distribution);
+			fail("expected exception to be thrown");
+		} catch (InvocationDistributionError e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+			assertTrue(e.getMessage(), e.getMessage().contains("[3] 6"));
+			assertSame(distribution, e.getInvocationDistribution());
+		}
+	}
+}
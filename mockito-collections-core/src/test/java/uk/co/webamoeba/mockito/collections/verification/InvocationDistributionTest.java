@@ -0,0 +1,67 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author James Kennard
+ */
+public class InvocationDistributionTest {
+
+	@Test
+	public void shouldCreateInvocationDistribution() {
+		// Given
+		int[] invocationCounts = new int[] { 2, 0, 4 };
+
+		// When
+		InvocationDistribution distribution = new InvocationDistribution("wanted", invocationCounts);
+		invocationCounts[0] = 10;
+
+		// Then
+		assertEquals("wanted", distribution.getWanted());
+		assertEquals(3, distribution.getNumberOfMocks());
+		assertEquals(Arrays.asList(2, 0, 4), distribution.getInvocationCounts());
+		assertEquals(6, distribution.getTotal());
+		assertEquals(2, distribution.getNumberOfInvokedMocks());
+		assertEquals(2.0, distribution.getMean(), 0);
+	}
+
+	@Test
+	public void shouldCreateInvocationDistributionGivenNoMocks() {
+		// When
+		InvocationDistribution distribution = new InvocationDistribution("wanted", new int[0]);
+
+		// Then
+		assertEquals(0, distribution.getTotal());
+		assertEquals(0.0, distribution.getMean(), 0);
+	}
+
+	@Test
+	public void shouldDescribeHistogram() {
+		// Given
+		InvocationDistribution distribution = new InvocationDistribution("wanted", new int[] { 1, 3 });
+
+		// When
+		String description = distribution.toString();
+
+		// Then
+		assertTrue(description.startsWith("wanted\nInvocations per mock (total 4, mean 2"));
+		assertTrue(description.endsWith("\n  [0] 1\n  [1] 3"));
+	}
+
+	@Test
+	public void shouldDescribeHistogramGivenManyMocks() {
+		// Given
+		InvocationDistribution distribution = new InvocationDistribution("wanted", new int[150]);
+
+		// When
+		String description = distribution.toString();
+
+		// Then
+		assertTrue(description.contains("\n  [99] 0\n  ... 50 more"));
+	}
+}
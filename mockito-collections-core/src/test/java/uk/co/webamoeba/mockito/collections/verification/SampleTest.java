@@ -0,0 +1,55 @@
+package uk.co.webamoeba.mockito.collections.verification;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author James Kennard
+ */
+public class SampleTest {
+
+	@Test
+	public void shouldSelectSameIndexesGivenSameSeed() {
+		// When
+		int[] indexes1 = new Sample(10, 42L).select(10000);
+		int[] indexes2 = new Sample(10, 42L).select(10000);
+
+		// Then
+		assertArrayEquals(indexes1, indexes2);
+		assertFalse(Arrays.equals(indexes1, new Sample(10, 43L).select(10000)));
+	}
+
+	@Test
+	public void shouldSelectDistinctIndexesInAscendingOrder() {
+		// When
+		int[] indexes = new Sample(100, 7L).select(150);
+
+		// Then
+		assertEquals(100, indexes.length);
+		for (int i = 1; i < indexes.length; i++) {
+			assertTrue(indexes[i - 1] < indexes[i]);
+		}
+		assertTrue(indexes[0] >= 0);
+		assertTrue(indexes[indexes.length - 1] < 150);
+	}
+
+	@Test
+	public void shouldSelectEveryIndexGivenCollectionNoLargerThanSample() {
+		// When
+		int[] indexes = new Sample(5, 7L).select(3);
+
+		// Then
+		assertArrayEquals(new int[] { 0, 1, 2 }, indexes);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToCreateSampleGivenNegativeSize() {
+		new Sample(-1, 7L);
+	}
+}